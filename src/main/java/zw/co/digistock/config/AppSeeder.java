@@ -9,6 +9,7 @@ import org.springframework.transaction.annotation.Transactional;
 import zw.co.digistock.domain.*;
 import zw.co.digistock.domain.enums.UserRole;
 import zw.co.digistock.repository.*;
+import zw.co.digistock.service.BatchWriter;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -32,6 +33,7 @@ public class AppSeeder implements CommandLineRunner {
     private final LivestockRepository livestockRepository;
     private final VaccinationRepository vaccinationRepository;
     private final PasswordEncoder passwordEncoder;
+    private final BatchWriter batchWriter;
 
     // Harare district and ward codes used for seeding officers/owners
     private static final String HARARE_PROVINCE_CODE  = "HAR";
@@ -75,17 +77,20 @@ public class AppSeeder implements CommandLineRunner {
             mashonalandWest, masvingo, matabelelandNorth, matabelelandSouth, midlands
         ));
 
-        createDistrictsAndWards(harare, new String[][]{
+        List<District> districts = new ArrayList<>();
+        List<Ward> wards = new ArrayList<>();
+
+        createDistrictsAndWards(districts, wards, harare, new String[][]{
             {"Harare",       "HAR-HAR", "Ward 1", "Ward 2", "Ward 3", "Ward 4", "Ward 5", "Ward 6", "Ward 7"},
             {"Chitungwiza",  "HAR-CHI", "Ward 1", "Ward 2", "Ward 3", "Ward 4", "Ward 5"},
             {"Epworth",      "HAR-EPW", "Ward 1", "Ward 2", "Ward 3"}
         });
 
-        createDistrictsAndWards(bulawayo, new String[][]{
+        createDistrictsAndWards(districts, wards, bulawayo, new String[][]{
             {"Bulawayo", "BUL-BUL", "Ward 1", "Ward 2", "Ward 3", "Ward 4", "Ward 5", "Ward 6", "Ward 7", "Ward 8", "Ward 9"}
         });
 
-        createDistrictsAndWards(manicaland, new String[][]{
+        createDistrictsAndWards(districts, wards, manicaland, new String[][]{
             {"Mutare",       "MAN-MUT", "Ward 1", "Ward 2", "Ward 3", "Ward 4", "Ward 5"},
             {"Chimanimani",  "MAN-CHM", "Ward 1", "Ward 2", "Ward 3", "Ward 4"},
             {"Chipinge",     "MAN-CHP", "Ward 1", "Ward 2", "Ward 3", "Ward 4", "Ward 5", "Ward 6"},
@@ -95,7 +100,7 @@ public class AppSeeder implements CommandLineRunner {
             {"Mutasa",       "MAN-MTA", "Ward 1", "Ward 2", "Ward 3"}
         });
 
-        createDistrictsAndWards(mashonalandCentral, new String[][]{
+        createDistrictsAndWards(districts, wards, mashonalandCentral, new String[][]{
             {"Bindura",      "MC-BIN", "Ward 1", "Ward 2", "Ward 3", "Ward 4"},
             {"Guruve",       "MC-GUR", "Ward 1", "Ward 2", "Ward 3", "Ward 4", "Ward 5"},
             {"Centenary",    "MC-CEN", "Ward 1", "Ward 2", "Ward 3"},
@@ -105,7 +110,7 @@ public class AppSeeder implements CommandLineRunner {
             {"Shamva",       "MC-SHA", "Ward 1", "Ward 2", "Ward 3", "Ward 4"}
         });
 
-        createDistrictsAndWards(mashonalandEast, new String[][]{
+        createDistrictsAndWards(districts, wards, mashonalandEast, new String[][]{
             {"Marondera", "ME-MAR", "Ward 1", "Ward 2", "Ward 3", "Ward 4"},
             {"Chikomba",  "ME-CHI", "Ward 1", "Ward 2", "Ward 3", "Ward 4"},
             {"Goromonzi", "ME-GOR", "Ward 1", "Ward 2", "Ward 3", "Ward 4"},
@@ -117,7 +122,7 @@ public class AppSeeder implements CommandLineRunner {
             {"UMP",       "ME-UMP", "Ward 1", "Ward 2", "Ward 3"}
         });
 
-        createDistrictsAndWards(mashonalandWest, new String[][]{
+        createDistrictsAndWards(districts, wards, mashonalandWest, new String[][]{
             {"Chinhoyi", "MW-CHI", "Ward 1", "Ward 2", "Ward 3", "Ward 4"},
             {"Kariba",   "MW-KAR", "Ward 1", "Ward 2", "Ward 3"},
             {"Makonde",  "MW-MAK", "Ward 1", "Ward 2", "Ward 3", "Ward 4"},
@@ -126,7 +131,7 @@ public class AppSeeder implements CommandLineRunner {
             {"Hurungwe", "MW-HUR", "Ward 1", "Ward 2", "Ward 3", "Ward 4", "Ward 5"}
         });
 
-        createDistrictsAndWards(masvingo, new String[][]{
+        createDistrictsAndWards(districts, wards, masvingo, new String[][]{
             {"Masvingo", "MAV-MAS", "Ward 1", "Ward 2", "Ward 3", "Ward 4", "Ward 5"},
             {"Bikita",   "MAV-BIK", "Ward 1", "Ward 2", "Ward 3", "Ward 4"},
             {"Chiredzi", "MAV-CHI", "Ward 1", "Ward 2", "Ward 3", "Ward 4", "Ward 5"},
@@ -136,7 +141,7 @@ public class AppSeeder implements CommandLineRunner {
             {"Zaka",     "MAV-ZAK", "Ward 1", "Ward 2", "Ward 3", "Ward 4"}
         });
 
-        createDistrictsAndWards(matabelelandNorth, new String[][]{
+        createDistrictsAndWards(districts, wards, matabelelandNorth, new String[][]{
             {"Binga",       "MN-BIN", "Ward 1", "Ward 2", "Ward 3", "Ward 4"},
             {"Bubi",        "MN-BUB", "Ward 1", "Ward 2", "Ward 3"},
             {"Hwange",      "MN-HWA", "Ward 1", "Ward 2", "Ward 3", "Ward 4", "Ward 5"},
@@ -146,7 +151,7 @@ public class AppSeeder implements CommandLineRunner {
             {"Umguza",      "MN-UMG", "Ward 1", "Ward 2", "Ward 3"}
         });
 
-        createDistrictsAndWards(matabelelandSouth, new String[][]{
+        createDistrictsAndWards(districts, wards, matabelelandSouth, new String[][]{
             {"Beitbridge",  "MS-BEI", "Ward 1", "Ward 2", "Ward 3", "Ward 4"},
             {"Bulilima",    "MS-BUL", "Ward 1", "Ward 2", "Ward 3", "Ward 4"},
             {"Gwanda",      "MS-GWA", "Ward 1", "Ward 2", "Ward 3", "Ward 4"},
@@ -156,7 +161,7 @@ public class AppSeeder implements CommandLineRunner {
             {"Umzingwane",  "MS-UMZ", "Ward 1", "Ward 2", "Ward 3"}
         });
 
-        createDistrictsAndWards(midlands, new String[][]{
+        createDistrictsAndWards(districts, wards, midlands, new String[][]{
             {"Gweru",        "MID-GWE", "Ward 1", "Ward 2", "Ward 3", "Ward 4", "Ward 5"},
             {"Kwekwe",       "MID-KWE", "Ward 1", "Ward 2", "Ward 3", "Ward 4"},
             {"Gokwe North",  "MID-GKN", "Ward 1", "Ward 2", "Ward 3", "Ward 4", "Ward 5"},
@@ -167,6 +172,9 @@ public class AppSeeder implements CommandLineRunner {
             {"Zvishavane",   "MID-ZVI", "Ward 1", "Ward 2", "Ward 3", "Ward 4"}
         });
 
+        batchWriter.saveAllInBatches(districtRepository, districts);
+        batchWriter.saveAllInBatches(wardRepository, wards);
+
         log.info("Created {} provinces, {} districts, {} wards",
             provinceRepository.count(), districtRepository.count(), wardRepository.count());
     }
@@ -175,7 +183,8 @@ public class AppSeeder implements CommandLineRunner {
         return Province.builder().name(name).code(code).active(true).build();
     }
 
-    private void createDistrictsAndWards(Province province, String[][] districtsData) {
+    private void createDistrictsAndWards(List<District> districts, List<Ward> wards,
+                                         Province province, String[][] districtsData) {
         for (String[] districtData : districtsData) {
             District district = District.builder()
                 .name(districtData[0])
@@ -183,21 +192,17 @@ public class AppSeeder implements CommandLineRunner {
                 .province(province)
                 .active(true)
                 .build();
-            District saved = districtRepository.save(district);
+            districts.add(district);
 
-            List<Ward> wards = new ArrayList<>();
             for (int i = 2; i < districtData.length; i++) {
                 String wardName = districtData[i];
                 wards.add(Ward.builder()
                     .name(wardName)
                     .code(districtData[1] + "-" + wardName.replace(" ", ""))
-                    .district(saved)
+                    .district(district)
                     .active(true)
                     .build());
             }
-            if (!wards.isEmpty()) {
-                wardRepository.saveAll(wards);
-            }
         }
     }
 
@@ -210,6 +215,7 @@ public class AppSeeder implements CommandLineRunner {
             Province harareProvince = provinceRepository.findByCode(HARARE_PROVINCE_CODE).orElseThrow();
             District harareCentral = districtRepository.findByProvinceAndCode(harareProvince, HARARE_DISTRICT_CODE).orElseThrow();
             Ward ward1 = wardRepository.findByDistrictAndCode(harareCentral, HARARE_WARD1_CODE).orElseThrow();
+            List<Officer> officers = new ArrayList<>();
 
             // National Administrator
             Officer nationalAdmin = Officer.builder()
@@ -221,11 +227,13 @@ public class AppSeeder implements CommandLineRunner {
                     .role(UserRole.NATIONAL_ADMIN)
                     .province(harareProvince.getName())
                     .district(harareCentral.getName())
+                    .provinceRef(harareProvince)
+                    .districtRef(harareCentral)
                     .ward(ward1.getName())
                     .officerCode("ADM001")
                     .active(true)
                     .build();
-            officerRepository.save(nationalAdmin);
+            officers.add(nationalAdmin);
 
             // Provincial Administrator (Harare)
             Officer provincialAdmin = Officer.builder()
@@ -237,11 +245,13 @@ public class AppSeeder implements CommandLineRunner {
                     .role(UserRole.PROVINCIAL_ADMIN)
                     .province(harareProvince.getName())
                     .district(harareCentral.getName())
+                    .provinceRef(harareProvince)
+                    .districtRef(harareCentral)
                     .ward(ward1.getName())
                     .officerCode("ADM002")
                     .active(true)
                     .build();
-            officerRepository.save(provincialAdmin);
+            officers.add(provincialAdmin);
 
             // District Administrator (Harare Central)
             Officer districtAdmin = Officer.builder()
@@ -253,11 +263,13 @@ public class AppSeeder implements CommandLineRunner {
                     .role(UserRole.DISTRICT_ADMIN)
                     .province(harareProvince.getName())
                     .district(harareCentral.getName())
+                    .provinceRef(harareProvince)
+                    .districtRef(harareCentral)
                     .ward(ward1.getName())
                     .officerCode("ADM003")
                     .active(true)
                     .build();
-            officerRepository.save(districtAdmin);
+            officers.add(districtAdmin);
 
             // AGRITEX Officer
             Officer agritexOfficer = Officer.builder()
@@ -269,11 +281,13 @@ public class AppSeeder implements CommandLineRunner {
                     .role(UserRole.AGRITEX_OFFICER)
                     .province(harareProvince.getName())
                     .district(harareCentral.getName())
+                    .provinceRef(harareProvince)
+                    .districtRef(harareCentral)
                     .ward(ward1.getName())
                     .officerCode("AGR001")
                     .active(true)
                     .build();
-            officerRepository.save(agritexOfficer);
+            officers.add(agritexOfficer);
 
             // Veterinary Officer
             Officer vetOfficer = Officer.builder()
@@ -285,11 +299,13 @@ public class AppSeeder implements CommandLineRunner {
                     .role(UserRole.VETERINARY_OFFICER)
                     .province(harareProvince.getName())
                     .district(harareCentral.getName())
+                    .provinceRef(harareProvince)
+                    .districtRef(harareCentral)
                     .ward(ward1.getName())
                     .officerCode("VET001")
                     .active(true)
                     .build();
-            officerRepository.save(vetOfficer);
+            officers.add(vetOfficer);
 
             // Police Officer
             Officer policeOfficer = Officer.builder()
@@ -301,11 +317,13 @@ public class AppSeeder implements CommandLineRunner {
                     .role(UserRole.POLICE_OFFICER)
                     .province(harareProvince.getName())
                     .district(harareCentral.getName())
+                    .provinceRef(harareProvince)
+                    .districtRef(harareCentral)
                     .ward(ward1.getName())
                     .officerCode("POL001")
                     .active(true)
                     .build();
-            officerRepository.save(policeOfficer);
+            officers.add(policeOfficer);
 
             // System Administrator (legacy/system admin)
             Officer systemAdmin = Officer.builder()
@@ -317,11 +335,14 @@ public class AppSeeder implements CommandLineRunner {
                     .role(UserRole.ADMIN)
                     .province(harareProvince.getName())
                     .district(harareCentral.getName())
+                    .provinceRef(harareProvince)
+                    .districtRef(harareCentral)
                     .ward(ward1.getName())
                     .officerCode("SYSADMIN")
                     .active(true)
                     .build();
-            officerRepository.save(systemAdmin);
+            officers.add(systemAdmin);
+            batchWriter.saveAllInBatches(officerRepository, officers);
 
             log.info("Administrative users seeded successfully");
         }
@@ -349,6 +370,8 @@ public class AppSeeder implements CommandLineRunner {
                     .nationalId("1234567890123")
                     .province(harareProvince.getName())
                     .district(harareCentral.getName())
+                    .provinceRef(harareProvince)
+                    .districtRef(harareCentral)
                     .ward(ward1.getName())
                     .address("123 Main Street, Harare")
                     .build();
@@ -375,7 +398,7 @@ public class AppSeeder implements CommandLineRunner {
                             .owner(testOwner)
                             .build()
             );
-            livestockRepository.saveAll(testLivestock);
+            batchWriter.saveAllInBatches(livestockRepository, testLivestock);
 
             // Test vaccinations — only seed if the vet officer was seeded above
             Officer vetOfficer = officerRepository.findByOfficerCode("VET001").orElse(null);
@@ -401,7 +424,7 @@ public class AppSeeder implements CommandLineRunner {
                             .livestock(testLivestock.get(1))
                             .build()
             );
-            vaccinationRepository.saveAll(testVaccinations);
+            batchWriter.saveAllInBatches(vaccinationRepository, testVaccinations);
 
             log.info("Test data seeded successfully");
         }
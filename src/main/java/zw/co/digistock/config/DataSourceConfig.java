@@ -0,0 +1,149 @@
+package zw.co.digistock.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * DataSource configuration: the OLTP pool from spring.datasource, analytics and batch pools
+ * on the same database (digistock.datasource.analytics / .batch), optional read replica
+ * pools from digistock.datasource.replica-urls, and a RoutingDataSource in front of them.
+ *
+ * Every pool is named, so Hikari metrics (hikaricp.connections.active, .pending, .timeout,
+ * .usage) are published per pool under the "pool" tag.
+ */
+@Configuration
+@Slf4j
+public class DataSourceConfig {
+
+    @Value("${digistock.datasource.replica-urls:}")
+    private List<String> replicaUrls;
+
+    @Value("${digistock.datasource.replica-pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${digistock.datasource.replica-max-lag-seconds:5}")
+    private long replicaMaxLagSeconds;
+
+    @Value("${digistock.datasource.read-your-writes-seconds:10}")
+    private long readYourWritesSeconds;
+
+    @Value("${digistock.datasource.replica-lag-check-ms:5000}")
+    private long replicaLagCheckMillis;
+
+    /**
+     * Primary (read-write) pool, configured by spring.datasource.*
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(RoutingDataSource.PRIMARY);
+        rewriteBatchedInserts(dataSource);
+        return dataSource;
+    }
+
+    /**
+     * Pool for dashboards, reports and exports
+     */
+    @Bean
+    @ConfigurationProperties("digistock.datasource.analytics")
+    public HikariDataSource analyticsDataSource(DataSourceProperties properties) {
+        return workloadPool(properties, Workload.ANALYTICS);
+    }
+
+    /**
+     * Pool for imports, snapshots and other background jobs
+     */
+    @Bean
+    @ConfigurationProperties("digistock.datasource.batch")
+    public HikariDataSource batchDataSource(DataSourceProperties properties) {
+        return workloadPool(properties, Workload.BATCH);
+    }
+
+    @Bean
+    public RoutingDataSource routingDataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                               @Qualifier("analyticsDataSource") HikariDataSource analyticsDataSource,
+                                               @Qualifier("batchDataSource") HikariDataSource batchDataSource,
+                                               DataSourceProperties properties,
+                                               Environment environment,
+                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<Workload, DataSource> workloadPools = new EnumMap<>(Workload.class);
+        workloadPools.put(Workload.ANALYTICS, analyticsDataSource);
+        workloadPools.put(Workload.BATCH, batchDataSource);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url.trim())
+                .build();
+            // Same timeouts, validation and driver settings as the primary pool
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setJdbcUrl(url.trim());
+            replica.setPoolName(name);
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            // Not a bean, so Boot does not attach pool metrics by itself
+            meterRegistry.ifAvailable(replica::setMetricRegistry);
+            replicas.put(name, replica);
+        }
+        if (!replicas.isEmpty()) {
+            log.info("Routing read-only transactions to {} replica(s)", replicas.size());
+        }
+        return new RoutingDataSource(primaryDataSource, workloadPools, replicas,
+            Duration.ofSeconds(replicaMaxLagSeconds), Duration.ofSeconds(readYourWritesSeconds),
+            Duration.ofMillis(replicaLagCheckMillis));
+    }
+
+    private static HikariDataSource workloadPool(DataSourceProperties properties, Workload workload) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(workload.name().toLowerCase(Locale.ROOT));
+        rewriteBatchedInserts(dataSource);
+        return dataSource;
+    }
+
+    /**
+     * Have the PostgreSQL driver send a JDBC insert batch as multi-row INSERTs rather than one
+     * statement per row. Other drivers (H2 in tests) reject unknown properties, so only set here.
+     */
+    private static void rewriteBatchedInserts(HikariDataSource dataSource) {
+        String url = dataSource.getJdbcUrl();
+        if (url != null && url.startsWith("jdbc:postgresql:")) {
+            dataSource.addDataSourceProperty("reWriteBatchedInserts", "true");
+        }
+    }
+
+    /**
+     * The DataSource used by JPA, JdbcTemplate and Liquibase
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(RoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
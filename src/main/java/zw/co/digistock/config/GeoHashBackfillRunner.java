@@ -0,0 +1,42 @@
+package zw.co.digistock.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import zw.co.digistock.service.LivestockService;
+import zw.co.digistock.service.MovementPermitService;
+
+/**
+ * Fills in geohash columns for rows saved before 012-geohash-columns.
+ * New rows get their geohash on save, so after the first run this finds nothing to do.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@WorkloadPool(Workload.BATCH)
+public class GeoHashBackfillRunner implements CommandLineRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final LivestockService livestockService;
+    private final MovementPermitService permitService;
+
+    @Override
+    public void run(String... args) {
+        int livestock = 0;
+        int updated;
+        while ((updated = livestockService.backfillRegistrationGeohashes(BATCH_SIZE)) > 0) {
+            livestock += updated;
+        }
+
+        int verifications = 0;
+        while ((updated = permitService.backfillVerificationGeohashes(BATCH_SIZE)) > 0) {
+            verifications += updated;
+        }
+
+        if (livestock > 0 || verifications > 0) {
+            log.info("Backfilled geohashes for {} livestock and {} permit verifications", livestock, verifications);
+        }
+    }
+}
@@ -64,4 +64,18 @@ public class MinioConfig {
     public String getQrCodesBucket() {
         return buckets.get("qr-codes");
     }
+
+    /**
+     * Get bucket name for analytics snapshots
+     */
+    public String getSnapshotsBucket() {
+        return buckets.get("snapshots");
+    }
+
+    /**
+     * Get bucket name for archived (dropped) table partitions
+     */
+    public String getArchiveBucket() {
+        return buckets.get("archive");
+    }
 }
@@ -0,0 +1,40 @@
+package zw.co.digistock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keys for signing QR payloads (digistock.qr.signing.*).
+ *
+ * Keys are Ed25519, base64-encoded DER: PKCS#8 for private keys, X.509 for public keys.
+ * New codes are signed with the active key; retired keys stay listed with only their public
+ * key so codes already printed keep verifying until they expire.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "digistock.qr.signing")
+@Data
+public class QrSigningConfig {
+
+    /**
+     * Key id used to sign new payloads; when blank a throwaway key is generated at startup,
+     * provided allowEphemeralKey is set
+     */
+    private String activeKeyId;
+
+    /**
+     * Allow starting without an active key (development and tests only); otherwise startup fails
+     */
+    private boolean allowEphemeralKey;
+
+    private Map<String, Key> keys = new LinkedHashMap<>();
+
+    @Data
+    public static class Key {
+        private String privateKey;
+        private String publicKey;
+    }
+}
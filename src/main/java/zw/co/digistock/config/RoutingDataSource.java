@@ -0,0 +1,222 @@
+package zw.co.digistock.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Picks the connection pool for each transaction: read-only transactions go to a replica,
+ * everything else to the primary pool of the current Workload (OLTP, analytics or batch),
+ * so one slow kind of work cannot take every connection from the others.
+ *
+ * Replicas whose replay lag is above the limit are skipped until they catch up, and a user
+ * who just committed a write keeps reading from the primary for a short window so they see
+ * their own changes. Lag is measured on a thread of its own, so a long scheduled job cannot
+ * delay it, and a measurement older than three check intervals counts as unhealthy.
+ * Must sit behind a LazyConnectionDataSourceProxy, with open-in-view off: the read-only flag
+ * is only known once the transaction has started, after JPA has asked for a connection, and
+ * a request-scoped EntityManager would keep the first connection for every later transaction.
+ */
+@Slf4j
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    /**
+     * Seconds behind the primary; 0 when everything received has been replayed
+     * (replay timestamps go stale while the primary is idle)
+     */
+    private static final String LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+        + "THEN 0 ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final Map<Workload, String> poolKeys = new EnumMap<>(Workload.class);
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagSeconds;
+    private final long readYourWritesMillis;
+    private final long lagCheckMillis;
+    private final long staleAfterMillis;
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private ScheduledExecutorService lagChecker;
+
+    /**
+     * @param primary       pool for OLTP work, and for any workload without a pool of its own
+     * @param workloadPools pools on the primary for the other workloads
+     * @param replicaPools  read replica pools by name
+     * @param lagCheck      interval between replica lag measurements
+     */
+    public RoutingDataSource(DataSource primary, Map<Workload, DataSource> workloadPools,
+                             Map<String, DataSource> replicaPools, Duration maxLag, Duration readYourWrites,
+                             Duration lagCheck) {
+        this.maxLagSeconds = maxLag.toSeconds();
+        this.readYourWritesMillis = readYourWrites.toMillis();
+        this.lagCheckMillis = lagCheck.toMillis();
+        this.staleAfterMillis = 3 * lagCheck.toMillis();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Workload workload : Workload.values()) {
+            DataSource pool = workloadPools.get(workload);
+            String key = pool != null ? workload.name().toLowerCase(Locale.ROOT) : PRIMARY;
+            poolKeys.put(workload, key);
+            if (pool != null) {
+                targets.put(key, pool);
+            }
+        }
+        replicaPools.forEach((name, pool) -> {
+            targets.put(name, pool);
+            replicas.add(new Replica(name, pool));
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        if (replicas.isEmpty()) {
+            return;
+        }
+        // Replicas start out unused until their lag has been measured once
+        checkReplicaLag();
+        lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagChecker.scheduleWithFixedDelay(this::checkReplicaLag, lagCheckMillis, lagCheckMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String workloadPool = poolKeys.get(WorkloadContext.current());
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return workloadPool;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWriteOnCommit();
+            return workloadPool;
+        }
+        if (replicas.isEmpty() || wroteRecently(currentUser())) {
+            return workloadPool;
+        }
+
+        long now = System.currentTimeMillis();
+        List<Replica> healthy = replicas.stream().filter(replica -> replica.isHealthy(now, staleAfterMillis)).toList();
+        if (healthy.isEmpty()) {
+            return workloadPool;
+        }
+        return healthy.get(Math.floorMod(nextReplica.getAndIncrement(), healthy.size())).name;
+    }
+
+    /**
+     * Measure each replica's replay lag and take lagging or unreachable replicas out of rotation
+     */
+    void checkReplicaLag() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                rs.next();
+                replica.lagSeconds = rs.getDouble(1);
+                healthy = replica.lagSeconds <= maxLagSeconds;
+            } catch (SQLException | RuntimeException e) {
+                log.debug("Replica {} lag check failed: {}", replica.name, e.getMessage());
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                log.warn("Replica {} {} (lag {}s)", replica.name,
+                    healthy ? "back in rotation" : "taken out of rotation", replica.lagSeconds);
+            }
+            replica.healthy = healthy;
+            replica.measuredAt = System.currentTimeMillis();
+        }
+
+        long expired = System.currentTimeMillis() - readYourWritesMillis;
+        lastWriteByUser.values().removeIf(time -> time < expired);
+    }
+
+    /**
+     * Close the replica pools (the primary and workload pools are beans of their own)
+     */
+    public void close() throws Exception {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.pool instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private void recordWriteOnCommit() {
+        String user = currentUser();
+        if (user == null || replicas.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteByUser.put(user, System.currentTimeMillis());
+            }
+        });
+    }
+
+    private boolean wroteRecently(String user) {
+        Long lastWrite = user != null ? lastWriteByUser.get(user) : null;
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < readYourWritesMillis;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource pool;
+        private volatile boolean healthy;
+        private volatile double lagSeconds;
+        private volatile long measuredAt;
+
+        private Replica(String name, DataSource pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+
+        /**
+         * In rotation only on a recent good measurement: if checks stop, the replica drops out
+         */
+        private boolean isHealthy(long now, long staleAfterMillis) {
+            return healthy && now - measuredAt <= staleAfterMillis;
+        }
+    }
+}
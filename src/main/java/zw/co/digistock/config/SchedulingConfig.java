@@ -0,0 +1,83 @@
+package zw.co.digistock.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Enables @Scheduled background jobs (e.g., nightly analytics snapshots) and defines the
+ * bounded worker pools that render document artefacts after issuance (see ArtefactOutbox),
+ * push stolen livestock alerts to subscribers (see StolenAlertHub) and encode QR codes for
+ * label sheets (see LabelSheetService)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    @Value("${digistock.artefacts.workers:4}")
+    private int artefactWorkers;
+
+    @Value("${digistock.artefacts.queue-capacity:500}")
+    private int artefactQueueCapacity;
+
+    @Value("${digistock.alerts.senders:4}")
+    private int alertSenders;
+
+    @Value("${digistock.alerts.max-subscribers:5000}")
+    private int alertMaxSubscribers;
+
+    @Value("${digistock.labels.encoders:4}")
+    private int labelEncoders;
+
+    @Value("${digistock.labels.queue-capacity:100}")
+    private int labelQueueCapacity;
+
+    /**
+     * Fixed-size pool with a bounded queue; when the queue is full, submissions are rejected
+     * and the outbox poller picks the jobs up later
+     */
+    @Bean
+    public ThreadPoolTaskExecutor artefactExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(artefactWorkers);
+        executor.setMaxPoolSize(artefactWorkers);
+        executor.setQueueCapacity(artefactQueueCapacity);
+        executor.setThreadNamePrefix("artefact-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Threads that write queued alerts out to subscribers; at most one task is queued per
+     * subscriber, so the queue never needs more room than there are subscribers
+     */
+    @Bean
+    public ThreadPoolTaskExecutor alertExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(alertSenders);
+        executor.setMaxPoolSize(alertSenders);
+        executor.setQueueCapacity(alertMaxSubscribers);
+        executor.setThreadNamePrefix("alert-");
+        return executor;
+    }
+
+    /**
+     * Threads shared by all label sheet runs for QR encoding; when the queue is full the requesting
+     * thread encodes the chunk itself, so concurrent runs slow down rather than fail
+     */
+    @Bean
+    public ThreadPoolTaskExecutor labelExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(labelEncoders);
+        executor.setMaxPoolSize(labelEncoders);
+        executor.setQueueCapacity(labelQueueCapacity);
+        executor.setThreadNamePrefix("label-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
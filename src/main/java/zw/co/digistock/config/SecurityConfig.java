@@ -47,6 +47,7 @@ public class SecurityConfig {
                     "/api/v1/auth/login",
                     "/api/v1/auth/forgot-password",
                     "/api/v1/auth/reset-password",
+                    "/api/v1/qr/keys",
                     "/swagger-ui/**",
                     "/v3/api-docs/**",
                     "/actuator/health"
@@ -0,0 +1,22 @@
+package zw.co.digistock.config;
+
+/**
+ * Kinds of database work, each served by its own connection pool (see RoutingDataSource)
+ */
+public enum Workload {
+
+    /**
+     * Interactive requests: registrations, permits, checkpoint verifications (default)
+     */
+    OLTP,
+
+    /**
+     * Dashboards, reports and exports: few, slow, read-heavy queries
+     */
+    ANALYTICS,
+
+    /**
+     * Imports, snapshots and other background jobs
+     */
+    BATCH
+}
@@ -0,0 +1,35 @@
+package zw.co.digistock.config;
+
+/**
+ * Holds the workload of the current thread, read by RoutingDataSource when a connection is fetched.
+ * Set through @WorkloadPool; threads without one are OLTP.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload != null ? workload : Workload.OLTP;
+    }
+
+    /**
+     * Switch the current thread to a workload, returning the previous one for restore()
+     */
+    static Workload enter(Workload workload) {
+        Workload previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    static void restore(Workload previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package zw.co.digistock.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a bean's methods on the connection pool of the given workload.
+ * On a class it applies to every public method; a method-level annotation wins.
+ * Only transactions started inside the call are affected: a connection already held by
+ * the caller's transaction is reused as is (and WorkloadPoolAspect logs a warning). With
+ * open-in-view off, request handling holds no connection before the service is called.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface WorkloadPool {
+
+    Workload value();
+}
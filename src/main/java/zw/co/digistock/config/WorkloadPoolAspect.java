@@ -0,0 +1,55 @@
+package zw.co.digistock.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies @WorkloadPool. Ordered first so the workload is set before any transaction starts.
+ * A call that joins a transaction already open on another workload keeps that transaction's
+ * connection; this is logged (once per method) so the wrong pool is not used silently.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class WorkloadPoolAspect {
+
+    private final Set<Method> warned = ConcurrentHashMap.newKeySet();
+
+    @Around("@annotation(zw.co.digistock.config.WorkloadPool) || @within(zw.co.digistock.config.WorkloadPool)")
+    public Object withWorkload(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        WorkloadPool pool = AnnotatedElementUtils.findMergedAnnotation(signature.getMethod(), WorkloadPool.class);
+        if (pool == null) {
+            pool = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), WorkloadPool.class);
+        }
+        if (pool == null) {
+            return joinPoint.proceed();
+        }
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && WorkloadContext.current() != pool.value() && warned.add(signature.getMethod())) {
+            log.warn("{}.{} wants the {} pool but runs inside a transaction on the {} pool, whose connection it reuses",
+                signature.getDeclaringType().getSimpleName(), signature.getName(), pool.value(), WorkloadContext.current());
+        }
+
+        Workload previous = WorkloadContext.enter(pool.value());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+}
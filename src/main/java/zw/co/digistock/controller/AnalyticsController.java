@@ -7,13 +7,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import zw.co.digistock.dto.response.ClearanceAnalytics;
 import zw.co.digistock.dto.response.DashboardSummary;
 import zw.co.digistock.dto.response.LivestockAnalytics;
 import zw.co.digistock.dto.response.PermitAnalytics;
+import zw.co.digistock.dto.response.SnapshotResponse;
 import zw.co.digistock.service.AnalyticsService;
+import zw.co.digistock.service.SnapshotService;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/analytics")
@@ -23,6 +28,7 @@ import zw.co.digistock.service.AnalyticsService;
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final SnapshotService snapshotService;
 
     @GetMapping("/dashboard")
     @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN','PROVINCIAL_ADMIN','DISTRICT_ADMIN')")
@@ -55,4 +61,20 @@ public class AnalyticsController {
         log.info("GET /api/v1/analytics/clearances");
         return ResponseEntity.ok(analyticsService.getClearanceAnalytics());
     }
+
+    @GetMapping("/snapshots")
+    @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN','PROVINCIAL_ADMIN','DISTRICT_ADMIN')")
+    @Operation(summary = "List analytics snapshots", description = "Returns the nightly table snapshots, newest first, with download links")
+    public ResponseEntity<List<SnapshotResponse>> listSnapshots() {
+        log.info("GET /api/v1/analytics/snapshots");
+        return ResponseEntity.ok(snapshotService.listSnapshots());
+    }
+
+    @PostMapping("/snapshots")
+    @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN')")
+    @Operation(summary = "Create analytics snapshot", description = "Writes today's snapshot now instead of waiting for the nightly run")
+    public ResponseEntity<SnapshotResponse> createSnapshot() {
+        log.info("POST /api/v1/analytics/snapshots");
+        return ResponseEntity.ok(snapshotService.createSnapshot());
+    }
 }
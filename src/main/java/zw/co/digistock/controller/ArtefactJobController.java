@@ -0,0 +1,65 @@
+package zw.co.digistock.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import zw.co.digistock.dto.response.ArtefactJobResponse;
+import zw.co.digistock.dto.response.MessageResponse;
+import zw.co.digistock.service.ArtefactOutbox;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * REST controller for inspecting and retrying document artefact jobs (QR codes, PDFs) that gave up
+ */
+@RestController
+@RequestMapping("/api/v1/artefact-jobs")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Artefact Jobs", description = "Admin endpoints for failed document artefact jobs")
+public class ArtefactJobController {
+
+    private final ArtefactOutbox artefactOutbox;
+
+    @GetMapping("/failed")
+    @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN')")
+    @Operation(summary = "List failed artefact jobs", description = "Returns jobs that gave up after the maximum attempts, most recent first")
+    public ResponseEntity<List<ArtefactJobResponse>> getFailedJobs(@RequestParam(defaultValue = "100") int limit) {
+        log.info("GET /api/v1/artefact-jobs/failed?limit={}", limit);
+        return ResponseEntity.ok(artefactOutbox.getFailedJobs(Math.min(Math.max(limit, 1), 1000)));
+    }
+
+    @PostMapping("/{id}/retry")
+    @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN')")
+    @Operation(summary = "Retry a failed artefact job", description = "Queues the job again with a fresh attempt count")
+    public ResponseEntity<MessageResponse> retryJob(@PathVariable UUID id) {
+        log.info("POST /api/v1/artefact-jobs/{}/retry", id);
+        artefactOutbox.requeue(id);
+        return ResponseEntity.ok(MessageResponse.builder()
+            .message("Artefact job queued for retry")
+            .success(true)
+            .build());
+    }
+
+    @PostMapping("/failed/retry")
+    @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN')")
+    @Operation(summary = "Retry all failed artefact jobs", description = "Queues every failed job again with a fresh attempt count")
+    public ResponseEntity<MessageResponse> retryFailedJobs() {
+        log.info("POST /api/v1/artefact-jobs/failed/retry");
+        int count = artefactOutbox.requeueFailed();
+        return ResponseEntity.ok(MessageResponse.builder()
+            .message(count + " artefact job(s) queued for retry")
+            .success(true)
+            .build());
+    }
+}
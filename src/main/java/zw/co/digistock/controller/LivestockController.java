@@ -1,21 +1,42 @@
 package zw.co.digistock.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import zw.co.digistock.dto.request.LabelSheetRequest;
+import zw.co.digistock.dto.request.LivestockSearchFilter;
 import zw.co.digistock.dto.request.RegisterLivestockRequest;
+import zw.co.digistock.dto.request.StolenScreenRequest;
 import zw.co.digistock.dto.request.UpdateLivestockRequest;
+import zw.co.digistock.dto.response.InbreedingResponse;
+import zw.co.digistock.dto.response.LivestockImportResponse;
 import zw.co.digistock.dto.response.LivestockResponse;
+import zw.co.digistock.dto.response.PedigreeResponse;
+import zw.co.digistock.dto.response.StolenScreenResponse;
+import zw.co.digistock.service.LivestockExportService;
+import zw.co.digistock.service.LivestockImportService;
 import zw.co.digistock.service.LivestockService;
+import zw.co.digistock.service.PedigreeService;
+import zw.co.digistock.service.StolenAlertHub;
+import zw.co.digistock.service.StolenLivestockIndex;
+import zw.co.digistock.service.document.LabelSheetService;
 import zw.co.digistock.util.Constants;
+import zw.co.digistock.util.GeoHash;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -29,6 +50,12 @@ import java.util.UUID;
 public class LivestockController {
 
     private final LivestockService livestockService;
+    private final PedigreeService pedigreeService;
+    private final LivestockImportService livestockImportService;
+    private final LivestockExportService livestockExportService;
+    private final LabelSheetService labelSheetService;
+    private final StolenLivestockIndex stolenLivestockIndex;
+    private final StolenAlertHub stolenAlertHub;
 
     /**
      * Get all livestock (paginated)
@@ -71,6 +98,126 @@ public class LivestockController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Bulk register livestock from a CSV or NDJSON file, with a row-level error report
+     * Only AGRITEX officers and admins can register livestock
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN','PROVINCIAL_ADMIN','DISTRICT_ADMIN','AGRITEX_OFFICER')")
+    public ResponseEntity<LivestockImportResponse> importLivestock(@RequestParam("file") MultipartFile file) {
+        log.info("POST /api/v1/livestock/import - {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+        LivestockImportResponse response = livestockImportService.importLivestock(file);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Export the livestock register as a gzip-compressed CSV or NDJSON download
+     * Only admins can export the register
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN','PROVINCIAL_ADMIN','DISTRICT_ADMIN')")
+    public void exportLivestock(
+            @RequestParam(defaultValue = "CSV") LivestockExportService.ExportFormat format,
+            @RequestParam(required = false) String province,
+            @RequestParam(required = false) String district,
+            @RequestParam(required = false) Boolean stolen,
+            HttpServletResponse response) throws IOException {
+        log.info("GET /api/v1/livestock/export?format={}&province={}&district={}&stolen={}",
+            format, province, district, stolen);
+        String extension = format == LivestockExportService.ExportFormat.CSV ? "csv" : "ndjson";
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"livestock-register-" + LocalDate.now() + "." + extension + ".gz\"");
+        livestockExportService.exportLivestock(format, province, district, stolen, response.getOutputStream());
+    }
+
+    /**
+     * Print a PDF sheet of QR tag labels for a ward or a list of tag codes
+     * Only AGRITEX officers and admins can print labels
+     */
+    @PostMapping("/labels")
+    @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN','PROVINCIAL_ADMIN','DISTRICT_ADMIN','AGRITEX_OFFICER')")
+    public void printLabels(@Valid @RequestBody LabelSheetRequest request,
+                            HttpServletResponse response) {
+        log.info("POST /api/v1/livestock/labels - ward: {}, district: {}, tags: {}", request.getWard(),
+            request.getDistrict(), request.getTagCodes() == null ? 0 : request.getTagCodes().size());
+        // Headers are set only once the request has been validated, so errors still render as JSON
+        labelSheetService.writeLabelSheet(request, () -> {
+            response.setContentType("application/pdf");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"tag-labels-" + LocalDate.now() + ".pdf\"");
+            try {
+                return response.getOutputStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Search livestock by any combination of criteria (paginated)
+     * Accessible by AGRITEX officers, police officers, and admins
+     */
+    @GetMapping("/search")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Page<LivestockResponse>> searchLivestock(
+            @ModelAttribute LivestockSearchFilter filter,
+            Pageable pageable) {
+        log.info("GET /api/v1/livestock/search - {}", filter);
+        Page<LivestockResponse> response = livestockService.searchLivestock(filter, pageable);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Search livestock by description - color, breed, name, distinguishing marks (paginated, ranked)
+     * Accessible by AGRITEX officers, police officers, and admins
+     */
+    @GetMapping("/search/description")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Page<LivestockResponse>> searchLivestockByDescription(
+            @RequestParam("q") String description,
+            @RequestParam(required = false) String district,
+            @RequestParam(required = false) Boolean stolen,
+            Pageable pageable) {
+        log.info("GET /api/v1/livestock/search/description?q={}&district={}&stolen={}", description, district, stolen);
+        Page<LivestockResponse> response = livestockService.searchByDescription(description, district, stolen, pageable);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Find livestock registered within a radius of a point, nearest first
+     * Accessible by AGRITEX officers, police officers, and admins
+     */
+    @GetMapping("/nearby")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<LivestockResponse>> getLivestockNearby(
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(defaultValue = Constants.DEFAULT_NEARBY_RADIUS_KM_STR) double radiusKm,
+            @RequestParam(defaultValue = Constants.DEFAULT_NEARBY_LIMIT_STR) int limit) {
+        log.info("GET /api/v1/livestock/nearby?latitude={}&longitude={}&radiusKm={}", latitude, longitude, radiusKm);
+        List<LivestockResponse> response = livestockService.findLivestockNearby(latitude, longitude, radiusKm, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Find livestock registered inside a bounding box (paginated)
+     * Accessible by AGRITEX officers, police officers, and admins
+     */
+    @GetMapping("/within")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Page<LivestockResponse>> getLivestockWithinBox(
+            @RequestParam double minLatitude,
+            @RequestParam double minLongitude,
+            @RequestParam double maxLatitude,
+            @RequestParam double maxLongitude,
+            Pageable pageable) {
+        log.info("GET /api/v1/livestock/within [{}, {}] - [{}, {}]", minLatitude, minLongitude, maxLatitude, maxLongitude);
+        Page<LivestockResponse> response = livestockService.findLivestockWithinBox(
+            new GeoHash.BoundingBox(minLatitude, minLongitude, maxLatitude, maxLongitude), pageable);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get livestock by ID
      * Accessible by AGRITEX officers, police officers, and admins
@@ -137,6 +284,48 @@ public class LivestockController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get ancestors to the given number of generations
+     * Accessible by AGRITEX officers and admins
+     */
+    @GetMapping("/{id}/ancestors")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<PedigreeResponse> getAncestors(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = Constants.DEFAULT_PEDIGREE_DEPTH_STR) int depth) {
+        log.info("GET /api/v1/livestock/{}/ancestors?depth={}", id, depth);
+        PedigreeResponse response = pedigreeService.getAncestors(id, depth);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get descendants to the given number of generations
+     * Accessible by AGRITEX officers and admins
+     */
+    @GetMapping("/{id}/descendants")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<PedigreeResponse> getDescendants(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = Constants.DEFAULT_PEDIGREE_DEPTH_STR) int depth) {
+        log.info("GET /api/v1/livestock/{}/descendants?depth={}", id, depth);
+        PedigreeResponse response = pedigreeService.getDescendants(id, depth);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get the inbreeding coefficient of a proposed mating
+     * Accessible by AGRITEX officers and admins
+     */
+    @GetMapping("/inbreeding")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<InbreedingResponse> getInbreeding(
+            @RequestParam UUID motherId,
+            @RequestParam UUID fatherId) {
+        log.info("GET /api/v1/livestock/inbreeding?motherId={}&fatherId={}", motherId, fatherId);
+        InbreedingResponse response = pedigreeService.getInbreeding(motherId, fatherId);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Mark livestock as stolen
      * Only police officers and admins can mark livestock as stolen
@@ -187,4 +376,44 @@ public class LivestockController {
         Page<LivestockResponse> response = livestockService.getStolenLivestock(pageable);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Screen a batch of tag codes and/or livestock IDs (e.g. a truck at a checkpoint)
+     * against the in-memory stolen register
+     */
+    @PostMapping("/stolen/screen")
+    @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN','PROVINCIAL_ADMIN','DISTRICT_ADMIN','AGRITEX_OFFICER','POLICE_OFFICER')")
+    public ResponseEntity<StolenScreenResponse> screenStolen(@Valid @RequestBody StolenScreenRequest request) {
+        log.info("POST /api/v1/livestock/stolen/screen");
+        StolenScreenResponse response = stolenLivestockIndex.screen(request);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Bloom filter over stolen tag codes and livestock IDs, for screening offline on checkpoint devices.
+     * Send the ETag back in If-None-Match to get 304 while it is unchanged.
+     */
+    @GetMapping("/stolen/bloom-filter")
+    @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN','PROVINCIAL_ADMIN','DISTRICT_ADMIN','AGRITEX_OFFICER','POLICE_OFFICER')")
+    public ResponseEntity<byte[]> getStolenBloomFilter() {
+        log.info("GET /api/v1/livestock/stolen/bloom-filter");
+        StolenLivestockIndex.BloomExport export = stolenLivestockIndex.exportBloomFilter();
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .eTag(export.getLoadedAt().toString() + "/" + export.getVersion())
+            .body(export.getBytes());
+    }
+
+    /**
+     * Live stream (server-sent events "stolen" and "recovered") of animals reported stolen or
+     * recovered, optionally only those whose owners are in a province and/or district
+     */
+    @GetMapping(value = "/stolen/alerts", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN','PROVINCIAL_ADMIN','DISTRICT_ADMIN','AGRITEX_OFFICER','POLICE_OFFICER')")
+    public SseEmitter subscribeStolenAlerts(
+            @RequestParam(required = false) String province,
+            @RequestParam(required = false) String district) {
+        log.info("GET /api/v1/livestock/stolen/alerts?province={}&district={}", province, district);
+        return stolenAlertHub.subscribe(province, district);
+    }
 }
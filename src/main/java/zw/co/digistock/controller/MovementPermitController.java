@@ -10,10 +10,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import zw.co.digistock.domain.enums.PermitStatus;
+import zw.co.digistock.dto.request.CompleteHerdAnimalsRequest;
+import zw.co.digistock.dto.request.CreateHerdPermitRequest;
 import zw.co.digistock.dto.request.CreatePermitRequest;
 import zw.co.digistock.dto.response.PermitResponse;
+import zw.co.digistock.dto.response.PermitVerificationResponse;
 import zw.co.digistock.service.MovementPermitService;
 import zw.co.digistock.util.Constants;
+import zw.co.digistock.util.GeoHash;
 
 import java.util.List;
 import java.util.UUID;
@@ -43,6 +47,20 @@ public class MovementPermitController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Create a herd movement permit covering several animals
+     * Only AGRITEX officers and admins can create movement permits
+     */
+    @PostMapping("/herd")
+    @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN','PROVINCIAL_ADMIN','DISTRICT_ADMIN','AGRITEX_OFFICER')")
+    public ResponseEntity<PermitResponse> createHerdPermit(
+            @Valid @RequestBody CreateHerdPermitRequest request,
+            @RequestHeader(value = "X-Officer-Id") UUID officerId) {
+        log.info("POST /api/v1/permits/herd - Create herd permit for {} livestock", request.getLivestockIds().size());
+        PermitResponse response = permitService.createHerdPermit(request, officerId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
     /**
      * Verify permit at checkpoint
      * Only police officers and admins can verify permits at checkpoints
@@ -75,6 +93,20 @@ public class MovementPermitController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Check off arrived animals of a herd permit
+     * Only AGRITEX officers, police officers and admins can complete permits
+     */
+    @PostMapping("/{id}/animals/complete")
+    @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN','PROVINCIAL_ADMIN','DISTRICT_ADMIN','AGRITEX_OFFICER','POLICE_OFFICER')")
+    public ResponseEntity<PermitResponse> completeHerdAnimals(
+            @PathVariable UUID id,
+            @Valid @RequestBody CompleteHerdAnimalsRequest request) {
+        log.info("POST /api/v1/permits/{}/animals/complete - {} animals", id, request.getTagCodes().size());
+        PermitResponse response = permitService.completeHerdAnimals(id, request);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Cancel permit
      * Only AGRITEX officers and admins can cancel permits
@@ -89,6 +121,52 @@ public class MovementPermitController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Find checkpoint verifications recorded within a radius of a point, nearest first
+     * Only police officers and admins can view checkpoint verifications
+     */
+    @GetMapping("/verifications/nearby")
+    @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN','PROVINCIAL_ADMIN','DISTRICT_ADMIN','POLICE_OFFICER')")
+    public ResponseEntity<List<PermitVerificationResponse>> getVerificationsNearby(
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(defaultValue = Constants.DEFAULT_NEARBY_RADIUS_KM_STR) double radiusKm,
+            @RequestParam(defaultValue = Constants.DEFAULT_NEARBY_LIMIT_STR) int limit) {
+        log.info("GET /api/v1/permits/verifications/nearby?latitude={}&longitude={}&radiusKm={}", latitude, longitude, radiusKm);
+        List<PermitVerificationResponse> response = permitService.findVerificationsNearby(latitude, longitude, radiusKm, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Find checkpoint verifications recorded inside a bounding box (paginated)
+     * Only police officers and admins can view checkpoint verifications
+     */
+    @GetMapping("/verifications/within")
+    @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN','PROVINCIAL_ADMIN','DISTRICT_ADMIN','POLICE_OFFICER')")
+    public ResponseEntity<Page<PermitVerificationResponse>> getVerificationsWithinBox(
+            @RequestParam double minLatitude,
+            @RequestParam double minLongitude,
+            @RequestParam double maxLatitude,
+            @RequestParam double maxLongitude,
+            Pageable pageable) {
+        log.info("GET /api/v1/permits/verifications/within [{}, {}] - [{}, {}]", minLatitude, minLongitude, maxLatitude, maxLongitude);
+        Page<PermitVerificationResponse> response = permitService.findVerificationsWithinBox(
+            new GeoHash.BoundingBox(minLatitude, minLongitude, maxLatitude, maxLongitude), pageable);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get the checkpoint verification history of a permit, newest first
+     * Only police officers and admins can view checkpoint verifications
+     */
+    @GetMapping("/{id}/verifications")
+    @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN','PROVINCIAL_ADMIN','DISTRICT_ADMIN','POLICE_OFFICER')")
+    public ResponseEntity<List<PermitVerificationResponse>> getPermitVerifications(@PathVariable UUID id) {
+        log.info("GET /api/v1/permits/{}/verifications", id);
+        List<PermitVerificationResponse> response = permitService.getPermitVerifications(id);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get permit by ID
      * Accessible by AGRITEX officers, police officers, and admins
@@ -109,7 +109,7 @@ public class OwnerController {
     }
 
     /**
-     * Search owners by name (paginated)
+     * Search owners by name, national ID or phone number (paginated, ranked by relevance unless sorted)
      * Accessible by AGRITEX officers, police officers, and admins
      */
     @GetMapping("/search")
@@ -86,7 +86,7 @@ public class PoliceClearanceController {
 
     @Operation(
         summary = "Reject clearance",
-        description = "Rejects a pending clearance with a reason"
+        description = "Rejects a pending clearance, or withdraws an approved one, with a reason"
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -95,7 +95,7 @@ public class PoliceClearanceController {
             content = @Content(schema = @Schema(implementation = ClearanceResponse.class))
         ),
         @ApiResponse(responseCode = "404", description = "Clearance not found"),
-        @ApiResponse(responseCode = "400", description = "Clearance is not in PENDING status")
+        @ApiResponse(responseCode = "400", description = "Clearance is not in PENDING or APPROVED status")
     })
     @PostMapping("/{id}/reject")
     @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN','PROVINCIAL_ADMIN','DISTRICT_ADMIN','POLICE_OFFICER')")
@@ -0,0 +1,89 @@
+package zw.co.digistock.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import zw.co.digistock.domain.enums.QrImageFormat;
+import zw.co.digistock.dto.request.QrVerifyRequest;
+import zw.co.digistock.dto.response.QrSigningKeyResponse;
+import zw.co.digistock.dto.response.QrVerificationResponse;
+import zw.co.digistock.service.qr.QrCodeService;
+import zw.co.digistock.service.qr.QrVerificationService;
+import zw.co.digistock.util.Constants;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST controller for signed QR payloads on permits and clearances
+ */
+@RestController
+@RequestMapping("/api/v1/qr")
+@RequiredArgsConstructor
+@Slf4j
+public class QrController {
+
+    private final QrVerificationService qrVerificationService;
+    private final QrCodeService qrCodeService;
+
+    /**
+     * Public keys for offline verification on scanners
+     * Public: scanners refresh their keyset whenever they have a connection
+     */
+    @GetMapping("/keys")
+    public ResponseEntity<List<QrSigningKeyResponse>> getSigningKeys() {
+        log.info("GET /api/v1/qr/keys");
+        return ResponseEntity.ok(qrVerificationService.getPublicKeys());
+    }
+
+    /**
+     * Verify a batch of scanned payloads against their signatures and the current records
+     * Police officers and admins, e.g. to audit scans uploaded after an offline shift
+     */
+    @PostMapping("/verify")
+    @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN','PROVINCIAL_ADMIN','DISTRICT_ADMIN','POLICE_OFFICER')")
+    public ResponseEntity<List<QrVerificationResponse>> verifyPayloads(@Valid @RequestBody QrVerifyRequest request) {
+        log.info("POST /api/v1/qr/verify - {} payloads", request.getPayloads().size());
+        return ResponseEntity.ok(qrVerificationService.verify(request.getPayloads()));
+    }
+
+    /**
+     * Signed QR code of a movement permit as PNG or SVG, at the requested size in pixels
+     */
+    @GetMapping("/permits/{id}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<byte[]> getPermitQrCode(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "PNG") QrImageFormat format,
+            @RequestParam(defaultValue = Constants.DEFAULT_QR_SIZE_STR) int size) {
+        log.info("GET /api/v1/qr/permits/{} - {} {}px", id, format, size);
+        return image(qrCodeService.renderPermitQrCode(id, format, size));
+    }
+
+    /**
+     * Signed QR code of a police clearance as PNG or SVG, at the requested size in pixels
+     */
+    @GetMapping("/clearances/{id}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<byte[]> getClearanceQrCode(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "PNG") QrImageFormat format,
+            @RequestParam(defaultValue = Constants.DEFAULT_QR_SIZE_STR) int size) {
+        log.info("GET /api/v1/qr/clearances/{} - {} {}px", id, format, size);
+        return image(qrCodeService.renderClearanceQrCode(id, format, size));
+    }
+
+    private static ResponseEntity<byte[]> image(QrCodeService.QrImage image) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(image.getFormat().getContentType()))
+            .cacheControl(CacheControl.maxAge(1, TimeUnit.HOURS).cachePrivate())
+            .eTag(image.getHash())
+            .body(image.getData());
+    }
+}
@@ -0,0 +1,48 @@
+package zw.co.digistock.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import zw.co.digistock.service.RevocationFeedService;
+
+/**
+ * REST controller for the revocation feed synced by offline checkpoint devices
+ */
+@RestController
+@RequestMapping("/api/v1/revocations")
+@RequiredArgsConstructor
+@Slf4j
+public class RevocationController {
+
+    private final RevocationFeedService revocationFeedService;
+
+    /**
+     * Changes since the sequence number of the device's last sync (gzip-compressed binary)
+     */
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN','PROVINCIAL_ADMIN','DISTRICT_ADMIN','AGRITEX_OFFICER','POLICE_OFFICER')")
+    public ResponseEntity<byte[]> getDelta(@RequestParam long since) {
+        log.info("GET /api/v1/revocations?since={}", since);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .body(revocationFeedService.delta(since).getData());
+    }
+
+    /**
+     * Everything still revoked, for a device's first sync (gzip-compressed binary)
+     * Send the ETag back in If-None-Match to get 304 while the snapshot is unchanged
+     */
+    @GetMapping("/snapshot")
+    @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN','PROVINCIAL_ADMIN','DISTRICT_ADMIN','AGRITEX_OFFICER','POLICE_OFFICER')")
+    public ResponseEntity<byte[]> getSnapshot() {
+        log.info("GET /api/v1/revocations/snapshot");
+        RevocationFeedService.Feed snapshot = revocationFeedService.snapshot();
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .eTag(String.valueOf(snapshot.getToSeq()))
+            .body(snapshot.getData());
+    }
+}
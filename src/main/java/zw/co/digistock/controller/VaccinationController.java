@@ -19,6 +19,8 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import zw.co.digistock.dto.request.CreateVaccinationRequest;
 import zw.co.digistock.dto.request.UpdateVaccinationRequest;
+import zw.co.digistock.dto.request.VaccinationCampaignRequest;
+import zw.co.digistock.dto.response.VaccinationCampaignResponse;
 import zw.co.digistock.dto.response.VaccinationResponse;
 import zw.co.digistock.service.VaccinationService;
 
@@ -75,6 +77,39 @@ public class VaccinationController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Record one vaccination for many animals.
+     */
+    @PostMapping("/campaign")
+    @PreAuthorize("hasAnyRole('ADMIN','NATIONAL_ADMIN','PROVINCIAL_ADMIN','DISTRICT_ADMIN','VETERINARY_OFFICER','AGRITEX_OFFICER')")
+    @Operation(
+        summary = "Record a vaccination campaign",
+        description = "Create the same vaccination record for every listed animal in one request"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Vaccination records created successfully",
+            content = @Content(schema = @Schema(implementation = VaccinationCampaignResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request data",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Livestock or veterinary officer not found",
+            content = @Content
+        )
+    })
+    public ResponseEntity<VaccinationCampaignResponse> recordCampaign(
+            @Valid @RequestBody VaccinationCampaignRequest request) {
+        log.info("POST /api/v1/vaccinations/campaign - {} animals", request.getLivestockIds().size());
+        VaccinationCampaignResponse response = vaccinationService.recordCampaign(request);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get a vaccination record by ID.
      */
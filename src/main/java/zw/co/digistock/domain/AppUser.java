@@ -3,6 +3,8 @@ package zw.co.digistock.domain;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import zw.co.digistock.domain.base.BaseEntity;
 import zw.co.digistock.domain.enums.UserRole;
 
@@ -14,6 +16,9 @@ import java.time.LocalDateTime;
  *
  * The app_users table holds the common auth fields; child tables hold
  * domain-specific data. The child row id is a FK to app_users.id.
+ *
+ * Second-level caching is declared here because Hibernate only allows it on the root of a
+ * hierarchy; subclasses opt in with @Cacheable (Officer) or out with @Cacheable(false) (Owner).
  */
 @Entity
 @Table(name = "app_users", indexes = {
@@ -21,6 +26,7 @@ import java.time.LocalDateTime;
 })
 @Inheritance(strategy = InheritanceType.JOINED)
 @DiscriminatorColumn(name = "user_type", discriminatorType = DiscriminatorType.STRING, length = 30)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,57 @@
+package zw.co.digistock.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import zw.co.digistock.domain.base.BaseEntity;
+import zw.co.digistock.domain.enums.ArtefactJobStatus;
+import zw.co.digistock.domain.enums.ArtefactType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Outbox entry for a file (e.g. a QR code image) to produce for an issued document.
+ * Written in the same transaction as the document, then processed by ArtefactOutbox.
+ */
+@Entity
+@Table(name = "artefact_jobs", indexes = {
+    @Index(name = "idx_artefact_job_due", columnList = "status, available_at"),
+    @Index(name = "idx_artefact_job_document", columnList = "document_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class ArtefactJob extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 30)
+    private ArtefactType type;
+
+    /**
+     * Permit or clearance the artefact belongs to
+     */
+    @Column(name = "document_id", nullable = false)
+    private UUID documentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private ArtefactJobStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    /**
+     * When the job may next be picked up: after a retry delay, or once a worker's claim lapses
+     */
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -3,6 +3,8 @@ package zw.co.digistock.domain;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import zw.co.digistock.domain.base.BaseEntity;
 
 import java.util.ArrayList;
@@ -18,6 +20,8 @@ import java.util.List;
     @Index(name = "idx_district_code", columnList = "code", unique = true),
     @Index(name = "idx_district_province", columnList = "province_id")
 })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "districts")
 @Getter
 @Setter
 @NoArgsConstructor
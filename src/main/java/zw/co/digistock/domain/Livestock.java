@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 import zw.co.digistock.domain.base.BaseEntity;
+import zw.co.digistock.util.GeoHash;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -18,7 +19,10 @@ import java.util.List;
     @Index(name = "idx_livestock_tag_code", columnList = "tag_code", unique = true),
     @Index(name = "idx_livestock_owner", columnList = "owner_id"),
     @Index(name = "idx_livestock_mother", columnList = "mother_id"),
-    @Index(name = "idx_livestock_father", columnList = "father_id")
+    @Index(name = "idx_livestock_father", columnList = "father_id"),
+    @Index(name = "idx_livestock_breed_birth_date", columnList = "breed, birth_date"),
+    @Index(name = "idx_livestock_owner_birth_date", columnList = "owner_id, birth_date"),
+    @Index(name = "idx_livestock_geohash", columnList = "registration_geohash")
 })
 @Getter
 @Setter
@@ -110,6 +114,12 @@ public class Livestock extends BaseEntity {
     @Column(name = "registration_longitude")
     private Double registrationLongitude;
 
+    /**
+     * Geohash of the registration coordinates, maintained on save (see GeoHash)
+     */
+    @Column(name = "registration_geohash", length = 12)
+    private String registrationGeohash;
+
     /**
      * Photos of this livestock stored in MinIO
      */
@@ -165,4 +175,10 @@ public class Livestock extends BaseEntity {
         if (offspringAsFather != null) all.addAll(offspringAsFather);
         return all;
     }
+
+    @PrePersist
+    @PreUpdate
+    void updateRegistrationGeohash() {
+        this.registrationGeohash = GeoHash.encode(registrationLatitude, registrationLongitude);
+    }
 }
@@ -13,6 +13,8 @@ import java.time.LocalDateTime;
  * Represents a livestock movement permit.
  * Authorizes movement of cattle between specified locations within defined dates.
  * Requires a valid police clearance.
+ * A herd permit covers several animals (see PermitAnimal), each with its own clearance,
+ * under one permit number and QR code; livestock and clearance are then null.
  */
 @Entity
 @Table(name = "movement_permits", indexes = {
@@ -37,16 +39,32 @@ public class MovementPermit extends BaseEntity {
     private String permitNumber;
 
     /**
-     * Police clearance that this permit is based on
+     * Police clearance that this permit is based on (null for herd permits)
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "clearance_id", nullable = false)
+    @JoinColumn(name = "clearance_id")
     private PoliceClearance clearance;
 
+    /**
+     * The animal moved (null for herd permits)
+     */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "livestock_id", nullable = false)
+    @JoinColumn(name = "livestock_id")
     private Livestock livestock;
 
+    /**
+     * Number of animals on a herd permit; null for single-animal permits
+     */
+    @Column(name = "herd_size")
+    private Integer herdSize;
+
+    /**
+     * Animals on a herd permit
+     */
+    @OneToMany(mappedBy = "permit", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Builder.Default
+    private java.util.List<PermitAnimal> animals = new java.util.ArrayList<>();
+
     /**
      * Origin location (district, ward, village)
      */
@@ -160,6 +178,10 @@ public class MovementPermit extends BaseEntity {
     @OneToMany(mappedBy = "permit", cascade = CascadeType.ALL, orphanRemoval = true)
     private java.util.List<PermitVerification> verifications = new java.util.ArrayList<>();
 
+    public boolean isHerd() {
+        return herdSize != null;
+    }
+
     /**
      * Check if permit is currently valid
      */
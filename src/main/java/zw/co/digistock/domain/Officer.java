@@ -12,13 +12,17 @@ import java.util.List;
  * (AGRITEX extension officer, Police officer, or Admin).
  *
  * Auth fields (email, passwordHash, role, active, resetToken) are in AppUser.
+ * Held in the second-level cache (the "users" region declared on AppUser).
  */
 @Entity
 @Table(name = "officers", indexes = {
     @Index(name = "idx_officer_code", columnList = "officer_code"),
-    @Index(name = "idx_officer_district", columnList = "district")
+    @Index(name = "idx_officer_district", columnList = "district"),
+    @Index(name = "idx_officer_province_ref", columnList = "province_id"),
+    @Index(name = "idx_officer_district_ref", columnList = "district_id")
 })
 @DiscriminatorValue("OFFICER")
+@Cacheable
 @Getter
 @Setter
 @NoArgsConstructor
@@ -44,6 +48,17 @@ public class Officer extends AppUser {
     @Column(name = "ward", length = 100)
     private String ward;
 
+    /**
+     * Administrative province/district the officer is assigned to (see Owner.provinceRef)
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "province_id")
+    private Province provinceRef;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "district_id")
+    private District districtRef;
+
     @Column(name = "phone_number", length = 20)
     private String phoneNumber;
 
@@ -20,9 +20,12 @@ import java.util.List;
 @Table(name = "owners", indexes = {
     @Index(name = "idx_owner_national_id", columnList = "national_id"),
     @Index(name = "idx_owner_phone", columnList = "phone_number"),
-    @Index(name = "idx_owner_district", columnList = "district")
+    @Index(name = "idx_owner_district", columnList = "district"),
+    @Index(name = "idx_owner_province_ref", columnList = "province_id"),
+    @Index(name = "idx_owner_district_ref", columnList = "district_id")
 })
 @DiscriminatorValue("OWNER")
+@Cacheable(false)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -54,6 +57,19 @@ public class Owner extends AppUser {
     @Column(name = "province", nullable = false, length = 100)
     private String province;
 
+    /**
+     * Administrative province/district the owner is registered in.
+     * The province/district names above are kept as display labels; filters and
+     * group-bys go through these references. Null if the name could not be resolved.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "province_id")
+    private Province provinceRef;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "district_id")
+    private District districtRef;
+
     /**
      * References to fingerprint templates stored in MinIO.
      */
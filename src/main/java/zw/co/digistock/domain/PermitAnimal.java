@@ -0,0 +1,45 @@
+package zw.co.digistock.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import zw.co.digistock.domain.base.BaseEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * One animal on a herd movement permit, with the police clearance it moves under.
+ * Animals are checked off individually as they arrive (completedAt); the permit is
+ * completed once every animal on it is.
+ */
+@Entity
+@Table(name = "permit_animals", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_permit_animal", columnNames = {"permit_id", "livestock_id"})
+}, indexes = {
+    @Index(name = "idx_permit_animal_livestock", columnList = "livestock_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class PermitAnimal extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "permit_id", nullable = false)
+    private MovementPermit permit;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "livestock_id", nullable = false)
+    private Livestock livestock;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "clearance_id", nullable = false)
+    private PoliceClearance clearance;
+
+    /**
+     * Date/time when this animal's movement was completed (null while under way)
+     */
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
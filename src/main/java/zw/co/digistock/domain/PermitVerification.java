@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 import zw.co.digistock.domain.base.BaseEntity;
+import zw.co.digistock.util.GeoHash;
 
 import java.time.LocalDateTime;
 
@@ -11,12 +12,14 @@ import java.time.LocalDateTime;
  * Represents a verification checkpoint scan of a movement permit.
  * Created whenever police scan a permit QR code at a roadblock.
  * Provides an audit trail of livestock movement.
+ * On PostgreSQL the table is partitioned by month of verified_at (see 014-partition-permit-verifications).
  */
 @Entity
 @Table(name = "permit_verifications", indexes = {
-    @Index(name = "idx_verification_permit", columnList = "permit_id"),
+    @Index(name = "idx_verification_permit", columnList = "permit_id, verified_at"),
     @Index(name = "idx_verification_officer", columnList = "verified_by"),
-    @Index(name = "idx_verification_time", columnList = "verified_at")
+    @Index(name = "idx_verification_time", columnList = "verified_at"),
+    @Index(name = "idx_verification_geohash", columnList = "verification_geohash")
 })
 @Getter
 @Setter
@@ -51,6 +54,12 @@ public class PermitVerification extends BaseEntity {
     @Column(name = "verification_longitude")
     private Double verificationLongitude;
 
+    /**
+     * Geohash of the verification coordinates, maintained on save (see GeoHash)
+     */
+    @Column(name = "verification_geohash", length = 12)
+    private String verificationGeohash;
+
     /**
      * Location description (e.g., "Marondera Roadblock")
      */
@@ -74,4 +83,10 @@ public class PermitVerification extends BaseEntity {
      */
     @Column(name = "flag_reason", columnDefinition = "TEXT")
     private String flagReason;
+
+    @PrePersist
+    @PreUpdate
+    void updateVerificationGeohash() {
+        this.verificationGeohash = GeoHash.encode(verificationLatitude, verificationLongitude);
+    }
 }
@@ -3,6 +3,8 @@ package zw.co.digistock.domain;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import zw.co.digistock.domain.base.BaseEntity;
 
 import java.util.ArrayList;
@@ -17,6 +19,8 @@ import java.util.List;
     @Index(name = "idx_province_name", columnList = "name", unique = true),
     @Index(name = "idx_province_code", columnList = "code", unique = true)
 })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "provinces")
 @Getter
 @Setter
 @NoArgsConstructor
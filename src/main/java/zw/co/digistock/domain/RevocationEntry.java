@@ -0,0 +1,64 @@
+package zw.co.digistock.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import zw.co.digistock.domain.enums.RevocationSubject;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One change in the revocation feed that offline checkpoint devices sync from: a permit
+ * cancelled, an approved clearance withdrawn, or an animal reported stolen or recovered.
+ * Written in the same transaction as the change; seq comes from a database sequence one value
+ * at a time, so it orders entries across nodes.
+ */
+@Entity
+@Table(name = "revocation_feed", indexes = {
+    @Index(name = "idx_revocation_subject", columnList = "subject_type, subject_key"),
+    @Index(name = "idx_revocation_expires", columnList = "expires_on")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevocationEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "revocation_feed_seq")
+    @SequenceGenerator(name = "revocation_feed_seq", sequenceName = "revocation_feed_seq", allocationSize = 1)
+    @Column(name = "seq", updatable = false, nullable = false)
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "subject_type", nullable = false, length = 20)
+    private RevocationSubject subjectType;
+
+    /**
+     * Permit number, clearance number or tag code
+     */
+    @Column(name = "subject_key", nullable = false, length = 100)
+    private String subjectKey;
+
+    /**
+     * False only for an animal reported recovered
+     */
+    @Column(name = "revoked", nullable = false)
+    private boolean revoked;
+
+    /**
+     * Last day the document could be valid anyway; the entry is dropped after it (null: kept)
+     */
+    @Column(name = "expires_on")
+    private LocalDate expiresOn;
+
+    /**
+     * Set by the database (clock_timestamp()) as the row is inserted, so every node writes and
+     * compares against the same clock; the feed queries only compare it in SQL
+     */
+    @ColumnDefault("clock_timestamp()")
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -3,6 +3,8 @@ package zw.co.digistock.domain;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import zw.co.digistock.domain.base.BaseEntity;
 
 /**
@@ -15,6 +17,8 @@ import zw.co.digistock.domain.base.BaseEntity;
     @Index(name = "idx_ward_code", columnList = "code", unique = true),
     @Index(name = "idx_ward_district", columnList = "district_id")
 })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "wards")
 @Getter
 @Setter
 @NoArgsConstructor
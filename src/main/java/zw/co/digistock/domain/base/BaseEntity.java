@@ -17,7 +17,7 @@ import java.util.UUID;
 
 /**
  * Base entity class providing common fields for all domain entities:
- * - UUID primary key
+ * - UUID primary key (time-ordered, assigned before insert so inserts can be batched)
  * - Audit timestamps (created, updated)
  * - Audit users (who created, who last modified)
  */
@@ -31,7 +31,7 @@ import java.util.UUID;
 public abstract class BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
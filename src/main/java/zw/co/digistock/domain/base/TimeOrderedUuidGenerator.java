@@ -0,0 +1,49 @@
+package zw.co.digistock.domain.base;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+
+/**
+ * Version 7 UUIDs (RFC 9562): a 48-bit millisecond timestamp followed by 74 random bits.
+ *
+ * Like random UUIDs they are assigned in memory, so inserts need no round-trip for the key
+ * and can be JDBC-batched. Unlike random UUIDs, new keys land at the end of the primary key
+ * index instead of on a random page, which keeps bulk inserts from splitting pages all over
+ * the index and evicting it from cache.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    static UUID next() {
+        byte[] random = new byte[10];
+        RANDOM.nextBytes(random);
+
+        long msb = System.currentTimeMillis() << 16
+            | 0x7000L
+            | (random[0] & 0x0FL) << 8
+            | (random[1] & 0xFFL);
+        long lsb = 0x8000000000000000L | (random[2] & 0x3FL) << 56;
+        for (int i = 3; i < 10; i++) {
+            lsb |= (random[i] & 0xFFL) << (8 * (9 - i));
+        }
+        return new UUID(msb, lsb);
+    }
+}
@@ -0,0 +1,19 @@
+package zw.co.digistock.domain.enums;
+
+/**
+ * State of an artefact outbox job
+ */
+public enum ArtefactJobStatus {
+    /**
+     * Waiting to run (or to be retried) once available_at has passed
+     */
+    PENDING,
+    /**
+     * Artefact produced and stored on the document
+     */
+    DONE,
+    /**
+     * Gave up after the maximum number of attempts
+     */
+    FAILED
+}
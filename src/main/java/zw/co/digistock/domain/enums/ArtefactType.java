@@ -0,0 +1,23 @@
+package zw.co.digistock.domain.enums;
+
+/**
+ * Kind of file produced for a document after it is issued
+ */
+public enum ArtefactType {
+    /**
+     * Signed QR code image for a movement permit
+     */
+    PERMIT_QR,
+    /**
+     * Signed QR code image for an approved police clearance
+     */
+    CLEARANCE_QR,
+    /**
+     * Printable PDF of a movement permit, with its QR code
+     */
+    PERMIT_PDF,
+    /**
+     * Printable PDF of an approved police clearance, with its QR code
+     */
+    CLEARANCE_PDF
+}
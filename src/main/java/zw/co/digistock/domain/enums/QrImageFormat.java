@@ -0,0 +1,29 @@
+package zw.co.digistock.domain.enums;
+
+/**
+ * Image formats a QR code can be rendered in
+ */
+public enum QrImageFormat {
+
+    /** 1-bit PNG, for printing on labels and permits */
+    PNG("image/png", "png"),
+
+    /** Single-path SVG; scales to any size without loss (e.g. for large prints) */
+    SVG("image/svg+xml", "svg");
+
+    private final String contentType;
+    private final String extension;
+
+    QrImageFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
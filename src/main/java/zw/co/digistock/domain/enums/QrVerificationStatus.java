@@ -0,0 +1,31 @@
+package zw.co.digistock.domain.enums;
+
+/**
+ * Outcome of checking a signed QR payload's signature and dates
+ */
+public enum QrVerificationStatus {
+    /**
+     * Signature matches and the document is within its validity dates
+     */
+    VALID,
+    /**
+     * Signature matches but the validity period has not started
+     */
+    NOT_YET_VALID,
+    /**
+     * Signature matches but the validity period has ended
+     */
+    EXPIRED,
+    /**
+     * Payload was altered or signed with another key
+     */
+    INVALID_SIGNATURE,
+    /**
+     * Signed with a key id this server does not know
+     */
+    UNKNOWN_KEY,
+    /**
+     * Not a signed DigiStock payload
+     */
+    MALFORMED
+}
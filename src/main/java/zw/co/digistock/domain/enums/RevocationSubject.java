@@ -0,0 +1,26 @@
+package zw.co.digistock.domain.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * What a revocation feed entry is about, with its one-byte code in the binary feed
+ */
+@Getter
+@AllArgsConstructor
+public enum RevocationSubject {
+    /**
+     * Movement permit, keyed by permit number
+     */
+    PERMIT('P'),
+    /**
+     * Police clearance, keyed by clearance number
+     */
+    CLEARANCE('C'),
+    /**
+     * Animal reported stolen (or recovered), keyed by tag code
+     */
+    LIVESTOCK('L');
+
+    private final char code;
+}
@@ -0,0 +1,30 @@
+package zw.co.digistock.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import zw.co.digistock.util.Constants;
+
+import java.util.List;
+
+/**
+ * DTO for checking off animals of a herd permit as they arrive
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompleteHerdAnimalsRequest {
+
+    @NotEmpty(message = "At least one tag code is required")
+    @Size(max = Constants.MAX_HERD_PERMIT_SIZE, message = "Too many tag codes")
+    private List<@NotBlank String> tagCodes;
+
+    private Double latitude;
+
+    private Double longitude;
+}
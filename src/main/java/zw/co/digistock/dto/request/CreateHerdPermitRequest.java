@@ -0,0 +1,54 @@
+package zw.co.digistock.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import zw.co.digistock.util.Constants;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for creating a herd movement permit covering several animals.
+ * Each animal's valid police clearance is looked up, so none are passed in.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateHerdPermitRequest {
+
+    @NotEmpty(message = "At least one livestock ID is required")
+    @Size(max = Constants.MAX_HERD_PERMIT_SIZE, message = "Too many animals for one permit")
+    private List<@NotNull UUID> livestockIds;
+
+    @NotBlank(message = "From location is required")
+    private String fromLocation;
+
+    @NotBlank(message = "To location is required")
+    private String toLocation;
+
+    private String purpose;
+
+    private String transportMode;
+
+    private String vehicleNumber;
+
+    private String driverName;
+
+    @NotNull(message = "Valid from date is required")
+    private LocalDate validFrom;
+
+    @NotNull(message = "Valid until date is required")
+    private LocalDate validUntil;
+
+    private Double issueLatitude;
+
+    private Double issueLongitude;
+}
@@ -0,0 +1,34 @@
+package zw.co.digistock.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import zw.co.digistock.util.Constants;
+
+import java.util.List;
+
+/**
+ * Request for a printable sheet of QR tag labels: either every animal of owners in a ward,
+ * or a list of tag codes (printed in the order given)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LabelSheetRequest {
+
+    @Size(max = 100, message = "Ward must be less than 100 characters")
+    private String ward;
+
+    /**
+     * Optional; narrows a ward name shared by several districts
+     */
+    @Size(max = 100, message = "District must be less than 100 characters")
+    private String district;
+
+    @Size(max = Constants.MAX_LABELS_PER_SHEET, message = "Too many labels in one sheet")
+    private List<@NotBlank String> tagCodes;
+}
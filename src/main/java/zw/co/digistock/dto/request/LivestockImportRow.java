@@ -0,0 +1,19 @@
+package zw.co.digistock.dto.request;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of a bulk livestock import: a registration request whose parents may also be given
+ * by tag code, including animals registered earlier in the same file
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class LivestockImportRow extends RegisterLivestockRequest {
+
+    private String motherTagCode;
+
+    private String fatherTagCode;
+}
@@ -20,10 +20,10 @@ import java.util.UUID;
 @Schema(description = "Livestock search filter criteria")
 public class LivestockSearchFilter {
 
-    @Schema(description = "Search term for tag code (partial match)", example = "ZW-HR")
+    @Schema(description = "Tag code prefix (e.g. province or district segment)", example = "ZW-HR")
     private String tagCode;
 
-    @Schema(description = "Search term for livestock name (partial match)", example = "Bessie")
+    @Schema(description = "Livestock name prefix (case-insensitive)", example = "Bessie")
     private String name;
 
     @Schema(description = "Breed filter (exact match)", example = "Brahman")
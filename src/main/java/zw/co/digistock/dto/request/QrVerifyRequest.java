@@ -0,0 +1,26 @@
+package zw.co.digistock.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import zw.co.digistock.util.Constants;
+
+import java.util.List;
+
+/**
+ * DTO for verifying a batch of scanned QR payloads
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QrVerifyRequest {
+
+    @NotEmpty(message = "At least one payload is required")
+    @Size(max = Constants.MAX_QR_VERIFY_BATCH, message = "Too many payloads in one request")
+    private List<@NotBlank String> payloads;
+}
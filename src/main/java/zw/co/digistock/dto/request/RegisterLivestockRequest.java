@@ -44,4 +44,9 @@ public class RegisterLivestockRequest {
     private Double registrationLatitude;
 
     private Double registrationLongitude;
+
+    /**
+     * Return the calf's inbreeding coefficient in the response
+     */
+    private Boolean computeInbreeding;
 }
@@ -0,0 +1,30 @@
+package zw.co.digistock.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import zw.co.digistock.util.Constants;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for screening a batch of animals (e.g. a truck at a checkpoint) against the stolen register.
+ * Either list may be left out, but not both.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StolenScreenRequest {
+
+    @Size(max = Constants.MAX_STOLEN_SCREEN_KEYS, message = "Too many tag codes")
+    private List<@NotBlank String> tagCodes;
+
+    @Size(max = Constants.MAX_STOLEN_SCREEN_KEYS, message = "Too many livestock IDs")
+    private List<@NotNull UUID> livestockIds;
+}
@@ -0,0 +1,71 @@
+package zw.co.digistock.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import zw.co.digistock.util.Constants;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for recording one vaccination round (e.g. a dip-tank campaign) across many animals.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VaccinationCampaignRequest {
+
+    @NotEmpty(message = "At least one livestock ID is required")
+    @Size(max = Constants.MAX_CAMPAIGN_ANIMALS, message = "Too many animals in one campaign request")
+    private List<@NotNull UUID> livestockIds;
+
+    @NotBlank(message = "Vaccine type is required")
+    @Size(max = 255, message = "Vaccine type must be less than 255 characters")
+    private String vaccineType;
+
+    @NotNull(message = "Vaccination date is required")
+    @PastOrPresent(message = "Vaccination date cannot be in the future")
+    private LocalDate vaccinationDate;
+
+    @Size(max = 100, message = "Batch number must be less than 100 characters")
+    private String batchNumber;
+
+    private LocalDate nextVaccinationDate;
+
+    @Size(max = 1000, message = "Notes must be less than 1000 characters")
+    private String notes;
+
+    @NotNull(message = "Veterinary officer ID is required")
+    private UUID veterinaryOfficerId;
+
+    @Size(max = 255, message = "Location must be less than 255 characters")
+    private String location;
+
+    private String gpsCoordinates;
+
+    @Size(max = 100, message = "Administration method must be less than 100 characters")
+    private String administrationMethod;
+
+    @Size(max = 255, message = "Manufacturer must be less than 255 characters")
+    private String manufacturer;
+
+    @Size(max = 100, message = "Lot number must be less than 100 characters")
+    private String lotNumber;
+
+    private LocalDate vaccineExpiryDate;
+
+    @Size(max = 50, message = "Dose must be less than 50 characters")
+    private String dose;
+
+    @Size(max = 50, message = "Storage temperature must be less than 50 characters")
+    private String storageTemperature;
+}
@@ -0,0 +1,33 @@
+package zw.co.digistock.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import zw.co.digistock.domain.enums.ArtefactJobStatus;
+import zw.co.digistock.domain.enums.ArtefactType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO for an artefact outbox job, for admins inspecting and retrying failures
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArtefactJobResponse {
+    private UUID id;
+    private ArtefactType type;
+
+    /**
+     * Permit or clearance the artefact belongs to
+     */
+    private UUID documentId;
+    private ArtefactJobStatus status;
+    private int attempts;
+    private LocalDateTime availableAt;
+    private String lastError;
+    private LocalDateTime updatedAt;
+}
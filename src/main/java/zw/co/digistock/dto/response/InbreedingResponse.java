@@ -0,0 +1,35 @@
+package zw.co.digistock.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO for the inbreeding coefficient of an actual or proposed mating
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InbreedingResponse {
+
+    private UUID motherId;
+    private String motherTagCode;
+    private UUID fatherId;
+    private String fatherTagCode;
+
+    /**
+     * Wright's inbreeding coefficient of the offspring (0 to 1)
+     */
+    private double coefficient;
+
+    /**
+     * Animals in the pedigree that was traced
+     */
+    private int pedigreeSize;
+
+    private int generationsTraced;
+}
@@ -0,0 +1,24 @@
+package zw.co.digistock.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * An animal and its owner's province and district, for routing stolen alerts to subscribers;
+ * read straight from a JPQL constructor expression
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LivestockAlertRow {
+
+    private UUID livestockId;
+    private String tagCode;
+    private UUID provinceId;
+    private UUID districtId;
+    private String province;
+    private String district;
+}
@@ -0,0 +1,37 @@
+package zw.co.digistock.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat row of the livestock register export, read straight from a JPQL constructor expression
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LivestockExportRow {
+
+    private String tagCode;
+    private String name;
+    private String breed;
+    private String sex;
+    private LocalDate birthDate;
+    private String color;
+    private String distinguishingMarks;
+    private String ownerNationalId;
+    private String ownerFirstName;
+    private String ownerLastName;
+    private String district;
+    private String province;
+    private String motherTagCode;
+    private String fatherTagCode;
+    private boolean stolen;
+    private LocalDate stolenDate;
+    private Double registrationLatitude;
+    private Double registrationLongitude;
+    private LocalDateTime registeredAt;
+}
@@ -0,0 +1,42 @@
+package zw.co.digistock.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the outcome of a bulk livestock import
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LivestockImportResponse {
+
+    private int totalRows;
+    private int imported;
+    private int failed;
+    private long durationMs;
+
+    /**
+     * Rejected rows in file order, capped at Constants.MAX_IMPORT_ERRORS
+     */
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        /**
+         * 1-based line number in the file
+         */
+        private long line;
+        private String tagCode;
+        private String message;
+    }
+}
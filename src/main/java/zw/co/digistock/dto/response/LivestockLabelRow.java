@@ -0,0 +1,19 @@
+package zw.co.digistock.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * What goes on one printed tag label, read straight from a JPQL constructor expression
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LivestockLabelRow {
+
+    private String tagCode;
+    private UUID ownerId;
+}
@@ -1,5 +1,6 @@
 package zw.co.digistock.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -35,6 +36,18 @@ public class LivestockResponse {
     private Double registrationLatitude;
     private Double registrationLongitude;
 
+    /**
+     * Distance from the query point, set only on nearby searches
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double distanceKm;
+
+    /**
+     * Inbreeding coefficient, set only when requested at registration
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double inbreedingCoefficient;
+
     private boolean stolen;
     private LocalDate stolenDate;
 
@@ -0,0 +1,55 @@
+package zw.co.digistock.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for a multi-generation pedigree (ancestors or descendants of one animal)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedigreeResponse {
+
+    private UUID rootId;
+    private String rootTagCode;
+    private Direction direction;
+    private int maxDepth;
+
+    /**
+     * Related animals, nearest generation first. Edges can be rebuilt from motherId/fatherId.
+     */
+    private List<PedigreeNode> animals;
+
+    public enum Direction {
+        ANCESTORS,
+        DESCENDANTS
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PedigreeNode {
+        private UUID id;
+        private String tagCode;
+        private String name;
+        private String breed;
+        private String sex;
+        private LocalDate birthDate;
+        private UUID motherId;
+        private UUID fatherId;
+
+        /**
+         * Generations away from the root (1 = parent or child)
+         */
+        private int generation;
+    }
+}
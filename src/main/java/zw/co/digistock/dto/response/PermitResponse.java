@@ -8,6 +8,7 @@ import zw.co.digistock.domain.enums.PermitStatus;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -35,8 +36,18 @@ public class PermitResponse {
     private LocalDate validFrom;
     private LocalDate validUntil;
 
+    /**
+     * Single-animal permits only
+     */
     private ClearanceSummary clearance;
     private LivestockSummary livestock;
+
+    /**
+     * Herd permits only: number of animals, and the animals themselves on single-permit views
+     */
+    private Integer herdSize;
+    private List<HerdAnimalSummary> animals;
+
     private OfficerSummary issuedBy;
 
     private String qrRef;
@@ -84,4 +95,16 @@ public class PermitResponse {
         private String fullName;
         private String role;
     }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HerdAnimalSummary {
+        private UUID livestockId;
+        private String tagCode;
+        private String name;
+        private String clearanceNumber;
+        private LocalDateTime completedAt;
+    }
 }
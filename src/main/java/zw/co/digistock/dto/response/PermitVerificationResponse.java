@@ -0,0 +1,40 @@
+package zw.co.digistock.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO for Permit Verification (checkpoint scan) response
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PermitVerificationResponse {
+
+    private UUID id;
+    private UUID permitId;
+    private String permitNumber;
+    private PermitResponse.OfficerSummary verifiedBy;
+    private LocalDateTime verifiedAt;
+
+    private Double verificationLatitude;
+    private Double verificationLongitude;
+    private String locationDescription;
+    private String notes;
+
+    private boolean valid;
+    private String flagReason;
+
+    /**
+     * Distance from the query point, set only on nearby searches
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double distanceKm;
+}
@@ -0,0 +1,29 @@
+package zw.co.digistock.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a public key scanners use to verify signed QR payloads offline
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QrSigningKeyResponse {
+
+    private String keyId;
+    private String algorithm;
+
+    /**
+     * Base64 DER (X.509 SubjectPublicKeyInfo)
+     */
+    private String publicKey;
+
+    /**
+     * Whether new payloads are signed with this key
+     */
+    private boolean active;
+}
@@ -0,0 +1,55 @@
+package zw.co.digistock.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import zw.co.digistock.domain.enums.QrVerificationStatus;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for the server-side check of one scanned QR payload
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QrVerificationResponse {
+
+    /**
+     * Position of the payload in the request
+     */
+    private int index;
+
+    /**
+     * True only if the signature and dates check out and the record still backs the document
+     */
+    private boolean valid;
+
+    /**
+     * Result of the offline checks (signature and dates)
+     */
+    private QrVerificationStatus status;
+    private String reason;
+
+    private String documentType;
+    private String documentNumber;
+    private String livestockTag;
+    private String keyId;
+    private LocalDate validFrom;
+    private LocalDate validUntil;
+
+    /**
+     * Current status of the permit / clearance; null if no such record exists
+     */
+    private String recordStatus;
+
+    /**
+     * Whether the livestock, tag and owner still match the digest in the payload
+     */
+    private Boolean subjectMatches;
+    private Boolean livestockStolen;
+}
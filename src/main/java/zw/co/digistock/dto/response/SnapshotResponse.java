@@ -0,0 +1,40 @@
+package zw.co.digistock.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for one analytics snapshot: a set of compressed table files in object storage
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotResponse {
+
+    /**
+     * Snapshot date (yyyy-MM-dd), also the object prefix
+     */
+    private String id;
+    private LocalDateTime createdAt;
+    private List<SnapshotFile> files;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SnapshotFile {
+        private String name;
+        private long sizeBytes;
+
+        /**
+         * Presigned download URL, valid for an hour
+         */
+        private String downloadUrl;
+    }
+}
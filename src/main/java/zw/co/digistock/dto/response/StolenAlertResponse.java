@@ -0,0 +1,35 @@
+package zw.co.digistock.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO pushed to checkpoint subscribers when an animal is reported stolen or recovered
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StolenAlertResponse {
+
+    private UUID livestockId;
+    private String tagCode;
+
+    /**
+     * True when reported stolen, false when recovered
+     */
+    private boolean stolen;
+
+    /**
+     * Owner's province and district
+     */
+    private String province;
+    private String district;
+
+    private LocalDateTime reportedAt;
+}
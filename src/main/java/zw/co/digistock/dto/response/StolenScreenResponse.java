@@ -0,0 +1,37 @@
+package zw.co.digistock.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for the result of screening a batch of animals against the stolen register
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StolenScreenResponse {
+
+    /**
+     * Number of distinct tag codes and IDs screened
+     */
+    private int screened;
+
+    /**
+     * The requested tag codes and IDs that are reported stolen, in request order
+     */
+    private List<String> stolenTagCodes;
+    private List<UUID> stolenLivestockIds;
+
+    /**
+     * When this node last reloaded its index from the database; changes made on this node
+     * are applied as they commit, changes made on other nodes by the next reload
+     */
+    private LocalDateTime indexLoadedAt;
+}
@@ -0,0 +1,27 @@
+package zw.co.digistock.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for the outcome of a vaccination campaign
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VaccinationCampaignResponse {
+
+    private int vaccinated;
+    private long durationMs;
+
+    /**
+     * Ids of the created vaccination records, in the order of the request's livestock ids
+     */
+    private List<UUID> vaccinationIds;
+}
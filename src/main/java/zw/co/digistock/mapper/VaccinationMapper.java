@@ -53,5 +53,7 @@ public interface VaccinationMapper {
      * @param entity The Vaccination entity
      * @return The response DTO
      */
+    @Mapping(target = "livestock.distanceKm", ignore = true)
+    @Mapping(target = "livestock.inbreedingCoefficient", ignore = true)
     VaccinationResponse toResponse(Vaccination entity);
 }
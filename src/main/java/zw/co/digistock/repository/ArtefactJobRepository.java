@@ -0,0 +1,74 @@
+package zw.co.digistock.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import zw.co.digistock.domain.ArtefactJob;
+import zw.co.digistock.domain.enums.ArtefactJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the artefact outbox
+ */
+@Repository
+public interface ArtefactJobRepository extends JpaRepository<ArtefactJob, UUID> {
+
+    /**
+     * Ids of pending jobs that are due, longest waiting first
+     */
+    @Query("SELECT j.id FROM ArtefactJob j WHERE j.status = 'PENDING' AND j.availableAt <= :now " +
+           "ORDER BY j.availableAt")
+    List<UUID> findDueJobIds(LocalDateTime now, Pageable pageable);
+
+    /**
+     * Claim a due job for one worker until claimedUntil, counting the attempt
+     *
+     * @return 1 if this caller claimed the job, 0 if it is not due or another worker got it first
+     */
+    @Modifying
+    @Query("UPDATE ArtefactJob j SET j.availableAt = :claimedUntil, j.attempts = j.attempts + 1, " +
+           "j.version = j.version + 1 " +
+           "WHERE j.id = :id AND j.status = 'PENDING' AND j.availableAt <= :now")
+    int claim(UUID id, LocalDateTime now, LocalDateTime claimedUntil);
+
+    /**
+     * Record the outcome of an attempt
+     */
+    @Modifying
+    @Query("UPDATE ArtefactJob j SET j.status = :status, j.availableAt = :availableAt, j.lastError = :lastError, " +
+           "j.completedAt = :completedAt, j.updatedAt = :now, j.version = j.version + 1 WHERE j.id = :id")
+    int finish(UUID id, ArtefactJobStatus status, LocalDateTime availableAt, String lastError,
+               LocalDateTime completedAt, LocalDateTime now);
+
+    long countByStatus(ArtefactJobStatus status);
+
+    /**
+     * Jobs in a status, most recently updated first
+     */
+    List<ArtefactJob> findByStatusOrderByUpdatedAtDesc(ArtefactJobStatus status, Pageable pageable);
+
+    /**
+     * Put a failed job back in the queue with a fresh attempt count; its last error is kept
+     *
+     * @return 1 if the job had failed and is pending again, otherwise 0
+     */
+    @Modifying
+    @Query("UPDATE ArtefactJob j SET j.status = 'PENDING', j.attempts = 0, j.availableAt = :now, j.updatedAt = :now, " +
+           "j.version = j.version + 1 WHERE j.id = :id AND j.status = 'FAILED'")
+    int requeue(UUID id, LocalDateTime now);
+
+    /**
+     * Put every failed job back in the queue, as requeue
+     *
+     * @return number of jobs requeued
+     */
+    @Modifying
+    @Query("UPDATE ArtefactJob j SET j.status = 'PENDING', j.attempts = 0, j.availableAt = :now, j.updatedAt = :now, " +
+           "j.version = j.version + 1 WHERE j.status = 'FAILED'")
+    int requeueAllFailed(LocalDateTime now);
+}
@@ -1,7 +1,10 @@
 package zw.co.digistock.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import zw.co.digistock.domain.District;
 import zw.co.digistock.domain.Province;
@@ -11,7 +14,8 @@ import java.util.Optional;
 import java.util.UUID;
 
 /**
- * Repository for District entity operations
+ * Repository for District entity operations.
+ * Lookups marked cacheable use the Hibernate query cache (see caffeine-jcache.conf).
  */
 @Repository
 public interface DistrictRepository extends JpaRepository<District, UUID> {
@@ -21,6 +25,18 @@ public interface DistrictRepository extends JpaRepository<District, UUID> {
      */
     Optional<District> findByName(String name);
 
+    /**
+     * Find districts by name, ignoring case (names may repeat across provinces)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<District> findByNameIgnoreCase(String name);
+
+    /**
+     * Find district by name within a province, ignoring case
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<District> findByProvinceIdAndNameIgnoreCase(UUID provinceId, String name);
+
     /**
      * Find district by code
      */
@@ -34,12 +50,14 @@ public interface DistrictRepository extends JpaRepository<District, UUID> {
     /**
      * Find all districts in a province
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT d FROM District d WHERE d.province.id = :provinceId AND d.active = true")
     List<District> findByProvinceId(UUID provinceId);
 
     /**
      * Find all active districts
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<District> findByActiveTrue();
 
     /**
@@ -0,0 +1,85 @@
+package zw.co.digistock.repository;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import zw.co.digistock.util.GeoHash;
+
+import java.util.List;
+
+/**
+ * JPA specifications for bounding-box and radius queries on entities with a stored geohash.
+ *
+ * The geohash prefixes narrow the scan through the geohash index; the coordinate
+ * range then trims the parts of those cells that fall outside the box.
+ */
+public final class GeoSpecifications {
+
+    private GeoSpecifications() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Upper bound on prefix matches per query
+     */
+    static final int MAX_COVERING_CELLS = 16;
+
+    /**
+     * Points inside the box, given the entity's geohash, latitude and longitude attribute names
+     */
+    public static <T> Specification<T> withinBox(GeoHash.BoundingBox box,
+                                                 String geohashAttribute,
+                                                 String latitudeAttribute,
+                                                 String longitudeAttribute) {
+        List<String> cells = GeoHash.coveringCells(box, MAX_COVERING_CELLS);
+
+        return (root, query, cb) -> {
+            Predicate inBox = cb.and(
+                cb.between(root.get(latitudeAttribute), box.getMinLatitude(), box.getMaxLatitude()),
+                cb.between(root.get(longitudeAttribute), box.getMinLongitude(), box.getMaxLongitude()));
+
+            if (cells.isEmpty()) {
+                return inBox;
+            }
+
+            Predicate inCells = cb.or(cells.stream()
+                .map(cell -> cb.like(root.get(geohashAttribute), cell + "%"))
+                .toArray(Predicate[]::new));
+            return cb.and(inCells, inBox);
+        };
+    }
+
+    /**
+     * Points within radiusKm of the origin, nearest first. Adds the haversine distance to the box
+     * query so rows outside the circle are dropped, and rows ordered, in the database; combine with
+     * a row limit to fetch only the nearest.
+     */
+    public static <T> Specification<T> withinRadius(double latitude, double longitude, double radiusKm,
+                                                    String geohashAttribute,
+                                                    String latitudeAttribute,
+                                                    String longitudeAttribute) {
+        Specification<T> inBox = withinBox(GeoHash.boundingBox(latitude, longitude, radiusKm),
+            geohashAttribute, latitudeAttribute, longitudeAttribute);
+        // haversine a = sin²(Δφ/2) + cos φ1 cos φ2 sin²(Δλ/2), and distance <= r exactly when a <= sin²(r/2R)
+        double maxHaversine = Math.pow(Math.sin(Math.min(Math.PI / 2, radiusKm / (2 * GeoHash.EARTH_RADIUS_KM))), 2);
+        double cosOrigin = Math.cos(Math.toRadians(latitude));
+
+        Specification<T> inCircle = (root, query, cb) -> {
+            Expression<Double> pointLatitude = root.get(latitudeAttribute);
+            Expression<Double> sinHalfDLat = cb.function("sin", Double.class,
+                cb.prod(cb.diff(pointLatitude, latitude), Math.PI / 360));
+            Expression<Double> sinHalfDLon = cb.function("sin", Double.class,
+                cb.prod(cb.diff(root.<Double>get(longitudeAttribute), longitude), Math.PI / 360));
+            Expression<Double> cosPoint = cb.function("cos", Double.class, cb.prod(pointLatitude, Math.PI / 180));
+
+            Expression<Double> haversine = cb.sum(
+                cb.prod(sinHalfDLat, sinHalfDLat),
+                cb.prod(cb.prod(cosPoint, cosOrigin), cb.prod(sinHalfDLon, sinHalfDLon)));
+            if (!Long.class.equals(query.getResultType())) {
+                query.orderBy(cb.asc(haversine));
+            }
+            return cb.le(haversine, maxHaversine);
+        };
+        return inBox.and(inCircle);
+    }
+}
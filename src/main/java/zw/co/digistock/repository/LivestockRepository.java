@@ -1,28 +1,214 @@
 package zw.co.digistock.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import zw.co.digistock.domain.Livestock;
 import zw.co.digistock.domain.Owner;
+import zw.co.digistock.dto.response.LivestockAlertRow;
+import zw.co.digistock.dto.response.LivestockLabelRow;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository for Livestock entity operations
  */
 @Repository
-public interface LivestockRepository extends JpaRepository<Livestock, UUID> {
+public interface LivestockRepository extends JpaRepository<Livestock, UUID>, JpaSpecificationExecutor<Livestock> {
+
+    /**
+     * Dynamic search (see LivestockSpecifications) - paginated.
+     * Owner and parents are fetched in the same query to avoid N+1 loads when mapping.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"owner", "mother", "father"})
+    Page<Livestock> findAll(Specification<Livestock> spec, Pageable pageable);
+
+    /**
+     * Load livestock by IDs with owner and parents fetched in the same query
+     */
+    @EntityGraph(attributePaths = {"owner", "mother", "father"})
+    List<Livestock> findByIdIn(Collection<UUID> ids);
+
+    /**
+     * Full-text description search (PostgreSQL) - paginated IDs ranked by ts_rank_cd.
+     * Matches name, breed, color and distinguishing marks through the generated
+     * search_vector column (see 011-livestock-description-search).
+     * stolen is optional (pass null to ignore).
+     */
+    @Query(value = "SELECT l.id FROM livestock l " +
+                   "WHERE l.search_vector @@ to_tsquery('english', :query) " +
+                   "AND (CAST(:stolen AS BOOLEAN) IS NULL OR l.is_stolen = :stolen) " +
+                   "ORDER BY ts_rank_cd(l.search_vector, to_tsquery('english', :query)) DESC, l.tag_code",
+           countQuery = "SELECT COUNT(*) FROM livestock l " +
+                        "WHERE l.search_vector @@ to_tsquery('english', :query) " +
+                        "AND (CAST(:stolen AS BOOLEAN) IS NULL OR l.is_stolen = :stolen)",
+           nativeQuery = true)
+    Page<UUID> searchDescriptionIds(@Param("query") String query,
+                                    @Param("stolen") Boolean stolen,
+                                    Pageable pageable);
+
+    /**
+     * As searchDescriptionIds, limited to animals whose owners are in one of the districts
+     * (districtIds must be non-empty)
+     */
+    @Query(value = "SELECT l.id FROM livestock l JOIN owners o ON o.id = l.owner_id " +
+                   "WHERE l.search_vector @@ to_tsquery('english', :query) " +
+                   "AND o.district_id IN (:districtIds) " +
+                   "AND (CAST(:stolen AS BOOLEAN) IS NULL OR l.is_stolen = :stolen) " +
+                   "ORDER BY ts_rank_cd(l.search_vector, to_tsquery('english', :query)) DESC, l.tag_code",
+           countQuery = "SELECT COUNT(*) FROM livestock l JOIN owners o ON o.id = l.owner_id " +
+                        "WHERE l.search_vector @@ to_tsquery('english', :query) " +
+                        "AND o.district_id IN (:districtIds) " +
+                        "AND (CAST(:stolen AS BOOLEAN) IS NULL OR l.is_stolen = :stolen)",
+           nativeQuery = true)
+    Page<UUID> searchDescriptionIdsInDistricts(@Param("query") String query,
+                                               @Param("districtIds") Collection<UUID> districtIds,
+                                               @Param("stolen") Boolean stolen,
+                                               Pageable pageable);
+
+    /**
+     * Livestock with coordinates but no stored geohash (rows registered before 012-geohash-columns)
+     */
+    @Query("SELECT l FROM Livestock l WHERE l.registrationGeohash IS NULL " +
+           "AND l.registrationLatitude IS NOT NULL AND l.registrationLongitude IS NOT NULL")
+    List<Livestock> findMissingGeohash(Pageable pageable);
+
+    /**
+     * Ancestors of an animal up to maxDepth generations, as (id, generation) rows.
+     * An animal reachable along several paths is reported at its nearest generation.
+     * The depth bound and UNION de-duplication stop the recursion even if the data holds a cycle.
+     */
+    @Query(value = "WITH RECURSIVE ancestors(id, depth) AS (" +
+                   "  SELECT CAST(:id AS UUID), 0" +
+                   "  UNION" +
+                   "  SELECT p.id, a.depth + 1 FROM ancestors a" +
+                   "  JOIN livestock l ON l.id = a.id" +
+                   "  JOIN livestock p ON p.id = l.mother_id OR p.id = l.father_id" +
+                   "  WHERE a.depth < :maxDepth" +
+                   ") " +
+                   "SELECT id, MIN(depth) FROM ancestors WHERE depth > 0 AND id <> :id GROUP BY id ORDER BY MIN(depth)",
+           nativeQuery = true)
+    List<Object[]> findAncestorIds(@Param("id") UUID id, @Param("maxDepth") int maxDepth);
+
+    /**
+     * Descendants of an animal down to maxDepth generations, as (id, generation) rows.
+     * Same de-duplication and cycle protection as findAncestorIds.
+     */
+    @Query(value = "WITH RECURSIVE descendants(id, depth) AS (" +
+                   "  SELECT CAST(:id AS UUID), 0" +
+                   "  UNION" +
+                   "  SELECT c.id, d.depth + 1 FROM descendants d" +
+                   "  JOIN livestock c ON c.mother_id = d.id OR c.father_id = d.id" +
+                   "  WHERE d.depth < :maxDepth" +
+                   ") " +
+                   "SELECT id, MIN(depth) FROM descendants WHERE depth > 0 AND id <> :id GROUP BY id ORDER BY MIN(depth)",
+           nativeQuery = true)
+    List<Object[]> findDescendantIds(@Param("id") UUID id, @Param("maxDepth") int maxDepth);
+
+    /**
+     * The given animals and their ancestors up to maxDepth generations, as (id, mother_id, father_id) rows.
+     * Parents beyond the depth bound are referenced but not returned.
+     */
+    @Query(value = "WITH RECURSIVE ancestors(id, depth) AS (" +
+                   "  SELECT l.id, 0 FROM livestock l WHERE l.id IN (:ids)" +
+                   "  UNION" +
+                   "  SELECT p.id, a.depth + 1 FROM ancestors a" +
+                   "  JOIN livestock l ON l.id = a.id" +
+                   "  JOIN livestock p ON p.id = l.mother_id OR p.id = l.father_id" +
+                   "  WHERE a.depth < :maxDepth" +
+                   ") " +
+                   "SELECT l.id, l.mother_id, l.father_id FROM livestock l " +
+                   "WHERE l.id IN (SELECT id FROM ancestors)",
+           nativeQuery = true)
+    List<Object[]> findAncestorLinks(@Param("ids") Collection<UUID> ids, @Param("maxDepth") int maxDepth);
 
     /**
      * Find livestock by unique tag code
      */
     Optional<Livestock> findByTagCode(String tagCode);
 
+    /**
+     * Forward-only read of the tag labels for animals whose owners live in a ward, by tag code.
+     * Must be consumed inside a transaction and closed.
+     */
+    @Query("SELECT new zw.co.digistock.dto.response.LivestockLabelRow(l.tagCode, o.id) " +
+           "FROM Livestock l JOIN l.owner o " +
+           "WHERE LOWER(o.ward) = LOWER(:ward) " +
+           "ORDER BY l.tagCode")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<LivestockLabelRow> streamLabelsByWard(@Param("ward") String ward);
+
+    /**
+     * As streamLabelsByWard, limited to owners in one of the districts (districtIds must be non-empty)
+     */
+    @Query("SELECT new zw.co.digistock.dto.response.LivestockLabelRow(l.tagCode, o.id) " +
+           "FROM Livestock l JOIN l.owner o " +
+           "WHERE LOWER(o.ward) = LOWER(:ward) AND o.districtRef.id IN :districtIds " +
+           "ORDER BY l.tagCode")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<LivestockLabelRow> streamLabelsByWardInDistricts(@Param("ward") String ward,
+                                                            @Param("districtIds") Collection<UUID> districtIds);
+
+    /**
+     * Number of labels streamLabelsByWard would return
+     */
+    @Query("SELECT COUNT(l) FROM Livestock l JOIN l.owner o WHERE LOWER(o.ward) = LOWER(:ward)")
+    long countLabelsByWard(@Param("ward") String ward);
+
+    /**
+     * Number of labels streamLabelsByWardInDistricts would return
+     */
+    @Query("SELECT COUNT(l) FROM Livestock l JOIN l.owner o " +
+           "WHERE LOWER(o.ward) = LOWER(:ward) AND o.districtRef.id IN :districtIds")
+    long countLabelsByWardInDistricts(@Param("ward") String ward,
+                                      @Param("districtIds") Collection<UUID> districtIds);
+
+    /**
+     * Tag labels for the given tag codes, in no particular order
+     */
+    @Query("SELECT new zw.co.digistock.dto.response.LivestockLabelRow(l.tagCode, l.owner.id) " +
+           "FROM Livestock l WHERE l.tagCode IN :tagCodes")
+    List<LivestockLabelRow> findLabelsByTagCodeIn(@Param("tagCodes") Collection<String> tagCodes);
+
+    /**
+     * Owner's province and district for each of these tag codes, in no particular order
+     */
+    @Query("SELECT new zw.co.digistock.dto.response.LivestockAlertRow(l.id, l.tagCode, p.id, d.id, o.province, o.district) " +
+           "FROM Livestock l JOIN l.owner o LEFT JOIN o.provinceRef p LEFT JOIN o.districtRef d " +
+           "WHERE l.tagCode IN :tagCodes")
+    List<LivestockAlertRow> findAlertRowsByTagCodeIn(@Param("tagCodes") Collection<String> tagCodes);
+
+    /**
+     * Which of these tag codes are already registered
+     */
+    @Query("SELECT l.tagCode FROM Livestock l WHERE l.tagCode IN :tagCodes")
+    List<String> findExistingTagCodes(@Param("tagCodes") Collection<String> tagCodes);
+
+    /**
+     * Find livestock by any of these tag codes
+     */
+    List<Livestock> findByTagCodeIn(Collection<String> tagCodes);
+
     /**
      * Find all livestock owned by a specific owner
      */
@@ -56,8 +242,8 @@ public interface LivestockRepository extends JpaRepository<Livestock, UUID> {
     /**
      * Find stolen livestock in a specific district (paginated)
      */
-    @Query("SELECT l FROM Livestock l JOIN l.owner o WHERE l.stolen = true AND o.district = :district")
-    Page<Livestock> findStolenByDistrict(String district, Pageable pageable);
+    @Query("SELECT l FROM Livestock l JOIN l.owner o WHERE l.stolen = true AND o.districtRef.id IN :districtIds")
+    Page<Livestock> findStolenByDistrictIds(Collection<UUID> districtIds, Pageable pageable);
 
     /**
      * Search livestock by tag code pattern (e.g., "HA-02-*") - paginated
@@ -68,14 +254,14 @@ public interface LivestockRepository extends JpaRepository<Livestock, UUID> {
     /**
      * Find livestock registered in a specific province (paginated)
      */
-    @Query("SELECT l FROM Livestock l JOIN l.owner o WHERE o.province = :province")
-    Page<Livestock> findByProvince(String province, Pageable pageable);
+    @Query("SELECT l FROM Livestock l JOIN l.owner o WHERE o.provinceRef.id IN :provinceIds")
+    Page<Livestock> findByProvinceIds(Collection<UUID> provinceIds, Pageable pageable);
 
     /**
      * Find livestock registered in a specific district (paginated)
      */
-    @Query("SELECT l FROM Livestock l JOIN l.owner o WHERE o.district = :district")
-    Page<Livestock> findByDistrict(String district, Pageable pageable);
+    @Query("SELECT l FROM Livestock l JOIN l.owner o WHERE o.districtRef.id IN :districtIds")
+    Page<Livestock> findByDistrictIds(Collection<UUID> districtIds, Pageable pageable);
 
     /**
      * Check if tag code already exists
@@ -92,10 +278,22 @@ public interface LivestockRepository extends JpaRepository<Livestock, UUID> {
      */
     long countByStolen(boolean stolen);
 
+    /**
+     * Which of the given IDs exist, without loading the animals
+     */
+    @Query("SELECT l.id FROM Livestock l WHERE l.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * ID and tag code of every animal currently reported stolen
+     */
+    @Query("SELECT l.id, l.tagCode FROM Livestock l WHERE l.stolen = true")
+    List<Object[]> findStolenKeys();
+
     /**
      * Count livestock grouped by owner province
      */
-    @Query("SELECT o.province, COUNT(l) FROM Livestock l JOIN l.owner o GROUP BY o.province")
+    @Query("SELECT p.name, COUNT(l) FROM Livestock l JOIN l.owner o LEFT JOIN o.provinceRef p GROUP BY p.id, p.name")
     List<Object[]> countGroupByProvince();
 
     /**
@@ -0,0 +1,122 @@
+package zw.co.digistock.repository;
+
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import zw.co.digistock.domain.Livestock;
+import zw.co.digistock.domain.Owner;
+import zw.co.digistock.dto.request.LivestockSearchFilter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static zw.co.digistock.util.ValidationUtils.escapeLike;
+
+/**
+ * JPA specifications for dynamic livestock search.
+ *
+ * Only the criteria present on the filter are turned into predicates, so the
+ * database sees a single query shaped to the request. Text criteria are prefix
+ * matches so they can be served by the pattern indexes in 009-livestock-search-indexes.
+ */
+public final class LivestockSpecifications {
+
+    private LivestockSpecifications() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Build a specification from the non-null fields of the filter.
+     * District and province names are resolved by the caller (see LocationResolver);
+     * pass null IDs to skip that criterion.
+     */
+    public static Specification<Livestock> fromFilter(LivestockSearchFilter filter,
+                                                      Collection<UUID> districtIds,
+                                                      Collection<UUID> provinceIds) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (hasText(filter.getTagCode())) {
+                predicates.add(cb.like(root.get("tagCode"),
+                    escapeLike(filter.getTagCode().trim().toUpperCase(Locale.ROOT)) + "%", '\\'));
+            }
+
+            if (hasText(filter.getName())) {
+                predicates.add(cb.like(cb.lower(root.get("name")),
+                    escapeLike(filter.getName().trim().toLowerCase(Locale.ROOT)) + "%", '\\'));
+            }
+
+            if (hasText(filter.getBreed())) {
+                predicates.add(cb.equal(root.get("breed"), filter.getBreed().trim()));
+            }
+
+            if (filter.getGender() != null) {
+                // Older rows store the display name ("Male") rather than the code ("M")
+                predicates.add(root.get("sex").in(
+                    filter.getGender().getCode(), filter.getGender().getDisplayName()));
+            }
+
+            if (filter.getOwnerId() != null) {
+                predicates.add(cb.equal(root.get("owner").get("id"), filter.getOwnerId()));
+            }
+
+            if (districtIds != null || provinceIds != null) {
+                Join<Livestock, Owner> owner = ownerJoin(root);
+                if (districtIds != null) {
+                    predicates.add(owner.get("districtRef").get("id").in(districtIds));
+                }
+                if (provinceIds != null) {
+                    predicates.add(owner.get("provinceRef").get("id").in(provinceIds));
+                }
+            }
+
+            if (filter.getStolen() != null) {
+                predicates.add(cb.equal(root.get("stolen"), filter.getStolen()));
+            }
+
+            if (filter.getDateOfBirthFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("birthDate"), filter.getDateOfBirthFrom()));
+            }
+
+            if (filter.getDateOfBirthTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("birthDate"), filter.getDateOfBirthTo()));
+            }
+
+            if (filter.getHasMother() != null) {
+                predicates.add(filter.getHasMother()
+                    ? cb.isNotNull(root.get("mother"))
+                    : cb.isNull(root.get("mother")));
+            }
+
+            if (filter.getHasFather() != null) {
+                predicates.add(filter.getHasFather()
+                    ? cb.isNotNull(root.get("father"))
+                    : cb.isNull(root.get("father")));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * The query's inner join to the owner, reused when the caller has already joined it
+     * (e.g. to select owner columns) so the owners table is not joined twice
+     */
+    @SuppressWarnings("unchecked")
+    private static Join<Livestock, Owner> ownerJoin(Root<Livestock> root) {
+        return root.getJoins().stream()
+            .filter(join -> "owner".equals(join.getAttribute().getName()) && join.getJoinType() == JoinType.INNER)
+            .map(join -> (Join<Livestock, Owner>) join)
+            .findFirst()
+            .orElseGet(() -> root.join("owner", JoinType.INNER));
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
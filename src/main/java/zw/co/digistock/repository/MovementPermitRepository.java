@@ -1,14 +1,20 @@
 package zw.co.digistock.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import zw.co.digistock.domain.MovementPermit;
 import zw.co.digistock.domain.enums.PermitStatus;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -25,8 +31,53 @@ public interface MovementPermitRepository extends JpaRepository<MovementPermit,
     Optional<MovementPermit> findByPermitNumber(String permitNumber);
 
     /**
-     * Find permits for a specific livestock (paginated)
+     * Find a permit and lock its row until the transaction ends, so concurrent completions of
+     * the same permit run one after the other
      */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM MovementPermit p WHERE p.id = :id")
+    Optional<MovementPermit> findByIdForUpdate(UUID id);
+
+    /**
+     * Find a permit with the livestock and owner (or herd animals and owners) its QR payload is signed over
+     */
+    @EntityGraph(attributePaths = {"livestock", "livestock.owner", "animals", "animals.livestock",
+        "animals.livestock.owner"})
+    Optional<MovementPermit> findWithLivestockById(UUID id);
+
+    /**
+     * Store the QR code reference once the artefact outbox has produced it
+     */
+    @Modifying
+    @Query("UPDATE MovementPermit p SET p.qrRef = :qrRef, p.version = p.version + 1 WHERE p.id = :id")
+    int updateQrRef(UUID id, String qrRef);
+
+    /**
+     * Find a permit with everything printed on its PDF
+     */
+    @EntityGraph(attributePaths = {"livestock", "livestock.owner", "clearance", "issuedBy", "animals",
+        "animals.livestock", "animals.livestock.owner", "animals.clearance"})
+    Optional<MovementPermit> findForDocumentById(UUID id);
+
+    /**
+     * Store the PDF reference once the artefact outbox has produced it
+     */
+    @Modifying
+    @Query("UPDATE MovementPermit p SET p.pdfRef = :pdfRef, p.version = p.version + 1 WHERE p.id = :id")
+    int updatePdfRef(UUID id, String pdfRef);
+
+    /**
+     * Find permits by number, with the livestock and owner or herd animals (QR batch verification)
+     */
+    @EntityGraph(attributePaths = {"livestock", "livestock.owner", "animals", "animals.livestock",
+        "animals.livestock.owner"})
+    List<MovementPermit> findByPermitNumberIn(Collection<String> permitNumbers);
+
+    /**
+     * Find permits for a specific livestock, including herd permits it is on (paginated)
+     */
+    @Query("SELECT p FROM MovementPermit p WHERE p.livestock.id = :livestockId " +
+           "OR EXISTS (SELECT a.id FROM PermitAnimal a WHERE a.permit = p AND a.livestock.id = :livestockId)")
     Page<MovementPermit> findByLivestockId(UUID livestockId, Pageable pageable);
 
     /**
@@ -57,6 +108,22 @@ public interface MovementPermitRepository extends JpaRepository<MovementPermit,
     @Query("SELECT p FROM MovementPermit p WHERE p.status = 'APPROVED' AND p.validUntil < :today")
     Page<MovementPermit> findExpiredPermits(LocalDate today, Pageable pageable);
 
+    /**
+     * Ids of approved permits past their validity, oldest first (for the expiry sweep)
+     */
+    @Query("SELECT p.id FROM MovementPermit p WHERE p.status = 'APPROVED' AND p.validUntil < :today " +
+           "ORDER BY p.validUntil")
+    List<UUID> findExpiredPermitIds(LocalDate today, Pageable pageable);
+
+    /**
+     * Move the given permits to EXPIRED if they are still approved
+     */
+    @Modifying
+    @Query("UPDATE MovementPermit p SET p.status = zw.co.digistock.domain.enums.PermitStatus.EXPIRED, " +
+           "p.updatedAt = :now, p.updatedBy = :updatedBy, p.version = p.version + 1 " +
+           "WHERE p.id IN :ids AND p.status = 'APPROVED'")
+    int markExpired(Collection<UUID> ids, LocalDateTime now, String updatedBy);
+
     /**
      * Find permits in transit (paginated)
      */
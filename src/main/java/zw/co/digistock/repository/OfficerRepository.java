@@ -5,6 +5,7 @@ import org.springframework.stereotype.Repository;
 import zw.co.digistock.domain.Officer;
 import zw.co.digistock.domain.enums.UserRole;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -31,14 +32,14 @@ public interface OfficerRepository extends JpaRepository<Officer, UUID> {
     List<Officer> findByRole(UserRole role);
 
     /**
-     * Find officers by district
+     * Find officers in any of the given districts
      */
-    List<Officer> findByDistrict(String district);
+    List<Officer> findByDistrictRefIdIn(Collection<UUID> districtIds);
 
     /**
-     * Find officers by province
+     * Find officers in any of the given provinces
      */
-    List<Officer> findByProvince(String province);
+    List<Officer> findByProvinceRefIdIn(Collection<UUID> provinceIds);
 
     /**
      * Find active officers
@@ -48,7 +49,7 @@ public interface OfficerRepository extends JpaRepository<Officer, UUID> {
     /**
      * Find officers by role and district
      */
-    List<Officer> findByRoleAndDistrict(UserRole role, String district);
+    List<Officer> findByRoleAndDistrictRefIdIn(UserRole role, Collection<UUID> districtIds);
 
     /**
      * Check if officer code exists
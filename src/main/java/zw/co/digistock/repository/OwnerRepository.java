@@ -4,9 +4,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import zw.co.digistock.domain.Owner;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -28,14 +30,14 @@ public interface OwnerRepository extends JpaRepository<Owner, UUID> {
     Optional<Owner> findByPhoneNumber(String phoneNumber);
 
     /**
-     * Find owners by district (paginated)
+     * Find owners in any of the given districts (paginated)
      */
-    Page<Owner> findByDistrict(String district, Pageable pageable);
+    Page<Owner> findByDistrictRefIdIn(Collection<UUID> districtIds, Pageable pageable);
 
     /**
-     * Find owners by province (paginated)
+     * Find owners in any of the given provinces (paginated)
      */
-    Page<Owner> findByProvince(String province, Pageable pageable);
+    Page<Owner> findByProvinceRefIdIn(Collection<UUID> provinceIds, Pageable pageable);
 
     /**
      * Find owners with biometric enrollment (paginated)
@@ -43,11 +45,55 @@ public interface OwnerRepository extends JpaRepository<Owner, UUID> {
     Page<Owner> findByBiometricEnrolled(boolean enrolled, Pageable pageable);
 
     /**
-     * Search owners by name (case-insensitive) - paginated
+     * Ranked owner search (PostgreSQL, pg_trgm) - paginated IDs.
+     *
+     * Full name is matched by trigram word similarity so typos and partial names still hit;
+     * national ID and phone number are prefix matches. Identifier hits rank first, then
+     * name similarity. Returns IDs only so the JOINED Owner entity is loaded through JPA.
      */
-    @Query("SELECT o FROM Owner o WHERE LOWER(o.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "OR LOWER(o.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    Page<Owner> searchByName(String searchTerm, Pageable pageable);
+    @Query(value = "SELECT o.id FROM owners o " +
+                   "WHERE :term <% (o.first_name || ' ' || o.last_name) " +
+                   "OR o.national_id LIKE :idPrefix ESCAPE '\\' " +
+                   "OR o.phone_number LIKE :localPhonePrefix ESCAPE '\\' " +
+                   "OR o.phone_number LIKE :intlPhonePrefix ESCAPE '\\' " +
+                   "ORDER BY GREATEST(" +
+                   "CASE WHEN o.national_id LIKE :idPrefix ESCAPE '\\' " +
+                   "OR o.phone_number LIKE :localPhonePrefix ESCAPE '\\' " +
+                   "OR o.phone_number LIKE :intlPhonePrefix ESCAPE '\\' THEN 1.0 ELSE 0.0 END, " +
+                   "word_similarity(:term, o.first_name || ' ' || o.last_name)) DESC, " +
+                   "o.last_name, o.first_name, o.id",
+           countQuery = "SELECT COUNT(*) FROM owners o " +
+                        "WHERE :term <% (o.first_name || ' ' || o.last_name) " +
+                        "OR o.national_id LIKE :idPrefix ESCAPE '\\' " +
+                        "OR o.phone_number LIKE :localPhonePrefix ESCAPE '\\' " +
+                        "OR o.phone_number LIKE :intlPhonePrefix ESCAPE '\\'",
+           nativeQuery = true)
+    Page<UUID> searchRankedIds(@Param("term") String term,
+                               @Param("idPrefix") String idPrefix,
+                               @Param("localPhonePrefix") String localPhonePrefix,
+                               @Param("intlPhonePrefix") String intlPhonePrefix,
+                               Pageable pageable);
+
+    /**
+     * Same matches as searchRankedIds, in the pageable's sort order instead of by relevance.
+     * Sort orders must name columns of owners.
+     */
+    @Query(value = "SELECT o.id FROM owners o " +
+                   "WHERE :term <% (o.first_name || ' ' || o.last_name) " +
+                   "OR o.national_id LIKE :idPrefix ESCAPE '\\' " +
+                   "OR o.phone_number LIKE :localPhonePrefix ESCAPE '\\' " +
+                   "OR o.phone_number LIKE :intlPhonePrefix ESCAPE '\\'",
+           countQuery = "SELECT COUNT(*) FROM owners o " +
+                        "WHERE :term <% (o.first_name || ' ' || o.last_name) " +
+                        "OR o.national_id LIKE :idPrefix ESCAPE '\\' " +
+                        "OR o.phone_number LIKE :localPhonePrefix ESCAPE '\\' " +
+                        "OR o.phone_number LIKE :intlPhonePrefix ESCAPE '\\'",
+           nativeQuery = true)
+    Page<UUID> searchSortedIds(@Param("term") String term,
+                               @Param("idPrefix") String idPrefix,
+                               @Param("localPhonePrefix") String localPhonePrefix,
+                               @Param("intlPhonePrefix") String intlPhonePrefix,
+                               Pageable pageable);
 
     /**
      * Check if national ID already exists
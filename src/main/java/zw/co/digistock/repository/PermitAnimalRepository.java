@@ -0,0 +1,50 @@
+package zw.co.digistock.repository;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import zw.co.digistock.domain.PermitAnimal;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the animals on herd movement permits
+ */
+@Repository
+public interface PermitAnimalRepository extends JpaRepository<PermitAnimal, UUID> {
+
+    /**
+     * Animals on a permit with their livestock and clearance, by tag code
+     */
+    @Query("SELECT a FROM PermitAnimal a JOIN FETCH a.livestock l JOIN FETCH a.clearance " +
+           "WHERE a.permit.id = :permitId ORDER BY l.tagCode")
+    List<PermitAnimal> findByPermitIdWithLivestock(UUID permitId);
+
+    /**
+     * Animals on a permit with the given tag codes, with their livestock
+     */
+    @EntityGraph(attributePaths = {"livestock"})
+    List<PermitAnimal> findByPermitIdAndLivestockTagCodeIn(UUID permitId, Collection<String> tagCodes);
+
+    /**
+     * Tag codes of animals on a permit that are reported stolen
+     */
+    @Query("SELECT a.livestock.tagCode FROM PermitAnimal a " +
+           "WHERE a.permit.id = :permitId AND a.livestock.stolen = true ORDER BY a.livestock.tagCode")
+    List<String> findStolenTagCodes(UUID permitId);
+
+    /**
+     * Mark every animal still under way on a permit arrived
+     */
+    @Modifying
+    @Query("UPDATE PermitAnimal a SET a.completedAt = :now, a.updatedAt = :now, a.version = a.version + 1 " +
+           "WHERE a.permit.id = :permitId AND a.completedAt IS NULL")
+    int markRemainingCompleted(UUID permitId, LocalDateTime now);
+
+    long countByPermitIdAndCompletedAtIsNull(UUID permitId);
+}
@@ -1,6 +1,11 @@
 package zw.co.digistock.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import zw.co.digistock.domain.PermitVerification;
@@ -13,7 +18,15 @@ import java.util.UUID;
  * Repository for PermitVerification entity operations
  */
 @Repository
-public interface PermitVerificationRepository extends JpaRepository<PermitVerification, UUID> {
+public interface PermitVerificationRepository extends JpaRepository<PermitVerification, UUID>,
+        JpaSpecificationExecutor<PermitVerification> {
+
+    /**
+     * Spatial search (see GeoSpecifications) - paginated, with permit and officer fetched
+     */
+    @Override
+    @EntityGraph(attributePaths = {"permit", "verifiedBy"})
+    Page<PermitVerification> findAll(Specification<PermitVerification> spec, Pageable pageable);
 
     /**
      * Find verifications for a specific permit
@@ -41,8 +54,28 @@ public interface PermitVerificationRepository extends JpaRepository<PermitVerifi
     @Query("SELECT v FROM PermitVerification v WHERE v.verifiedAt >= :since ORDER BY v.verifiedAt DESC")
     List<PermitVerification> findRecentVerifications(LocalDateTime since);
 
+    /**
+     * Verifications with coordinates but no stored geohash (rows recorded before 012-geohash-columns)
+     */
+    @Query("SELECT v FROM PermitVerification v WHERE v.verificationGeohash IS NULL " +
+           "AND v.verificationLatitude IS NOT NULL AND v.verificationLongitude IS NOT NULL")
+    List<PermitVerification> findMissingGeohash(Pageable pageable);
+
     /**
      * Count verifications for a permit
      */
     long countByPermitId(UUID permitId);
+
+    /**
+     * Verifications for a permit from a point in time, newest first.
+     * The lower bound on verified_at lets PostgreSQL skip older monthly partitions.
+     */
+    @EntityGraph(attributePaths = {"permit", "verifiedBy"})
+    List<PermitVerification> findByPermitIdAndVerifiedAtGreaterThanEqualOrderByVerifiedAtDesc(
+        UUID permitId, LocalDateTime since);
+
+    /**
+     * Count verifications for a permit from a point in time (partition-pruned, see above)
+     */
+    long countByPermitIdAndVerifiedAtGreaterThanEqual(UUID permitId, LocalDateTime since);
 }
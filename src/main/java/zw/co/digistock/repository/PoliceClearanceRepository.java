@@ -2,13 +2,17 @@ package zw.co.digistock.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import zw.co.digistock.domain.PoliceClearance;
 import zw.co.digistock.domain.enums.ClearanceStatus;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,6 +28,38 @@ public interface PoliceClearanceRepository extends JpaRepository<PoliceClearance
      */
     Optional<PoliceClearance> findByClearanceNumber(String clearanceNumber);
 
+    /**
+     * Find a clearance with the livestock and owner its QR payload is signed over
+     */
+    @EntityGraph(attributePaths = {"livestock", "owner"})
+    Optional<PoliceClearance> findWithLivestockById(UUID id);
+
+    /**
+     * Store the QR code reference once the artefact outbox has produced it
+     */
+    @Modifying
+    @Query("UPDATE PoliceClearance c SET c.qrRef = :qrRef, c.version = c.version + 1 WHERE c.id = :id")
+    int updateQrRef(UUID id, String qrRef);
+
+    /**
+     * Find a clearance with everything printed on its PDF
+     */
+    @EntityGraph(attributePaths = {"livestock", "owner", "issuedBy"})
+    Optional<PoliceClearance> findForDocumentById(UUID id);
+
+    /**
+     * Store the PDF reference once the artefact outbox has produced it
+     */
+    @Modifying
+    @Query("UPDATE PoliceClearance c SET c.pdfRef = :pdfRef, c.version = c.version + 1 WHERE c.id = :id")
+    int updatePdfRef(UUID id, String pdfRef);
+
+    /**
+     * Find clearances by number, with the livestock and owner (QR batch verification)
+     */
+    @EntityGraph(attributePaths = {"livestock", "owner"})
+    List<PoliceClearance> findByClearanceNumberIn(Collection<String> clearanceNumbers);
+
     /**
      * Find clearances for a specific livestock (paginated)
      */
@@ -51,6 +87,14 @@ public interface PoliceClearanceRepository extends JpaRepository<PoliceClearance
            "AND c.status = 'APPROVED' AND c.expiryDate >= :today ORDER BY c.clearanceDate DESC")
     Page<PoliceClearance> findValidClearancesForLivestock(UUID livestockId, LocalDate today, Pageable pageable);
 
+    /**
+     * Valid (approved and not expired) clearances for any of the livestock, with the livestock
+     * (herd permit validation); an animal may have several
+     */
+    @Query("SELECT c FROM PoliceClearance c JOIN FETCH c.livestock WHERE c.livestock.id IN :livestockIds " +
+           "AND c.status = 'APPROVED' AND c.expiryDate >= :today")
+    List<PoliceClearance> findValidClearancesForLivestockIn(Collection<UUID> livestockIds, LocalDate today);
+
     /**
      * Find most recent clearance for livestock
      */
@@ -64,6 +108,22 @@ public interface PoliceClearanceRepository extends JpaRepository<PoliceClearance
     @Query("SELECT c FROM PoliceClearance c WHERE c.status = 'APPROVED' AND c.expiryDate < :today")
     Page<PoliceClearance> findExpiredClearances(LocalDate today, Pageable pageable);
 
+    /**
+     * Ids of approved clearances past their expiry date, oldest first (for the expiry sweep)
+     */
+    @Query("SELECT c.id FROM PoliceClearance c WHERE c.status = 'APPROVED' AND c.expiryDate < :today " +
+           "ORDER BY c.expiryDate")
+    List<UUID> findExpiredClearanceIds(LocalDate today, Pageable pageable);
+
+    /**
+     * Move the given clearances to EXPIRED if they are still approved
+     */
+    @Modifying
+    @Query("UPDATE PoliceClearance c SET c.status = zw.co.digistock.domain.enums.ClearanceStatus.EXPIRED, " +
+           "c.updatedAt = :now, c.updatedBy = :updatedBy, c.version = c.version + 1 " +
+           "WHERE c.id IN :ids AND c.status = 'APPROVED'")
+    int markExpired(Collection<UUID> ids, LocalDateTime now, String updatedBy);
+
     /**
      * Find pending clearances (paginated)
      */
@@ -1,6 +1,9 @@
 package zw.co.digistock.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import zw.co.digistock.domain.Province;
 
@@ -9,7 +12,8 @@ import java.util.Optional;
 import java.util.UUID;
 
 /**
- * Repository for Province entity operations
+ * Repository for Province entity operations.
+ * Lookups marked cacheable use the Hibernate query cache (see caffeine-jcache.conf).
  */
 @Repository
 public interface ProvinceRepository extends JpaRepository<Province, UUID> {
@@ -19,14 +23,22 @@ public interface ProvinceRepository extends JpaRepository<Province, UUID> {
      */
     Optional<Province> findByName(String name);
 
+    /**
+     * Find province by name, ignoring case
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<Province> findByNameIgnoreCase(String name);
+
     /**
      * Find province by code
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Province> findByCode(String code);
 
     /**
      * Find all active provinces
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Province> findByActiveTrue();
 
     /**
@@ -0,0 +1,67 @@
+package zw.co.digistock.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import zw.co.digistock.domain.RevocationEntry;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository for the revocation feed
+ */
+@Repository
+public interface RevocationEntryRepository extends JpaRepository<RevocationEntry, Long> {
+
+    /**
+     * Up to limit entries after a sequence number, in order, leaving out those written in the
+     * last settleSeconds by the database clock
+     */
+    @Query(value = "SELECT * FROM revocation_feed WHERE seq > :since " +
+                   "AND created_at < CURRENT_TIMESTAMP - CAST(:settleSeconds AS BIGINT) * INTERVAL '1' SECOND " +
+                   "ORDER BY seq LIMIT :limit", nativeQuery = true)
+    List<RevocationEntry> findSince(long since, long settleSeconds, int limit);
+
+    /**
+     * Highest sequence number written more than settleSeconds ago by the database clock (null if none)
+     */
+    @Query(value = "SELECT MAX(seq) FROM revocation_feed " +
+                   "WHERE created_at < CURRENT_TIMESTAMP - CAST(:settleSeconds AS BIGINT) * INTERVAL '1' SECOND",
+           nativeQuery = true)
+    Long findLastSettledSeq(long settleSeconds);
+
+    /**
+     * Every entry after a sequence number, in order, settled or not
+     */
+    @Query("SELECT e FROM RevocationEntry e WHERE e.seq > :since ORDER BY e.seq")
+    List<RevocationEntry> findAfter(long since);
+
+    /**
+     * Highest sequence number written so far (null if none)
+     */
+    @Query("SELECT MAX(e.seq) FROM RevocationEntry e")
+    Long findLastSeq();
+
+    /**
+     * Every entry up to a sequence number, in order
+     */
+    @Query("SELECT e FROM RevocationEntry e WHERE e.seq <= :upTo ORDER BY e.seq")
+    List<RevocationEntry> findUpTo(long upTo);
+
+    /**
+     * Drop entries for documents past their own validity
+     */
+    @Modifying
+    @Query("DELETE FROM RevocationEntry e WHERE e.expiresOn < :today")
+    int deleteExpired(LocalDate today);
+
+    /**
+     * Drop entries superseded by a later entry for the same subject
+     */
+    @Modifying
+    @Query("DELETE FROM RevocationEntry e WHERE EXISTS (SELECT 1 FROM RevocationEntry n " +
+           "WHERE n.subjectType = e.subjectType AND n.subjectKey = e.subjectKey AND n.seq > e.seq)")
+    int deleteSuperseded();
+}
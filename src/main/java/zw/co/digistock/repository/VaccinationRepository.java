@@ -9,6 +9,7 @@ import org.springframework.stereotype.Repository;
 import zw.co.digistock.domain.Vaccination;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -138,22 +139,22 @@ public interface VaccinationRepository extends JpaRepository<Vaccination, UUID>
     List<Object[]> countVaccinationsByVeterinaryOfficer();
 
     /**
-     * Find all vaccinations for livestock in a specific district.
+     * Find all vaccinations for livestock in any of the given districts.
      *
-     * @param district The district to search for
+     * @param districtIds The districts to search for
      * @param pageable Pagination information
      * @return Page of vaccinations for livestock in the specified district
      */
-    @Query("SELECT v FROM Vaccination v WHERE v.livestock.owner.district = :district")
-    Page<Vaccination> findByLivestockOwnerDistrict(@Param("district") String district, Pageable pageable);
+    @Query("SELECT v FROM Vaccination v WHERE v.livestock.owner.districtRef.id IN :districtIds")
+    Page<Vaccination> findByLivestockOwnerDistrictIds(@Param("districtIds") Collection<UUID> districtIds, Pageable pageable);
 
     /**
-     * Find all vaccinations for livestock in a specific province.
+     * Find all vaccinations for livestock in any of the given provinces.
      *
-     * @param province The province to search for
+     * @param provinceIds The provinces to search for
      * @param pageable Pagination information
      * @return Page of vaccinations for livestock in the specified province
      */
-    @Query("SELECT v FROM Vaccination v WHERE v.livestock.owner.province = :province")
-    Page<Vaccination> findByLivestockOwnerProvince(@Param("province") String province, Pageable pageable);
+    @Query("SELECT v FROM Vaccination v WHERE v.livestock.owner.provinceRef.id IN :provinceIds")
+    Page<Vaccination> findByLivestockOwnerProvinceIds(@Param("provinceIds") Collection<UUID> provinceIds, Pageable pageable);
 }
@@ -1,7 +1,10 @@
 package zw.co.digistock.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import zw.co.digistock.domain.District;
 import zw.co.digistock.domain.Ward;
@@ -11,7 +14,8 @@ import java.util.Optional;
 import java.util.UUID;
 
 /**
- * Repository for Ward entity operations
+ * Repository for Ward entity operations.
+ * Lookups marked cacheable use the Hibernate query cache (see caffeine-jcache.conf).
  */
 @Repository
 public interface WardRepository extends JpaRepository<Ward, UUID> {
@@ -34,12 +38,14 @@ public interface WardRepository extends JpaRepository<Ward, UUID> {
     /**
      * Find all wards in a district
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT w FROM Ward w WHERE w.district.id = :districtId AND w.active = true")
     List<Ward> findByDistrictId(UUID districtId);
 
     /**
      * Find all active wards
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Ward> findByActiveTrue();
 
     /**
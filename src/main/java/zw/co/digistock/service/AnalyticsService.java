@@ -3,6 +3,8 @@ package zw.co.digistock.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import zw.co.digistock.config.Workload;
+import zw.co.digistock.config.WorkloadPool;
 import zw.co.digistock.domain.enums.ClearanceStatus;
 import zw.co.digistock.domain.enums.PermitStatus;
 import zw.co.digistock.dto.response.ClearanceAnalytics;
@@ -23,6 +25,7 @@ import java.util.Map;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@WorkloadPool(Workload.ANALYTICS)
 public class AnalyticsService {
 
     private final LivestockRepository livestockRepository;
@@ -0,0 +1,287 @@
+package zw.co.digistock.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import zw.co.digistock.domain.ArtefactJob;
+import zw.co.digistock.domain.enums.ArtefactJobStatus;
+import zw.co.digistock.domain.enums.ArtefactType;
+import zw.co.digistock.dto.response.ArtefactJobResponse;
+import zw.co.digistock.exception.BusinessException;
+import zw.co.digistock.exception.ResourceNotFoundException;
+import zw.co.digistock.repository.ArtefactJobRepository;
+import zw.co.digistock.repository.MovementPermitRepository;
+import zw.co.digistock.repository.PoliceClearanceRepository;
+import zw.co.digistock.service.document.PdfDocumentService;
+import zw.co.digistock.service.qr.QrCodeService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Produces the files for issued documents (QR codes, PDFs) outside the issuing transaction.
+ *
+ * Issuing a document calls enqueue() in its transaction, which writes an artefact_jobs row.
+ * After the commit the job is handed to the bounded artefact executor; the poller picks up
+ * whatever that misses (full queue, restart, retries). A worker claims a job by pushing its
+ * available_at forward, loads the document in a short read-only transaction, renders and
+ * uploads with no connection held, then stores the reference on the document. Failures are
+ * retried with exponential backoff up to digistock.artefacts.max-attempts; jobs that give up
+ * are left FAILED until an admin requeues them.
+ */
+@Service
+@Slf4j
+public class ArtefactOutbox {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ArtefactJobRepository jobRepository;
+    private final MovementPermitRepository permitRepository;
+    private final PoliceClearanceRepository clearanceRepository;
+    private final QrCodeService qrCodeService;
+    private final PdfDocumentService pdfDocumentService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TaskExecutor executor;
+    private final Counter completed;
+    private final Counter failedAttempts;
+
+    @Value("${digistock.artefacts.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${digistock.artefacts.retry-delay-seconds:10}")
+    private long retryDelaySeconds;
+
+    @Value("${digistock.artefacts.claim-seconds:300}")
+    private long claimSeconds;
+
+    @Value("${digistock.artefacts.poll-batch-size:100}")
+    private int pollBatchSize;
+
+    public ArtefactOutbox(ArtefactJobRepository jobRepository,
+                          MovementPermitRepository permitRepository,
+                          PoliceClearanceRepository clearanceRepository,
+                          QrCodeService qrCodeService,
+                          PdfDocumentService pdfDocumentService,
+                          TransactionTemplate transactionTemplate,
+                          @Qualifier("artefactExecutor") TaskExecutor executor,
+                          MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.permitRepository = permitRepository;
+        this.clearanceRepository = clearanceRepository;
+        this.qrCodeService = qrCodeService;
+        this.pdfDocumentService = pdfDocumentService;
+        this.transactionTemplate = transactionTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = executor;
+        this.completed = Counter.builder("digistock.artefacts.completed")
+            .description("Artefact jobs completed")
+            .register(meterRegistry);
+        this.failedAttempts = Counter.builder("digistock.artefacts.failed.attempts")
+            .description("Artefact job attempts that failed")
+            .register(meterRegistry);
+        Gauge.builder("digistock.artefacts.pending", jobRepository, repository -> repository.countByStatus(ArtefactJobStatus.PENDING))
+            .description("Artefact jobs waiting to run")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queue an artefact for a document; must run inside the transaction that issues it
+     */
+    public void enqueue(ArtefactType type, UUID documentId) {
+        ArtefactJob job = jobRepository.save(ArtefactJob.builder()
+            .type(type)
+            .documentId(documentId)
+            .status(ArtefactJobStatus.PENDING)
+            .attempts(0)
+            .availableAt(LocalDateTime.now())
+            .build());
+        UUID jobId = job.getId();
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(jobId);
+            }
+        });
+    }
+
+    /**
+     * Hand due jobs to the workers: retries, and jobs the post-commit dispatch could not queue
+     */
+    @Scheduled(fixedDelayString = "${digistock.artefacts.poll-ms:15000}")
+    public void pollDueJobs() {
+        try {
+            List<UUID> due = jobRepository.findDueJobIds(LocalDateTime.now(), PageRequest.of(0, pollBatchSize));
+            for (UUID jobId : due) {
+                if (!dispatch(jobId)) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Artefact outbox poll failed", e);
+        }
+    }
+
+    /**
+     * Failed jobs, most recent first
+     */
+    public List<ArtefactJobResponse> getFailedJobs(int limit) {
+        return jobRepository.findByStatusOrderByUpdatedAtDesc(ArtefactJobStatus.FAILED, PageRequest.of(0, limit)).stream()
+            .map(this::mapToResponse)
+            .toList();
+    }
+
+    /**
+     * Retry a failed job from its first attempt, e.g. once the cause has been fixed
+     */
+    public void requeue(UUID jobId) {
+        Integer requeued = transactionTemplate.execute(status -> jobRepository.requeue(jobId, LocalDateTime.now()));
+        if (requeued == null || requeued == 0) {
+            if (!jobRepository.existsById(jobId)) {
+                throw new ResourceNotFoundException("Artefact Job", "id", jobId);
+            }
+            throw new BusinessException("Only failed artefact jobs can be retried");
+        }
+        log.info("Artefact job {} requeued", jobId);
+        dispatch(jobId);
+    }
+
+    /**
+     * Retry every failed job; the poller hands them to the workers
+     *
+     * @return number of jobs requeued
+     */
+    public int requeueFailed() {
+        Integer requeued = transactionTemplate.execute(status -> jobRepository.requeueAllFailed(LocalDateTime.now()));
+        int count = requeued == null ? 0 : requeued;
+        log.info("{} failed artefact jobs requeued", count);
+        return count;
+    }
+
+    private boolean dispatch(UUID jobId) {
+        try {
+            executor.execute(() -> process(jobId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.debug("Artefact workers busy; job {} left for the poller", jobId);
+            return false;
+        }
+    }
+
+    /**
+     * Run one job if it is still due and no other worker has claimed it
+     */
+    void process(UUID jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status ->
+            jobRepository.claim(jobId, now, now.plusSeconds(claimSeconds)));
+        if (claimed == null || claimed == 0) {
+            return;
+        }
+
+        ArtefactJob job = jobRepository.findById(jobId).orElseThrow();
+        try {
+            String reference = produce(job);
+            transactionTemplate.executeWithoutResult(status -> {
+                store(job, reference);
+                jobRepository.finish(jobId, ArtefactJobStatus.DONE, job.getAvailableAt(), null,
+                    LocalDateTime.now(), LocalDateTime.now());
+            });
+            completed.increment();
+            log.debug("Artefact {} for {} stored: {}", job.getType(), job.getDocumentId(), reference);
+        } catch (RuntimeException e) {
+            failedAttempts.increment();
+            fail(job, e);
+        }
+    }
+
+    /**
+     * Render and upload the artefact; the document is read in its own short transaction
+     */
+    private String produce(ArtefactJob job) {
+        UUID id = job.getDocumentId();
+        return switch (job.getType()) {
+            case PERMIT_QR -> qrCodeService.generatePermitQrCode(
+                read(() -> permitRepository.findWithLivestockById(id), "Movement Permit", id));
+            case CLEARANCE_QR -> qrCodeService.generateClearanceQrCode(
+                read(() -> clearanceRepository.findWithLivestockById(id), "Police Clearance", id));
+            case PERMIT_PDF -> pdfDocumentService.generatePermitPdf(
+                read(() -> permitRepository.findForDocumentById(id), "Movement Permit", id));
+            case CLEARANCE_PDF -> pdfDocumentService.generateClearancePdf(
+                read(() -> clearanceRepository.findForDocumentById(id), "Police Clearance", id));
+        };
+    }
+
+    private <T> T read(Supplier<Optional<T>> query, String resource, UUID id) {
+        return readOnlyTransaction.execute(status -> query.get()
+            .orElseThrow(() -> new ResourceNotFoundException(resource, "id", id)));
+    }
+
+    private void store(ArtefactJob job, String reference) {
+        switch (job.getType()) {
+            case PERMIT_QR -> permitRepository.updateQrRef(job.getDocumentId(), reference);
+            case CLEARANCE_QR -> clearanceRepository.updateQrRef(job.getDocumentId(), reference);
+            case PERMIT_PDF -> permitRepository.updatePdfRef(job.getDocumentId(), reference);
+            case CLEARANCE_PDF -> clearanceRepository.updatePdfRef(job.getDocumentId(), reference);
+        }
+    }
+
+    private void fail(ArtefactJob job, RuntimeException e) {
+        // Read after the claim, so this attempt is already counted
+        int attempts = job.getAttempts();
+        boolean giveUp = attempts >= maxAttempts;
+        LocalDateTime retryAt = LocalDateTime.now().plus(backoff(attempts));
+        String error = String.valueOf(e.getMessage());
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        String lastError = error;
+
+        transactionTemplate.executeWithoutResult(status -> jobRepository.finish(job.getId(),
+            giveUp ? ArtefactJobStatus.FAILED : ArtefactJobStatus.PENDING, retryAt, lastError, null, LocalDateTime.now()));
+        if (giveUp) {
+            log.error("Artefact {} for {} failed after {} attempts", job.getType(), job.getDocumentId(), attempts, e);
+        } else {
+            log.warn("Artefact {} for {} failed (attempt {}), retrying at {}: {}",
+                job.getType(), job.getDocumentId(), attempts, retryAt, e.getMessage());
+        }
+    }
+
+    private ArtefactJobResponse mapToResponse(ArtefactJob job) {
+        return ArtefactJobResponse.builder()
+            .id(job.getId())
+            .type(job.getType())
+            .documentId(job.getDocumentId())
+            .status(job.getStatus())
+            .attempts(job.getAttempts())
+            .availableAt(job.getAvailableAt())
+            .lastError(job.getLastError())
+            .updatedAt(job.getUpdatedAt())
+            .build();
+    }
+
+    /**
+     * retry-delay-seconds doubled per attempt, capped at an hour
+     */
+    private Duration backoff(int attempts) {
+        long seconds = retryDelaySeconds << Math.min(attempts - 1, 20);
+        return Duration.ofSeconds(Math.min(seconds, Duration.ofHours(1).toSeconds()));
+    }
+}
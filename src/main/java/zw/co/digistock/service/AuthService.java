@@ -48,6 +48,7 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final UserDetailsService userDetailsService;
     private final EmailService emailService;
+    private final LocationResolver locationResolver;
 
     /**
      * Authenticate a user (Officer or Owner) and return a JWT token.
@@ -89,6 +90,9 @@ public class AuthService {
             throw new DuplicateResourceException("Officer code already exists: " + request.getOfficerCode());
         }
 
+        LocationResolver.ResolvedLocation location =
+            locationResolver.resolve(request.getProvince(), request.getDistrict());
+
         Officer officer = Officer.builder()
             .officerCode(request.getOfficerCode())
             .firstName(request.getFirstName())
@@ -97,8 +101,10 @@ public class AuthService {
             .phoneNumber(request.getPhoneNumber())
             .passwordHash(passwordEncoder.encode(request.getPassword()))
             .role(request.getRole())
-            .province(request.getProvince())
-            .district(request.getDistrict())
+            .province(location.getProvinceName())
+            .district(location.getDistrictName())
+            .provinceRef(location.getProvince())
+            .districtRef(location.getDistrict())
             .active(true)
             .biometricEnrolled(false)
             .build();
@@ -0,0 +1,62 @@
+package zw.co.digistock.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk persistence path for seeding, imports and campaigns.
+ *
+ * Entities are written in groups of hibernate.jdbc.batch_size: each group is saved, flushed
+ * as JDBC batches (statements ordered by table, see hibernate.order_inserts / order_updates)
+ * and then detached, so the persistence context does not grow with the number of rows and
+ * dirty checking at the next flush stays cheap.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BatchWriter {
+
+    private final EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int batchSize;
+
+    /**
+     * Save all entities, flushing every batch_size rows. The returned entities carry their
+     * generated ids but are detached; lazy associations cannot be loaded from them afterwards.
+     */
+    @Transactional
+    public <T> List<T> saveAllInBatches(JpaRepository<T, ?> repository, Iterable<? extends T> entities) {
+        List<T> saved = new ArrayList<>();
+        List<T> batch = new ArrayList<>(batchSize);
+        for (T entity : entities) {
+            batch.add(entity);
+            if (batch.size() == batchSize) {
+                saved.addAll(write(repository, batch));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            saved.addAll(write(repository, batch));
+        }
+        log.debug("Saved {} {} row(s) in batches of {}", saved.size(),
+            saved.isEmpty() ? "" : saved.get(0).getClass().getSimpleName(), batchSize);
+        return saved;
+    }
+
+    private <T> List<T> write(JpaRepository<T, ?> repository, List<T> batch) {
+        List<T> saved = repository.saveAll(batch);
+        repository.flush();
+        // Only the rows written here; whatever else the caller holds stays managed
+        saved.forEach(entityManager::detach);
+        return saved;
+    }
+}
@@ -0,0 +1,163 @@
+package zw.co.digistock.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import zw.co.digistock.config.Workload;
+import zw.co.digistock.config.WorkloadPool;
+import zw.co.digistock.repository.MovementPermitRepository;
+import zw.co.digistock.repository.PoliceClearanceRepository;
+import zw.co.digistock.service.event.ClearancesExpiredEvent;
+import zw.co.digistock.service.event.PermitsExpiredEvent;
+import zw.co.digistock.util.Constants;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Moves approved movement permits and police clearances past their validity date to EXPIRED.
+ *
+ * Rows are handled in batches of digistock.expiry.batch-size, oldest first: the ids are read
+ * through the partial indexes on the APPROVED rows, then updated with one bulk UPDATE, each
+ * batch in its own transaction. Only the node holding the "expiry-sweep" lease runs a sweep.
+ * Every batch publishes a PermitsExpiredEvent / ClearancesExpiredEvent and counts towards
+ * the digistock.expiry.expired metric.
+ */
+@Service
+@Slf4j
+@WorkloadPool(Workload.BATCH)
+public class ExpirySweeper {
+
+    static final String LEASE = "expiry-sweep";
+    private static final String UPDATED_BY = "system:expiry-sweep";
+
+    private final MovementPermitRepository permitRepository;
+    private final PoliceClearanceRepository clearanceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JobLease jobLease;
+    private final Counter expiredPermits;
+    private final Counter expiredClearances;
+    private final Timer sweepTimer;
+
+    @Value("${digistock.expiry.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${digistock.expiry.lease-minutes:10}")
+    private long leaseMinutes;
+
+    public ExpirySweeper(MovementPermitRepository permitRepository,
+                         PoliceClearanceRepository clearanceRepository,
+                         TransactionTemplate transactionTemplate,
+                         ApplicationEventPublisher eventPublisher,
+                         JobLease jobLease,
+                         MeterRegistry meterRegistry) {
+        this.permitRepository = permitRepository;
+        this.clearanceRepository = clearanceRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.jobLease = jobLease;
+        this.expiredPermits = Counter.builder("digistock.expiry.expired")
+            .description("Rows moved to EXPIRED by the expiry sweep")
+            .tag("type", "permit")
+            .register(meterRegistry);
+        this.expiredClearances = Counter.builder("digistock.expiry.expired")
+            .description("Rows moved to EXPIRED by the expiry sweep")
+            .tag("type", "clearance")
+            .register(meterRegistry);
+        this.sweepTimer = Timer.builder("digistock.expiry.sweep")
+            .description("Duration of expiry sweeps run on this node")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Periodic sweep; see digistock.expiry.cron
+     */
+    @Scheduled(cron = "${digistock.expiry.cron:0 */15 * * * *}", zone = Constants.TIME_ZONE)
+    public void sweepScheduled() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            log.error("Scheduled expiry sweep failed", e);
+        }
+    }
+
+    /**
+     * Expire everything that is due, if no other node is sweeping
+     *
+     * @return false if another node holds the lease
+     */
+    public boolean sweep() {
+        if (!jobLease.tryAcquire(LEASE, lease())) {
+            log.debug("Expiry sweep is running on another node");
+            return false;
+        }
+        try {
+            sweepTimer.record(() -> {
+                LocalDate today = LocalDate.now(ZoneId.of(Constants.TIME_ZONE));
+                int permits = expire(today, permitRepository::findExpiredPermitIds, permitRepository::markExpired,
+                    ids -> new PermitsExpiredEvent(ids, today), expiredPermits);
+                int clearances = expire(today, clearanceRepository::findExpiredClearanceIds,
+                    clearanceRepository::markExpired, ids -> new ClearancesExpiredEvent(ids, today), expiredClearances);
+                if (permits > 0 || clearances > 0) {
+                    log.info("Expiry sweep: {} permits and {} clearances expired", permits, clearances);
+                }
+            });
+        } finally {
+            jobLease.release(LEASE);
+        }
+        return true;
+    }
+
+    private int expire(LocalDate today,
+                       BiFunction<LocalDate, PageRequest, List<UUID>> findExpired,
+                       ExpireBatch markExpired,
+                       Function<List<UUID>, Object> event,
+                       Counter counter) {
+        int total = 0;
+        while (true) {
+            Integer updated = transactionTemplate.execute(status -> {
+                List<UUID> ids = findExpired.apply(today, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                int count = markExpired.apply(ids, LocalDateTime.now(), UPDATED_BY);
+                eventPublisher.publishEvent(event.apply(ids));
+                return count;
+            });
+            if (updated == null || updated == 0) {
+                return total;
+            }
+            total += updated;
+            counter.increment(updated);
+
+            // Extends the lease for long backlogs; stop if it has passed to another node
+            if (!jobLease.tryAcquire(LEASE, lease())) {
+                log.warn("Lost the expiry sweep lease after {} rows", total);
+                return total;
+            }
+        }
+    }
+
+    private Duration lease() {
+        return Duration.ofMinutes(leaseMinutes);
+    }
+
+    @FunctionalInterface
+    private interface ExpireBatch {
+        int apply(List<UUID> ids, LocalDateTime now, String updatedBy);
+    }
+}
@@ -0,0 +1,60 @@
+package zw.co.digistock.service;
+
+import zw.co.digistock.exception.BusinessException;
+import zw.co.digistock.util.Constants;
+import zw.co.digistock.util.GeoHash;
+import zw.co.digistock.util.ValidationUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Shared validation and ranking for the nearby / bounding-box endpoints.
+ */
+final class GeoQueries {
+
+    private GeoQueries() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    static void validateNearby(Double latitude, Double longitude, double radiusKm, int limit) {
+        if (!ValidationUtils.isValidCoordinate(latitude, longitude)) {
+            throw new BusinessException("Invalid coordinates: " + latitude + ", " + longitude);
+        }
+        if (radiusKm <= 0 || radiusKm > Constants.MAX_NEARBY_RADIUS_KM) {
+            throw new BusinessException("Radius must be greater than 0 and at most " + Constants.MAX_NEARBY_RADIUS_KM + " km");
+        }
+        if (limit < 1 || limit > Constants.MAX_NEARBY_LIMIT) {
+            throw new BusinessException("Limit must be between 1 and " + Constants.MAX_NEARBY_LIMIT);
+        }
+    }
+
+    static void validateBox(GeoHash.BoundingBox box) {
+        if (!ValidationUtils.isValidCoordinate(box.getMinLatitude(), box.getMinLongitude())
+                || !ValidationUtils.isValidCoordinate(box.getMaxLatitude(), box.getMaxLongitude())) {
+            throw new BusinessException("Invalid bounding box coordinates");
+        }
+        if (box.getMinLatitude() > box.getMaxLatitude() || box.getMinLongitude() > box.getMaxLongitude()) {
+            throw new BusinessException("Bounding box minimum must not exceed maximum");
+        }
+    }
+
+    /**
+     * Candidates within radiusKm of the point, nearest first, paired with their distance
+     */
+    static <T> List<Map.Entry<T, Double>> nearest(List<T> candidates,
+                                                   Function<T, Double> latitude,
+                                                   Function<T, Double> longitude,
+                                                   double originLatitude, double originLongitude,
+                                                   double radiusKm, int limit) {
+        return candidates.stream()
+            .map(c -> Map.entry(c, GeoHash.distanceKm(originLatitude, originLongitude,
+                latitude.apply(c), longitude.apply(c))))
+            .filter(e -> e.getValue() <= radiusKm)
+            .sorted(Map.Entry.comparingByValue())
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+}
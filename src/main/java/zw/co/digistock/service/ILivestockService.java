@@ -3,6 +3,7 @@ package zw.co.digistock.service;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
+import zw.co.digistock.dto.request.LivestockSearchFilter;
 import zw.co.digistock.dto.request.RegisterLivestockRequest;
 import zw.co.digistock.dto.response.LivestockResponse;
 
@@ -62,4 +63,9 @@ public interface ILivestockService {
      * Search livestock with pagination
      */
     Page<LivestockResponse> searchLivestock(String query, Pageable pageable);
+
+    /**
+     * Search livestock by filter criteria with pagination
+     */
+    Page<LivestockResponse> searchLivestock(LivestockSearchFilter filter, Pageable pageable);
 }
@@ -4,6 +4,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import zw.co.digistock.dto.request.CreateVaccinationRequest;
 import zw.co.digistock.dto.request.UpdateVaccinationRequest;
+import zw.co.digistock.dto.request.VaccinationCampaignRequest;
+import zw.co.digistock.dto.response.VaccinationCampaignResponse;
 import zw.co.digistock.dto.response.VaccinationResponse;
 
 import java.time.LocalDate;
@@ -23,6 +25,14 @@ public interface IVaccinationService {
      */
     VaccinationResponse createVaccination(CreateVaccinationRequest request);
 
+    /**
+     * Record the same vaccination for many animals at once.
+     *
+     * @param request The vaccination details and the animals vaccinated
+     * @return The number of records created and their IDs
+     */
+    VaccinationCampaignResponse recordCampaign(VaccinationCampaignRequest request);
+
     /**
      * Get a vaccination record by ID.
      *
@@ -0,0 +1,70 @@
+package zw.co.digistock.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Database lease so a scheduled job runs on one node at a time.
+ *
+ * A node holds the lease for a job while its scheduler_leases row names it as owner and
+ * locked_until is in the future. A crashed node's lease simply runs out, so the TTL must
+ * exceed the longest expected run. Lease times come from the database clock and are stored as
+ * timestamptz, so nodes with skewed clocks or different time zones agree on expiry.
+ * Statements commit on their own: call outside any transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JobLease {
+
+    /**
+     * This node, e.g. "12345@host-a/3f2c..." (the suffix tells apart restarts with a reused pid)
+     */
+    private static final String OWNER = ManagementFactory.getRuntimeMXBean().getName()
+        + "/" + UUID.randomUUID().toString().substring(0, 8);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Take (or extend) the lease for the job
+     *
+     * @return true if this node now holds the lease
+     */
+    public boolean tryAcquire(String job, Duration ttl) {
+        long ttlSeconds = Math.max(1, ttl.toSeconds());
+
+        int updated = jdbcTemplate.update(
+            "UPDATE scheduler_leases SET owner = ?, locked_at = CURRENT_TIMESTAMP, " +
+            "locked_until = CURRENT_TIMESTAMP + CAST(? AS BIGINT) * INTERVAL '1' SECOND " +
+            "WHERE name = ? AND (locked_until <= CURRENT_TIMESTAMP OR owner = ?)",
+            OWNER, ttlSeconds, job, OWNER);
+        if (updated > 0) {
+            return true;
+        }
+        try {
+            jdbcTemplate.update(
+                "INSERT INTO scheduler_leases (name, owner, locked_at, locked_until) " +
+                "VALUES (?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP + CAST(? AS BIGINT) * INTERVAL '1' SECOND)",
+                job, OWNER, ttlSeconds);
+            return true;
+        } catch (DuplicateKeyException e) {
+            log.debug("Lease {} is held by another node", job);
+            return false;
+        }
+    }
+
+    /**
+     * Give up the lease early so another node need not wait for it to run out
+     */
+    public void release(String job) {
+        jdbcTemplate.update("UPDATE scheduler_leases SET locked_until = CURRENT_TIMESTAMP WHERE name = ? AND owner = ?",
+            job, OWNER);
+    }
+}
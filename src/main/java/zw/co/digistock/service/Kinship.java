@@ -0,0 +1,96 @@
+package zw.co.digistock.service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Kinship coefficients over an in-memory pedigree.
+ *
+ * Animals are numbered so every parent comes before its offspring, and parents are
+ * held in int arrays (-1 = unknown). The recursive rule
+ * f(a,b) = (f(a, sire(b)) + f(a, dam(b))) / 2 for b younger than a, and
+ * f(a,a) = (1 + f(sire(a), dam(a))) / 2, then runs on primitives with every pair memoized.
+ * The inbreeding coefficient of an offspring is the kinship of its parents.
+ */
+final class Kinship {
+
+    private static final int UNKNOWN = -1;
+
+    private final Map<UUID, Integer> index;
+    private final int[] sire;
+    private final int[] dam;
+    private final Map<Long, Double> memo = new HashMap<>();
+
+    /**
+     * @param parents animal ID to {motherId, fatherId}; either may be null or point outside the map
+     */
+    Kinship(Map<UUID, UUID[]> parents) {
+        this.index = new HashMap<>(parents.size() * 2);
+        Set<UUID> visiting = new HashSet<>();
+        for (UUID id : parents.keySet()) {
+            number(id, parents, visiting);
+        }
+
+        this.sire = new int[index.size()];
+        this.dam = new int[index.size()];
+        index.forEach((id, i) -> {
+            UUID[] links = parents.get(id);
+            dam[i] = parentIndex(links[0], i);
+            sire[i] = parentIndex(links[1], i);
+        });
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    /**
+     * Kinship of two animals; 0 if either is outside the pedigree
+     */
+    double coefficient(UUID a, UUID b) {
+        return kinship(index.getOrDefault(a, UNKNOWN), index.getOrDefault(b, UNKNOWN));
+    }
+
+    private double kinship(int a, int b) {
+        if (a == UNKNOWN || b == UNKNOWN) {
+            return 0;
+        }
+
+        int older = Math.min(a, b);
+        int younger = Math.max(a, b);
+        long key = ((long) younger << 32) | older;
+        Double cached = memo.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        double value = a == b
+            ? 0.5 * (1 + kinship(sire[a], dam[a]))
+            : 0.5 * (kinship(older, sire[younger]) + kinship(older, dam[younger]));
+        memo.put(key, value);
+        return value;
+    }
+
+    /**
+     * Depth-first numbering, parents first. A cycle in the data leaves one link
+     * pointing forwards, which parentIndex then treats as unknown.
+     */
+    private void number(UUID id, Map<UUID, UUID[]> parents, Set<UUID> visiting) {
+        if (id == null || index.containsKey(id) || !parents.containsKey(id) || !visiting.add(id)) {
+            return;
+        }
+        UUID[] links = parents.get(id);
+        number(links[0], parents, visiting);
+        number(links[1], parents, visiting);
+        visiting.remove(id);
+        index.put(id, index.size());
+    }
+
+    private int parentIndex(UUID parentId, int child) {
+        Integer parent = parentId != null ? index.get(parentId) : null;
+        return parent != null && parent < child ? parent : UNKNOWN;
+    }
+}
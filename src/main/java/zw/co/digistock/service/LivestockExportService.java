@@ -0,0 +1,161 @@
+package zw.co.digistock.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import zw.co.digistock.config.Workload;
+import zw.co.digistock.config.WorkloadPool;
+import zw.co.digistock.domain.Livestock;
+import zw.co.digistock.domain.Owner;
+import zw.co.digistock.dto.request.LivestockSearchFilter;
+import zw.co.digistock.dto.response.LivestockExportRow;
+import zw.co.digistock.repository.LivestockSpecifications;
+import zw.co.digistock.util.CsvUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service for streaming exports of the livestock register.
+ *
+ * Rows are read through a forward-only cursor as flat projections and written straight to
+ * the gzip stream, so memory use does not depend on how many animals are exported.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@WorkloadPool(Workload.ANALYTICS)
+public class LivestockExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String CSV_HEADER = "tagCode,name,breed,sex,birthDate,color,distinguishingMarks,"
+        + "ownerNationalId,ownerFirstName,ownerLastName,district,province,motherTagCode,fatherTagCode,"
+        + "stolen,stolenDate,registrationLatitude,registrationLongitude,registeredAt";
+
+    private final EntityManager entityManager;
+    private final LocationResolver locationResolver;
+    private final ObjectMapper objectMapper;
+
+    public enum ExportFormat {
+        CSV,
+        NDJSON
+    }
+
+    /**
+     * Write the filtered register to the stream as gzip-compressed CSV or NDJSON.
+     * All filters are optional; a province or district that does not resolve gives an empty export.
+     */
+    @Transactional(readOnly = true)
+    public long exportLivestock(ExportFormat format, String province, String district, Boolean stolen,
+                                OutputStream out) throws IOException {
+        List<UUID> provinceIds = hasText(province) ? locationResolver.findProvinceIds(province) : null;
+        List<UUID> districtIds = hasText(district) ? locationResolver.findDistrictIds(district) : null;
+
+        GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_SIZE);
+        ObjectWriter json = objectMapper.writerFor(LivestockExportRow.class);
+
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long count = 0;
+        if ((provinceIds == null || !provinceIds.isEmpty()) && (districtIds == null || !districtIds.isEmpty())) {
+            try (Stream<LivestockExportRow> rows = streamRows(provinceIds, districtIds, stolen)) {
+                Iterator<LivestockExportRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    writeRow(writer, format, json, iterator.next());
+                    count++;
+                }
+            }
+        }
+
+        // Finish the gzip trailer but leave closing the response stream to the container
+        writer.flush();
+        gzip.finish();
+        log.info("Exported {} livestock rows as {}", count, format);
+        return count;
+    }
+
+    /**
+     * Forward-only read of the register as flat rows rather than entities, ordered by tag code.
+     * Only the filters given (non-null) become predicates, via LivestockSpecifications.
+     * Must be consumed inside a transaction and closed.
+     */
+    private Stream<LivestockExportRow> streamRows(List<UUID> provinceIds, List<UUID> districtIds, Boolean stolen) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LivestockExportRow> query = cb.createQuery(LivestockExportRow.class);
+        Root<Livestock> livestock = query.from(Livestock.class);
+        Join<Livestock, Owner> owner = livestock.join("owner", JoinType.INNER);
+        Join<Livestock, Livestock> mother = livestock.join("mother", JoinType.LEFT);
+        Join<Livestock, Livestock> father = livestock.join("father", JoinType.LEFT);
+        Specification<Livestock> filter = LivestockSpecifications.fromFilter(
+            LivestockSearchFilter.builder().stolen(stolen).build(), districtIds, provinceIds);
+
+        query.select(cb.construct(LivestockExportRow.class,
+                livestock.get("tagCode"), livestock.get("name"), livestock.get("breed"), livestock.get("sex"),
+                livestock.get("birthDate"), livestock.get("color"), livestock.get("distinguishingMarks"),
+                owner.get("nationalId"), owner.get("firstName"), owner.get("lastName"),
+                owner.get("district"), owner.get("province"), mother.get("tagCode"), father.get("tagCode"),
+                livestock.get("stolen"), livestock.get("stolenDate"),
+                livestock.get("registrationLatitude"), livestock.get("registrationLongitude"),
+                livestock.get("createdAt")))
+            .where(filter.toPredicate(livestock, query, cb))
+            .orderBy(cb.asc(livestock.get("tagCode")));
+
+        return entityManager.createQuery(query)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, 1000)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream();
+    }
+
+    private static void writeRow(Writer writer, ExportFormat format, ObjectWriter json, LivestockExportRow row)
+            throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            writer.write(json.writeValueAsString(row));
+        } else {
+            // Same order as CSV_HEADER
+            Object[] values = {
+                row.getTagCode(), row.getName(), row.getBreed(), row.getSex(), row.getBirthDate(),
+                row.getColor(), row.getDistinguishingMarks(), row.getOwnerNationalId(),
+                row.getOwnerFirstName(), row.getOwnerLastName(), row.getDistrict(), row.getProvince(),
+                row.getMotherTagCode(), row.getFatherTagCode(), row.isStolen(), row.getStolenDate(),
+                row.getRegistrationLatitude(), row.getRegistrationLongitude(), row.getRegisteredAt()
+            };
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                // Numbers (e.g. southern latitudes) keep their sign; only text can carry a formula
+                writer.write(values[i] instanceof String text ? CsvUtils.textField(text) : CsvUtils.field(values[i]));
+            }
+        }
+        writer.write('\n');
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,469 @@
+package zw.co.digistock.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import zw.co.digistock.config.Workload;
+import zw.co.digistock.config.WorkloadPool;
+import zw.co.digistock.domain.Livestock;
+import zw.co.digistock.domain.Owner;
+import zw.co.digistock.dto.request.LivestockImportRow;
+import zw.co.digistock.dto.response.LivestockImportResponse;
+import zw.co.digistock.exception.BusinessException;
+import zw.co.digistock.repository.LivestockRepository;
+import zw.co.digistock.repository.OwnerRepository;
+import zw.co.digistock.util.Constants;
+import zw.co.digistock.util.ValidationUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service for bulk livestock registration from CSV or NDJSON files.
+ *
+ * The file is streamed in chunks of Constants.IMPORT_CHUNK_SIZE rows (CSV through Jackson's CSV
+ * parser, so quoted fields may span lines as in the register export). Each chunk is validated in
+ * parallel, resolved with one query each for existing tag codes, owners and parents, and inserted
+ * in its own transaction, so a bad chunk never rolls back rows already imported. Rows use the
+ * same fields and rules as RegisterLivestockRequest; parents may also be given by tag code, which
+ * finds registered animals and rows of the same chunk (inserted parents first), so a parent on
+ * any earlier row of the file is found. Only the current chunk's tag codes are held in memory;
+ * a tag code repeated in a later chunk is caught by the registered tag code check instead.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@WorkloadPool(Workload.BATCH)
+public class LivestockImportService {
+
+    private static final Set<String> CSV_COLUMNS = Set.of(
+        "tagCode", "name", "breed", "sex", "birthDate", "color", "distinguishingMarks",
+        "ownerId", "motherId", "fatherId", "motherTagCode", "fatherTagCode",
+        "registrationLatitude", "registrationLongitude");
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+    private final LivestockRepository livestockRepository;
+    private final OwnerRepository ownerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BatchWriter batchWriter;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Import livestock from a .csv (header row of field names) or .ndjson file
+     */
+    public LivestockImportResponse importLivestock(MultipartFile file) {
+        ImportFormat format = detectFormat(file);
+        log.info("Importing livestock from {} ({})", file.getOriginalFilename(), format);
+        long start = System.currentTimeMillis();
+
+        ImportReport report = new ImportReport();
+
+        try (InputStream in = file.getInputStream()) {
+            RowSource rows = format == ImportFormat.CSV ? csvRows(in) : ndjsonRows(in);
+
+            List<ImportRow> chunk = new ArrayList<>(Constants.IMPORT_CHUNK_SIZE);
+            ImportRow row;
+            while ((row = rows.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == Constants.IMPORT_CHUNK_SIZE) {
+                    processChunk(chunk, report);
+                    chunk = new ArrayList<>(Constants.IMPORT_CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, report);
+            }
+        } catch (IOException e) {
+            throw new BusinessException("Could not read import file: " + e.getMessage());
+        }
+
+        long durationMs = System.currentTimeMillis() - start;
+        log.info("Imported {} of {} livestock rows in {} ms", report.imported, report.totalRows, durationMs);
+
+        return LivestockImportResponse.builder()
+            .totalRows(report.totalRows)
+            .imported(report.imported)
+            .failed(report.failed)
+            .durationMs(durationMs)
+            .errors(report.errors)
+            .errorsTruncated(report.failed > report.errors.size())
+            .build();
+    }
+
+    private void processChunk(List<ImportRow> chunk, ImportReport report) {
+        // Field checks need no database access, so they run in parallel
+        chunk.parallelStream()
+            .filter(row -> row.error == null)
+            .forEach(row -> row.error = validate(row.request));
+
+        Set<String> seenTagCodes = new HashSet<>();
+        List<ImportRow> candidates = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (row.error == null && !seenTagCodes.add(row.request.getTagCode())) {
+                row.error = "Duplicate tag code in file";
+            }
+            if (row.error == null) {
+                candidates.add(row);
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertChunk(candidates));
+            } catch (DataAccessException e) {
+                log.warn("Import chunk rejected by database: {}", e.getMostSpecificCause().getMessage());
+                candidates.stream()
+                    .filter(row -> row.error == null)
+                    .forEach(row -> row.error = "Rejected by database: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+
+        for (ImportRow row : chunk) {
+            report.add(row);
+        }
+    }
+
+    private void insertChunk(List<ImportRow> rows) {
+        Set<String> existing = new HashSet<>(livestockRepository.findExistingTagCodes(
+            rows.stream().map(row -> row.request.getTagCode()).collect(Collectors.toList())));
+
+        Map<UUID, Owner> owners = ownerRepository.findAllById(
+                rows.stream().map(row -> row.request.getOwnerId()).collect(Collectors.toSet()))
+            .stream()
+            .collect(Collectors.toMap(Owner::getId, Function.identity()));
+
+        Set<UUID> parentIds = rows.stream()
+            .flatMap(row -> Stream.of(row.request.getMotherId(), row.request.getFatherId()))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Map<UUID, Livestock> parentsById = parentIds.isEmpty() ? Map.of()
+            : livestockRepository.findAllById(parentIds).stream()
+                .collect(Collectors.toMap(Livestock::getId, Function.identity()));
+
+        Set<String> parentTagCodes = rows.stream()
+            .flatMap(row -> Stream.of(row.request.getMotherTagCode(), row.request.getFatherTagCode()))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Map<String, Livestock> parentsByTagCode = parentTagCodes.isEmpty() ? Map.of()
+            : livestockRepository.findByTagCodeIn(parentTagCodes).stream()
+                .collect(Collectors.toMap(Livestock::getTagCode, Function.identity()));
+
+        ChunkInsert insert = new ChunkInsert(rows, existing, owners, parentsById, parentsByTagCode);
+        rows.forEach(insert::resolve);
+
+        // Parents come before their offspring; flushes as it goes, so constraint errors belong to this chunk
+        batchWriter.saveAllInBatches(livestockRepository, insert.entities);
+    }
+
+    private String validate(LivestockImportRow request) {
+        Set<ConstraintViolation<LivestockImportRow>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+        }
+
+        Double latitude = request.getRegistrationLatitude();
+        Double longitude = request.getRegistrationLongitude();
+        if ((latitude != null || longitude != null) && !ValidationUtils.isValidCoordinate(latitude, longitude)) {
+            return "Invalid registration coordinates";
+        }
+        if (request.getMotherId() != null && request.getMotherTagCode() != null) {
+            return "Give motherId or motherTagCode, not both";
+        }
+        if (request.getFatherId() != null && request.getFatherTagCode() != null) {
+            return "Give fatherId or fatherTagCode, not both";
+        }
+        return null;
+    }
+
+    /**
+     * CSV rows after the header, skipping blank lines; quoted fields may span lines
+     */
+    private RowSource csvRows(InputStream in) throws IOException {
+        MappingIterator<List<String>> records = CSV_MAPPER.readerForListOf(String.class)
+            .with(CsvParser.Feature.WRAP_AS_ARRAY)
+            .readValues(in);
+        List<String> header = readHeader(records);
+
+        return () -> {
+            while (records.hasNextValue()) {
+                long lineNumber = records.getCurrentLocation().getLineNr();
+                List<String> cells = records.nextValue();
+                if (cells.stream().allMatch(String::isBlank)) {
+                    continue;
+                }
+                if (cells.size() > header.size()) {
+                    return new ImportRow(lineNumber, null, "Expected " + header.size() + " columns, found " + cells.size());
+                }
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < cells.size(); i++) {
+                    if (!cells.get(i).isBlank()) {
+                        values.put(header.get(i), cells.get(i).trim());
+                    }
+                }
+                try {
+                    return parsed(lineNumber, objectMapper.convertValue(values, LivestockImportRow.class));
+                } catch (IllegalArgumentException e) {
+                    return new ImportRow(lineNumber, null, describe(e));
+                }
+            }
+            return null;
+        };
+    }
+
+    /**
+     * One JSON object per line, skipping blank lines
+     */
+    private RowSource ndjsonRows(InputStream in) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        long[] lineNumber = {0};
+
+        return () -> {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber[0]++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    return parsed(lineNumber[0], objectMapper.readValue(line, LivestockImportRow.class));
+                } catch (JsonProcessingException e) {
+                    return new ImportRow(lineNumber[0], null, describe(e));
+                }
+            }
+            return null;
+        };
+    }
+
+    private static ImportRow parsed(long lineNumber, LivestockImportRow request) {
+        request.setTagCode(trimToNull(request.getTagCode()));
+        request.setMotherTagCode(trimToNull(request.getMotherTagCode()));
+        request.setFatherTagCode(trimToNull(request.getFatherTagCode()));
+        return new ImportRow(lineNumber, request, null);
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static List<String> readHeader(MappingIterator<List<String>> records) throws IOException {
+        if (!records.hasNextValue()) {
+            throw new BusinessException("Import file is empty");
+        }
+        // Strip a UTF-8 byte order mark left by spreadsheet exports
+        List<String> header = records.nextValue().stream()
+            .map(column -> column.startsWith("\uFEFF") ? column.substring(1) : column)
+            .map(String::trim)
+            .collect(Collectors.toList());
+        if (header.stream().allMatch(String::isEmpty)) {
+            throw new BusinessException("Import file is empty");
+        }
+        for (String column : header) {
+            if (!CSV_COLUMNS.contains(column)) {
+                throw new BusinessException("Unknown import column: '" + column + "'");
+            }
+        }
+        return header;
+    }
+
+    private static String describe(Exception e) {
+        Throwable cause = e instanceof JsonProcessingException ? e : e.getCause();
+        if (cause instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+            return "Invalid value for " + mapping.getPath().get(0).getFieldName();
+        }
+        return cause instanceof JsonProcessingException json
+            ? "Malformed row: " + json.getOriginalMessage()
+            : "Malformed row";
+    }
+
+    private static ImportFormat detectFormat(MultipartFile file) {
+        String name = file.getOriginalFilename() != null
+            ? file.getOriginalFilename().toLowerCase(Locale.ROOT)
+            : "";
+        String contentType = file.getContentType() != null ? file.getContentType() : "";
+
+        if (name.endsWith(".csv") || contentType.startsWith("text/csv")) {
+            return ImportFormat.CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || contentType.startsWith("application/x-ndjson")) {
+            return ImportFormat.NDJSON;
+        }
+        throw new BusinessException("Unsupported import file; upload a .csv or .ndjson file");
+    }
+
+    /**
+     * Next parsed row of the file, or null at the end
+     */
+    @FunctionalInterface
+    private interface RowSource {
+        ImportRow next() throws IOException;
+    }
+
+    /**
+     * Builds the entities of one chunk, resolving parents given by tag code against registered
+     * animals first and then against the chunk's own rows, and listing parents before offspring
+     */
+    private static final class ChunkInsert {
+
+        private final Set<String> existing;
+        private final Map<UUID, Owner> owners;
+        private final Map<UUID, Livestock> parentsById;
+        private final Map<String, Livestock> parentsByTagCode;
+        private final Map<String, ImportRow> pending = new HashMap<>();
+        private final Map<ImportRow, Livestock> built = new HashMap<>();
+        private final Set<ImportRow> resolving = new HashSet<>();
+        private final List<Livestock> entities = new ArrayList<>();
+
+        private ChunkInsert(List<ImportRow> rows, Set<String> existing, Map<UUID, Owner> owners,
+                            Map<UUID, Livestock> parentsById, Map<String, Livestock> parentsByTagCode) {
+            this.existing = existing;
+            this.owners = owners;
+            this.parentsById = parentsById;
+            this.parentsByTagCode = parentsByTagCode;
+            rows.forEach(row -> pending.put(row.request.getTagCode(), row));
+        }
+
+        /**
+         * The row's entity, built after its parents; null if the row cannot be imported
+         */
+        private Livestock resolve(ImportRow row) {
+            if (row.error != null || built.containsKey(row)) {
+                return built.get(row);
+            }
+            if (!resolving.add(row)) {
+                row.error = "Parentage cycle in file";
+                return null;
+            }
+
+            LivestockImportRow request = row.request;
+            Owner owner = owners.get(request.getOwnerId());
+            if (existing.contains(request.getTagCode())) {
+                row.error = "Tag code already registered";
+            } else if (owner == null) {
+                row.error = "Owner not found with id: " + request.getOwnerId();
+            } else {
+                Livestock mother = parent(row, "Mother", request.getMotherId(), request.getMotherTagCode());
+                Livestock father = parent(row, "Father", request.getFatherId(), request.getFatherTagCode());
+                if (row.error == null) {
+                    Livestock entity = Livestock.builder()
+                        .tagCode(request.getTagCode())
+                        .name(request.getName())
+                        .breed(request.getBreed())
+                        .sex(request.getSex())
+                        .birthDate(request.getBirthDate())
+                        .color(request.getColor())
+                        .distinguishingMarks(request.getDistinguishingMarks())
+                        .owner(owner)
+                        .mother(mother)
+                        .father(father)
+                        .registrationLatitude(request.getRegistrationLatitude())
+                        .registrationLongitude(request.getRegistrationLongitude())
+                        .stolen(false)
+                        .build();
+                    built.put(row, entity);
+                    entities.add(entity);
+                }
+            }
+            resolving.remove(row);
+            return built.get(row);
+        }
+
+        private Livestock parent(ImportRow row, String role, UUID id, String tagCode) {
+            if (row.error != null || (id == null && tagCode == null)) {
+                return null;
+            }
+            if (id != null) {
+                Livestock parent = parentsById.get(id);
+                if (parent == null) {
+                    row.error = role + " not found with id: " + id;
+                }
+                return parent;
+            }
+
+            Livestock parent = parentsByTagCode.get(tagCode);
+            if (parent != null) {
+                return parent;
+            }
+            ImportRow parentRow = pending.get(tagCode);
+            if (parentRow == null) {
+                row.error = role + " not found with tag code: " + tagCode;
+                return null;
+            }
+            parent = resolve(parentRow);
+            if (parent == null && row.error == null) {
+                row.error = role + " " + tagCode + " could not be imported";
+            }
+            return parent;
+        }
+    }
+
+    private enum ImportFormat {
+        CSV,
+        NDJSON
+    }
+
+    private static final class ImportRow {
+        private final long line;
+        private final LivestockImportRow request;
+        private String error;
+
+        private ImportRow(long line, LivestockImportRow request, String error) {
+            this.line = line;
+            this.request = request;
+            this.error = error;
+        }
+    }
+
+    private static final class ImportReport {
+        private int totalRows;
+        private int imported;
+        private int failed;
+        private final List<LivestockImportResponse.RowError> errors = new ArrayList<>();
+
+        private void add(ImportRow row) {
+            totalRows++;
+            if (row.error == null) {
+                imported++;
+                return;
+            }
+            failed++;
+            if (errors.size() < Constants.MAX_IMPORT_ERRORS) {
+                errors.add(LivestockImportResponse.RowError.builder()
+                    .line(row.line)
+                    .tagCode(row.request != null ? row.request.getTagCode() : null)
+                    .message(row.error)
+                    .build());
+            }
+        }
+    }
+}
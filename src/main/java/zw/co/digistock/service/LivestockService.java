@@ -2,7 +2,10 @@ package zw.co.digistock.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -11,20 +14,30 @@ import zw.co.digistock.config.MinioConfig;
 import zw.co.digistock.domain.Livestock;
 import zw.co.digistock.domain.LivestockPhoto;
 import zw.co.digistock.domain.Owner;
+import zw.co.digistock.dto.request.LivestockSearchFilter;
 import zw.co.digistock.dto.request.RegisterLivestockRequest;
 import zw.co.digistock.dto.request.UpdateLivestockRequest;
 import zw.co.digistock.dto.response.LivestockResponse;
 import zw.co.digistock.exception.BusinessException;
 import zw.co.digistock.exception.DuplicateResourceException;
 import zw.co.digistock.exception.ResourceNotFoundException;
+import zw.co.digistock.repository.GeoSpecifications;
 import zw.co.digistock.repository.LivestockPhotoRepository;
 import zw.co.digistock.repository.LivestockRepository;
+import zw.co.digistock.repository.LivestockSpecifications;
 import zw.co.digistock.repository.OwnerRepository;
+import zw.co.digistock.service.event.LivestockStolenStatusEvent;
 import zw.co.digistock.service.qr.QrCodeService;
 import zw.co.digistock.service.storage.MinioStorageService;
+import zw.co.digistock.util.GeoHash;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -41,6 +54,9 @@ public class LivestockService {
     private final MinioStorageService minioStorageService;
     private final QrCodeService qrCodeService;
     private final MinioConfig minioConfig;
+    private final LocationResolver locationResolver;
+    private final PedigreeService pedigreeService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Register new livestock
@@ -90,7 +106,14 @@ public class LivestockService {
         Livestock saved = livestockRepository.save(livestock);
         log.info("Successfully registered livestock: {}", saved.getTagCode());
 
-        return mapToResponse(saved);
+        LivestockResponse response = mapToResponse(saved);
+        if (Boolean.TRUE.equals(request.getComputeInbreeding())) {
+            // An unknown parent contributes no inbreeding
+            response.setInbreedingCoefficient(saved.getMother() != null && saved.getFather() != null
+                ? pedigreeService.calculateInbreeding(saved.getMother(), saved.getFather()).getCoefficient()
+                : 0.0);
+        }
+        return response;
     }
 
     /**
@@ -182,7 +205,7 @@ public class LivestockService {
     /**
      * Mark livestock as stolen
      */
-    @Transactional
+    @Transactional(timeoutString = "${digistock.revocations.writer-timeout-seconds:5}")
     public LivestockResponse markAsStolen(UUID livestockId) {
         log.warn("Marking livestock as stolen: {}", livestockId);
 
@@ -193,6 +216,7 @@ public class LivestockService {
         livestock.setStolenDate(java.time.LocalDate.now());
 
         Livestock updated = livestockRepository.save(livestock);
+        eventPublisher.publishEvent(new LivestockStolenStatusEvent(updated.getId(), updated.getTagCode(), true));
         log.info("Livestock marked as stolen: {}", updated.getTagCode());
 
         return mapToResponse(updated);
@@ -201,7 +225,7 @@ public class LivestockService {
     /**
      * Mark livestock as recovered
      */
-    @Transactional
+    @Transactional(timeoutString = "${digistock.revocations.writer-timeout-seconds:5}")
     public LivestockResponse markAsRecovered(UUID livestockId) {
         log.info("Marking livestock as recovered: {}", livestockId);
 
@@ -212,6 +236,7 @@ public class LivestockService {
         livestock.setStolenDate(null);
 
         Livestock updated = livestockRepository.save(livestock);
+        eventPublisher.publishEvent(new LivestockStolenStatusEvent(updated.getId(), updated.getTagCode(), false));
         log.info("Livestock marked as recovered: {}", updated.getTagCode());
 
         return mapToResponse(updated);
@@ -226,6 +251,116 @@ public class LivestockService {
         return page.map(this::mapToResponse);
     }
 
+    /**
+     * Search livestock by any combination of filter criteria (paginated)
+     */
+    @Transactional(readOnly = true)
+    public Page<LivestockResponse> searchLivestock(LivestockSearchFilter filter, Pageable pageable) {
+        List<UUID> districtIds = null;
+        if (filter.getDistrict() != null && !filter.getDistrict().isBlank()) {
+            districtIds = locationResolver.findDistrictIds(filter.getDistrict());
+            if (districtIds.isEmpty()) {
+                return Page.empty(pageable);
+            }
+        }
+
+        List<UUID> provinceIds = null;
+        if (filter.getProvince() != null && !filter.getProvince().isBlank()) {
+            provinceIds = locationResolver.findProvinceIds(filter.getProvince());
+            if (provinceIds.isEmpty()) {
+                return Page.empty(pageable);
+            }
+        }
+
+        Page<Livestock> page = livestockRepository.findAll(
+            LivestockSpecifications.fromFilter(filter, districtIds, provinceIds), pageable);
+        return page.map(this::mapToResponse);
+    }
+
+    /**
+     * Full-text search over name, breed, color and distinguishing marks (paginated, ranked).
+     * Any word may match; animals matching more of the description rank higher.
+     */
+    @Transactional(readOnly = true)
+    public Page<LivestockResponse> searchByDescription(String description, String district, Boolean stolen,
+                                                       Pageable pageable) {
+        String query = Arrays.stream(description.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+            .filter(word -> !word.isEmpty())
+            .distinct()
+            .collect(Collectors.joining(" | "));
+        if (query.isEmpty()) {
+            throw new BusinessException("Search description must contain at least one word");
+        }
+
+        Pageable page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<UUID> ids;
+        if (district == null || district.isBlank()) {
+            ids = livestockRepository.searchDescriptionIds(query, stolen, page);
+        } else {
+            List<UUID> districtIds = locationResolver.findDistrictIds(district);
+            if (districtIds.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            ids = livestockRepository.searchDescriptionIdsInDistricts(query, districtIds, stolen, page);
+        }
+
+        Map<UUID, Livestock> livestock = livestockRepository.findByIdIn(ids.getContent()).stream()
+            .collect(Collectors.toMap(Livestock::getId, Function.identity()));
+
+        List<LivestockResponse> content = ids.getContent().stream()
+            .map(livestock::get)
+            .filter(Objects::nonNull)
+            .map(this::mapToResponse)
+            .collect(Collectors.toList());
+
+        return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements());
+    }
+
+    /**
+     * Find livestock registered within radiusKm of a point, nearest first
+     */
+    @Transactional(readOnly = true)
+    public List<LivestockResponse> findLivestockNearby(Double latitude, Double longitude, double radiusKm, int limit) {
+        GeoQueries.validateNearby(latitude, longitude, radiusKm, limit);
+
+        List<Livestock> candidates = livestockRepository.findBy(GeoSpecifications.<Livestock>withinRadius(
+                latitude, longitude, radiusKm, "registrationGeohash", "registrationLatitude", "registrationLongitude"),
+            query -> query.project("owner", "mother", "father").limit(limit).all());
+
+        return GeoQueries.nearest(candidates, Livestock::getRegistrationLatitude, Livestock::getRegistrationLongitude,
+                latitude, longitude, radiusKm, limit).stream()
+            .map(e -> {
+                LivestockResponse response = mapToResponse(e.getKey());
+                response.setDistanceKm(e.getValue());
+                return response;
+            })
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Find livestock registered inside a bounding box (paginated)
+     */
+    @Transactional(readOnly = true)
+    public Page<LivestockResponse> findLivestockWithinBox(GeoHash.BoundingBox box, Pageable pageable) {
+        GeoQueries.validateBox(box);
+        Page<Livestock> page = livestockRepository.findAll(GeoSpecifications.withinBox(
+            box, "registrationGeohash", "registrationLatitude", "registrationLongitude"), pageable);
+        return page.map(this::mapToResponse);
+    }
+
+    /**
+     * Fill in registration geohashes for livestock saved before the column existed.
+     * Returns the number of rows updated; call until it returns 0.
+     */
+    @Transactional
+    public int backfillRegistrationGeohashes(int batchSize) {
+        List<Livestock> batch = livestockRepository.findMissingGeohash(PageRequest.of(0, batchSize));
+        batch.forEach(l -> l.setRegistrationGeohash(
+            GeoHash.encode(l.getRegistrationLatitude(), l.getRegistrationLongitude())));
+        livestockRepository.saveAll(batch);
+        return batch.size();
+    }
+
     /**
      * Update livestock information (limited fields)
      * Only descriptive fields can be updated. Tag code, owner, and parentage are immutable.
@@ -303,7 +438,8 @@ public class LivestockService {
                 .build();
         }
 
-        List<LivestockResponse.PhotoInfo> photos = livestock.getPhotos().stream()
+        List<LivestockPhoto> livestockPhotos = livestock.getPhotos() != null ? livestock.getPhotos() : List.of();
+        List<LivestockResponse.PhotoInfo> photos = livestockPhotos.stream()
             .map(photo -> LivestockResponse.PhotoInfo.builder()
                 .id(photo.getId())
                 .photoRef(photo.getPhotoRef())
@@ -0,0 +1,111 @@
+package zw.co.digistock.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import zw.co.digistock.domain.District;
+import zw.co.digistock.domain.Province;
+import zw.co.digistock.repository.DistrictRepository;
+import zw.co.digistock.repository.ProvinceRepository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves free-text province/district names to the administrative tables.
+ *
+ * Writes use resolve() to store references alongside the canonical names;
+ * name-based filters use the *Ids methods and then query by ID.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LocationResolver {
+
+    private final ProvinceRepository provinceRepository;
+    private final DistrictRepository districtRepository;
+
+    /**
+     * Resolve a province/district pair. The district is looked up within the province
+     * when the province resolves, otherwise by name if that name is unique.
+     * Unresolved parts keep the original text with a null reference.
+     */
+    @Transactional(readOnly = true)
+    public ResolvedLocation resolve(String provinceName, String districtName) {
+        Province province = hasText(provinceName)
+            ? provinceRepository.findByNameIgnoreCase(provinceName.trim()).orElse(null)
+            : null;
+
+        District district = null;
+        if (hasText(districtName)) {
+            if (province != null) {
+                district = districtRepository
+                    .findByProvinceIdAndNameIgnoreCase(province.getId(), districtName.trim())
+                    .orElse(null);
+            } else {
+                List<District> matches = districtRepository.findByNameIgnoreCase(districtName.trim());
+                district = matches.size() == 1 ? matches.get(0) : null;
+            }
+        }
+
+        if (province == null && district != null) {
+            province = district.getProvince();
+        }
+
+        if ((hasText(provinceName) && province == null) || (hasText(districtName) && district == null)) {
+            log.warn("Unresolved location: province='{}', district='{}'", provinceName, districtName);
+        }
+
+        return new ResolvedLocation(
+            province,
+            district,
+            province != null ? province.getName() : provinceName,
+            district != null ? district.getName() : districtName);
+    }
+
+    /**
+     * IDs of districts with this name (names may repeat across provinces); empty if none
+     */
+    @Transactional(readOnly = true)
+    public List<UUID> findDistrictIds(String districtName) {
+        if (!hasText(districtName)) {
+            return List.of();
+        }
+        return districtRepository.findByNameIgnoreCase(districtName.trim()).stream()
+            .map(District::getId)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * ID of the province with this name, as a list; empty if none
+     */
+    @Transactional(readOnly = true)
+    public List<UUID> findProvinceIds(String provinceName) {
+        if (!hasText(provinceName)) {
+            return List.of();
+        }
+        return provinceRepository.findByNameIgnoreCase(provinceName.trim())
+            .map(province -> List.of(province.getId()))
+            .orElse(List.of());
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    /**
+     * Result of resolve(): references (nullable) and the names to store
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class ResolvedLocation {
+        private final Province province;
+        private final District district;
+        private final String provinceName;
+        private final String districtName;
+    }
+}
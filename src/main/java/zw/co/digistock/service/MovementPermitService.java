@@ -4,24 +4,35 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import zw.co.digistock.domain.*;
+import zw.co.digistock.domain.enums.ArtefactType;
 import zw.co.digistock.domain.enums.ClearanceStatus;
 import zw.co.digistock.domain.enums.PermitStatus;
 import zw.co.digistock.domain.enums.UserRole;
+import zw.co.digistock.dto.request.CompleteHerdAnimalsRequest;
+import zw.co.digistock.dto.request.CreateHerdPermitRequest;
 import zw.co.digistock.dto.request.CreatePermitRequest;
 import zw.co.digistock.dto.response.PermitResponse;
+import zw.co.digistock.dto.response.PermitVerificationResponse;
 import zw.co.digistock.exception.BusinessException;
 import zw.co.digistock.exception.ResourceNotFoundException;
 import zw.co.digistock.repository.*;
-import zw.co.digistock.service.qr.QrCodeService;
+import zw.co.digistock.util.GeoHash;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -32,12 +43,16 @@ import java.util.stream.Collectors;
 @Slf4j
 public class MovementPermitService {
 
+    private static final int ERROR_LIST_LIMIT = 10;
+
     private final MovementPermitRepository permitRepository;
     private final PoliceClearanceRepository clearanceRepository;
     private final LivestockRepository livestockRepository;
     private final OfficerRepository officerRepository;
     private final PermitVerificationRepository verificationRepository;
-    private final QrCodeService qrCodeService;
+    private final PermitAnimalRepository permitAnimalRepository;
+    private final ArtefactOutbox artefactOutbox;
+    private final RevocationFeedService revocationFeed;
 
     @Value("${digistock.permit.default-validity-days:7}")
     private int defaultValidityDays;
@@ -49,13 +64,7 @@ public class MovementPermitService {
     public PermitResponse createPermit(CreatePermitRequest request, UUID officerId) {
         log.info("Creating movement permit for livestock: {}", request.getLivestockId());
 
-        // Verify officer is AGRITEX or ADMIN
-        Officer officer = officerRepository.findById(officerId)
-            .orElseThrow(() -> new ResourceNotFoundException("Officer", "id", officerId));
-
-        if (officer.getRole() != UserRole.AGRITEX_OFFICER && officer.getRole() != UserRole.ADMIN) {
-            throw new BusinessException("Only AGRITEX officers can issue movement permits");
-        }
+        Officer officer = findIssuingOfficer(officerId);
 
         // Verify clearance exists and is valid
         PoliceClearance clearance = clearanceRepository.findById(request.getClearanceId())
@@ -82,10 +91,7 @@ public class MovementPermitService {
             throw new BusinessException("Clearance is not for this livestock");
         }
 
-        // Validate dates
-        if (request.getValidUntil().isBefore(request.getValidFrom())) {
-            throw new BusinessException("Valid until date must be after valid from date");
-        }
+        validateDates(request.getValidFrom(), request.getValidUntil());
 
         // Generate permit number
         String permitNumber = generatePermitNumber();
@@ -110,21 +116,95 @@ public class MovementPermitService {
             .issueLongitude(request.getIssueLongitude())
             .build();
 
-        // Generate QR code
-        String qrRef = qrCodeService.generatePermitQrCode(
-            permit.getPermitNumber(),
-            livestock.getTagCode(),
-            permit.getValidUntil().toString(),
-            UUID.randomUUID().toString()
-        );
-        permit.setQrRef(qrRef);
-
         MovementPermit saved = permitRepository.save(permit);
+
+        // QR code and PDF are rendered and uploaded after commit; qrRef/pdfRef are filled in shortly after
+        artefactOutbox.enqueue(ArtefactType.PERMIT_QR, saved.getId());
+        artefactOutbox.enqueue(ArtefactType.PERMIT_PDF, saved.getId());
         log.info("Movement permit created: {}", permitNumber);
 
         return mapToResponse(saved);
     }
 
+    /**
+     * Create a herd movement permit covering several animals, each with its own valid clearance.
+     * The animals and clearances are checked with one query each, whatever the herd size.
+     */
+    @Transactional
+    public PermitResponse createHerdPermit(CreateHerdPermitRequest request, UUID officerId) {
+        List<UUID> livestockIds = request.getLivestockIds().stream().distinct().toList();
+        log.info("Creating herd movement permit for {} livestock", livestockIds.size());
+
+        Officer officer = findIssuingOfficer(officerId);
+        validateDates(request.getValidFrom(), request.getValidUntil());
+
+        Map<UUID, Livestock> livestock = livestockRepository.findAllById(livestockIds).stream()
+            .collect(Collectors.toMap(Livestock::getId, Function.identity()));
+        List<UUID> unknown = livestockIds.stream().filter(id -> !livestock.containsKey(id)).toList();
+        if (!unknown.isEmpty()) {
+            throw new BusinessException("Livestock not found: " + summarize(unknown));
+        }
+
+        List<String> stolen = livestock.values().stream()
+            .filter(Livestock::isStolen)
+            .map(Livestock::getTagCode)
+            .sorted()
+            .toList();
+        if (!stolen.isEmpty()) {
+            throw new BusinessException("Cannot issue permit for stolen livestock: " + summarize(stolen));
+        }
+
+        // An animal may have several valid clearances; use the one that runs longest
+        Map<UUID, PoliceClearance> clearances = clearanceRepository
+            .findValidClearancesForLivestockIn(livestockIds, LocalDate.now()).stream()
+            .collect(Collectors.toMap(c -> c.getLivestock().getId(), Function.identity(),
+                BinaryOperator.maxBy(Comparator.comparing(PoliceClearance::getExpiryDate))));
+        List<String> uncleared = livestockIds.stream()
+            .filter(id -> !clearances.containsKey(id))
+            .map(id -> livestock.get(id).getTagCode())
+            .sorted()
+            .toList();
+        if (!uncleared.isEmpty()) {
+            throw new BusinessException("No valid police clearance for: " + summarize(uncleared));
+        }
+
+        String permitNumber = generatePermitNumber();
+
+        MovementPermit permit = MovementPermit.builder()
+            .permitNumber(permitNumber)
+            .herdSize(livestockIds.size())
+            .fromLocation(request.getFromLocation())
+            .toLocation(request.getToLocation())
+            .purpose(request.getPurpose())
+            .transportMode(request.getTransportMode())
+            .vehicleNumber(request.getVehicleNumber())
+            .driverName(request.getDriverName())
+            .issuedBy(officer)
+            .issuedAt(LocalDateTime.now())
+            .validFrom(request.getValidFrom())
+            .validUntil(request.getValidUntil())
+            .status(PermitStatus.APPROVED)
+            .issueLatitude(request.getIssueLatitude())
+            .issueLongitude(request.getIssueLongitude())
+            .build();
+        for (UUID id : livestockIds) {
+            permit.getAnimals().add(PermitAnimal.builder()
+                .permit(permit)
+                .livestock(livestock.get(id))
+                .clearance(clearances.get(id))
+                .build());
+        }
+
+        MovementPermit saved = permitRepository.save(permit);
+
+        // One QR code and PDF (with a schedule of the animals) for the whole herd
+        artefactOutbox.enqueue(ArtefactType.PERMIT_QR, saved.getId());
+        artefactOutbox.enqueue(ArtefactType.PERMIT_PDF, saved.getId());
+        log.info("Herd movement permit created: {} ({} animals)", permitNumber, livestockIds.size());
+
+        return mapToResponse(saved, saved.getAnimals());
+    }
+
     /**
      * Verify permit at checkpoint
      */
@@ -152,11 +232,16 @@ public class MovementPermitService {
             }
         }
 
-        // Check if livestock is stolen
-        if (permit.getLivestock().isStolen()) {
+        // Check if livestock is stolen; a herd is checked in one query
+        List<String> stolenTags = permit.isHerd()
+            ? permitAnimalRepository.findStolenTagCodes(permitId)
+            : permit.getLivestock().isStolen() ? List.of(permit.getLivestock().getTagCode()) : List.of();
+        if (!stolenTags.isEmpty()) {
             isValid = false;
-            flagReason = "ALERT: Livestock is reported stolen!";
-            log.warn("Stolen livestock detected during verification: {}", permit.getLivestock().getTagCode());
+            flagReason = permit.isHerd()
+                ? "ALERT: Livestock is reported stolen! " + summarize(stolenTags)
+                : "ALERT: Livestock is reported stolen!";
+            log.warn("Stolen livestock detected during verification: {}", stolenTags);
         }
 
         // Create verification record
@@ -180,7 +265,7 @@ public class MovementPermitService {
         }
 
         log.info("Permit verification recorded. Valid: {}", isValid);
-        return mapToResponse(permit);
+        return mapToDetailResponse(permit);
     }
 
     /**
@@ -190,28 +275,78 @@ public class MovementPermitService {
     public PermitResponse completePermit(UUID permitId, Double latitude, Double longitude) {
         log.info("Completing movement permit: {}", permitId);
 
-        MovementPermit permit = permitRepository.findById(permitId)
+        MovementPermit permit = permitRepository.findByIdForUpdate(permitId)
             .orElseThrow(() -> new ResourceNotFoundException("Movement Permit", "id", permitId));
 
         if (permit.getStatus() != PermitStatus.IN_TRANSIT && permit.getStatus() != PermitStatus.APPROVED) {
             throw new BusinessException("Cannot complete permit with status: " + permit.getStatus());
         }
 
+        LocalDateTime now = LocalDateTime.now();
+        if (permit.isHerd()) {
+            permitAnimalRepository.markRemainingCompleted(permitId, now);
+        }
         permit.setStatus(PermitStatus.COMPLETED);
-        permit.setCompletedAt(LocalDateTime.now());
+        permit.setCompletedAt(now);
         permit.setCompletionLatitude(latitude);
         permit.setCompletionLongitude(longitude);
 
         MovementPermit updated = permitRepository.save(permit);
         log.info("Movement permit completed: {}", permit.getPermitNumber());
 
-        return mapToResponse(updated);
+        return mapToDetailResponse(updated);
     }
 
     /**
-     * Cancel permit
+     * Check off animals of a herd permit as they arrive; the permit is completed with the last one
      */
     @Transactional
+    public PermitResponse completeHerdAnimals(UUID permitId, CompleteHerdAnimalsRequest request) {
+        // Locked so that two checkpoints finishing the last animals cannot both see some remaining
+        MovementPermit permit = permitRepository.findByIdForUpdate(permitId)
+            .orElseThrow(() -> new ResourceNotFoundException("Movement Permit", "id", permitId));
+
+        if (!permit.isHerd()) {
+            throw new BusinessException("Permit " + permit.getPermitNumber() + " is not a herd permit");
+        }
+        if (permit.getStatus() != PermitStatus.IN_TRANSIT && permit.getStatus() != PermitStatus.APPROVED) {
+            throw new BusinessException("Cannot complete permit with status: " + permit.getStatus());
+        }
+
+        Set<String> tagCodes = request.getTagCodes().stream().map(String::trim).collect(Collectors.toSet());
+        List<PermitAnimal> animals = permitAnimalRepository.findByPermitIdAndLivestockTagCodeIn(permitId, tagCodes);
+        if (animals.size() < tagCodes.size()) {
+            Set<String> onPermit = animals.stream().map(a -> a.getLivestock().getTagCode()).collect(Collectors.toSet());
+            throw new BusinessException("Not on permit " + permit.getPermitNumber() + ": "
+                + summarize(tagCodes.stream().filter(tag -> !onPermit.contains(tag)).sorted().toList()));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        animals.stream()
+            .filter(animal -> animal.getCompletedAt() == null)
+            .forEach(animal -> animal.setCompletedAt(now));
+        permitAnimalRepository.saveAll(animals);
+
+        long remaining = permitAnimalRepository.countByPermitIdAndCompletedAtIsNull(permitId);
+        if (remaining == 0) {
+            permit.setStatus(PermitStatus.COMPLETED);
+            permit.setCompletedAt(now);
+            permit.setCompletionLatitude(request.getLatitude());
+            permit.setCompletionLongitude(request.getLongitude());
+            permitRepository.save(permit);
+            log.info("Herd movement permit completed: {}", permit.getPermitNumber());
+        } else {
+            log.info("Completed {} animal(s) on herd permit {}, {} still under way",
+                animals.size(), permit.getPermitNumber(), remaining);
+        }
+
+        return mapToDetailResponse(permit);
+    }
+
+    /**
+     * Cancel permit (bounded by the revocation feed's writer timeout)
+     */
+    @Transactional(timeoutString = "${digistock.revocations.writer-timeout-seconds:5}")
     public PermitResponse cancelPermit(UUID permitId, String reason) {
         log.info("Cancelling permit: {}", permitId);
 
@@ -225,9 +360,10 @@ public class MovementPermitService {
         permit.setStatus(PermitStatus.CANCELLED);
 
         MovementPermit updated = permitRepository.save(permit);
+        revocationFeed.permitCancelled(updated);
         log.info("Permit cancelled: {}", permit.getPermitNumber());
 
-        return mapToResponse(updated);
+        return mapToDetailResponse(updated);
     }
 
     /**
@@ -237,7 +373,7 @@ public class MovementPermitService {
     public PermitResponse getPermitById(UUID id) {
         MovementPermit permit = permitRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Movement Permit", "id", id));
-        return mapToResponse(permit);
+        return mapToDetailResponse(permit);
     }
 
     /**
@@ -247,7 +383,7 @@ public class MovementPermitService {
     public PermitResponse getPermitByNumber(String permitNumber) {
         MovementPermit permit = permitRepository.findByPermitNumber(permitNumber)
             .orElseThrow(() -> new ResourceNotFoundException("Movement Permit", "permitNumber", permitNumber));
-        return mapToResponse(permit);
+        return mapToDetailResponse(permit);
     }
 
     /**
@@ -286,6 +422,33 @@ public class MovementPermitService {
         return page.map(this::mapToResponse);
     }
 
+    /**
+     * Load the issuing officer; only AGRITEX officers and admins issue permits
+     */
+    private Officer findIssuingOfficer(UUID officerId) {
+        Officer officer = officerRepository.findById(officerId)
+            .orElseThrow(() -> new ResourceNotFoundException("Officer", "id", officerId));
+
+        if (officer.getRole() != UserRole.AGRITEX_OFFICER && officer.getRole() != UserRole.ADMIN) {
+            throw new BusinessException("Only AGRITEX officers can issue movement permits");
+        }
+        return officer;
+    }
+
+    private static void validateDates(LocalDate validFrom, LocalDate validUntil) {
+        if (validUntil.isBefore(validFrom)) {
+            throw new BusinessException("Valid until date must be after valid from date");
+        }
+    }
+
+    /**
+     * The first few values of a list for an error message, with the total
+     */
+    private static String summarize(Collection<?> values) {
+        String shown = values.stream().limit(ERROR_LIST_LIMIT).map(String::valueOf).collect(Collectors.joining(", "));
+        return values.size() > ERROR_LIST_LIMIT ? shown + " and " + (values.size() - ERROR_LIST_LIMIT) + " more" : shown;
+    }
+
     /**
      * Generate permit number
      * Format: DG-{YEAR}-{SEQUENTIAL}
@@ -297,10 +460,130 @@ public class MovementPermitService {
     }
 
     /**
-     * Map entity to response DTO
+     * Find checkpoint verifications recorded within radiusKm of a point, nearest first
+     */
+    @Transactional(readOnly = true)
+    public List<PermitVerificationResponse> findVerificationsNearby(Double latitude, Double longitude,
+                                                                   double radiusKm, int limit) {
+        GeoQueries.validateNearby(latitude, longitude, radiusKm, limit);
+
+        List<PermitVerification> candidates = verificationRepository.findBy(
+            GeoSpecifications.<PermitVerification>withinRadius(latitude, longitude, radiusKm,
+                "verificationGeohash", "verificationLatitude", "verificationLongitude"),
+            query -> query.project("permit", "verifiedBy").limit(limit).all());
+
+        return GeoQueries.nearest(candidates, PermitVerification::getVerificationLatitude,
+                PermitVerification::getVerificationLongitude, latitude, longitude, radiusKm, limit).stream()
+            .map(e -> {
+                PermitVerificationResponse response = mapToVerificationResponse(e.getKey());
+                response.setDistanceKm(e.getValue());
+                return response;
+            })
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Find checkpoint verifications recorded inside a bounding box (paginated)
+     */
+    @Transactional(readOnly = true)
+    public Page<PermitVerificationResponse> findVerificationsWithinBox(GeoHash.BoundingBox box, Pageable pageable) {
+        GeoQueries.validateBox(box);
+        Page<PermitVerification> page = verificationRepository.findAll(GeoSpecifications.withinBox(
+            box, "verificationGeohash", "verificationLatitude", "verificationLongitude"), pageable);
+        return page.map(this::mapToVerificationResponse);
+    }
+
+    /**
+     * Get the checkpoint verification history of a permit, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<PermitVerificationResponse> getPermitVerifications(UUID permitId) {
+        MovementPermit permit = permitRepository.findById(permitId)
+            .orElseThrow(() -> new ResourceNotFoundException("Movement Permit", "id", permitId));
+
+        List<PermitVerification> verifications = permit.getCreatedAt() != null
+            ? verificationRepository.findByPermitIdAndVerifiedAtGreaterThanEqualOrderByVerifiedAtDesc(
+                permitId, verificationsSince(permit))
+            : verificationRepository.findByPermitIdOrderByVerifiedAtDesc(permitId);
+        return verifications.stream()
+            .map(this::mapToVerificationResponse)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Earliest time a permit can have been scanned, with a day of slack for clock skew.
+     * Bounding verified_at by it keeps permit lookups to the partitions of the permit's lifetime.
+     */
+    private static LocalDateTime verificationsSince(MovementPermit permit) {
+        return permit.getCreatedAt().minusDays(1);
+    }
+
+    /**
+     * Fill in verification geohashes for rows recorded before the column existed.
+     * Returns the number of rows updated; call until it returns 0.
+     */
+    @Transactional
+    public int backfillVerificationGeohashes(int batchSize) {
+        List<PermitVerification> batch = verificationRepository.findMissingGeohash(PageRequest.of(0, batchSize));
+        batch.forEach(v -> v.setVerificationGeohash(
+            GeoHash.encode(v.getVerificationLatitude(), v.getVerificationLongitude())));
+        verificationRepository.saveAll(batch);
+        return batch.size();
+    }
+
+    private PermitVerificationResponse mapToVerificationResponse(PermitVerification verification) {
+        return PermitVerificationResponse.builder()
+            .id(verification.getId())
+            .permitId(verification.getPermit().getId())
+            .permitNumber(verification.getPermit().getPermitNumber())
+            .verifiedBy(PermitResponse.OfficerSummary.builder()
+                .id(verification.getVerifiedBy().getId())
+                .officerCode(verification.getVerifiedBy().getOfficerCode())
+                .fullName(verification.getVerifiedBy().getFullName())
+                .role(verification.getVerifiedBy().getRole().name())
+                .build())
+            .verifiedAt(verification.getVerifiedAt())
+            .verificationLatitude(verification.getVerificationLatitude())
+            .verificationLongitude(verification.getVerificationLongitude())
+            .locationDescription(verification.getLocationDescription())
+            .notes(verification.getNotes())
+            .valid(verification.isValid())
+            .flagReason(verification.getFlagReason())
+            .build();
+    }
+
+    /**
+     * Map entity to response DTO, with a herd permit's animals
+     */
+    private PermitResponse mapToDetailResponse(MovementPermit permit) {
+        return permit.isHerd()
+            ? mapToResponse(permit, permitAnimalRepository.findByPermitIdWithLivestock(permit.getId()))
+            : mapToResponse(permit);
+    }
+
+    private PermitResponse mapToResponse(MovementPermit permit, List<PermitAnimal> animals) {
+        PermitResponse response = mapToResponse(permit);
+        response.setAnimals(animals.stream()
+            .sorted(Comparator.comparing(animal -> animal.getLivestock().getTagCode()))
+            .map(animal -> PermitResponse.HerdAnimalSummary.builder()
+                .livestockId(animal.getLivestock().getId())
+                .tagCode(animal.getLivestock().getTagCode())
+                .name(animal.getLivestock().getName())
+                .clearanceNumber(animal.getClearance().getClearanceNumber())
+                .completedAt(animal.getCompletedAt())
+                .build())
+            .collect(Collectors.toList()));
+        return response;
+    }
+
+    /**
+     * Map entity to response DTO (list views: a herd permit's animals are left out)
      */
     private PermitResponse mapToResponse(MovementPermit permit) {
-        int verificationCount = (int) verificationRepository.countByPermitId(permit.getId());
+        int verificationCount = permit.getCreatedAt() != null
+            ? (int) verificationRepository.countByPermitIdAndVerifiedAtGreaterThanEqual(
+                permit.getId(), verificationsSince(permit))
+            : (int) verificationRepository.countByPermitId(permit.getId());
 
         return PermitResponse.builder()
             .id(permit.getId())
@@ -316,16 +599,17 @@ public class MovementPermitService {
             .issuedAt(permit.getIssuedAt())
             .validFrom(permit.getValidFrom())
             .validUntil(permit.getValidUntil())
-            .clearance(PermitResponse.ClearanceSummary.builder()
+            .clearance(permit.getClearance() == null ? null : PermitResponse.ClearanceSummary.builder()
                 .id(permit.getClearance().getId())
                 .clearanceNumber(permit.getClearance().getClearanceNumber())
                 .expiryDate(permit.getClearance().getExpiryDate())
                 .build())
-            .livestock(PermitResponse.LivestockSummary.builder()
+            .livestock(permit.getLivestock() == null ? null : PermitResponse.LivestockSummary.builder()
                 .id(permit.getLivestock().getId())
                 .tagCode(permit.getLivestock().getTagCode())
                 .name(permit.getLivestock().getName())
                 .build())
+            .herdSize(permit.getHerdSize())
             .issuedBy(PermitResponse.OfficerSummary.builder()
                 .id(permit.getIssuedBy().getId())
                 .officerCode(permit.getIssuedBy().getOfficerCode())
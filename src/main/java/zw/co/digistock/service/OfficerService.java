@@ -32,6 +32,7 @@ public class OfficerService {
     private final OfficerRepository officerRepository;
     private final MinioStorageService minioStorageService;
     private final MinioConfig minioConfig;
+    private final LocationResolver locationResolver;
 
     /**
      * Get all officers (paginated)
@@ -94,7 +95,11 @@ public class OfficerService {
     @Transactional(readOnly = true)
     public List<OfficerResponse> getOfficersByDistrict(String district) {
         log.info("Fetching officers by district: {}", district);
-        List<Officer> officers = officerRepository.findByDistrict(district);
+        List<UUID> districtIds = locationResolver.findDistrictIds(district);
+        if (districtIds.isEmpty()) {
+            return List.of();
+        }
+        List<Officer> officers = officerRepository.findByDistrictRefIdIn(districtIds);
         return officers.stream()
             .map(this::mapToResponse)
             .collect(Collectors.toList());
@@ -106,7 +111,11 @@ public class OfficerService {
     @Transactional(readOnly = true)
     public List<OfficerResponse> getOfficersByProvince(String province) {
         log.info("Fetching officers by province: {}", province);
-        List<Officer> officers = officerRepository.findByProvince(province);
+        List<UUID> provinceIds = locationResolver.findProvinceIds(province);
+        if (provinceIds.isEmpty()) {
+            return List.of();
+        }
+        List<Officer> officers = officerRepository.findByProvinceRefIdIn(provinceIds);
         return officers.stream()
             .map(this::mapToResponse)
             .collect(Collectors.toList());
@@ -164,6 +173,15 @@ public class OfficerService {
             officer.setDistrict(request.getDistrict());
         }
 
+        if (request.getProvince() != null || request.getDistrict() != null) {
+            LocationResolver.ResolvedLocation location =
+                locationResolver.resolve(officer.getProvince(), officer.getDistrict());
+            officer.setProvince(location.getProvinceName());
+            officer.setDistrict(location.getDistrictName());
+            officer.setProvinceRef(location.getProvince());
+            officer.setDistrictRef(location.getDistrict());
+        }
+
         if (request.getActive() != null) {
             officer.setActive(request.getActive());
         }
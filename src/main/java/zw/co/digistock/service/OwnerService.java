@@ -6,7 +6,10 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -14,15 +17,21 @@ import zw.co.digistock.config.MinioConfig;
 import zw.co.digistock.domain.Owner;
 import zw.co.digistock.dto.request.RegisterOwnerRequest;
 import zw.co.digistock.dto.response.OwnerResponse;
+import zw.co.digistock.exception.BusinessException;
 import zw.co.digistock.exception.DuplicateResourceException;
 import zw.co.digistock.exception.ResourceNotFoundException;
 import zw.co.digistock.repository.LivestockRepository;
 import zw.co.digistock.repository.OwnerRepository;
 import zw.co.digistock.service.biometric.BiometricService;
 import zw.co.digistock.service.storage.MinioStorageService;
+import zw.co.digistock.util.ValidationUtils;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -38,6 +47,7 @@ public class OwnerService {
     private final MinioStorageService minioStorageService;
     private final BiometricService biometricService;
     private final MinioConfig minioConfig;
+    private final LocationResolver locationResolver;
 
     /**
      * Register new owner
@@ -55,6 +65,9 @@ public class OwnerService {
             throw new DuplicateResourceException("Owner", "nationalId", request.getNationalId());
         }
 
+        LocationResolver.ResolvedLocation location =
+            locationResolver.resolve(request.getProvince(), request.getDistrict());
+
         Owner owner = Owner.builder()
             .nationalId(request.getNationalId())
             .firstName(request.getFirstName())
@@ -63,8 +76,10 @@ public class OwnerService {
             .email(request.getEmail())
             .address(request.getAddress())
             .ward(request.getWard())
-            .district(request.getDistrict())
-            .province(request.getProvince())
+            .district(location.getDistrictName())
+            .province(location.getProvinceName())
+            .districtRef(location.getDistrict())
+            .provinceRef(location.getProvince())
             .biometricEnrolled(false)
             .build();
 
@@ -171,18 +186,76 @@ public class OwnerService {
     @Transactional(readOnly = true)
     @Cacheable(value = "ownerPages", key = "'district:' + #district + ':' + #pageable.pageNumber + ':' + #pageable.pageSize")
     public Page<OwnerResponse> getOwnersByDistrict(String district, Pageable pageable) {
-        Page<Owner> page = ownerRepository.findByDistrict(district, pageable);
+        List<UUID> districtIds = locationResolver.findDistrictIds(district);
+        if (districtIds.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        Page<Owner> page = ownerRepository.findByDistrictRefIdIn(districtIds, pageable);
         return page.map(this::mapToResponse);
     }
 
     /**
-     * Search owners by name (paginated)
+     * Owner columns the search can be sorted by, as SQL for OwnerRepository.searchSortedIds
+     */
+    private static final Map<String, String> SEARCH_SORT_COLUMNS = Map.of(
+        "firstName", "first_name",
+        "lastName", "last_name",
+        "nationalId", "national_id",
+        "phoneNumber", "phone_number",
+        "ward", "ward",
+        "district", "district",
+        "province", "province");
+
+    /**
+     * Search owners by name, national ID prefix or phone number prefix (paginated).
+     * Results are ranked by relevance unless the pageable asks for a sort.
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = "ownerPages", key = "'search:' + #searchTerm + ':' + #pageable.pageNumber + ':' + #pageable.pageSize")
+    @Cacheable(value = "ownerPages", key = "'search:' + #searchTerm + ':' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
     public Page<OwnerResponse> searchOwnersByName(String searchTerm, Pageable pageable) {
-        Page<Owner> page = ownerRepository.searchByName(searchTerm, pageable);
-        return page.map(this::mapToResponse);
+        String term = searchTerm.trim();
+        String compact = term.replaceAll("\\s+", "");
+
+        // Phone numbers are stored as entered, so match both 07... and +2637... forms
+        String intlPhone = ValidationUtils.normalizePhone(compact);
+        String localPhone = intlPhone.startsWith("+263") ? "0" + intlPhone.substring(4) : compact;
+        String idPrefix = ValidationUtils.escapeLike(compact.toUpperCase(Locale.ROOT)) + "%";
+        String localPhonePrefix = ValidationUtils.escapeLike(localPhone) + "%";
+        String intlPhonePrefix = ValidationUtils.escapeLike(intlPhone) + "%";
+
+        Page<UUID> ids = pageable.getSort().isSorted()
+            ? ownerRepository.searchSortedIds(term, idPrefix, localPhonePrefix, intlPhonePrefix,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), searchSort(pageable.getSort())))
+            : ownerRepository.searchRankedIds(term, idPrefix, localPhonePrefix, intlPhonePrefix,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+
+        Map<UUID, Owner> owners = ownerRepository.findAllById(ids.getContent()).stream()
+            .collect(Collectors.toMap(Owner::getId, Function.identity()));
+
+        List<OwnerResponse> content = ids.getContent().stream()
+            .map(owners::get)
+            .filter(Objects::nonNull)
+            .map(this::mapToResponse)
+            .collect(Collectors.toList());
+
+        return new PageImpl<>(content,
+            PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort()),
+            ids.getTotalElements());
+    }
+
+    /**
+     * Translate a requested sort into SQL columns, with the ID as a tie-breaker so pages are stable
+     */
+    private static Sort searchSort(Sort sort) {
+        Sort columns = Sort.unsorted();
+        for (Sort.Order order : sort) {
+            String column = SEARCH_SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new BusinessException("Owner search cannot be sorted by " + order.getProperty());
+            }
+            columns = columns.and(Sort.by(order.getDirection(), column));
+        }
+        return columns.and(Sort.by("id"));
     }
 
     /**
@@ -222,8 +295,13 @@ public class OwnerService {
         owner.setEmail(request.getEmail());
         owner.setAddress(request.getAddress());
         owner.setWard(request.getWard());
-        owner.setDistrict(request.getDistrict());
-        owner.setProvince(request.getProvince());
+
+        LocationResolver.ResolvedLocation location =
+            locationResolver.resolve(request.getProvince(), request.getDistrict());
+        owner.setDistrict(location.getDistrictName());
+        owner.setProvince(location.getProvinceName());
+        owner.setDistrictRef(location.getDistrict());
+        owner.setProvinceRef(location.getProvince());
 
         Owner updated = ownerRepository.save(owner);
         log.info("Owner updated successfully: {}", id);
@@ -0,0 +1,308 @@
+package zw.co.digistock.service;
+
+import com.github.luben.zstd.Zstd;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.compression.CompressionCodecFactory;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.LocalOutputFile;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Types;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes result set rows to a zstd-compressed Parquet file, one optional column per table column.
+ *
+ * Booleans, integers, doubles, dates and timestamps keep their types (timestamps in microseconds,
+ * UTC-adjusted for timestamptz); anything else, such as uuid, varchar and text, is written as a
+ * UTF-8 string. Rows are buffered one row group at a time, so heap use is bounded by
+ * ROW_GROUP_BYTES rather than by table size.
+ *
+ * Compression calls zstd-jni directly: Parquet's own codec factory builds a Hadoop Configuration,
+ * which would pull in the rest of the Hadoop runtime.
+ */
+final class ParquetTableWriter {
+
+    private static final long ROW_GROUP_BYTES = 32L * 1024 * 1024;
+    private static final int ZSTD_LEVEL = 3;
+
+    private ParquetTableWriter() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Write the remaining rows of the result set to the file, replacing it if it exists
+     *
+     * @param indexes result set column indexes to write, in order
+     * @return number of rows written
+     */
+    static long write(ResultSet rs, List<Integer> indexes, String table, Path file) throws SQLException, IOException {
+        List<Field> fields = fields(rs.getMetaData(), indexes);
+        MessageType schema = new MessageType(table, fields.stream().map(Field::parquetType).toList());
+
+        long rows = 0;
+        try (ParquetWriter<ResultSet> writer = new Builder(new LocalOutputFile(file), schema, fields)
+                .withConf(new PlainParquetConfiguration())
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .withCodecFactory(new ZstdCodecFactory())
+                .withCompressionCodec(CompressionCodecName.ZSTD)
+                .withRowGroupSize(ROW_GROUP_BYTES)
+                .build()) {
+            while (rs.next()) {
+                writer.write(rs);
+                rows++;
+            }
+        } catch (UncheckedSqlException e) {
+            throw e.getCause();
+        }
+        return rows;
+    }
+
+    private static List<Field> fields(ResultSetMetaData meta, List<Integer> indexes) throws SQLException {
+        List<Field> fields = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            String name = meta.getColumnLabel(index).toLowerCase(Locale.ROOT);
+            fields.add(new Field(index, name, Kind.of(meta.getColumnType(index), meta.getColumnTypeName(index))));
+        }
+        return fields;
+    }
+
+    /**
+     * Parquet representation of a JDBC column type
+     */
+    private enum Kind {
+        BOOLEAN, INT32, INT64, DOUBLE, DATE, TIMESTAMP, TIMESTAMP_UTC, STRING;
+
+        static Kind of(int jdbcType, String typeName) {
+            return switch (jdbcType) {
+                case java.sql.Types.BIT, java.sql.Types.BOOLEAN -> BOOLEAN;
+                case java.sql.Types.TINYINT, java.sql.Types.SMALLINT, java.sql.Types.INTEGER -> INT32;
+                case java.sql.Types.BIGINT -> INT64;
+                case java.sql.Types.REAL, java.sql.Types.FLOAT, java.sql.Types.DOUBLE -> DOUBLE;
+                case java.sql.Types.DATE -> DATE;
+                case java.sql.Types.TIMESTAMP_WITH_TIMEZONE -> TIMESTAMP_UTC;
+                // PostgreSQL reports timestamptz as TIMESTAMP and tells them apart by name
+                case java.sql.Types.TIMESTAMP -> "timestamptz".equalsIgnoreCase(typeName) ? TIMESTAMP_UTC : TIMESTAMP;
+                default -> STRING;
+            };
+        }
+    }
+
+    private record Field(int index, String name, Kind kind) {
+
+        Type parquetType() {
+            return switch (kind) {
+                case BOOLEAN -> Types.optional(PrimitiveTypeName.BOOLEAN).named(name);
+                case INT32 -> Types.optional(PrimitiveTypeName.INT32).named(name);
+                case INT64 -> Types.optional(PrimitiveTypeName.INT64).named(name);
+                case DOUBLE -> Types.optional(PrimitiveTypeName.DOUBLE).named(name);
+                case DATE -> Types.optional(PrimitiveTypeName.INT32)
+                    .as(LogicalTypeAnnotation.dateType()).named(name);
+                case TIMESTAMP -> Types.optional(PrimitiveTypeName.INT64)
+                    .as(LogicalTypeAnnotation.timestampType(false, LogicalTypeAnnotation.TimeUnit.MICROS)).named(name);
+                case TIMESTAMP_UTC -> Types.optional(PrimitiveTypeName.INT64)
+                    .as(LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MICROS)).named(name);
+                case STRING -> Types.optional(PrimitiveTypeName.BINARY)
+                    .as(LogicalTypeAnnotation.stringType()).named(name);
+            };
+        }
+
+        /**
+         * Add the current row's value; a SQL null is written by leaving the field out
+         */
+        void write(ResultSet rs, int position, RecordConsumer consumer) throws SQLException {
+            Object value = switch (kind) {
+                case DATE -> rs.getObject(index, LocalDate.class);
+                case TIMESTAMP -> rs.getObject(index, LocalDateTime.class);
+                case TIMESTAMP_UTC -> rs.getObject(index, OffsetDateTime.class);
+                default -> rs.getObject(index);
+            };
+            if (value == null) {
+                return;
+            }
+
+            consumer.startField(name, position);
+            switch (kind) {
+                case BOOLEAN -> consumer.addBoolean(rs.getBoolean(index));
+                case INT32 -> consumer.addInteger(rs.getInt(index));
+                case INT64 -> consumer.addLong(rs.getLong(index));
+                case DOUBLE -> consumer.addDouble(rs.getDouble(index));
+                case DATE -> consumer.addInteger(Math.toIntExact(((LocalDate) value).toEpochDay()));
+                case TIMESTAMP -> consumer.addLong(micros(((LocalDateTime) value).toInstant(ZoneOffset.UTC)));
+                case TIMESTAMP_UTC -> consumer.addLong(micros(((OffsetDateTime) value).toInstant()));
+                case STRING -> consumer.addBinary(Binary.fromString(value.toString()));
+            }
+            consumer.endField(name, position);
+        }
+
+        private static long micros(Instant instant) {
+            return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1000);
+        }
+    }
+
+    private static final class Builder extends ParquetWriter.Builder<ResultSet, Builder> {
+
+        private final MessageType schema;
+        private final List<Field> fields;
+
+        private Builder(OutputFile file, MessageType schema, List<Field> fields) {
+            super(file);
+            this.schema = schema;
+            this.fields = fields;
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<ResultSet> getWriteSupport(Configuration conf) {
+            return new RowWriteSupport(schema, fields);
+        }
+
+        @Override
+        protected WriteSupport<ResultSet> getWriteSupport(ParquetConfiguration conf) {
+            return new RowWriteSupport(schema, fields);
+        }
+    }
+
+    /**
+     * Writes the result set's current row as one record
+     */
+    private static final class RowWriteSupport extends WriteSupport<ResultSet> {
+
+        private final MessageType schema;
+        private final List<Field> fields;
+        private RecordConsumer consumer;
+
+        private RowWriteSupport(MessageType schema, List<Field> fields) {
+            this.schema = schema;
+            this.fields = fields;
+        }
+
+        @Override
+        public WriteContext init(Configuration configuration) {
+            return new WriteContext(schema, Map.of());
+        }
+
+        @Override
+        public WriteContext init(ParquetConfiguration configuration) {
+            return new WriteContext(schema, Map.of());
+        }
+
+        @Override
+        public void prepareForWrite(RecordConsumer recordConsumer) {
+            this.consumer = recordConsumer;
+        }
+
+        @Override
+        public void write(ResultSet rs) {
+            consumer.startMessage();
+            try {
+                for (int position = 0; position < fields.size(); position++) {
+                    fields.get(position).write(rs, position, consumer);
+                }
+            } catch (SQLException e) {
+                throw new UncheckedSqlException(e);
+            }
+            consumer.endMessage();
+        }
+    }
+
+    /**
+     * Zstandard pages via zstd-jni; the decompressor lets the same files be read back without Hadoop
+     */
+    static final class ZstdCodecFactory implements CompressionCodecFactory {
+
+        @Override
+        public BytesInputCompressor getCompressor(CompressionCodecName codecName) {
+            requireZstd(codecName);
+            return new BytesInputCompressor() {
+                @Override
+                public BytesInput compress(BytesInput bytes) throws IOException {
+                    return BytesInput.from(Zstd.compress(bytes.toByteArray(), ZSTD_LEVEL));
+                }
+
+                @Override
+                public CompressionCodecName getCodecName() {
+                    return CompressionCodecName.ZSTD;
+                }
+
+                @Override
+                public void release() {
+                }
+            };
+        }
+
+        @Override
+        public BytesInputDecompressor getDecompressor(CompressionCodecName codecName) {
+            requireZstd(codecName);
+            return new BytesInputDecompressor() {
+                @Override
+                public BytesInput decompress(BytesInput bytes, int uncompressedSize) throws IOException {
+                    return BytesInput.from(Zstd.decompress(bytes.toByteArray(), uncompressedSize));
+                }
+
+                @Override
+                public void decompress(ByteBuffer input, int compressedSize, ByteBuffer output, int uncompressedSize) {
+                    byte[] compressed = new byte[compressedSize];
+                    input.get(compressed);
+                    output.put(Zstd.decompress(compressed, uncompressedSize));
+                }
+
+                @Override
+                public void release() {
+                }
+            };
+        }
+
+        @Override
+        public void release() {
+        }
+
+        private static void requireZstd(CompressionCodecName codecName) {
+            if (codecName != CompressionCodecName.ZSTD) {
+                throw new UnsupportedOperationException("Only ZSTD is supported, not " + codecName);
+            }
+        }
+    }
+
+    private static final class UncheckedSqlException extends RuntimeException {
+
+        private UncheckedSqlException(SQLException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized SQLException getCause() {
+            return (SQLException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package zw.co.digistock.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import zw.co.digistock.domain.Livestock;
+import zw.co.digistock.dto.response.InbreedingResponse;
+import zw.co.digistock.dto.response.PedigreeResponse;
+import zw.co.digistock.exception.BusinessException;
+import zw.co.digistock.exception.ResourceNotFoundException;
+import zw.co.digistock.repository.LivestockRepository;
+import zw.co.digistock.util.Constants;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Service for multi-generation pedigree queries.
+ *
+ * Each traversal is a single recursive query returning (id, generation) pairs,
+ * followed by batched loads of just the animals found. Inbreeding is computed on
+ * the parent links alone (see Kinship), without loading entities.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PedigreeService {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final LivestockRepository livestockRepository;
+
+    /**
+     * Get ancestors of an animal up to the given number of generations
+     */
+    @Transactional(readOnly = true)
+    public PedigreeResponse getAncestors(UUID livestockId, int depth) {
+        Livestock root = loadRoot(livestockId, depth);
+        List<Object[]> rows = livestockRepository.findAncestorIds(livestockId, depth);
+        return buildResponse(root, PedigreeResponse.Direction.ANCESTORS, depth, rows);
+    }
+
+    /**
+     * Get descendants of an animal down to the given number of generations
+     */
+    @Transactional(readOnly = true)
+    public PedigreeResponse getDescendants(UUID livestockId, int depth) {
+        Livestock root = loadRoot(livestockId, depth);
+        List<Object[]> rows = livestockRepository.findDescendantIds(livestockId, depth);
+        return buildResponse(root, PedigreeResponse.Direction.DESCENDANTS, depth, rows);
+    }
+
+    /**
+     * Inbreeding coefficient of a proposed mating
+     */
+    @Transactional(readOnly = true)
+    public InbreedingResponse getInbreeding(UUID motherId, UUID fatherId) {
+        Livestock mother = livestockRepository.findById(motherId)
+            .orElseThrow(() -> new ResourceNotFoundException("Livestock (mother)", "id", motherId));
+        Livestock father = livestockRepository.findById(fatherId)
+            .orElseThrow(() -> new ResourceNotFoundException("Livestock (father)", "id", fatherId));
+        return calculateInbreeding(mother, father);
+    }
+
+    /**
+     * Inbreeding coefficient of an offspring of these parents, tracing
+     * Constants.INBREEDING_PEDIGREE_DEPTH generations back
+     */
+    @Transactional(readOnly = true)
+    public InbreedingResponse calculateInbreeding(Livestock mother, Livestock father) {
+        if (mother.getId().equals(father.getId())) {
+            throw new BusinessException("Mother and father must be different animals");
+        }
+
+        int depth = Constants.INBREEDING_PEDIGREE_DEPTH;
+        Map<UUID, UUID[]> parents = new HashMap<>();
+        for (Object[] row : livestockRepository.findAncestorLinks(List.of(mother.getId(), father.getId()), depth)) {
+            parents.put(toUuid(row[0]), new UUID[] {toUuid(row[1]), toUuid(row[2])});
+        }
+
+        Kinship kinship = new Kinship(parents);
+        double coefficient = kinship.coefficient(mother.getId(), father.getId());
+        log.debug("Inbreeding of {} x {}: {} over {} animals",
+            mother.getTagCode(), father.getTagCode(), coefficient, kinship.size());
+
+        return InbreedingResponse.builder()
+            .motherId(mother.getId())
+            .motherTagCode(mother.getTagCode())
+            .fatherId(father.getId())
+            .fatherTagCode(father.getTagCode())
+            .coefficient(coefficient)
+            .pedigreeSize(kinship.size())
+            .generationsTraced(depth)
+            .build();
+    }
+
+    private Livestock loadRoot(UUID livestockId, int depth) {
+        if (depth < 1 || depth > Constants.MAX_PEDIGREE_DEPTH) {
+            throw new BusinessException("Pedigree depth must be between 1 and " + Constants.MAX_PEDIGREE_DEPTH);
+        }
+        return livestockRepository.findById(livestockId)
+            .orElseThrow(() -> new ResourceNotFoundException("Livestock", "id", livestockId));
+    }
+
+    private PedigreeResponse buildResponse(Livestock root, PedigreeResponse.Direction direction,
+                                           int depth, List<Object[]> rows) {
+        // Rows arrive nearest generation first; keep that order
+        Map<UUID, Integer> generations = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            generations.put(toUuid(row[0]), ((Number) row[1]).intValue());
+        }
+
+        Map<UUID, Livestock> animals = new HashMap<>();
+        List<UUID> ids = new ArrayList<>(generations.keySet());
+        for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+            List<UUID> batch = ids.subList(from, Math.min(from + LOAD_BATCH_SIZE, ids.size()));
+            livestockRepository.findAllById(batch).forEach(l -> animals.put(l.getId(), l));
+        }
+
+        List<PedigreeResponse.PedigreeNode> nodes = new ArrayList<>(generations.size());
+        generations.forEach((id, generation) -> {
+            Livestock animal = animals.get(id);
+            if (animal != null) {
+                nodes.add(mapToNode(animal, generation));
+            }
+        });
+
+        log.debug("Pedigree {} of {} to depth {}: {} animals", direction, root.getTagCode(), depth, nodes.size());
+
+        return PedigreeResponse.builder()
+            .rootId(root.getId())
+            .rootTagCode(root.getTagCode())
+            .direction(direction)
+            .maxDepth(depth)
+            .animals(nodes)
+            .build();
+    }
+
+    private PedigreeResponse.PedigreeNode mapToNode(Livestock animal, int generation) {
+        // Parent IDs come from the lazy proxies without loading the parents
+        return PedigreeResponse.PedigreeNode.builder()
+            .id(animal.getId())
+            .tagCode(animal.getTagCode())
+            .name(animal.getName())
+            .breed(animal.getBreed())
+            .sex(animal.getSex())
+            .birthDate(animal.getBirthDate())
+            .motherId(animal.getMother() != null ? animal.getMother().getId() : null)
+            .fatherId(animal.getFather() != null ? animal.getFather().getId() : null)
+            .generation(generation)
+            .build();
+    }
+
+    /**
+     * Native UUID columns come back as UUID, byte[] or String depending on the database
+     */
+    private static UUID toUuid(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof UUID uuid) {
+            return uuid;
+        }
+        if (value instanceof byte[] bytes) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+        return UUID.fromString(value.toString());
+    }
+}
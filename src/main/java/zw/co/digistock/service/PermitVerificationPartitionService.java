@@ -0,0 +1,232 @@
+package zw.co.digistock.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import zw.co.digistock.config.MinioConfig;
+import zw.co.digistock.config.Workload;
+import zw.co.digistock.config.WorkloadPool;
+import zw.co.digistock.exception.BusinessException;
+import zw.co.digistock.service.storage.MinioStorageService;
+import zw.co.digistock.util.Constants;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Service for maintaining the monthly partitions of permit_verifications.
+ *
+ * Each run creates the partitions for the coming months, then archives every partition
+ * older than the retention period: the partition is copied to a gzip CSV in the archive
+ * bucket, then detached and dropped. Rows that already landed in the default partition for a
+ * new month are moved into it as it is created. One node runs at a time (JobLease). Only
+ * applies on PostgreSQL once 014-partition-permit-verifications has run; elsewhere it does nothing.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@WorkloadPool(Workload.BATCH)
+public class PermitVerificationPartitionService {
+
+    private static final String TABLE = "permit_verifications";
+    private static final Pattern PARTITION_NAME = Pattern.compile(TABLE + "_(\\d{4})_(\\d{2})");
+    private static final DateTimeFormatter NAME_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ssXXX");
+    private static final String LEASE = "verification-partitions";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TableDumper tableDumper;
+    private final MinioStorageService minioStorageService;
+    private final MinioConfig minioConfig;
+    private final JobLease jobLease;
+
+    @Value("${digistock.partitions.verifications.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${digistock.partitions.verifications.retention-months:24}")
+    private int retentionMonths;
+
+    @Value("${digistock.partitions.lease-minutes:60}")
+    private long leaseMinutes;
+
+    /**
+     * Daily maintenance; see digistock.partitions.cron
+     */
+    @Scheduled(cron = "${digistock.partitions.cron:0 30 1 * * *}", zone = Constants.TIME_ZONE)
+    public void maintainScheduledPartitions() {
+        try {
+            maintainPartitions();
+        } catch (RuntimeException e) {
+            log.error("Scheduled permit verification partition maintenance failed", e);
+        }
+    }
+
+    /**
+     * Create upcoming partitions and archive expired ones, if no other node is doing so
+     *
+     * @return false if another node holds the lease
+     */
+    public boolean maintainPartitions() {
+        if (!isPartitioned()) {
+            log.debug("{} is not partitioned; skipping partition maintenance", TABLE);
+            return true;
+        }
+        if (!jobLease.tryAcquire(LEASE, Duration.ofMinutes(leaseMinutes))) {
+            log.debug("Permit verification partition maintenance is running on another node");
+            return false;
+        }
+        try {
+            int created = ensureFuturePartitions();
+            int archived = archiveExpiredPartitions();
+            log.info("Permit verification partitions: {} created, {} archived", created, archived);
+        } finally {
+            jobLease.release(LEASE);
+        }
+        return true;
+    }
+
+    /**
+     * Create the partitions for this month and the configured months ahead, where missing
+     */
+    int ensureFuturePartitions() {
+        YearMonth current = YearMonth.now(ZoneId.of(Constants.TIME_ZONE));
+        List<String> existing = listPartitions();
+        int created = 0;
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            String name = partitionName(month);
+            if (existing.contains(name)) {
+                continue;
+            }
+            createPartition(name, month);
+            created++;
+        }
+        return created;
+    }
+
+    /**
+     * Create the month's partition. PostgreSQL refuses a new range while the default partition
+     * holds rows inside it, so those rows are moved into the new table before it is attached,
+     * all in one transaction with the default partition locked against concurrent inserts.
+     */
+    private void createPartition(String name, YearMonth month) {
+        String from = bound(month);
+        String to = bound(month.plusMonths(1));
+        String defaultPartition = defaultPartition();
+        if (defaultPartition == null) {
+            jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF " + TABLE
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            return;
+        }
+
+        String range = "verified_at >= '" + from + "' AND verified_at < '" + to + "'";
+        Integer moved = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("LOCK TABLE " + defaultPartition + " IN ACCESS EXCLUSIVE MODE");
+            jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + TABLE + " INCLUDING DEFAULTS)");
+            int rows = jdbcTemplate.update("INSERT INTO " + name + " SELECT * FROM " + defaultPartition + " WHERE " + range);
+            jdbcTemplate.update("DELETE FROM " + defaultPartition + " WHERE " + range);
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + name
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            return rows;
+        });
+        if (moved != null && moved > 0) {
+            log.info("Created partition {} and moved {} rows into it from {}", name, moved, defaultPartition);
+        }
+    }
+
+    /**
+     * Archive and drop every monthly partition that ended before the retention period
+     */
+    int archiveExpiredPartitions() {
+        YearMonth cutoff = YearMonth.now(ZoneId.of(Constants.TIME_ZONE)).minusMonths(retentionMonths);
+        int archived = 0;
+        for (String name : listPartitions()) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.isBefore(cutoff)) {
+                archivePartition(name, month);
+                archived++;
+            }
+        }
+        return archived;
+    }
+
+    private void archivePartition(String name, YearMonth month) {
+        // Expired months no longer receive scans, so the copy cannot miss rows written after it
+        Path file = null;
+        try {
+            file = Files.createTempFile(name + "-", ".csv.gz");
+            TableDumper.Dump dump = tableDumper.dump(name, file);
+            minioStorageService.uploadLocalFile(file, minioConfig.getArchiveBucket(),
+                TABLE + "/" + month + ".csv.gz", "application/gzip");
+
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + name);
+                jdbcTemplate.execute("DROP TABLE " + name);
+            });
+            log.info("Archived {} ({} rows) and dropped the partition", name, dump.getRows());
+        } catch (IOException e) {
+            throw new BusinessException("Could not archive partition " + name + ": " + e.getMessage());
+        } finally {
+            TableDumper.deleteQuietly(file);
+        }
+    }
+
+    /**
+     * Names of the current partitions (taken from the catalog, so safe to use in DDL)
+     */
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = '" + TABLE + "'::regclass ORDER BY c.relname", String.class);
+    }
+
+    /**
+     * Name of the default partition, or null if there is none
+     */
+    private String defaultPartition() {
+        List<String> names = jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partdefid " +
+            "WHERE p.partrelid = '" + TABLE + "'::regclass", String.class);
+        return names.isEmpty() ? null : names.get(0);
+    }
+
+    private boolean isPartitioned() {
+        String database = jdbcTemplate.execute(
+            (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return false;
+        }
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM pg_partitioned_table WHERE partrelid = to_regclass('" + TABLE + "')", Integer.class);
+        return count != null && count > 0;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return TABLE + "_" + month.format(NAME_SUFFIX);
+    }
+
+    /**
+     * Start of the month in the local time zone, as a timestamptz literal
+     */
+    private static String bound(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneId.of(Constants.TIME_ZONE)).format(BOUND);
+    }
+}
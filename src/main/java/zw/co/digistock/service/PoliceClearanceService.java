@@ -11,6 +11,7 @@ import zw.co.digistock.domain.Livestock;
 import zw.co.digistock.domain.Officer;
 import zw.co.digistock.domain.Owner;
 import zw.co.digistock.domain.PoliceClearance;
+import zw.co.digistock.domain.enums.ArtefactType;
 import zw.co.digistock.domain.enums.ClearanceStatus;
 import zw.co.digistock.domain.enums.UserRole;
 import zw.co.digistock.dto.request.CreateClearanceRequest;
@@ -21,7 +22,6 @@ import zw.co.digistock.repository.LivestockRepository;
 import zw.co.digistock.repository.OfficerRepository;
 import zw.co.digistock.repository.OwnerRepository;
 import zw.co.digistock.repository.PoliceClearanceRepository;
-import zw.co.digistock.service.qr.QrCodeService;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -41,7 +41,8 @@ public class PoliceClearanceService {
     private final LivestockRepository livestockRepository;
     private final OwnerRepository ownerRepository;
     private final OfficerRepository officerRepository;
-    private final QrCodeService qrCodeService;
+    private final ArtefactOutbox artefactOutbox;
+    private final RevocationFeedService revocationFeed;
 
     @Value("${digistock.clearance.default-validity-days:14}")
     private int defaultValidityDays;
@@ -120,39 +121,39 @@ public class PoliceClearanceService {
         clearance.setStatus(ClearanceStatus.APPROVED);
         clearance.setClearanceDate(LocalDateTime.now());
 
-        // Generate QR code
-        String qrRef = qrCodeService.generateClearanceQrCode(
-            clearance.getClearanceNumber(),
-            clearance.getLivestock().getTagCode(),
-            clearance.getExpiryDate().toString(),
-            clearance.getId().toString()
-        );
-        clearance.setQrRef(qrRef);
-
         PoliceClearance updated = clearanceRepository.save(clearance);
+
+        // QR code and PDF are rendered and uploaded after commit; qrRef/pdfRef are filled in shortly after
+        artefactOutbox.enqueue(ArtefactType.CLEARANCE_QR, updated.getId());
+        artefactOutbox.enqueue(ArtefactType.CLEARANCE_PDF, updated.getId());
         log.info("Clearance approved: {}", clearance.getClearanceNumber());
 
         return mapToResponse(updated);
     }
 
     /**
-     * Reject clearance
+     * Reject a pending clearance, or withdraw an approved one. Only an approved clearance has a
+     * signed QR code in circulation, so only a withdrawal goes to the revocation feed.
      */
-    @Transactional
+    @Transactional(timeoutString = "${digistock.revocations.writer-timeout-seconds:5}")
     public ClearanceResponse rejectClearance(UUID clearanceId, String reason) {
         log.info("Rejecting clearance: {}", clearanceId);
 
         PoliceClearance clearance = clearanceRepository.findById(clearanceId)
             .orElseThrow(() -> new ResourceNotFoundException("Police Clearance", "id", clearanceId));
 
-        if (clearance.getStatus() != ClearanceStatus.PENDING) {
-            throw new BusinessException("Clearance is not in PENDING status");
+        ClearanceStatus previous = clearance.getStatus();
+        if (previous != ClearanceStatus.PENDING && previous != ClearanceStatus.APPROVED) {
+            throw new BusinessException("Clearance is not in PENDING or APPROVED status");
         }
 
         clearance.setStatus(ClearanceStatus.REJECTED);
         clearance.setRejectionReason(reason);
 
         PoliceClearance updated = clearanceRepository.save(clearance);
+        if (previous == ClearanceStatus.APPROVED) {
+            revocationFeed.clearanceRejected(updated);
+        }
         log.info("Clearance rejected: {}", clearance.getClearanceNumber());
 
         return mapToResponse(updated);
@@ -0,0 +1,289 @@
+package zw.co.digistock.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import zw.co.digistock.domain.MovementPermit;
+import zw.co.digistock.domain.PoliceClearance;
+import zw.co.digistock.domain.RevocationEntry;
+import zw.co.digistock.domain.enums.RevocationSubject;
+import zw.co.digistock.exception.BusinessException;
+import zw.co.digistock.repository.RevocationEntryRepository;
+import zw.co.digistock.service.event.LivestockStolenStatusEvent;
+import zw.co.digistock.util.Constants;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Versioned feed of cancelled permits, withdrawn clearances and stolen/recovered animals, for
+ * checkpoint devices that verify offline.
+ *
+ * Changes are written to revocation_feed in the same transaction as the change itself. A device
+ * keeps the sequence number of its last sync and asks for what changed since; a fresh device
+ * starts from the snapshot, rebuilt every digistock.revocations.snapshot-ms, then asks for
+ * changes since the snapshot's sequence number.
+ *
+ * Sequence numbers are taken in insert order but become visible in commit order, so a device
+ * must not be handed seq n+1 while seq n may still commit. Entries younger than
+ * digistock.revocations.settle-seconds by the database clock are therefore held back, and the
+ * gap between taking a sequence number and committing is kept below that window: the entry is
+ * inserted just before commit, and the writing transactions time out after
+ * digistock.revocations.writer-timeout-seconds (Hibernate cancels any statement past the
+ * deadline, so a flush stuck on a lock rolls back rather than committing late).
+ *
+ * Deltas and snapshots are gzip-compressed binary, with numbers as unsigned LEB128 varints:
+ *
+ *   byte    format version (1)
+ *   byte    0 = delta, 1 = snapshot
+ *   varint  sequence number the delta starts after (0 for a snapshot)
+ *   varint  sequence number to ask from next time
+ *   byte    1 if more changes are waiting after it, else 0
+ *   varint  entry count, then per entry:
+ *     byte    'P' permit number, 'C' clearance number, 'L' tag code
+ *     byte    1 revoked / stolen, 0 recovered
+ *     varint  key length, then the key in UTF-8
+ *
+ * A delta holds only the latest entry per key; a snapshot holds only keys still revoked.
+ * Entries for documents past their own validity date are pruned, as are entries superseded
+ * by a later one for the same key, so the feed stays about as small as the revocations in force.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RevocationFeedService {
+
+    static final String PRUNE_LEASE = "revocation-prune";
+
+    public static final byte FORMAT_VERSION = 1;
+
+    private static final byte DELTA = 0;
+    private static final byte SNAPSHOT = 1;
+
+    private final RevocationEntryRepository entryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JobLease jobLease;
+
+    @Value("${digistock.revocations.settle-seconds:10}")
+    private long settleSeconds;
+
+    @Value("${digistock.revocations.writer-timeout-seconds:5}")
+    private long writerTimeoutSeconds;
+
+    @Value("${digistock.revocations.max-delta-entries:20000}")
+    private int maxDeltaEntries;
+
+    @Value("${digistock.revocations.lease-minutes:10}")
+    private long leaseMinutes;
+
+    private volatile Feed snapshot;
+
+    @PostConstruct
+    void checkSettleWindow() {
+        if (writerTimeoutSeconds >= settleSeconds) {
+            throw new IllegalStateException("digistock.revocations.writer-timeout-seconds (" + writerTimeoutSeconds
+                + ") must be below digistock.revocations.settle-seconds (" + settleSeconds + ")");
+        }
+    }
+
+    /**
+     * Record a cancelled permit; call inside the cancelling transaction
+     */
+    public void permitCancelled(MovementPermit permit) {
+        record(RevocationSubject.PERMIT, permit.getPermitNumber(), true, permit.getValidUntil());
+    }
+
+    /**
+     * Record a withdrawn clearance; call inside the rejecting transaction
+     */
+    public void clearanceRejected(PoliceClearance clearance) {
+        record(RevocationSubject.CLEARANCE, clearance.getClearanceNumber(), true, clearance.getExpiryDate());
+    }
+
+    /**
+     * Record a stolen/recovered report, inside the reporting transaction
+     */
+    @EventListener
+    public void onStolenStatus(LivestockStolenStatusEvent event) {
+        record(RevocationSubject.LIVESTOCK, event.getTagCode(), event.isStolen(), null);
+    }
+
+    /**
+     * Changes after a sequence number, latest per key, up to digistock.revocations.max-delta-entries
+     */
+    public Feed delta(long since) {
+        if (since < 0) {
+            throw new BusinessException("Sequence number must not be negative");
+        }
+        List<RevocationEntry> entries = entryRepository.findSince(since, settleSeconds, maxDeltaEntries);
+        long toSeq = entries.isEmpty() ? since : entries.get(entries.size() - 1).getSeq();
+        return encode(DELTA, since, toSeq, entries.size() == maxDeltaEntries, latestPerKey(entries, entry -> true));
+    }
+
+    /**
+     * Everything still revoked, as of the last rebuild
+     */
+    public Feed snapshot() {
+        Feed current = snapshot;
+        return current != null ? current : rebuildSnapshot();
+    }
+
+    /**
+     * Periodic snapshot rebuild; see digistock.revocations.snapshot-ms (also runs at startup)
+     */
+    @Scheduled(fixedDelayString = "${digistock.revocations.snapshot-ms:3600000}")
+    public void rebuildSnapshotScheduled() {
+        try {
+            rebuildSnapshot();
+        } catch (RuntimeException e) {
+            log.error("Revocation snapshot rebuild failed", e);
+        }
+    }
+
+    public Feed rebuildSnapshot() {
+        Long upTo = entryRepository.findLastSettledSeq(settleSeconds);
+        LocalDate today = LocalDate.now(ZoneId.of(Constants.TIME_ZONE));
+        List<RevocationEntry> entries = upTo == null ? List.of() : entryRepository.findUpTo(upTo);
+
+        Feed built = encode(SNAPSHOT, 0, upTo == null ? 0 : upTo, false, latestPerKey(entries,
+            entry -> entry.isRevoked() && (entry.getExpiresOn() == null || !entry.getExpiresOn().isBefore(today))));
+        snapshot = built;
+        log.debug("Revocation snapshot rebuilt at seq {}: {} entries, {} bytes",
+            built.getToSeq(), built.getEntries(), built.getData().length);
+        return built;
+    }
+
+    /**
+     * Nightly pruning of entries no device needs; see digistock.revocations.prune-cron
+     */
+    @Scheduled(cron = "${digistock.revocations.prune-cron:0 45 3 * * *}", zone = Constants.TIME_ZONE)
+    public void pruneScheduled() {
+        try {
+            prune();
+        } catch (RuntimeException e) {
+            log.error("Revocation feed pruning failed", e);
+        }
+    }
+
+    /**
+     * Drop entries for documents past their validity and entries superseded for the same key,
+     * if no other node is pruning
+     *
+     * @return false if another node holds the lease
+     */
+    public boolean prune() {
+        if (!jobLease.tryAcquire(PRUNE_LEASE, Duration.ofMinutes(leaseMinutes))) {
+            log.debug("Revocation feed pruning is running on another node");
+            return false;
+        }
+        try {
+            LocalDate today = LocalDate.now(ZoneId.of(Constants.TIME_ZONE));
+            int expired = transactionTemplate.execute(status -> entryRepository.deleteExpired(today));
+            int superseded = transactionTemplate.execute(status -> entryRepository.deleteSuperseded());
+            if (expired > 0 || superseded > 0) {
+                log.info("Revocation feed pruned: {} expired and {} superseded entries", expired, superseded);
+            }
+        } finally {
+            jobLease.release(PRUNE_LEASE);
+        }
+        return true;
+    }
+
+    /**
+     * Insert the entry as the surrounding transaction commits, so its sequence number and
+     * created_at are taken as late as possible
+     */
+    private void record(RevocationSubject subject, String key, boolean revoked, LocalDate expiresOn) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Revocations must be recorded inside the transaction that makes the change");
+        }
+        RevocationEntry entry = RevocationEntry.builder()
+            .subjectType(subject)
+            .subjectKey(key)
+            .revoked(revoked)
+            .expiresOn(expiresOn)
+            .build();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                entryRepository.save(entry);
+            }
+        });
+    }
+
+    /**
+     * Last entry per key, ordered by subject and key (which also compresses best)
+     */
+    private static List<RevocationEntry> latestPerKey(List<RevocationEntry> entries, Predicate<RevocationEntry> keep) {
+        Map<String, RevocationEntry> latest = new LinkedHashMap<>();
+        for (RevocationEntry entry : entries) {
+            latest.put(entry.getSubjectType().getCode() + entry.getSubjectKey(), entry);
+        }
+        return latest.values().stream()
+            .filter(keep)
+            .sorted(Comparator.comparing(RevocationEntry::getSubjectType).thenComparing(RevocationEntry::getSubjectKey))
+            .toList();
+    }
+
+    private static Feed encode(byte kind, long fromSeq, long toSeq, boolean more, List<RevocationEntry> entries) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeByte(kind);
+            writeVarint(out, fromSeq);
+            writeVarint(out, toSeq);
+            out.writeBoolean(more);
+            writeVarint(out, entries.size());
+            for (RevocationEntry entry : entries) {
+                byte[] key = entry.getSubjectKey().getBytes(StandardCharsets.UTF_8);
+                out.writeByte(entry.getSubjectType().getCode());
+                out.writeBoolean(entry.isRevoked());
+                writeVarint(out, key.length);
+                out.write(key);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Feed(toSeq, entries.size(), bytes.toByteArray());
+    }
+
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * An encoded delta or snapshot
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Feed {
+        private final long toSeq;
+        private final int entries;
+        private final byte[] data;
+    }
+}
@@ -0,0 +1,247 @@
+package zw.co.digistock.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.minio.messages.Item;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import zw.co.digistock.config.MinioConfig;
+import zw.co.digistock.config.Workload;
+import zw.co.digistock.config.WorkloadPool;
+import zw.co.digistock.dto.response.SnapshotResponse;
+import zw.co.digistock.exception.BusinessException;
+import zw.co.digistock.service.storage.MinioStorageService;
+import zw.co.digistock.util.Constants;
+import zw.co.digistock.util.DateTimeUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Service for bulk analytics snapshots.
+ *
+ * Each run copies the core tables into zstd-compressed Parquet files (one per table) plus a
+ * manifest.json with row counts and column types, under a dated prefix in the snapshots
+ * bucket. All tables are read in one REPEATABLE READ read-only transaction, so the files agree
+ * with each other; they are written to temp files by TableDumper and uploaded after the
+ * transaction ends, so neither the heap nor a connection is held during upload. Snapshots older
+ * than digistock.snapshot.retention-days are deleted after each run.
+ */
+@Service
+@Slf4j
+@WorkloadPool(Workload.BATCH)
+public class SnapshotService {
+
+    /**
+     * Tables copied into each snapshot
+     */
+    private static final List<String> TABLES =
+        List.of("livestock", "movement_permits", "police_clearances", "vaccinations");
+
+    private static final int DOWNLOAD_URL_EXPIRY_MINUTES = 60;
+    private static final String MANIFEST = "manifest.json";
+    private static final String LEASE = "analytics-snapshot";
+    private static final String PARQUET_CONTENT_TYPE = "application/vnd.apache.parquet";
+
+    private final TableDumper tableDumper;
+    private final MinioStorageService minioStorageService;
+    private final MinioConfig minioConfig;
+    private final ObjectMapper objectMapper;
+    private final JobLease jobLease;
+    private final TransactionTemplate snapshotTransaction;
+
+    @Value("${digistock.snapshot.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${digistock.snapshot.lease-minutes:60}")
+    private long leaseMinutes;
+
+    public SnapshotService(TableDumper tableDumper,
+                           MinioStorageService minioStorageService,
+                           MinioConfig minioConfig,
+                           ObjectMapper objectMapper,
+                           JobLease jobLease,
+                           PlatformTransactionManager transactionManager) {
+        this.tableDumper = tableDumper;
+        this.minioStorageService = minioStorageService;
+        this.minioConfig = minioConfig;
+        this.objectMapper = objectMapper;
+        this.jobLease = jobLease;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Nightly snapshot; see digistock.snapshot.cron
+     */
+    @Scheduled(cron = "${digistock.snapshot.cron:0 0 2 * * *}", zone = Constants.TIME_ZONE)
+    public void createScheduledSnapshot() {
+        if (!jobLease.tryAcquire(LEASE, Duration.ofMinutes(leaseMinutes))) {
+            log.debug("Analytics snapshot is running on another node");
+            return;
+        }
+        try {
+            writeSnapshot();
+        } catch (RuntimeException e) {
+            log.error("Scheduled analytics snapshot failed", e);
+        } finally {
+            jobLease.release(LEASE);
+        }
+    }
+
+    /**
+     * Write today's snapshot, replacing any earlier one from the same day
+     *
+     * @throws BusinessException if a snapshot is already being written
+     */
+    public SnapshotResponse createSnapshot() {
+        if (!jobLease.tryAcquire(LEASE, Duration.ofMinutes(leaseMinutes))) {
+            throw new BusinessException("A snapshot is already being written");
+        }
+        try {
+            return writeSnapshot();
+        } finally {
+            jobLease.release(LEASE);
+        }
+    }
+
+    private SnapshotResponse writeSnapshot() {
+        String id = DateTimeUtils.nowDate().toString();
+        String bucket = minioConfig.getSnapshotsBucket();
+        log.info("Creating analytics snapshot {}", id);
+
+        Map<TableManifest, Path> files = new LinkedHashMap<>();
+        try {
+            snapshotTransaction.executeWithoutResult(status -> {
+                for (String table : TABLES) {
+                    Path file = null;
+                    try {
+                        file = Files.createTempFile("snapshot-" + table + "-", ".parquet");
+                        TableDumper.Dump dump = tableDumper.dumpParquet(table, file);
+                        files.put(new TableManifest(table, table + ".parquet", dump.getRows(), dump.getColumns()), file);
+                    } catch (IOException e) {
+                        TableDumper.deleteQuietly(file);
+                        throw new BusinessException("Could not write snapshot of " + table + ": " + e.getMessage());
+                    }
+                }
+            });
+
+            files.forEach((manifest, file) -> {
+                minioStorageService.uploadLocalFile(file, bucket, id + "/" + manifest.getFile(), PARQUET_CONTENT_TYPE);
+                log.info("Snapshot {}: {} rows of {}", id, manifest.getRows(), manifest.getTable());
+            });
+        } finally {
+            files.values().forEach(TableDumper::deleteQuietly);
+        }
+
+        try {
+            byte[] manifest = objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValueAsBytes(new SnapshotManifest(id, DateTimeUtils.nowDateTime(), "parquet",
+                    new ArrayList<>(files.keySet())));
+            minioStorageService.uploadBytes(manifest, bucket, id + "/" + MANIFEST, "application/json");
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("Could not write snapshot manifest: " + e.getMessage());
+        }
+
+        deleteExpiredSnapshots();
+
+        return listSnapshots().stream()
+            .filter(snapshot -> snapshot.getId().equals(id))
+            .findFirst()
+            .orElseThrow(() -> new BusinessException("Snapshot " + id + " was not stored"));
+    }
+
+    /**
+     * Remove every object under snapshot prefixes dated more than retentionDays ago
+     *
+     * @return number of snapshots deleted
+     */
+    int deleteExpiredSnapshots() {
+        String cutoff = DateTimeUtils.nowDate().minusDays(retentionDays).toString();
+        String bucket = minioConfig.getSnapshotsBucket();
+        Set<String> deleted = new TreeSet<>();
+        for (Item item : minioStorageService.listObjects(bucket, "")) {
+            int slash = item.objectName().indexOf('/');
+            // ids are ISO dates, so they sort by age as strings
+            if (!item.isDir() && slash > 0 && item.objectName().substring(0, slash).compareTo(cutoff) < 0) {
+                minioStorageService.deleteFile("minio://" + bucket + "/" + item.objectName());
+                deleted.add(item.objectName().substring(0, slash));
+            }
+        }
+        if (!deleted.isEmpty()) {
+            log.info("Deleted analytics snapshots older than {} days: {}", retentionDays, deleted);
+        }
+        return deleted.size();
+    }
+
+    /**
+     * Available snapshots, newest first, with download links
+     */
+    public List<SnapshotResponse> listSnapshots() {
+        Map<String, List<Item>> byPrefix = new TreeMap<>(Comparator.reverseOrder());
+        for (Item item : minioStorageService.listObjects(minioConfig.getSnapshotsBucket(), "")) {
+            int slash = item.objectName().indexOf('/');
+            if (!item.isDir() && slash > 0) {
+                byPrefix.computeIfAbsent(item.objectName().substring(0, slash), prefix -> new ArrayList<>()).add(item);
+            }
+        }
+
+        List<SnapshotResponse> snapshots = new ArrayList<>(byPrefix.size());
+        byPrefix.forEach((id, items) -> snapshots.add(SnapshotResponse.builder()
+            .id(id)
+            .createdAt(items.stream()
+                .map(item -> item.lastModified().withZoneSameInstant(ZoneId.of(Constants.TIME_ZONE)).toLocalDateTime())
+                .max(Comparator.naturalOrder())
+                .orElse(null))
+            .files(items.stream()
+                .sorted(Comparator.comparing(Item::objectName))
+                .map(item -> SnapshotResponse.SnapshotFile.builder()
+                    .name(item.objectName().substring(id.length() + 1))
+                    .sizeBytes(item.size())
+                    .downloadUrl(minioStorageService.getPresignedUrl(
+                        "minio://" + minioConfig.getSnapshotsBucket() + "/" + item.objectName(),
+                        DOWNLOAD_URL_EXPIRY_MINUTES))
+                    .build())
+                .toList())
+            .build()));
+        return snapshots;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class SnapshotManifest {
+        private final String snapshot;
+        private final LocalDateTime createdAt;
+        private final String format;
+        private final List<TableManifest> tables;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class TableManifest {
+        private final String table;
+        private final String file;
+        private final long rows;
+        private final List<TableDumper.Column> columns;
+    }
+}
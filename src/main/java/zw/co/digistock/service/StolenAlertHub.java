@@ -0,0 +1,353 @@
+package zw.co.digistock.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import zw.co.digistock.domain.RevocationEntry;
+import zw.co.digistock.domain.enums.RevocationSubject;
+import zw.co.digistock.dto.response.LivestockAlertRow;
+import zw.co.digistock.dto.response.StolenAlertResponse;
+import zw.co.digistock.exception.BusinessException;
+import zw.co.digistock.repository.LivestockRepository;
+import zw.co.digistock.repository.RevocationEntryRepository;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes stolen/recovered reports to checkpoint officers as server-sent events.
+ *
+ * Reports are read from the revocation feed every digistock.alerts.poll-ms, so subscribers on every
+ * node hear of reports made on any node. The feed is read from the last settled sequence number
+ * (see RevocationFeedService), remembering which newer entries were already sent, so an entry that
+ * commits behind a later one is still delivered, once. A node starts from the feed's end and does
+ * not replay older reports.
+ *
+ * A subscriber may filter on a province and/or district (of the animal's owner) and gets its own
+ * queue of at most digistock.alerts.buffer-size events. Each report's JSON is built once and
+ * offered to every matching queue. The alertExecutor pool writes the queues out, running at most
+ * one task per subscriber at a time, so a slow client only holds up its own stream. A subscriber
+ * whose queue fills up is disconnected; EventSource clients reconnect by themselves and can catch
+ * up from the revocation feed. Open streams are held by the servlet container's async support
+ * rather than by threads, so a node holds thousands of them, up to digistock.alerts.max-subscribers.
+ * A comment line every digistock.alerts.heartbeat-ms keeps proxies from closing idle streams and
+ * finds clients that have gone away.
+ *
+ * Writes block while a client's socket buffer is full. The container fails a write blocked longer
+ * than server.tomcat.connection-timeout; before that, a subscriber whose write has been blocked
+ * for digistock.alerts.write-timeout-ms is taken out of the fan-out and its emitter completed once
+ * the write returns (SseEmitter's methods lock the emitter, so it cannot be completed mid-write).
+ */
+@Service
+@Slf4j
+public class StolenAlertHub {
+
+    /**
+     * Queue entry for a heartbeat comment
+     */
+    private static final Alert HEARTBEAT = new Alert(null, null);
+
+    private final LocationResolver locationResolver;
+    private final RevocationEntryRepository entryRepository;
+    private final LivestockRepository livestockRepository;
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor executor;
+    private final Counter slowDisconnects;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    @Value("${digistock.alerts.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${digistock.alerts.max-subscribers:5000}")
+    private int maxSubscribers;
+
+    @Value("${digistock.alerts.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${digistock.alerts.write-timeout-ms:10000}")
+    private long writeTimeoutMs;
+
+    @Value("${digistock.revocations.settle-seconds:10}")
+    private long settleSeconds;
+
+    /**
+     * Feed entries up to here are settled and done with; -1 until the first poll. Only the
+     * poller touches this and delivered, and poll() is synchronized in case it is called off the scheduler.
+     */
+    private long settledSeq = -1;
+
+    /**
+     * Entries after settledSeq already sent
+     */
+    private final Set<Long> delivered = new HashSet<>();
+
+    public StolenAlertHub(LocationResolver locationResolver,
+                          RevocationEntryRepository entryRepository,
+                          LivestockRepository livestockRepository,
+                          ObjectMapper objectMapper,
+                          @Qualifier("alertExecutor") TaskExecutor executor,
+                          MeterRegistry meterRegistry) {
+        this.locationResolver = locationResolver;
+        this.entryRepository = entryRepository;
+        this.livestockRepository = livestockRepository;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.slowDisconnects = Counter.builder("digistock.alerts.slow.disconnects")
+            .description("Alert subscribers disconnected because their queue was full or a write was stuck")
+            .register(meterRegistry);
+        Gauge.builder("digistock.alerts.subscribers", subscribers, Set::size)
+            .description("Open stolen livestock alert streams on this node")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream of alerts for animals whose owners are in the province and/or district
+     * (either may be null for no filter)
+     */
+    public SseEmitter subscribe(String province, String district) {
+        Filter provinceFilter = filter("province", province, locationResolver::findProvinceIds);
+        Filter districtFilter = filter("district", district, locationResolver::findDistrictIds);
+        if (subscribers.size() >= maxSubscribers) {
+            throw new BusinessException("Too many alert subscribers on this node, try again later");
+        }
+
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(emitter, provinceFilter, districtFilter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        // Sends the response headers straight away, so clients and proxies see the stream open
+        offer(subscriber, HEARTBEAT);
+        log.debug("Alert subscriber added (province={}, district={}), {} open", province, district, subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Fan out stolen/recovered reports new in the revocation feed; see digistock.alerts.poll-ms
+     */
+    @Scheduled(fixedDelayString = "${digistock.alerts.poll-ms:2000}")
+    public void pollScheduled() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.error("Reading stolen alerts from the revocation feed failed", e);
+        }
+    }
+
+    synchronized void poll() {
+        if (settledSeq < 0) {
+            Long last = entryRepository.findLastSeq();
+            settledSeq = last == null ? 0 : last;
+            return;
+        }
+
+        // Taken before reading, so every entry up to it is visible to the read below
+        Long settled = entryRepository.findLastSettledSeq(settleSeconds);
+        List<RevocationEntry> fresh = entryRepository.findAfter(settledSeq).stream()
+            .filter(entry -> entry.getSubjectType() == RevocationSubject.LIVESTOCK && delivered.add(entry.getSeq()))
+            .toList();
+        if (!fresh.isEmpty() && !subscribers.isEmpty()) {
+            publish(fresh);
+        }
+
+        if (settled != null && settled > settledSeq) {
+            settledSeq = settled;
+            delivered.removeIf(seq -> seq <= settled);
+        }
+    }
+
+    /**
+     * Heartbeat on every open stream; see digistock.alerts.heartbeat-ms
+     */
+    @Scheduled(fixedDelayString = "${digistock.alerts.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> offer(subscriber, HEARTBEAT));
+    }
+
+    /**
+     * Take subscribers whose current write has been blocked past digistock.alerts.write-timeout-ms
+     * out of the fan-out; their sender completes the emitter once the write returns or fails
+     */
+    @Scheduled(fixedDelayString = "${digistock.alerts.write-check-ms:1000}")
+    public void closeStuckStreams() {
+        long now = System.nanoTime();
+        long limit = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.writeStartedAt;
+            if (started != 0 && now - started > limit) {
+                log.warn("Alert subscriber write blocked for over {} ms, disconnecting it", writeTimeoutMs);
+                slowDisconnects.increment();
+                close(subscriber);
+            }
+        }
+    }
+
+    /**
+     * New emitter for a subscriber; a separate method so tests can stand in a client that stops reading
+     */
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void publish(List<RevocationEntry> entries) {
+        Map<String, LivestockAlertRow> animals = livestockRepository.findAlertRowsByTagCodeIn(
+                entries.stream().map(RevocationEntry::getSubjectKey).collect(Collectors.toSet()))
+            .stream()
+            .collect(Collectors.toMap(LivestockAlertRow::getTagCode, Function.identity(), (a, b) -> a));
+
+        for (RevocationEntry entry : entries) {
+            LivestockAlertRow animal = animals.getOrDefault(entry.getSubjectKey(),
+                new LivestockAlertRow(null, entry.getSubjectKey(), null, null, null, null));
+            Alert alert;
+            try {
+                alert = new Alert(entry.isRevoked() ? "stolen" : "recovered", objectMapper.writeValueAsString(
+                    StolenAlertResponse.builder()
+                        .livestockId(animal.getLivestockId())
+                        .tagCode(entry.getSubjectKey())
+                        .stolen(entry.isRevoked())
+                        .province(animal.getProvince())
+                        .district(animal.getDistrict())
+                        .reportedAt(entry.getCreatedAt())
+                        .build()));
+            } catch (JsonProcessingException e) {
+                log.error("Could not serialize stolen alert for {}", entry.getSubjectKey(), e);
+                continue;
+            }
+
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.province.matches(animal.getProvinceId(), animal.getProvince())
+                        && subscriber.district.matches(animal.getDistrictId(), animal.getDistrict())) {
+                    offer(subscriber, alert);
+                }
+            }
+        }
+    }
+
+    private void offer(Subscriber subscriber, Alert alert) {
+        if (!subscriber.queue.offer(alert)) {
+            log.warn("Alert subscriber fell {} events behind, disconnecting it", bufferSize);
+            slowDisconnects.increment();
+            close(subscriber);
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> drain(subscriber));
+        } catch (TaskRejectedException e) {
+            subscriber.draining.set(false);
+            log.warn("Alert senders are saturated; subscriber will be served on its next event");
+        }
+    }
+
+    /**
+     * Write out a subscriber's queue; runs on the alert pool, one task per subscriber at a time
+     */
+    private void drain(Subscriber subscriber) {
+        try {
+            Alert alert;
+            while (!subscriber.closed && (alert = subscriber.queue.poll()) != null) {
+                subscriber.writeStartedAt = System.nanoTime();
+                subscriber.emitter.send(alert == HEARTBEAT
+                    ? SseEmitter.event().comment("heartbeat")
+                    : SseEmitter.event().name(alert.name).data(alert.json, MediaType.APPLICATION_JSON));
+                subscriber.writeStartedAt = 0;
+            }
+            if (subscriber.closed) {
+                subscriber.emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client gone, or the stream already completed/timed out
+            log.debug("Alert subscriber dropped: {}", e.getMessage());
+            close(subscriber);
+        } finally {
+            subscriber.writeStartedAt = 0;
+            subscriber.draining.set(false);
+        }
+        if (!subscriber.closed && !subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+
+    private static Filter filter(String field, String name, Function<String, List<UUID>> findIds) {
+        if (name == null || name.isBlank()) {
+            return Filter.ANY;
+        }
+        List<UUID> ids = findIds.apply(name);
+        if (ids.isEmpty()) {
+            throw new BusinessException("Unknown " + field + ": " + name);
+        }
+        return new Filter(name.trim(), Set.copyOf(ids));
+    }
+
+    private record Alert(String name, String json) {
+    }
+
+    /**
+     * Province or district filter: matches the owner's reference, or the owner's name
+     * where the reference was never resolved
+     */
+    private record Filter(String name, Set<UUID> ids) {
+
+        private static final Filter ANY = new Filter(null, null);
+
+        boolean matches(UUID id, String value) {
+            return ids == null || (id != null ? ids.contains(id) : name.equalsIgnoreCase(value));
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Filter province;
+        private final Filter district;
+        private final BlockingQueue<Alert> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        /**
+         * System.nanoTime() when the current write began, 0 between writes
+         */
+        private volatile long writeStartedAt;
+
+        private Subscriber(SseEmitter emitter, Filter province, Filter district, BlockingQueue<Alert> queue) {
+            this.emitter = emitter;
+            this.province = province;
+            this.district = district;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package zw.co.digistock.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import zw.co.digistock.dto.request.StolenScreenRequest;
+import zw.co.digistock.dto.response.StolenScreenResponse;
+import zw.co.digistock.exception.BusinessException;
+import zw.co.digistock.repository.LivestockRepository;
+import zw.co.digistock.service.event.LivestockStolenStatusEvent;
+import zw.co.digistock.util.BloomFilter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Resident index of the animals reported stolen, for screening whole trucks at a checkpoint
+ * without touching the database.
+ *
+ * Tag codes and livestock IDs are held in exact sets, plus a Bloom filter over both that
+ * checkpoint devices download (see BloomFilter for the format) to screen offline: a miss is
+ * definitive, a hit is confirmed with screen(). Stolen/recovered reports on this node are applied
+ * as they commit; the whole index is reloaded every digistock.stolen-index.refresh-ms, which picks
+ * up changes made on other nodes and clears recovered animals out of the Bloom filter.
+ */
+@Service
+@Slf4j
+public class StolenLivestockIndex {
+
+    /**
+     * Smallest Bloom filter capacity in keys; each reload sizes it for two keys (tag code and ID)
+     * per stolen animal found, with room for that many again
+     */
+    private static final int MIN_CAPACITY = 1024;
+
+    private final LivestockRepository livestockRepository;
+
+    private final double falsePositiveRate;
+
+    private final Object lock = new Object();
+
+    private final Object reloadLock = new Object();
+
+    private volatile Index index;
+
+    /**
+     * Changes committed while a reload reads the table, replayed onto the new index; guarded by lock
+     */
+    private List<LivestockStolenStatusEvent> pending;
+
+    /**
+     * Bumped on every change; guarded by lock
+     */
+    private long version;
+
+    public StolenLivestockIndex(LivestockRepository livestockRepository,
+                                @Value("${digistock.stolen-index.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.livestockRepository = livestockRepository;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Periodic reload; see digistock.stolen-index.refresh-ms (also runs at startup)
+     */
+    @Scheduled(fixedDelayString = "${digistock.stolen-index.refresh-ms:300000}")
+    public void reloadScheduled() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.error("Stolen livestock index reload failed", e);
+        }
+    }
+
+    /**
+     * Rebuild the index from the livestock table
+     */
+    public void reload() {
+        synchronized (reloadLock) {
+            synchronized (lock) {
+                pending = new ArrayList<>();
+            }
+            Index next;
+            try {
+                List<Object[]> keys = livestockRepository.findStolenKeys();
+                next = new Index(new BloomFilter(Math.max(MIN_CAPACITY, keys.size() * 4), falsePositiveRate),
+                    LocalDateTime.now());
+                keys.forEach(key -> next.add((UUID) key[0], (String) key[1]));
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    pending = null;
+                }
+                throw e;
+            }
+            synchronized (lock) {
+                pending.forEach(next::apply);
+                pending = null;
+                index = next;
+                version++;
+            }
+            log.debug("Stolen livestock index reloaded: {} animals", next.ids.size());
+        }
+    }
+
+    /**
+     * Apply a stolen/recovered report once its transaction has committed
+     */
+    @TransactionalEventListener
+    public void onStolenStatus(LivestockStolenStatusEvent event) {
+        synchronized (lock) {
+            if (pending != null) {
+                pending.add(event);
+            }
+            if (index != null) {
+                index.apply(event);
+                version++;
+            }
+        }
+    }
+
+    public boolean isStolen(String tagCode) {
+        return current().tagCodes.contains(tagCode);
+    }
+
+    public boolean isStolen(UUID livestockId) {
+        return current().ids.contains(livestockId);
+    }
+
+    /**
+     * Check a batch of tag codes and/or livestock IDs against the index; tag codes are trimmed
+     * as they are everywhere else a scanner or keyboard supplies them
+     */
+    public StolenScreenResponse screen(StolenScreenRequest request) {
+        Set<String> tagCodes = request.getTagCodes() == null ? Set.of() : request.getTagCodes().stream()
+            .map(String::trim)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<UUID> livestockIds = distinct(request.getLivestockIds());
+        if (tagCodes.isEmpty() && livestockIds.isEmpty()) {
+            throw new BusinessException("Provide tag codes or livestock IDs to screen");
+        }
+
+        Index current = current();
+        return StolenScreenResponse.builder()
+            .screened(tagCodes.size() + livestockIds.size())
+            .stolenTagCodes(tagCodes.stream().filter(current.tagCodes::contains).toList())
+            .stolenLivestockIds(livestockIds.stream().filter(current.ids::contains).toList())
+            .indexLoadedAt(current.loadedAt)
+            .build();
+    }
+
+    /**
+     * The Bloom filter over stolen tag codes and livestock IDs, with a version for caching
+     */
+    public BloomExport exportBloomFilter() {
+        current();
+        synchronized (lock) {
+            return new BloomExport(version, index.loadedAt, index.bloom.toByteArray());
+        }
+    }
+
+    private Index current() {
+        Index current = index;
+        if (current == null) {
+            reload();
+            current = index;
+        }
+        return current;
+    }
+
+    private static <T> Set<T> distinct(Collection<T> values) {
+        return values == null ? Set.of() : new LinkedHashSet<>(values);
+    }
+
+    /**
+     * A serialized Bloom filter; version changes whenever the index does (on this node)
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class BloomExport {
+        private final long version;
+        private final LocalDateTime loadedAt;
+        private final byte[] bytes;
+    }
+
+    private static final class Index {
+
+        private final Set<String> tagCodes = ConcurrentHashMap.newKeySet();
+        private final Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        private final BloomFilter bloom;
+        private final LocalDateTime loadedAt;
+
+        private Index(BloomFilter bloom, LocalDateTime loadedAt) {
+            this.bloom = bloom;
+            this.loadedAt = loadedAt;
+        }
+
+        private void add(UUID id, String tagCode) {
+            ids.add(id);
+            tagCodes.add(tagCode);
+            bloom.put(id.toString());
+            bloom.put(tagCode);
+        }
+
+        /**
+         * Recovered animals leave the exact sets at once and the Bloom filter at the next reload
+         */
+        private void apply(LivestockStolenStatusEvent event) {
+            if (event.isStolen()) {
+                add(event.getLivestockId(), event.getTagCode());
+            } else {
+                ids.remove(event.getLivestockId());
+                tagCodes.remove(event.getTagCode());
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package zw.co.digistock.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import zw.co.digistock.util.CsvUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Copies a whole table into a file: gzip-compressed CSV with a header row (partition archives)
+ * or Parquet (analytics snapshots).
+ *
+ * Rows are read through a forward-only cursor and written as they arrive, so table size
+ * does not affect heap use. Each dump joins the caller's transaction if there is one, so
+ * several dumps in one REPEATABLE READ transaction see the same snapshot of the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class TableDumper {
+
+    /**
+     * Derived columns left out of the files (the full-text search vector)
+     */
+    private static final Set<String> EXCLUDED_COLUMNS = Set.of("search_vector");
+
+    private static final int FETCH_SIZE = 5000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Write every row of the table to the file as gzip-compressed CSV, ordered by id.
+     * The table name is concatenated into SQL, so it must never come from user input.
+     */
+    Dump dump(String table, Path file) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file), BUFFER_SIZE), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            return query(table, rs -> writeRows(rs, writer));
+        }
+    }
+
+    /**
+     * Write every row of the table to the file as Parquet, ordered by id.
+     * The table name is concatenated into SQL, so it must never come from user input.
+     */
+    Dump dumpParquet(String table, Path file) throws IOException {
+        return query(table, rs -> {
+            Columns columns = columns(rs.getMetaData());
+            long rows = ParquetTableWriter.write(rs, columns.indexes, table, file);
+            return new Dump(rows, columns.columns);
+        });
+    }
+
+    private Dump query(String table, RowsWriter rowsWriter) throws IOException {
+        ResultSetExtractor<Dump> extractor = rs -> {
+            try {
+                return rowsWriter.write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+
+        try {
+            // The cursor needs a transaction on PostgreSQL
+            return transactionTemplate.execute(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement("SELECT * FROM " + table + " ORDER BY id",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, extractor));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Columns columns(ResultSetMetaData meta) throws SQLException {
+        Columns columns = new Columns();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            String name = meta.getColumnLabel(i).toLowerCase(Locale.ROOT);
+            if (!EXCLUDED_COLUMNS.contains(name)) {
+                columns.indexes.add(i);
+                columns.columns.add(new Column(name, meta.getColumnTypeName(i).toLowerCase(Locale.ROOT)));
+            }
+        }
+        return columns;
+    }
+
+    private static Dump writeRows(ResultSet rs, Writer writer) throws SQLException, IOException {
+        Columns columns = columns(rs.getMetaData());
+        List<Integer> indexes = columns.indexes;
+
+        writer.write(String.join(",", columns.columns.stream().map(Column::getName).toList()));
+        writer.write('\n');
+
+        long rows = 0;
+        while (rs.next()) {
+            for (int c = 0; c < indexes.size(); c++) {
+                if (c > 0) {
+                    writer.write(',');
+                }
+                Object value = rs.getObject(indexes.get(c));
+                writer.write(CsvUtils.field(value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : value));
+            }
+            writer.write('\n');
+            rows++;
+        }
+        return new Dump(rows, columns.columns);
+    }
+
+    /**
+     * Remove a temp file, logging rather than failing if it cannot be deleted
+     */
+    static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete temp file {}", file);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowsWriter {
+        Dump write(ResultSet rs) throws SQLException, IOException;
+    }
+
+    /**
+     * Result set indexes of the dumped columns, with their names and types
+     */
+    private static final class Columns {
+        private final List<Integer> indexes = new ArrayList<>();
+        private final List<Column> columns = new ArrayList<>();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static final class Dump {
+        private final long rows;
+        private final List<Column> columns;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static final class Column {
+        private final String name;
+        private final String type;
+    }
+}
@@ -11,6 +11,8 @@ import zw.co.digistock.domain.Officer;
 import zw.co.digistock.domain.Vaccination;
 import zw.co.digistock.dto.request.CreateVaccinationRequest;
 import zw.co.digistock.dto.request.UpdateVaccinationRequest;
+import zw.co.digistock.dto.request.VaccinationCampaignRequest;
+import zw.co.digistock.dto.response.VaccinationCampaignResponse;
 import zw.co.digistock.dto.response.VaccinationResponse;
 import zw.co.digistock.exception.ResourceNotFoundException;
 import zw.co.digistock.mapper.VaccinationMapper;
@@ -19,7 +21,11 @@ import zw.co.digistock.repository.OfficerRepository;
 import zw.co.digistock.repository.VaccinationRepository;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -36,6 +42,8 @@ public class VaccinationService implements IVaccinationService {
     private final LivestockRepository livestockRepository;
     private final OfficerRepository officerRepository;
     private final VaccinationMapper vaccinationMapper;
+    private final LocationResolver locationResolver;
+    private final BatchWriter batchWriter;
 
     @Override
     @Transactional
@@ -76,6 +84,58 @@ public class VaccinationService implements IVaccinationService {
         return vaccinationMapper.toResponse(savedVaccination);
     }
 
+    @Override
+    @Transactional
+    public VaccinationCampaignResponse recordCampaign(VaccinationCampaignRequest request) {
+        long start = System.currentTimeMillis();
+        Set<UUID> livestockIds = new LinkedHashSet<>(request.getLivestockIds());
+        log.info("Recording {} vaccination campaign for {} animals", request.getVaccineType(), livestockIds.size());
+
+        Officer veterinaryOfficer = officerRepository.findById(request.getVeterinaryOfficerId())
+                .orElseThrow(() -> new ResourceNotFoundException("Veterinary officer not found with ID: " + request.getVeterinaryOfficerId()));
+
+        // Only the IDs are checked; each vaccination then points at an uninitialised reference,
+        // so the animals themselves are never loaded into the persistence context
+        Set<UUID> existing = new HashSet<>(livestockRepository.findExistingIds(livestockIds));
+        List<UUID> missing = livestockIds.stream().filter(id -> !existing.contains(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException(missing.size() + " livestock not found, e.g. ID: " + missing.get(0));
+        }
+
+        List<Vaccination> vaccinations = new ArrayList<>(livestockIds.size());
+        for (UUID livestockId : livestockIds) {
+            vaccinations.add(Vaccination.builder()
+                    .vaccineType(request.getVaccineType())
+                    .vaccinationDate(request.getVaccinationDate())
+                    .batchNumber(request.getBatchNumber())
+                    .nextVaccinationDate(request.getNextVaccinationDate())
+                    .notes(request.getNotes())
+                    .veterinaryOfficer(veterinaryOfficer)
+                    .livestock(livestockRepository.getReferenceById(livestockId))
+                    .location(request.getLocation())
+                    .gpsCoordinates(request.getGpsCoordinates())
+                    .administrationMethod(request.getAdministrationMethod())
+                    .manufacturer(request.getManufacturer())
+                    .lotNumber(request.getLotNumber())
+                    .vaccineExpiryDate(request.getVaccineExpiryDate())
+                    .dose(request.getDose())
+                    .storageTemperature(request.getStorageTemperature())
+                    .isVerified(false)
+                    .build());
+        }
+
+        List<UUID> ids = batchWriter.saveAllInBatches(vaccinationRepository, vaccinations).stream()
+                .map(Vaccination::getId)
+                .toList();
+        log.info("Vaccination campaign recorded: {} records", ids.size());
+
+        return VaccinationCampaignResponse.builder()
+                .vaccinated(ids.size())
+                .durationMs(System.currentTimeMillis() - start)
+                .vaccinationIds(ids)
+                .build();
+    }
+
     @Override
     public VaccinationResponse getVaccinationById(UUID id) {
         log.info("Getting vaccination record with ID: {}", id);
@@ -273,14 +333,22 @@ public class VaccinationService implements IVaccinationService {
     @Override
     public Page<VaccinationResponse> getVaccinationsByDistrict(String district, Pageable pageable) {
         log.info("Getting vaccination records for district: {}", district);
-        return vaccinationRepository.findByLivestockOwnerDistrict(district, pageable)
+        List<UUID> districtIds = locationResolver.findDistrictIds(district);
+        if (districtIds.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        return vaccinationRepository.findByLivestockOwnerDistrictIds(districtIds, pageable)
                 .map(vaccinationMapper::toResponse);
     }
 
     @Override
     public Page<VaccinationResponse> getVaccinationsByProvince(String province, Pageable pageable) {
         log.info("Getting vaccination records for province: {}", province);
-        return vaccinationRepository.findByLivestockOwnerProvince(province, pageable)
+        List<UUID> provinceIds = locationResolver.findProvinceIds(province);
+        if (provinceIds.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        return vaccinationRepository.findByLivestockOwnerProvinceIds(provinceIds, pageable)
                 .map(vaccinationMapper::toResponse);
     }
 
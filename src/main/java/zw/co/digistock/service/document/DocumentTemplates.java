@@ -0,0 +1,184 @@
+package zw.co.digistock.service.document;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.layout.Canvas;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.properties.TextAlignment;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pre-compiled page templates for permit and clearance PDFs.
+ *
+ * Everything that is the same on every copy (logo, headings, field labels, rules, footer)
+ * is laid out once at startup into a small PDF; PdfDocumentService only stamps the values
+ * and the QR code onto a copy of it. The font programs and a downscaled logo are loaded
+ * once and shared, since PdfFont objects themselves belong to a single document.
+ */
+@Component
+@Slf4j
+class DocumentTemplates {
+
+    static final PageSize PAGE = PageSize.A4;
+    static final float MARGIN = 50;
+    static final float LABEL_WIDTH = 120;
+    static final float ROW_HEIGHT = 24;
+    static final float QR_SIZE = 150;
+    static final float VALUE_FONT_SIZE = 11;
+
+    private static final float FIRST_ROW_Y = PAGE.getHeight() - 165;
+    private static final int LOGO_PIXELS = 160;
+    private static final String LOGO = "digistock_logo.png";
+
+    static final List<String> PERMIT_FIELDS = List.of(
+        "Permit number", "Tag", "Animal", "Owner", "Owner ID", "From", "To", "Purpose",
+        "Transport", "Driver", "Valid from", "Valid until", "Clearance", "Issued by", "Issued at");
+
+    static final List<String> CLEARANCE_FIELDS = List.of(
+        "Clearance number", "Tag", "Animal", "Owner", "Owner ID", "Cleared on", "Valid until", "Officer");
+
+    /**
+     * QR code position, top right below the header
+     */
+    static final Rectangle QR_BOX = new Rectangle(
+        PAGE.getWidth() - MARGIN - QR_SIZE, FIRST_ROW_Y - QR_SIZE + ROW_HEIGHT, QR_SIZE, QR_SIZE);
+
+    private final FontProgram regular;
+    private final FontProgram bold;
+    private final ImageData logo;
+    @Getter
+    private final Template permitTemplate;
+    @Getter
+    private final Template clearanceTemplate;
+
+    DocumentTemplates() throws IOException {
+        this.regular = FontProgramFactory.createFont(StandardFonts.HELVETICA);
+        this.bold = FontProgramFactory.createFont(StandardFonts.HELVETICA_BOLD);
+        this.logo = ImageDataFactory.create(scaledLogo());
+        this.permitTemplate = compile("LIVESTOCK MOVEMENT PERMIT", PERMIT_FIELDS,
+            "Valid only for the animal, route and dates shown. Checkpoints verify it by scanning the QR code.");
+        this.clearanceTemplate = compile("POLICE CLEARANCE", CLEARANCE_FIELDS,
+            "Confirms the animal is not reported stolen and may be moved by its owner until the date shown.");
+        log.info("Compiled PDF templates (permit {} bytes, clearance {} bytes)",
+            permitTemplate.getPdf().length, clearanceTemplate.getPdf().length);
+    }
+
+    /**
+     * A new font for each document, from the shared font program
+     */
+    PdfFont regularFont() {
+        return PdfFontFactory.createFont(regular, PdfEncodings.WINANSI);
+    }
+
+    PdfFont boldFont() {
+        return PdfFontFactory.createFont(bold, PdfEncodings.WINANSI);
+    }
+
+    private Template compile(String title, List<String> fields, String footer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<Rectangle> slots = new ArrayList<>();
+        try (PdfDocument pdf = new PdfDocument(new PdfWriter(out, new WriterProperties().setFullCompressionMode(true)))) {
+            PdfFont font = regularFont();
+            PdfFont boldFont = boldFont();
+            PdfPage page = pdf.addNewPage(PAGE);
+            PdfCanvas lines = new PdfCanvas(page);
+
+            try (Canvas canvas = new Canvas(page, PAGE)) {
+                float top = PAGE.getHeight() - MARGIN;
+                canvas.add(new Image(logo).scaleToFit(60, 60).setFixedPosition(MARGIN, top - 60));
+                canvas.add(new Paragraph("REPUBLIC OF ZIMBABWE")
+                    .setFont(font).setFontSize(9).setFontColor(ColorConstants.DARK_GRAY)
+                    .setFixedPosition(MARGIN + 75, top - 22, 350));
+                canvas.add(new Paragraph(title).setFont(boldFont).setFontSize(18)
+                    .setFixedPosition(MARGIN + 75, top - 50, 400));
+
+                float valueX = MARGIN + LABEL_WIDTH;
+                for (int i = 0; i < fields.size(); i++) {
+                    float y = FIRST_ROW_Y - i * ROW_HEIGHT;
+                    canvas.add(new Paragraph(fields.get(i)).setFont(boldFont).setFontSize(10)
+                        .setFixedPosition(MARGIN, y, LABEL_WIDTH));
+                    // Rows beside the QR code stop short of it
+                    float right = y + ROW_HEIGHT > QR_BOX.getBottom() ? QR_BOX.getLeft() - 10 : PAGE.getWidth() - MARGIN;
+                    slots.add(new Rectangle(valueX, y, right - valueX, ROW_HEIGHT));
+                    lines.setStrokeColor(ColorConstants.LIGHT_GRAY).setLineWidth(0.5f)
+                        .moveTo(MARGIN, y - 4).lineTo(right, y - 4).stroke();
+                }
+
+                canvas.add(new Paragraph("Scan to verify").setFont(font).setFontSize(8)
+                    .setFixedPosition(QR_BOX.getLeft(), QR_BOX.getBottom() - 14, QR_SIZE)
+                    .setTextAlignment(TextAlignment.CENTER));
+                canvas.add(new Paragraph(footer).setFont(font).setFontSize(8).setFontColor(ColorConstants.DARK_GRAY)
+                    .setFixedPosition(MARGIN, MARGIN, PAGE.getWidth() - 2 * MARGIN));
+            }
+
+            lines.setStrokeColor(ColorConstants.BLACK).setLineWidth(1)
+                .moveTo(MARGIN, PAGE.getHeight() - MARGIN - 75).lineTo(PAGE.getWidth() - MARGIN, PAGE.getHeight() - MARGIN - 75)
+                .moveTo(MARGIN, MARGIN + 30).lineTo(PAGE.getWidth() - MARGIN, MARGIN + 30)
+                .stroke();
+        }
+        return new Template(out.toByteArray(), List.copyOf(slots));
+    }
+
+    /**
+     * The logo file is 1024px; a page needs a fraction of that
+     */
+    private static byte[] scaledLogo() throws IOException {
+        BufferedImage source;
+        try (InputStream in = new ClassPathResource(LOGO).getInputStream()) {
+            source = ImageIO.read(in);
+        }
+        BufferedImage scaled = new BufferedImage(LOGO_PIXELS, LOGO_PIXELS, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.drawImage(source, 0, 0, LOGO_PIXELS, LOGO_PIXELS, null);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!ImageIO.write(scaled, "png", out)) {
+            throw new UncheckedIOException(new IOException("No PNG writer for the logo"));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * A compiled page and where each field's value goes, in field order
+     */
+    @Getter
+    @AllArgsConstructor
+    static final class Template {
+        private final byte[] pdf;
+        private final List<Rectangle> slots;
+    }
+}
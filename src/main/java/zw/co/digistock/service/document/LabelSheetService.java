@@ -0,0 +1,257 @@
+package zw.co.digistock.service.document;
+
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import zw.co.digistock.config.Workload;
+import zw.co.digistock.config.WorkloadPool;
+import zw.co.digistock.dto.request.LabelSheetRequest;
+import zw.co.digistock.dto.response.LivestockLabelRow;
+import zw.co.digistock.exception.BusinessException;
+import zw.co.digistock.repository.LivestockRepository;
+import zw.co.digistock.service.LocationResolver;
+import zw.co.digistock.service.qr.QrCodeService;
+import zw.co.digistock.service.qr.QrRenderer;
+import zw.co.digistock.util.Constants;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service for printing sheets of QR ear-tag labels for branding campaigns.
+ *
+ * Labels are written page by page straight to the response: while one page is drawn, the QR
+ * codes for the next are encoded in parallel on the labelExecutor pool, and each page is
+ * flushed to the stream once drawn. Codes are vector paths built from their module grids, so no images are produced and
+ * memory use stays at about two pages whatever the size of the run.
+ */
+@Service
+@Slf4j
+@WorkloadPool(Workload.ANALYTICS)
+public class LabelSheetService {
+
+    private static final PageSize PAGE = PageSize.A4;
+    private static final int COLUMNS = 4;
+    private static final int ROWS = 10;
+    private static final int LABELS_PER_PAGE = COLUMNS * ROWS;
+    private static final float PAGE_MARGIN = 20;
+    private static final float QR_SIZE = 56;
+    private static final float TAG_FONT_SIZE = 9;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int TAG_LOOKUP_CHUNK = 1000;
+    private static final int ENCODE_CHUNK = 10;
+
+    private final LivestockRepository livestockRepository;
+    private final LocationResolver locationResolver;
+    private final QrRenderer qrRenderer;
+    private final DocumentTemplates templates;
+    private final TaskExecutor executor;
+
+    public LabelSheetService(LivestockRepository livestockRepository,
+                             LocationResolver locationResolver,
+                             QrRenderer qrRenderer,
+                             DocumentTemplates templates,
+                             @Qualifier("labelExecutor") TaskExecutor executor) {
+        this.livestockRepository = livestockRepository;
+        this.locationResolver = locationResolver;
+        this.qrRenderer = qrRenderer;
+        this.templates = templates;
+        this.executor = executor;
+    }
+
+    /**
+     * Write a PDF of labels for the request to the stream (left open).
+     * The request is checked first; the stream is only asked for once it selects 1 to
+     * MAX_LABELS_PER_SHEET labels, so the caller can still report an error instead.
+     *
+     * @return number of labels printed
+     */
+    @Transactional(readOnly = true)
+    public long writeLabelSheet(LabelSheetRequest request, Supplier<OutputStream> out) {
+        boolean byWard = hasText(request.getWard());
+        boolean byTags = request.getTagCodes() != null && !request.getTagCodes().isEmpty();
+        if (byWard == byTags) {
+            throw new BusinessException("Give either a ward or a list of tag codes");
+        }
+
+        if (byTags) {
+            return write(labelsForTags(request.getTagCodes()).iterator(), out.get());
+        }
+
+        List<UUID> districtIds = null;
+        if (hasText(request.getDistrict())) {
+            districtIds = locationResolver.findDistrictIds(request.getDistrict());
+            if (districtIds.isEmpty()) {
+                throw new BusinessException("Unknown district: " + request.getDistrict());
+            }
+        }
+        String ward = request.getWard().trim();
+        long count = districtIds == null
+            ? livestockRepository.countLabelsByWard(ward)
+            : livestockRepository.countLabelsByWardInDistricts(ward, districtIds);
+        if (count == 0) {
+            throw new BusinessException("No livestock registered to owners in ward " + ward);
+        }
+        if (count > Constants.MAX_LABELS_PER_SHEET) {
+            throw new BusinessException("Ward " + ward + " has " + count + " animals; at most "
+                + Constants.MAX_LABELS_PER_SHEET + " labels fit in one sheet, narrow it by district");
+        }
+        try (Stream<LivestockLabelRow> rows = districtIds == null
+                ? livestockRepository.streamLabelsByWard(ward)
+                : livestockRepository.streamLabelsByWardInDistricts(ward, districtIds)) {
+            return write(rows.iterator(), out.get());
+        }
+    }
+
+    /**
+     * Labels for the tag codes in the order given (duplicates once); every tag must exist
+     */
+    private List<LivestockLabelRow> labelsForTags(List<String> tagCodes) {
+        Set<String> wanted = new LinkedHashSet<>();
+        tagCodes.forEach(tag -> wanted.add(tag.trim()));
+
+        List<String> all = new ArrayList<>(wanted);
+        Map<String, LivestockLabelRow> found = new HashMap<>();
+        for (int i = 0; i < all.size(); i += TAG_LOOKUP_CHUNK) {
+            livestockRepository.findLabelsByTagCodeIn(all.subList(i, Math.min(i + TAG_LOOKUP_CHUNK, all.size())))
+                .forEach(row -> found.put(row.getTagCode(), row));
+        }
+
+        List<String> missing = all.stream().filter(tag -> !found.containsKey(tag)).toList();
+        if (!missing.isEmpty()) {
+            throw new BusinessException(missing.size() + " unknown tag code(s): "
+                + missing.stream().limit(10).collect(Collectors.joining(", "))
+                + (missing.size() > 10 ? ", ..." : ""));
+        }
+        return all.stream().map(found::get).toList();
+    }
+
+    private long write(Iterator<LivestockLabelRow> rows, OutputStream out) {
+        long started = System.nanoTime();
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        PdfWriter writer = new PdfWriter(buffered, new WriterProperties().setFullCompressionMode(true));
+        // The servlet container closes the response stream
+        writer.setCloseStream(false);
+
+        long count = 0;
+        try (PdfDocument pdf = new PdfDocument(writer)) {
+            pdf.getDocumentInfo().setTitle("DigiStock tag labels");
+            PdfFont font = templates.boldFont();
+
+            // Rows are read on this thread (the cursor belongs to its transaction); codes for the
+            // next page are encoded and turned into path operators on other threads while the
+            // current page is drawn
+            List<LivestockLabelRow> page = nextPage(rows);
+            CompletableFuture<List<PdfQrCodes.Path>> codes = encode(page);
+            while (!page.isEmpty()) {
+                List<LivestockLabelRow> next = nextPage(rows);
+                CompletableFuture<List<PdfQrCodes.Path>> nextCodes = next.isEmpty() ? null : encode(next);
+                drawPage(pdf.addNewPage(PAGE), font, page, codes.join());
+                count += page.size();
+                page = next;
+                codes = nextCodes;
+            }
+        }
+        try {
+            buffered.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Writing label sheet failed", e);
+        }
+        log.info("Printed {} tag labels in {} ms", count, (System.nanoTime() - started) / 1_000_000);
+        return count;
+    }
+
+    private static List<LivestockLabelRow> nextPage(Iterator<LivestockLabelRow> rows) {
+        List<LivestockLabelRow> page = new ArrayList<>(LABELS_PER_PAGE);
+        while (page.size() < LABELS_PER_PAGE && rows.hasNext()) {
+            page.add(rows.next());
+        }
+        return page;
+    }
+
+    /**
+     * Encode the page's codes in chunks on the label pool, in label order
+     */
+    private CompletableFuture<List<PdfQrCodes.Path>> encode(List<LivestockLabelRow> page) {
+        Function<LivestockLabelRow, PdfQrCodes.Path> path = row -> PdfQrCodes.path(
+            qrRenderer.printModules(QrCodeService.livestockQrContent(row.getTagCode(), row.getOwnerId())));
+        List<CompletableFuture<List<PdfQrCodes.Path>>> chunks = new ArrayList<>();
+        for (int i = 0; i < page.size(); i += ENCODE_CHUNK) {
+            List<LivestockLabelRow> chunk = page.subList(i, Math.min(i + ENCODE_CHUNK, page.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> chunk.stream().map(path).toList(), executor));
+        }
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new))
+            .thenApply(done -> chunks.stream().flatMap(chunk -> chunk.join().stream()).toList());
+    }
+
+    /**
+     * Lay the labels out left to right, top to bottom, with light cut lines, then release the page
+     */
+    private static void drawPage(PdfPage page, PdfFont font, List<LivestockLabelRow> labels,
+                                 List<PdfQrCodes.Path> codes) {
+        float cellWidth = (PAGE.getWidth() - 2 * PAGE_MARGIN) / COLUMNS;
+        float cellHeight = (PAGE.getHeight() - 2 * PAGE_MARGIN) / ROWS;
+        PdfCanvas canvas = new PdfCanvas(page);
+
+        canvas.saveState().setStrokeColor(ColorConstants.LIGHT_GRAY).setLineWidth(0.25f);
+        for (int i = 0; i < labels.size(); i++) {
+            canvas.rectangle(cellLeft(i, cellWidth), cellBottom(i, cellHeight), cellWidth, cellHeight);
+        }
+        canvas.stroke().restoreState();
+
+        for (int i = 0; i < labels.size(); i++) {
+            float left = cellLeft(i, cellWidth);
+            float top = cellBottom(i, cellHeight) + cellHeight;
+            float qrLeft = left + (cellWidth - QR_SIZE) / 2;
+            PdfQrCodes.draw(canvas, codes.get(i), new Rectangle(qrLeft, top - 4 - QR_SIZE, QR_SIZE, QR_SIZE));
+
+            String tag = labels.get(i).getTagCode();
+            float textWidth = font.getWidth(tag, TAG_FONT_SIZE);
+            canvas.beginText()
+                .setFontAndSize(font, TAG_FONT_SIZE)
+                .moveText(left + (cellWidth - textWidth) / 2, top - 4 - QR_SIZE - 11)
+                .showText(tag)
+                .endText();
+        }
+        canvas.release();
+        page.flush();
+    }
+
+    private static float cellLeft(int index, float cellWidth) {
+        return PAGE_MARGIN + (index % COLUMNS) * cellWidth;
+    }
+
+    private static float cellBottom(int index, float cellHeight) {
+        return PAGE.getHeight() - PAGE_MARGIN - (index / COLUMNS + 1) * cellHeight;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,295 @@
+package zw.co.digistock.service.document;
+
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.layout.Canvas;
+import com.itextpdf.layout.element.Paragraph;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import zw.co.digistock.config.MinioConfig;
+import zw.co.digistock.domain.Livestock;
+import zw.co.digistock.domain.MovementPermit;
+import zw.co.digistock.domain.Officer;
+import zw.co.digistock.domain.Owner;
+import zw.co.digistock.domain.PermitAnimal;
+import zw.co.digistock.domain.PoliceClearance;
+import zw.co.digistock.service.qr.QrPayloadSigner;
+import zw.co.digistock.service.qr.QrRenderer;
+import zw.co.digistock.service.storage.MinioStorageService;
+import zw.co.digistock.util.Constants;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service for producing printable permit and clearance PDFs.
+ *
+ * Each PDF is a copy of a pre-compiled template (see DocumentTemplates) with the document's
+ * values and its signed QR code, drawn as vector rectangles, stamped on. Herd permits add
+ * schedule pages listing the animals. Thread-safe: the
+ * artefact outbox renders documents in parallel on its worker pool.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PdfDocumentService {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern(Constants.DATE_FORMAT);
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern(Constants.DATE_TIME_FORMAT);
+    private static final String CONTENT_TYPE = "application/pdf";
+
+    private static final List<String> SCHEDULE_COLUMNS = List.of("Tag", "Animal", "Owner", "Clearance");
+    private static final float[] SCHEDULE_WIDTHS = {100, 165, 130, 75};
+    private static final float SCHEDULE_NUMBER_WIDTH = 25;
+    private static final float SCHEDULE_ROW_HEIGHT = 16;
+    private static final float SCHEDULE_FONT_SIZE = 9;
+
+    private final DocumentTemplates templates;
+    private final QrPayloadSigner qrPayloadSigner;
+    private final QrRenderer qrRenderer;
+    private final MinioStorageService minioStorageService;
+    private final MinioConfig minioConfig;
+
+    /**
+     * Render a movement permit and upload it to the permits bucket
+     *
+     * @return MinIO reference to the PDF
+     */
+    public String generatePermitPdf(MovementPermit permit) {
+        byte[] pdf = renderPermit(permit);
+        String reference = minioStorageService.uploadBytes(pdf, minioConfig.getPermitsBucket(),
+            permit.getPermitNumber() + ".pdf", CONTENT_TYPE);
+        log.info("Generated permit PDF {} ({} bytes): {}", permit.getPermitNumber(), pdf.length, reference);
+        return reference;
+    }
+
+    /**
+     * Render an approved police clearance and upload it to the clearances bucket
+     *
+     * @return MinIO reference to the PDF
+     */
+    public String generateClearancePdf(PoliceClearance clearance) {
+        byte[] pdf = renderClearance(clearance);
+        String reference = minioStorageService.uploadBytes(pdf, minioConfig.getClearancesBucket(),
+            clearance.getClearanceNumber() + ".pdf", CONTENT_TYPE);
+        log.info("Generated clearance PDF {} ({} bytes): {}", clearance.getClearanceNumber(), pdf.length, reference);
+        return reference;
+    }
+
+    /**
+     * Permit PDF bytes; needs the livestock, its owner, the clearance and the issuing officer
+     */
+    public byte[] renderPermit(MovementPermit permit) {
+        if (permit.isHerd()) {
+            return renderHerdPermit(permit);
+        }
+        Livestock livestock = permit.getLivestock();
+        Owner owner = livestock.getOwner();
+        List<String> values = Arrays.asList(
+            permit.getPermitNumber(),
+            livestock.getTagCode(),
+            animal(livestock),
+            owner.getFullName(),
+            owner.getNationalId(),
+            permit.getFromLocation(),
+            permit.getToLocation(),
+            permit.getPurpose(),
+            join(permit.getTransportMode(), permit.getVehicleNumber()),
+            permit.getDriverName(),
+            format(permit.getValidFrom()),
+            format(permit.getValidUntil()),
+            permit.getClearance() != null ? permit.getClearance().getClearanceNumber() : null,
+            officer(permit.getIssuedBy()),
+            format(permit.getIssuedAt()));
+        return stamp(templates.getPermitTemplate(), values, qrPayloadSigner.signPermit(permit), List.of());
+    }
+
+    /**
+     * Herd permit: the first page summarises the herd, the animals follow in a schedule
+     */
+    private byte[] renderHerdPermit(MovementPermit permit) {
+        List<PermitAnimal> animals = permit.getAnimals().stream()
+            .sorted(Comparator.comparing(animal -> animal.getLivestock().getTagCode()))
+            .toList();
+        List<Owner> owners = animals.stream().map(animal -> animal.getLivestock().getOwner()).distinct().toList();
+        Owner owner = owners.size() == 1 ? owners.get(0) : null;
+
+        List<String> values = Arrays.asList(
+            permit.getPermitNumber(),
+            animals.size() + " animals, see schedule",
+            null,
+            owner != null ? owner.getFullName() : owners.size() + " owners, see schedule",
+            owner != null ? owner.getNationalId() : null,
+            permit.getFromLocation(),
+            permit.getToLocation(),
+            permit.getPurpose(),
+            join(permit.getTransportMode(), permit.getVehicleNumber()),
+            permit.getDriverName(),
+            format(permit.getValidFrom()),
+            format(permit.getValidUntil()),
+            animals.size() + " clearances, see schedule",
+            officer(permit.getIssuedBy()),
+            format(permit.getIssuedAt()));
+        List<List<String>> schedule = animals.stream()
+            .map(animal -> Arrays.asList(
+                animal.getLivestock().getTagCode(),
+                animal(animal.getLivestock()),
+                animal.getLivestock().getOwner().getFullName(),
+                animal.getClearance().getClearanceNumber()))
+            .toList();
+        return stamp(templates.getPermitTemplate(), values, qrPayloadSigner.signPermit(permit), schedule);
+    }
+
+    /**
+     * Clearance PDF bytes; needs the livestock, the owner and the issuing officer
+     */
+    public byte[] renderClearance(PoliceClearance clearance) {
+        Livestock livestock = clearance.getLivestock();
+        Owner owner = clearance.getOwner();
+        List<String> values = Arrays.asList(
+            clearance.getClearanceNumber(),
+            livestock.getTagCode(),
+            animal(livestock),
+            owner.getFullName(),
+            owner.getNationalId(),
+            format(clearance.getClearanceDate()),
+            format(clearance.getExpiryDate()),
+            officer(clearance.getIssuedBy()));
+        return stamp(templates.getClearanceTemplate(), values, qrPayloadSigner.signClearance(clearance), List.of());
+    }
+
+    /**
+     * Copy the template and write the values (in template field order) and QR code onto it,
+     * followed by schedule pages when there are schedule rows
+     */
+    private byte[] stamp(DocumentTemplates.Template template, List<String> values, String qrPayload,
+                         List<List<String>> schedule) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(template.getPdf().length + 8 * 1024);
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(template.getPdf())),
+                new PdfWriter(out, new WriterProperties().setFullCompressionMode(true)))) {
+            PdfPage page = pdf.getFirstPage();
+            PdfFont font = templates.regularFont();
+            List<Rectangle> slots = template.getSlots();
+
+            try (Canvas canvas = new Canvas(page, page.getPageSize())) {
+                for (int i = 0; i < slots.size(); i++) {
+                    Rectangle slot = slots.get(i);
+                    String value = i < values.size() ? values.get(i) : null;
+                    canvas.add(new Paragraph(value == null || value.isBlank() ? "-" : value)
+                        .setFont(font).setFontSize(DocumentTemplates.VALUE_FONT_SIZE)
+                        .setFixedPosition(slot.getLeft(), slot.getBottom(), slot.getWidth()));
+                }
+            }
+            PdfQrCodes.draw(new PdfCanvas(page), qrRenderer.modules(qrPayload), DocumentTemplates.QR_BOX);
+            if (!schedule.isEmpty()) {
+                drawSchedule(pdf, values.get(0), schedule);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("PDF rendering failed", e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Numbered table of SCHEDULE_COLUMNS rows on as many pages as needed; cells are cut to fit
+     */
+    private void drawSchedule(PdfDocument pdf, String documentNumber, List<List<String>> rows) {
+        PdfFont font = templates.regularFont();
+        PdfFont bold = templates.boldFont();
+        float top = DocumentTemplates.PAGE.getHeight() - DocumentTemplates.MARGIN;
+        int rowsPerPage = (int) ((top - 30 - DocumentTemplates.MARGIN) / SCHEDULE_ROW_HEIGHT) - 1;
+        int pages = (rows.size() + rowsPerPage - 1) / rowsPerPage;
+
+        for (int pageIndex = 0; pageIndex < pages; pageIndex++) {
+            PdfCanvas canvas = new PdfCanvas(pdf.addNewPage(DocumentTemplates.PAGE));
+            text(canvas, bold, 12, DocumentTemplates.MARGIN, top - 12,
+                "Schedule of animals, permit " + documentNumber + " (page " + (pageIndex + 1) + " of " + pages + ")");
+
+            float y = top - 30 - SCHEDULE_ROW_HEIGHT;
+            drawScheduleRow(canvas, bold, y, "#", SCHEDULE_COLUMNS);
+            canvas.setStrokeColor(ColorConstants.LIGHT_GRAY).setLineWidth(0.5f)
+                .moveTo(DocumentTemplates.MARGIN, y - 4)
+                .lineTo(DocumentTemplates.PAGE.getWidth() - DocumentTemplates.MARGIN, y - 4)
+                .stroke();
+
+            int end = Math.min(rows.size(), (pageIndex + 1) * rowsPerPage);
+            for (int i = pageIndex * rowsPerPage; i < end; i++) {
+                y -= SCHEDULE_ROW_HEIGHT;
+                drawScheduleRow(canvas, font, y, String.valueOf(i + 1), rows.get(i));
+            }
+            canvas.release();
+        }
+    }
+
+    private static void drawScheduleRow(PdfCanvas canvas, PdfFont font, float y, String number, List<String> cells) {
+        float x = DocumentTemplates.MARGIN;
+        text(canvas, font, SCHEDULE_FONT_SIZE, x, y, number);
+        x += SCHEDULE_NUMBER_WIDTH;
+        for (int i = 0; i < cells.size(); i++) {
+            float width = SCHEDULE_WIDTHS[i];
+            text(canvas, font, SCHEDULE_FONT_SIZE, x, y, fit(font, cells.get(i), width - 6));
+            x += width;
+        }
+    }
+
+    private static void text(PdfCanvas canvas, PdfFont font, float size, float x, float y, String text) {
+        canvas.beginText().setFontAndSize(font, size).moveText(x, y).showText(text).endText();
+    }
+
+    /**
+     * The text, shortened with "..." if it is wider than width at the schedule font size
+     */
+    private static String fit(PdfFont font, String text, float width) {
+        if (text == null || text.isBlank()) {
+            return "-";
+        }
+        if (font.getWidth(text, SCHEDULE_FONT_SIZE) <= width) {
+            return text;
+        }
+        int end = text.length();
+        while (end > 0 && font.getWidth(text.substring(0, end) + "...", SCHEDULE_FONT_SIZE) > width) {
+            end--;
+        }
+        return text.substring(0, end) + "...";
+    }
+
+    private static String animal(Livestock livestock) {
+        return join(livestock.getName(), livestock.getBreed(), livestock.getSex(), livestock.getColor());
+    }
+
+    private static String officer(Officer officer) {
+        return officer == null ? null : officer.getFullName() + " (" + officer.getOfficerCode() + ")";
+    }
+
+    private static String join(String... parts) {
+        return Stream.of(parts).filter(Objects::nonNull).filter(part -> !part.isBlank())
+            .collect(Collectors.joining(", "));
+    }
+
+    private static String format(LocalDate date) {
+        return date == null ? null : date.format(DATE);
+    }
+
+    private static String format(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.format(DATE_TIME);
+    }
+}
@@ -0,0 +1,80 @@
+package zw.co.digistock.service.document;
+
+import com.google.zxing.common.BitMatrix;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import lombok.AllArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Draws a QR module grid onto a PDF page as vector rectangles.
+ *
+ * The grid is drawn in module units under a scaling matrix, so each run of dark modules in a
+ * row is one short "x y w 1 re" operator with integer operands: a typical code is a few KB of
+ * content stream before compression, whatever its printed size. The operators depend only on
+ * the grid, so bulk callers build them with path() on worker threads and only copy them in.
+ */
+final class PdfQrCodes {
+
+    private PdfQrCodes() {
+    }
+
+    /**
+     * Fill the code into the largest square that fits the box, top-left aligned
+     */
+    static void draw(PdfCanvas canvas, BitMatrix modules, Rectangle box) {
+        draw(canvas, path(modules), box);
+    }
+
+    /**
+     * Draw a code prepared with path()
+     */
+    static void draw(PdfCanvas canvas, Path path, Rectangle box) {
+        float module = Math.min(box.getWidth() / path.width, box.getHeight() / path.height);
+
+        canvas.saveState()
+            .setFillColor(ColorConstants.BLACK)
+            // Origin at the top-left of the box, one unit per module, y growing downwards
+            .concatMatrix(module, 0, 0, -module, box.getLeft(), box.getTop());
+        canvas.getContentStream().getOutputStream().writeBytes(path.operators);
+        canvas.restoreState();
+    }
+
+    /**
+     * Content stream operators filling the dark modules, in module units
+     */
+    static Path path(BitMatrix modules) {
+        int width = modules.getWidth();
+        int height = modules.getHeight();
+        StringBuilder operators = new StringBuilder(width * height / 2);
+        for (int y = 0; y < height; y++) {
+            int x = 0;
+            while (x < width) {
+                if (!modules.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int start = x;
+                while (x < width && modules.get(x, y)) {
+                    x++;
+                }
+                operators.append(start).append(' ').append(y).append(' ')
+                    .append(x - start).append(" 1 re\n");
+            }
+        }
+        operators.append("f\n");
+        return new Path(width, height, operators.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * A code's fill operators and its size in modules
+     */
+    @AllArgsConstructor
+    static final class Path {
+        private final int width;
+        private final int height;
+        private final byte[] operators;
+    }
+}
@@ -0,0 +1,24 @@
+package zw.co.digistock.service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Published by LivestockService when an animal is reported stolen or recovered,
+ * inside the update's transaction (use @TransactionalEventListener to act after commit).
+ */
+@Getter
+@AllArgsConstructor
+public class LivestockStolenStatusEvent {
+
+    private final UUID livestockId;
+
+    private final String tagCode;
+
+    /**
+     * True when reported stolen, false when recovered
+     */
+    private final boolean stolen;
+}
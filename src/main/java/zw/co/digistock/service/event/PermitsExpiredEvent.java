@@ -0,0 +1,24 @@
+package zw.co.digistock.service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published by ExpirySweeper for each batch of movement permits moved to EXPIRED,
+ * inside the batch's transaction (use @TransactionalEventListener to act after commit).
+ */
+@Getter
+@AllArgsConstructor
+public class PermitsExpiredEvent {
+
+    private final List<UUID> permitIds;
+
+    /**
+     * Date the permits were checked against; each one's valid-until date is before it
+     */
+    private final LocalDate asOf;
+}
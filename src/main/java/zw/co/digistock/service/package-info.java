@@ -20,6 +20,8 @@
  * <h3>Subpackages</h3>
  * <ul>
  *   <li><code>biometric</code> - Biometric matching and fingerprint operations</li>
+ *   <li><code>document</code> - Printable permit and clearance PDFs</li>
+ *   <li><code>event</code> - Application events published by services</li>
  *   <li><code>qr</code> - QR code generation and management</li>
  *   <li><code>storage</code> - File storage operations (MinIO)</li>
  *   <li><code>impl</code> - Service implementations (recommended structure)</li>
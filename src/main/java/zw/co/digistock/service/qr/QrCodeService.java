@@ -1,22 +1,29 @@
 package zw.co.digistock.service.qr;
 
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.EncodeHintType;
-import com.google.zxing.WriterException;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
-import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
-import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import zw.co.digistock.config.MinioConfig;
+import zw.co.digistock.domain.MovementPermit;
+import zw.co.digistock.domain.PoliceClearance;
+import zw.co.digistock.domain.enums.QrImageFormat;
+import zw.co.digistock.exception.BusinessException;
+import zw.co.digistock.exception.ResourceNotFoundException;
+import zw.co.digistock.repository.MovementPermitRepository;
+import zw.co.digistock.repository.PoliceClearanceRepository;
 import zw.co.digistock.service.storage.MinioStorageService;
+import zw.co.digistock.util.Constants;
 
-import java.io.ByteArrayOutputStream;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.UUID;
 
 /**
@@ -24,20 +31,57 @@ import java.util.UUID;
  * - Movement permits
  * - Police clearances
  * - Livestock tags
+ *
+ * Images are keyed by a SHA-256 of format, size and content. Rendered images are kept in a
+ * size-bounded in-memory cache, and uploads are stored under that hash, so the same content
+ * is rendered and uploaded once: regenerating a permit's QR code (Ed25519 signatures are
+ * deterministic) reuses the existing object.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class QrCodeService {
 
+    private static final int STORED_REFERENCE_CACHE_SIZE = 10_000;
+
     private final MinioStorageService minioStorageService;
     private final MinioConfig minioConfig;
+    private final QrPayloadSigner qrPayloadSigner;
+    private final QrRenderer qrRenderer;
+    private final MovementPermitRepository permitRepository;
+    private final PoliceClearanceRepository clearanceRepository;
+    private final Cache<String, byte[]> images;
+    private final Cache<String, String> storedReferences;
 
     @Value("${digistock.qr.size:300}")
     private int qrCodeSize;
 
+    public QrCodeService(MinioStorageService minioStorageService,
+                         MinioConfig minioConfig,
+                         QrPayloadSigner qrPayloadSigner,
+                         QrRenderer qrRenderer,
+                         MovementPermitRepository permitRepository,
+                         PoliceClearanceRepository clearanceRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${digistock.qr.cache.max-bytes:16777216}") long cacheMaxBytes) {
+        this.minioStorageService = minioStorageService;
+        this.minioConfig = minioConfig;
+        this.qrPayloadSigner = qrPayloadSigner;
+        this.qrRenderer = qrRenderer;
+        this.permitRepository = permitRepository;
+        this.clearanceRepository = clearanceRepository;
+        this.images = Caffeine.newBuilder()
+            .maximumWeight(cacheMaxBytes)
+            .<String, byte[]>weigher((key, image) -> image.length)
+            .recordStats()
+            .build();
+        this.storedReferences = Caffeine.newBuilder()
+            .maximumSize(STORED_REFERENCE_CACHE_SIZE)
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, images, "qrImages");
+    }
+
     /**
-     * Generate a QR code from text and upload to MinIO
+     * Generate a QR code from text and upload to MinIO, unless the same image is already stored
      *
      * @param content Text content to encode in QR code
      * @param entityType Type of entity (permit, clearance, livestock)
@@ -46,19 +90,22 @@ public class QrCodeService {
      */
     public String generateAndUploadQrCode(String content, String entityType, String entityId) {
         try {
-            byte[] qrCodeBytes = generateQrCodeImage(content);
-
-            String objectName = String.format("%s/%s/%s.png", entityType, entityId, UUID.randomUUID());
+            QrImage image = renderQrCode(content, QrImageFormat.PNG, qrCodeSize);
+            String objectName = String.format("%s/%s.%s", entityType, image.getHash(),
+                QrImageFormat.PNG.getExtension());
             String bucketName = minioConfig.getQrCodesBucket();
 
-            String reference = minioStorageService.uploadBytes(
-                qrCodeBytes,
-                bucketName,
-                objectName,
-                "image/png"
-            );
-
-            log.info("Generated QR code for {} {}: {}", entityType, entityId, reference);
+            String reference = storedReferences.getIfPresent(objectName);
+            if (reference == null) {
+                reference = minioStorageService.objectExists(bucketName, objectName)
+                    ? "minio://" + bucketName + "/" + objectName
+                    : minioStorageService.uploadBytes(image.getData(), bucketName, objectName,
+                        QrImageFormat.PNG.getContentType());
+                storedReferences.put(objectName, reference);
+                log.info("Generated QR code for {} {}: {}", entityType, entityId, reference);
+            } else {
+                log.debug("QR code for {} {} already stored: {}", entityType, entityId, reference);
+            }
             return reference;
         } catch (Exception e) {
             log.error("Failed to generate QR code for {} {}", entityType, entityId, e);
@@ -67,48 +114,53 @@ public class QrCodeService {
     }
 
     /**
-     * Generate QR code image bytes from text content
+     * Render text as a QR image, from the cache when the same image was rendered before
      *
-     * @param content Text to encode
-     * @return PNG image bytes
+     * @param size Width and height in pixels
+     */
+    public QrImage renderQrCode(String content, QrImageFormat format, int size) {
+        if (size < Constants.MIN_QR_SIZE || size > Constants.MAX_QR_SIZE) {
+            throw new BusinessException("QR size must be between " + Constants.MIN_QR_SIZE
+                + " and " + Constants.MAX_QR_SIZE + " pixels");
+        }
+        String hash = contentHash(content, format, size);
+        byte[] data = images.get(hash, key -> qrRenderer.render(content, format, size));
+        return new QrImage(data, format, hash);
+    }
+
+    /**
+     * Render the signed QR code of a movement permit on demand
+     */
+    public QrImage renderPermitQrCode(UUID permitId, QrImageFormat format, int size) {
+        MovementPermit permit = permitRepository.findWithLivestockById(permitId)
+            .orElseThrow(() -> new ResourceNotFoundException("Movement Permit", "id", permitId));
+        return renderQrCode(qrPayloadSigner.signPermit(permit), format, size);
+    }
+
+    /**
+     * Render the signed QR code of a police clearance on demand
      */
-    private byte[] generateQrCodeImage(String content) throws WriterException, java.io.IOException {
-        Map<EncodeHintType, Object> hints = new HashMap<>();
-        hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H);
-        hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
-        hints.put(EncodeHintType.MARGIN, 1);
-
-        QRCodeWriter qrCodeWriter = new QRCodeWriter();
-        BitMatrix bitMatrix = qrCodeWriter.encode(
-            content,
-            BarcodeFormat.QR_CODE,
-            qrCodeSize,
-            qrCodeSize,
-            hints
-        );
-
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        MatrixToImageWriter.writeToStream(bitMatrix, "PNG", outputStream);
-
-        return outputStream.toByteArray();
+    public QrImage renderClearanceQrCode(UUID clearanceId, QrImageFormat format, int size) {
+        PoliceClearance clearance = clearanceRepository.findWithLivestockById(clearanceId)
+            .orElseThrow(() -> new ResourceNotFoundException("Police Clearance", "id", clearanceId));
+        return renderQrCode(qrPayloadSigner.signClearance(clearance), format, size);
     }
 
     /**
      * Generate QR code for a movement permit
-     * Format: PERMIT:{permitNumber}:{livestockTag}:{validUntil}
+     * Format: signed payload, see SignedQrPayload
      */
-    public String generatePermitQrCode(String permitNumber, String livestockTag, String validUntil, String permitId) {
-        String content = String.format("PERMIT:%s:%s:%s", permitNumber, livestockTag, validUntil);
-        return generateAndUploadQrCode(content, "permits", permitId);
+    public String generatePermitQrCode(MovementPermit permit) {
+        return generateAndUploadQrCode(qrPayloadSigner.signPermit(permit), "permits", permit.getPermitNumber());
     }
 
     /**
-     * Generate QR code for a police clearance
-     * Format: CLEARANCE:{clearanceNumber}:{livestockTag}:{expiryDate}
+     * Generate QR code for an approved police clearance
+     * Format: signed payload, see SignedQrPayload
      */
-    public String generateClearanceQrCode(String clearanceNumber, String livestockTag, String expiryDate, String clearanceId) {
-        String content = String.format("CLEARANCE:%s:%s:%s", clearanceNumber, livestockTag, expiryDate);
-        return generateAndUploadQrCode(content, "clearances", clearanceId);
+    public String generateClearanceQrCode(PoliceClearance clearance) {
+        return generateAndUploadQrCode(qrPayloadSigner.signClearance(clearance), "clearances",
+            clearance.getClearanceNumber());
     }
 
     /**
@@ -116,7 +168,35 @@ public class QrCodeService {
      * Format: LIVESTOCK:{tagCode}:{ownerId}
      */
     public String generateLivestockQrCode(String tagCode, String ownerId, String livestockId) {
-        String content = String.format("LIVESTOCK:%s:%s", tagCode, ownerId);
-        return generateAndUploadQrCode(content, "livestock", livestockId);
+        return generateAndUploadQrCode(livestockQrContent(tagCode, ownerId), "livestock", livestockId);
+    }
+
+    /**
+     * Content of a livestock tag QR code (also printed on label sheets)
+     */
+    public static String livestockQrContent(String tagCode, Object ownerId) {
+        return String.format("LIVESTOCK:%s:%s", tagCode, ownerId);
+    }
+
+    private static String contentHash(String content, QrImageFormat format, int size) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((format.name() + ":" + size + ":").getBytes(StandardCharsets.UTF_8));
+            digest.update(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * A rendered QR code; the hash identifies the image and doubles as its ETag
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class QrImage {
+        private final byte[] data;
+        private final QrImageFormat format;
+        private final String hash;
     }
 }
@@ -0,0 +1,243 @@
+package zw.co.digistock.service.qr;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import zw.co.digistock.config.QrSigningConfig;
+import zw.co.digistock.domain.Livestock;
+import zw.co.digistock.domain.MovementPermit;
+import zw.co.digistock.domain.PermitAnimal;
+import zw.co.digistock.domain.PoliceClearance;
+import zw.co.digistock.domain.enums.QrVerificationStatus;
+import zw.co.digistock.dto.response.QrSigningKeyResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Signs and verifies the QR payloads printed on movement permits and police clearances
+ * (format in SignedQrPayload). Ed25519 keeps signatures at 64 bytes and verification fast
+ * enough for handheld scanners.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QrPayloadSigner {
+
+    private static final String ALGORITHM = "Ed25519";
+    private static final String EPHEMERAL_KEY_ID = "ephemeral";
+
+    private final QrSigningConfig config;
+
+    private final Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+    private String activeKeyId;
+    private PrivateKey signingKey;
+
+    @PostConstruct
+    public void loadKeys() {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(ALGORITHM);
+            for (Map.Entry<String, QrSigningConfig.Key> entry : config.getKeys().entrySet()) {
+                String publicKey = entry.getValue().getPublicKey();
+                if (publicKey != null && !publicKey.isBlank()) {
+                    publicKeys.put(entry.getKey(), keyFactory.generatePublic(
+                        new X509EncodedKeySpec(Base64.getDecoder().decode(publicKey.trim()))));
+                }
+            }
+
+            String keyId = config.getActiveKeyId();
+            if (keyId == null || keyId.isBlank()) {
+                if (!config.isAllowEphemeralKey()) {
+                    throw new IllegalStateException("No QR signing key configured: set digistock.qr.signing.active-key-id "
+                        + "(or digistock.qr.signing.allow-ephemeral-key=true in development)");
+                }
+                // Development only: codes stop verifying when the application restarts
+                log.warn("No QR signing key configured (digistock.qr.signing.active-key-id); using a throwaway key");
+                KeyPair pair = KeyPairGenerator.getInstance(ALGORITHM).generateKeyPair();
+                activeKeyId = EPHEMERAL_KEY_ID;
+                signingKey = pair.getPrivate();
+                publicKeys.put(EPHEMERAL_KEY_ID, pair.getPublic());
+                return;
+            }
+
+            QrSigningConfig.Key key = config.getKeys().get(keyId);
+            if (key == null || key.getPrivateKey() == null || !publicKeys.containsKey(keyId)) {
+                throw new IllegalStateException("QR signing key " + keyId + " needs both a private and a public key");
+            }
+            activeKeyId = keyId;
+            signingKey = keyFactory.generatePrivate(
+                new PKCS8EncodedKeySpec(Base64.getDecoder().decode(key.getPrivateKey().trim())));
+            log.info("Signing QR payloads with key {} ({} verification key(s))", activeKeyId, publicKeys.size());
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid QR signing key configuration: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Signed QR text for a movement permit
+     */
+    public String signPermit(MovementPermit permit) {
+        if (permit.isHerd()) {
+            return sign(new SignedQrPayload(
+                SignedQrPayload.DocumentType.HERD_PERMIT,
+                activeKeyId,
+                permit.getPermitNumber(),
+                String.valueOf(permit.getHerdSize()),
+                permit.getValidFrom(),
+                permit.getValidUntil(),
+                herdDigest(permit.getAnimals())));
+        }
+        Livestock livestock = permit.getLivestock();
+        return sign(new SignedQrPayload(
+            SignedQrPayload.DocumentType.PERMIT,
+            activeKeyId,
+            permit.getPermitNumber(),
+            livestock.getTagCode(),
+            permit.getValidFrom(),
+            permit.getValidUntil(),
+            subjectDigest(livestock.getId(), livestock.getTagCode(), livestock.getOwner().getId())));
+    }
+
+    /**
+     * Signed QR text for an approved police clearance
+     */
+    public String signClearance(PoliceClearance clearance) {
+        Livestock livestock = clearance.getLivestock();
+        LocalDate validFrom = clearance.getClearanceDate() != null
+            ? clearance.getClearanceDate().toLocalDate()
+            : LocalDate.now();
+        return sign(new SignedQrPayload(
+            SignedQrPayload.DocumentType.CLEARANCE,
+            activeKeyId,
+            clearance.getClearanceNumber(),
+            livestock.getTagCode(),
+            validFrom,
+            clearance.getExpiryDate(),
+            subjectDigest(livestock.getId(), livestock.getTagCode(), clearance.getOwner().getId())));
+    }
+
+    /**
+     * Check a payload's signature and dates, as a scanner would offline
+     */
+    public Verification verify(String text, LocalDate today) {
+        SignedQrPayload.Decoded decoded;
+        try {
+            decoded = SignedQrPayload.decode(text);
+        } catch (IllegalArgumentException e) {
+            return new Verification(QrVerificationStatus.MALFORMED, null, e.getMessage());
+        }
+
+        SignedQrPayload payload = decoded.getPayload();
+        PublicKey key = publicKeys.get(payload.getKeyId());
+        if (key == null) {
+            return new Verification(QrVerificationStatus.UNKNOWN_KEY, payload, "Unknown key id: " + payload.getKeyId());
+        }
+        try {
+            Signature signature = Signature.getInstance(ALGORITHM);
+            signature.initVerify(key);
+            signature.update(decoded.getSignedBytes());
+            if (!signature.verify(decoded.getSignature())) {
+                return new Verification(QrVerificationStatus.INVALID_SIGNATURE, payload, "Signature does not match");
+            }
+        } catch (GeneralSecurityException e) {
+            return new Verification(QrVerificationStatus.INVALID_SIGNATURE, payload, e.getMessage());
+        }
+
+        if (today.isBefore(payload.getValidFrom())) {
+            return new Verification(QrVerificationStatus.NOT_YET_VALID, payload, "Valid from " + payload.getValidFrom());
+        }
+        if (today.isAfter(payload.getValidUntil())) {
+            return new Verification(QrVerificationStatus.EXPIRED, payload, "Expired on " + payload.getValidUntil());
+        }
+        return new Verification(QrVerificationStatus.VALID, payload, null);
+    }
+
+    /**
+     * Public keys for scanners to verify with, the active key first
+     */
+    public List<QrSigningKeyResponse> getPublicKeys() {
+        return publicKeys.entrySet().stream()
+            .sorted((a, b) -> Boolean.compare(b.getKey().equals(activeKeyId), a.getKey().equals(activeKeyId)))
+            .map(entry -> QrSigningKeyResponse.builder()
+                .keyId(entry.getKey())
+                .algorithm(ALGORITHM)
+                .publicKey(Base64.getEncoder().encodeToString(entry.getValue().getEncoded()))
+                .active(entry.getKey().equals(activeKeyId))
+                .build())
+            .toList();
+    }
+
+    /**
+     * First 16 bytes of SHA-256("livestockId|tagCode|ownerId")
+     */
+    public static byte[] subjectDigest(UUID livestockId, String tagCode, UUID ownerId) {
+        return digest(livestockId + "|" + tagCode + "|" + ownerId);
+    }
+
+    /**
+     * Subject digest of a herd: as subjectDigest, over one line per animal sorted by tag code
+     */
+    public static byte[] herdDigest(Collection<PermitAnimal> animals) {
+        String lines = animals.stream()
+            .map(PermitAnimal::getLivestock)
+            .sorted(Comparator.comparing(Livestock::getTagCode))
+            .map(livestock -> livestock.getId() + "|" + livestock.getTagCode() + "|" + livestock.getOwner().getId())
+            .collect(Collectors.joining("\n"));
+        return digest(lines);
+    }
+
+    private static byte[] digest(String subject) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(subject.getBytes(StandardCharsets.UTF_8));
+            return Arrays.copyOf(hash, SignedQrPayload.DIGEST_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String sign(SignedQrPayload payload) {
+        try {
+            Signature signature = Signature.getInstance(ALGORITHM);
+            signature.initSign(signingKey);
+            signature.update(payload.signedBytes());
+            return payload.encode(signature.sign());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign QR payload", e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Verification {
+        private final QrVerificationStatus status;
+
+        /**
+         * Decoded contents; null when the payload is malformed
+         */
+        private final SignedQrPayload payload;
+        private final String reason;
+    }
+}
@@ -0,0 +1,133 @@
+package zw.co.digistock.service.qr;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import org.springframework.stereotype.Component;
+import zw.co.digistock.domain.enums.QrImageFormat;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Draws QR codes as PNG or SVG.
+ *
+ * PNGs are 1-bit images at exactly the requested size. SVGs are drawn from the module grid
+ * as one path, one subpath per run of dark modules, and scale to any size. Stateless and
+ * thread-safe; caching is done by QrCodeService, PDFs draw from modules().
+ */
+@Component
+public class QrRenderer {
+
+    /**
+     * Quiet zone in modules around the code
+     */
+    private static final int MARGIN = 1;
+
+    private static final Map<EncodeHintType, Object> HINTS = hints(ErrorCorrectionLevel.H);
+
+    /**
+     * Medium (15%) error correction, for codes printed small on paper: fewer, larger modules
+     * scan more reliably at that size, and encode in about two thirds of the time
+     */
+    private static final Map<EncodeHintType, Object> PRINT_HINTS = hints(ErrorCorrectionLevel.M);
+
+    private final QRCodeWriter writer = new QRCodeWriter();
+
+    /**
+     * Render content as a square image of the given size in pixels
+     */
+    byte[] render(String content, QrImageFormat format, int size) {
+        try {
+            return switch (format) {
+                case PNG -> png(writer.encode(content, BarcodeFormat.QR_CODE, size, size, HINTS));
+                // Width 0 gives one cell per module; the SVG viewBox does the scaling
+                case SVG -> svg(modules(content), size);
+            };
+        } catch (WriterException | IOException e) {
+            throw new IllegalStateException("QR code rendering failed", e);
+        }
+    }
+
+    /**
+     * The module grid, one cell per module including the quiet zone, for drawing the code
+     * into other formats (e.g., vector PDF)
+     */
+    public BitMatrix modules(String content) {
+        return encode(content, HINTS);
+    }
+
+    /**
+     * The module grid with medium error correction, for small printed labels
+     */
+    public BitMatrix printModules(String content) {
+        return encode(content, PRINT_HINTS);
+    }
+
+    private BitMatrix encode(String content, Map<EncodeHintType, Object> hints) {
+        try {
+            return writer.encode(content, BarcodeFormat.QR_CODE, 0, 0, hints);
+        } catch (WriterException e) {
+            throw new IllegalStateException("QR code encoding failed", e);
+        }
+    }
+
+    private static Map<EncodeHintType, Object> hints(ErrorCorrectionLevel level) {
+        return Map.of(
+            EncodeHintType.ERROR_CORRECTION, level,
+            EncodeHintType.CHARACTER_SET, "UTF-8",
+            EncodeHintType.MARGIN, MARGIN);
+    }
+
+    private static byte[] png(BitMatrix matrix) throws IOException {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+        WritableRaster raster = image.getRaster();
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                row[x] = matrix.get(x, y) ? 0 : 1;
+            }
+            raster.setPixels(0, y, width, 1, row);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(width * height / 16);
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static byte[] svg(BitMatrix matrix, int size) {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        StringBuilder path = new StringBuilder(width * height / 2);
+        for (int y = 0; y < height; y++) {
+            int x = 0;
+            while (x < width) {
+                if (!matrix.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int start = x;
+                while (x < width && matrix.get(x, y)) {
+                    x++;
+                }
+                int run = x - start;
+                path.append('M').append(start).append(' ').append(y)
+                    .append('h').append(run).append("v1h-").append(run).append('z');
+            }
+        }
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 " + width + " " + height
+            + "\" width=\"" + size + "\" height=\"" + size + "\" shape-rendering=\"crispEdges\">"
+            + "<rect width=\"100%\" height=\"100%\" fill=\"#fff\"/>"
+            + "<path d=\"" + path + "\"/></svg>";
+        return svg.getBytes(StandardCharsets.UTF_8);
+    }
+}
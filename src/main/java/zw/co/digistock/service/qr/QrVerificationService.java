@@ -0,0 +1,156 @@
+package zw.co.digistock.service.qr;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import zw.co.digistock.domain.Livestock;
+import zw.co.digistock.domain.MovementPermit;
+import zw.co.digistock.domain.PoliceClearance;
+import zw.co.digistock.domain.enums.ClearanceStatus;
+import zw.co.digistock.domain.enums.PermitStatus;
+import zw.co.digistock.domain.enums.QrVerificationStatus;
+import zw.co.digistock.dto.response.QrSigningKeyResponse;
+import zw.co.digistock.dto.response.QrVerificationResponse;
+import zw.co.digistock.repository.MovementPermitRepository;
+import zw.co.digistock.repository.PoliceClearanceRepository;
+import zw.co.digistock.util.Constants;
+
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Server-side audit of scanned QR payloads: the offline checks (signature, dates) plus the
+ * current state of the permit or clearance behind each one.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class QrVerificationService {
+
+    private static final Set<PermitStatus> ACTIVE_PERMIT_STATUSES = Set.of(PermitStatus.APPROVED, PermitStatus.IN_TRANSIT);
+
+    private final QrPayloadSigner signer;
+    private final MovementPermitRepository permitRepository;
+    private final PoliceClearanceRepository clearanceRepository;
+
+    /**
+     * Verify each payload; results are in request order
+     */
+    public List<QrVerificationResponse> verify(List<String> payloads) {
+        LocalDate today = LocalDate.now(ZoneId.of(Constants.TIME_ZONE));
+        List<QrPayloadSigner.Verification> verifications = payloads.stream()
+            .map(payload -> signer.verify(payload.trim(), today))
+            .toList();
+
+        // Only payloads with a good signature name a record worth loading
+        Set<String> permitNumbers = numbers(verifications,
+            Set.of(SignedQrPayload.DocumentType.PERMIT, SignedQrPayload.DocumentType.HERD_PERMIT));
+        Set<String> clearanceNumbers = numbers(verifications, Set.of(SignedQrPayload.DocumentType.CLEARANCE));
+        Map<String, MovementPermit> permits = permitNumbers.isEmpty() ? Map.of()
+            : permitRepository.findByPermitNumberIn(permitNumbers).stream()
+                .collect(Collectors.toMap(MovementPermit::getPermitNumber, Function.identity()));
+        Map<String, PoliceClearance> clearances = clearanceNumbers.isEmpty() ? Map.of()
+            : clearanceRepository.findByClearanceNumberIn(clearanceNumbers).stream()
+                .collect(Collectors.toMap(PoliceClearance::getClearanceNumber, Function.identity()));
+
+        List<QrVerificationResponse> results = new ArrayList<>(verifications.size());
+        for (int i = 0; i < verifications.size(); i++) {
+            results.add(toResponse(i, verifications.get(i), permits, clearances));
+        }
+        log.info("Verified {} QR payloads, {} valid", results.size(),
+            results.stream().filter(QrVerificationResponse::isValid).count());
+        return results;
+    }
+
+    public List<QrSigningKeyResponse> getPublicKeys() {
+        return signer.getPublicKeys();
+    }
+
+    private QrVerificationResponse toResponse(int index, QrPayloadSigner.Verification verification,
+                                              Map<String, MovementPermit> permits,
+                                              Map<String, PoliceClearance> clearances) {
+        SignedQrPayload payload = verification.getPayload();
+        QrVerificationResponse.QrVerificationResponseBuilder response = QrVerificationResponse.builder()
+            .index(index)
+            .status(verification.getStatus())
+            .reason(verification.getReason());
+        if (payload == null) {
+            return response.valid(false).build();
+        }
+        response.documentType(payload.getType().name())
+            .documentNumber(payload.getDocumentNumber())
+            .livestockTag(payload.getLivestockTag())
+            .keyId(payload.getKeyId())
+            .validFrom(payload.getValidFrom())
+            .validUntil(payload.getValidUntil());
+        if (!isSigned(verification)) {
+            return response.valid(false).build();
+        }
+
+        boolean active;
+        byte[] subjectDigest;
+        boolean stolen;
+        String recordStatus;
+        if (payload.getType() == SignedQrPayload.DocumentType.CLEARANCE) {
+            PoliceClearance clearance = clearances.get(payload.getDocumentNumber());
+            if (clearance == null) {
+                return response.valid(false).reason("No clearance with this number").build();
+            }
+            Livestock livestock = clearance.getLivestock();
+            subjectDigest = QrPayloadSigner.subjectDigest(livestock.getId(), livestock.getTagCode(),
+                clearance.getOwner().getId());
+            stolen = livestock.isStolen();
+            recordStatus = clearance.getStatus().name();
+            active = clearance.getStatus() == ClearanceStatus.APPROVED;
+        } else {
+            MovementPermit permit = permits.get(payload.getDocumentNumber());
+            if (permit == null) {
+                return response.valid(false).reason("No permit with this number").build();
+            }
+            if (permit.isHerd()) {
+                subjectDigest = QrPayloadSigner.herdDigest(permit.getAnimals());
+                stolen = permit.getAnimals().stream().anyMatch(animal -> animal.getLivestock().isStolen());
+            } else {
+                Livestock livestock = permit.getLivestock();
+                subjectDigest = QrPayloadSigner.subjectDigest(livestock.getId(), livestock.getTagCode(),
+                    livestock.getOwner().getId());
+                stolen = livestock.isStolen();
+            }
+            recordStatus = permit.getStatus().name();
+            active = ACTIVE_PERMIT_STATUSES.contains(permit.getStatus());
+        }
+
+        boolean subjectMatches = MessageDigest.isEqual(payload.getSubjectDigest(), subjectDigest);
+        return response
+            .recordStatus(recordStatus)
+            .subjectMatches(subjectMatches)
+            .livestockStolen(stolen)
+            .valid(verification.getStatus() == QrVerificationStatus.VALID && active && subjectMatches && !stolen)
+            .build();
+    }
+
+    private static boolean isSigned(QrPayloadSigner.Verification verification) {
+        return verification.getStatus() == QrVerificationStatus.VALID
+            || verification.getStatus() == QrVerificationStatus.NOT_YET_VALID
+            || verification.getStatus() == QrVerificationStatus.EXPIRED;
+    }
+
+    private static Set<String> numbers(List<QrPayloadSigner.Verification> verifications,
+                                       Set<SignedQrPayload.DocumentType> types) {
+        return verifications.stream()
+            .filter(QrVerificationService::isSigned)
+            .map(QrPayloadSigner.Verification::getPayload)
+            .filter(payload -> types.contains(payload.getType()))
+            .map(SignedQrPayload::getDocumentNumber)
+            .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,160 @@
+package zw.co.digistock.service.qr;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Contents of a signed permit / clearance QR code, and its wire format.
+ *
+ * The QR text is "DSQ1:" followed by the unpadded base64url encoding of:
+ * <pre>
+ *   1 byte    format version (1)
+ *   1 byte    document type: 'P' movement permit, 'H' herd movement permit, 'C' police clearance
+ *   1+n       key id           (length byte, ASCII)
+ *   1+n       document number  (length byte, UTF-8)
+ *   1+n       livestock tag    (length byte, UTF-8); for herd permits the number of animals
+ *   4 bytes   valid from, days since 1970-01-01 (big-endian)
+ *   4 bytes   valid until, inclusive, days since 1970-01-01
+ *   16 bytes  subject digest: first 16 bytes of SHA-256("livestockId|tagCode|ownerId");
+ *             for herd permits, of those lines for every animal, sorted by tag and joined by "\n"
+ *   64 bytes  Ed25519 signature over all the bytes above
+ * </pre>
+ * A scanner holding the public keys (GET /api/v1/qr/keys) can check the signature and dates
+ * without a connection, and compare the digest with the animal and owner in front of it
+ * (or, for a herd, with the schedule printed on the permit).
+ */
+@Getter
+@AllArgsConstructor
+public class SignedQrPayload {
+
+    public static final String PREFIX = "DSQ1:";
+    static final int VERSION = 1;
+    static final int DIGEST_LENGTH = 16;
+    static final int SIGNATURE_LENGTH = 64;
+
+    private final DocumentType type;
+    private final String keyId;
+    private final String documentNumber;
+    private final String livestockTag;
+    private final LocalDate validFrom;
+    private final LocalDate validUntil;
+    private final byte[] subjectDigest;
+
+    public enum DocumentType {
+        PERMIT('P'), HERD_PERMIT('H'), CLEARANCE('C');
+
+        private final char code;
+
+        DocumentType(char code) {
+            this.code = code;
+        }
+
+        static DocumentType of(int code) {
+            for (DocumentType type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown document type: " + code);
+        }
+    }
+
+    /**
+     * The bytes covered by the signature
+     */
+    byte[] signedBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        out.write(VERSION);
+        out.write(type.code);
+        writeString(out, keyId, StandardCharsets.US_ASCII);
+        writeString(out, documentNumber, StandardCharsets.UTF_8);
+        writeString(out, livestockTag, StandardCharsets.UTF_8);
+        out.writeBytes(ByteBuffer.allocate(8)
+            .putInt((int) validFrom.toEpochDay())
+            .putInt((int) validUntil.toEpochDay())
+            .array());
+        out.writeBytes(subjectDigest);
+        return out.toByteArray();
+    }
+
+    /**
+     * QR text for these contents and their signature
+     */
+    String encode(byte[] signature) {
+        byte[] body = signedBytes();
+        byte[] all = Arrays.copyOf(body, body.length + signature.length);
+        System.arraycopy(signature, 0, all, body.length, signature.length);
+        return PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(all);
+    }
+
+    /**
+     * Split QR text into the payload, the signed bytes and the signature (not yet checked)
+     *
+     * @throws IllegalArgumentException if the text is not a well-formed payload
+     */
+    static Decoded decode(String text) {
+        if (text == null || !text.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("Not a signed DigiStock QR payload");
+        }
+        byte[] all = Base64.getUrlDecoder().decode(text.substring(PREFIX.length()));
+        if (all.length <= SIGNATURE_LENGTH) {
+            throw new IllegalArgumentException("Payload too short");
+        }
+        byte[] body = Arrays.copyOf(all, all.length - SIGNATURE_LENGTH);
+        byte[] signature = Arrays.copyOfRange(all, body.length, all.length);
+
+        ByteBuffer in = ByteBuffer.wrap(body);
+        try {
+            if (in.get() != VERSION) {
+                throw new IllegalArgumentException("Unsupported payload version");
+            }
+            DocumentType type = DocumentType.of(in.get());
+            String keyId = readString(in, StandardCharsets.US_ASCII);
+            String number = readString(in, StandardCharsets.UTF_8);
+            String tag = readString(in, StandardCharsets.UTF_8);
+            LocalDate validFrom = LocalDate.ofEpochDay(in.getInt());
+            LocalDate validUntil = LocalDate.ofEpochDay(in.getInt());
+            byte[] digest = new byte[DIGEST_LENGTH];
+            in.get(digest);
+            if (in.hasRemaining()) {
+                throw new IllegalArgumentException("Unexpected trailing bytes");
+            }
+            return new Decoded(new SignedQrPayload(type, keyId, number, tag, validFrom, validUntil, digest),
+                body, signature);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Payload truncated");
+        }
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value, Charset charset) {
+        byte[] bytes = value.getBytes(charset);
+        if (bytes.length > 255) {
+            throw new IllegalArgumentException("Value too long for QR payload: " + value);
+        }
+        out.write(bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static String readString(ByteBuffer in, Charset charset) {
+        byte[] bytes = new byte[Byte.toUnsignedInt(in.get())];
+        in.get(bytes);
+        return new String(bytes, charset);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static final class Decoded {
+        private final SignedQrPayload payload;
+        private final byte[] signedBytes;
+        private final byte[] signature;
+    }
+}
@@ -2,6 +2,7 @@ package zw.co.digistock.service.storage;
 
 import io.minio.*;
 import io.minio.http.Method;
+import io.minio.messages.Item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -10,6 +11,9 @@ import zw.co.digistock.config.MinioConfig;
 
 import jakarta.annotation.PostConstruct;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -40,6 +44,8 @@ public class MinioStorageService {
             createBucketIfNotExists(minioConfig.getPermitsBucket());
             createBucketIfNotExists(minioConfig.getClearancesBucket());
             createBucketIfNotExists(minioConfig.getQrCodesBucket());
+            createBucketIfNotExists(minioConfig.getSnapshotsBucket());
+            createBucketIfNotExists(minioConfig.getArchiveBucket());
             log.info("MinIO buckets initialized successfully");
         } catch (Exception e) {
             log.error("Failed to initialize MinIO buckets", e);
@@ -116,6 +122,70 @@ public class MinioStorageService {
         }
     }
 
+    /**
+     * Upload a local file (e.g., generated snapshots too large to hold in memory)
+     */
+    public String uploadLocalFile(Path file, String bucketName, String objectName, String contentType) {
+        try {
+            minioClient.uploadObject(
+                UploadObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .filename(file.toString())
+                    .contentType(contentType)
+                    .build()
+            );
+
+            String reference = "minio://" + bucketName + "/" + objectName;
+            log.debug("Uploaded local file to MinIO: {}", reference);
+            return reference;
+        } catch (Exception e) {
+            log.error("Failed to upload local file to MinIO bucket: {}", bucketName, e);
+            throw new RuntimeException("File upload failed", e);
+        }
+    }
+
+    /**
+     * Check whether an object exists (e.g., before re-uploading content-addressed files)
+     */
+    public boolean objectExists(String bucketName, String objectName) {
+        try {
+            minioClient.statObject(
+                StatObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .build()
+            );
+            return true;
+        } catch (io.minio.errors.ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return false;
+            }
+            log.error("Failed to check object in MinIO bucket: {}", bucketName, e);
+            throw new RuntimeException("Object check failed", e);
+        } catch (Exception e) {
+            log.error("Failed to check object in MinIO bucket: {}", bucketName, e);
+            throw new RuntimeException("Object check failed", e);
+        }
+    }
+
+    /**
+     * List objects under a prefix, recursively
+     */
+    public List<Item> listObjects(String bucketName, String prefix) {
+        try {
+            List<Item> items = new ArrayList<>();
+            for (Result<Item> result : minioClient.listObjects(
+                    ListObjectsArgs.builder().bucket(bucketName).prefix(prefix).recursive(true).build())) {
+                items.add(result.get());
+            }
+            return items;
+        } catch (Exception e) {
+            log.error("Failed to list MinIO bucket: {}", bucketName, e);
+            throw new RuntimeException("Object listing failed", e);
+        }
+    }
+
     /**
      * Download a file from MinIO
      *
@@ -0,0 +1,113 @@
+package zw.co.digistock.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over strings, safe for concurrent put and mightContain.
+ *
+ * The bit positions are meant to be recomputed off the server, so they use nothing more than
+ * SHA-256: h1 and h2 are the first two big-endian 64-bit words of SHA-256(UTF-8 key), and the
+ * i-th of k positions is floorMod(h1 + i * h2, m). toByteArray() writes
+ *
+ *   byte  format version (1)
+ *   byte  k, the number of hash functions
+ *   int   m, the number of bits (a multiple of 64)
+ *   long  m / 64 words, bit p being (word[p / 64] >>> (p % 64)) & 1
+ *
+ * all big-endian. Keys can be added but not removed; rebuild the filter to drop them.
+ */
+public final class BloomFilter {
+
+    public static final byte FORMAT_VERSION = 1;
+
+    private static final int HEADER_BYTES = 6;
+
+    private final int hashes;
+    private final int bits;
+    private final AtomicLongArray words;
+
+    /**
+     * Filter sized for the expected number of keys at the given false-positive rate
+     */
+    public BloomFilter(int expectedKeys, double falsePositiveRate) {
+        if (expectedKeys < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Need expectedKeys >= 1 and 0 < falsePositiveRate < 1");
+        }
+        double optimalBits = -expectedKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long words = Math.max(1, (long) Math.ceil(optimalBits / Long.SIZE));
+        if (words > Integer.MAX_VALUE / Long.SIZE) {
+            throw new IllegalArgumentException("Bloom filter too large: " + expectedKeys + " keys");
+        }
+        this.bits = (int) words * Long.SIZE;
+        this.hashes = Math.max(1, Math.min(Byte.MAX_VALUE,
+            (int) Math.round((double) bits / expectedKeys * Math.log(2))));
+        this.words = new AtomicLongArray((int) words);
+    }
+
+    public void put(String key) {
+        long[] h = hash(key);
+        for (int i = 0; i < hashes; i++) {
+            int bit = position(h, i);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long current;
+            while (((current = words.get(word)) & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                // lost a race with another put on the same word; retry
+            }
+        }
+    }
+
+    /**
+     * False if the key was never added; true if it probably was
+     */
+    public boolean mightContain(String key) {
+        long[] h = hash(key);
+        for (int i = 0; i < hashes; i++) {
+            int bit = position(h, i);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getHashes() {
+        return hashes;
+    }
+
+    public int getBits() {
+        return bits;
+    }
+
+    /**
+     * Serialized form described in the class comment
+     */
+    public byte[] toByteArray() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + words.length() * Long.BYTES)
+            .put(FORMAT_VERSION)
+            .put((byte) hashes)
+            .putInt(bits);
+        for (int i = 0; i < words.length(); i++) {
+            buffer.putLong(words.get(i));
+        }
+        return buffer.array();
+    }
+
+    private int position(long[] h, int i) {
+        return (int) Math.floorMod(h[0] + i * h[1], (long) bits);
+    }
+
+    private static long[] hash(String key) {
+        try {
+            ByteBuffer digest = ByteBuffer.wrap(
+                MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8)));
+            return new long[]{digest.getLong(), digest.getLong()};
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -36,6 +36,35 @@ public final class Constants {
         return Math.min(size, MAX_PAGE_SIZE);
     }
 
+    // Spatial Queries
+    public static final String DEFAULT_NEARBY_RADIUS_KM_STR = "10";
+    public static final double MAX_NEARBY_RADIUS_KM = 100;
+    public static final String DEFAULT_NEARBY_LIMIT_STR = "50";
+    public static final int MAX_NEARBY_LIMIT = 500;
+
+    // Pedigree
+    public static final String DEFAULT_PEDIGREE_DEPTH_STR = "3";
+    public static final int MAX_PEDIGREE_DEPTH = 10;
+    public static final int INBREEDING_PEDIGREE_DEPTH = 20;
+
+    // Bulk Import
+    public static final int IMPORT_CHUNK_SIZE = 500;
+    public static final int MAX_IMPORT_ERRORS = 1000;
+    public static final int MAX_CAMPAIGN_ANIMALS = 10000;
+
+    // Signed QR payloads
+    public static final int MAX_QR_VERIFY_BATCH = 500;
+    public static final String DEFAULT_QR_SIZE_STR = "300";
+    public static final int MIN_QR_SIZE = 64;
+    public static final int MAX_QR_SIZE = 2048;
+    public static final int MAX_LABELS_PER_SHEET = 10000;
+
+    // Herd movement permits
+    public static final int MAX_HERD_PERMIT_SIZE = 500;
+
+    // Stolen livestock screening
+    public static final int MAX_STOLEN_SCREEN_KEYS = 1000;
+
     // Date Formats
     public static final String DATE_FORMAT = "yyyy-MM-dd";
     public static final String DATE_TIME_FORMAT = "yyyy-MM-dd HH:mm:ss";
@@ -0,0 +1,42 @@
+package zw.co.digistock.util;
+
+/**
+ * Minimal CSV writing for exports and snapshots (imports are parsed with Jackson's CsvMapper)
+ */
+public final class CsvUtils {
+
+    /**
+     * Leading characters that make a spreadsheet evaluate a cell as a formula
+     */
+    private static final String FORMULA_START = "=+-@\t\r";
+
+    private CsvUtils() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Format one field: empty for null, quoted when it contains a separator, quote or line break
+     */
+    public static String field(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Format a user-entered text field for a file people open in a spreadsheet: as field(), but text
+     * starting with =, +, -, @, tab or carriage return is prefixed with ' and quoted, so it is shown
+     * rather than evaluated as a formula
+     */
+    public static String textField(String value) {
+        if (value == null || value.isEmpty() || FORMULA_START.indexOf(value.charAt(0)) < 0) {
+            return field(value);
+        }
+        return "\"'" + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,162 @@
+package zw.co.digistock.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Geohash encoding and helpers for spatial queries on plain latitude/longitude columns.
+ *
+ * A geohash is a base-32 string whose prefixes are nested grid cells, so "all points in
+ * these cells" becomes a handful of indexed prefix matches on a varchar column.
+ */
+public final class GeoHash {
+
+    private GeoHash() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Precision stored on entities (~4.8m x 4.8m cells)
+     */
+    public static final int DEFAULT_PRECISION = 9;
+
+    public static final int MAX_PRECISION = 12;
+
+    /**
+     * Mean earth radius used for distances
+     */
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    /**
+     * Encode coordinates at the default precision; null if either coordinate is missing
+     */
+    public static String encode(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            return null;
+        }
+        return encode(latitude, longitude, DEFAULT_PRECISION);
+    }
+
+    /**
+     * Encode coordinates as a geohash of the given length
+     */
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90;
+        double minLon = -180, maxLon = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean lonBit = true;
+        int bit = 0;
+        int ch = 0;
+
+        while (hash.length() < precision) {
+            if (lonBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLon = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLat = mid;
+                }
+            }
+            lonBit = !lonBit;
+
+            if (++bit == 5) {
+                hash.append(BASE32[ch]);
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Geohash cells covering the box, at the finest precision that needs no more than maxCells,
+     * and no finer than DEFAULT_PRECISION since that is the length of the stored hashes.
+     * Cells may extend past the box, so callers still filter on the exact coordinates.
+     * Returns an empty list when the box is too large to cover usefully.
+     */
+    public static List<String> coveringCells(BoundingBox box, int maxCells) {
+        for (int precision = DEFAULT_PRECISION; precision >= 1; precision--) {
+            int latBits = (5 * precision) / 2;
+            int lonBits = 5 * precision - latBits;
+            double cellHeight = 180.0 / (1L << latBits);
+            double cellWidth = 360.0 / (1L << lonBits);
+
+            long rowMin = cellIndex(box.getMinLatitude() + 90, cellHeight, latBits);
+            long rowMax = cellIndex(box.getMaxLatitude() + 90, cellHeight, latBits);
+            long colMin = cellIndex(box.getMinLongitude() + 180, cellWidth, lonBits);
+            long colMax = cellIndex(box.getMaxLongitude() + 180, cellWidth, lonBits);
+
+            if ((rowMax - rowMin + 1) * (colMax - colMin + 1) > maxCells) {
+                continue;
+            }
+
+            List<String> cells = new ArrayList<>();
+            for (long row = rowMin; row <= rowMax; row++) {
+                for (long col = colMin; col <= colMax; col++) {
+                    cells.add(encode(-90 + (row + 0.5) * cellHeight, -180 + (col + 0.5) * cellWidth, precision));
+                }
+            }
+            return cells;
+        }
+        return List.of();
+    }
+
+    /**
+     * Smallest box containing the circle (does not wrap across the antimeridian)
+     */
+    public static BoundingBox boundingBox(double latitude, double longitude, double radiusKm) {
+        double deltaLat = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        double deltaLon = cosLat < 1e-6 ? 180 : Math.toDegrees(radiusKm / (EARTH_RADIUS_KM * cosLat));
+
+        return new BoundingBox(
+            Math.max(-90, latitude - deltaLat),
+            Math.max(-180, longitude - deltaLon),
+            Math.min(90, latitude + deltaLat),
+            Math.min(180, longitude + deltaLon));
+    }
+
+    /**
+     * Great-circle distance in kilometres (haversine)
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+            * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static long cellIndex(double offset, double cellSize, int bits) {
+        return Math.min((long) Math.floor(offset / cellSize), (1L << bits) - 1);
+    }
+
+    /**
+     * Latitude/longitude box in degrees
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class BoundingBox {
+        private final double minLatitude;
+        private final double minLongitude;
+        private final double maxLatitude;
+        private final double maxLongitude;
+    }
+}
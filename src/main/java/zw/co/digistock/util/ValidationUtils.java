@@ -81,4 +81,23 @@ public final class ValidationUtils {
 
         return phone;
     }
+
+    /**
+     * Validate latitude/longitude in degrees
+     */
+    public static boolean isValidCoordinate(Double latitude, Double longitude) {
+        return latitude != null && longitude != null
+            && latitude >= -90 && latitude <= 90
+            && longitude >= -180 && longitude <= 180;
+    }
+
+    /**
+     * Escape LIKE wildcards so user input is matched literally (escape character '\')
+     */
+    public static String escapeLike(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
@@ -0,0 +1,149 @@
+package zw.co.digistock.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for RoutingDataSource: which pool each kind of transaction gets
+ */
+@DisplayName("Routing DataSource Tests")
+class RoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource batch;
+    private DataSource replicaPool;
+    private ResultSet lagResult;
+    private RoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        batch = mock(DataSource.class);
+        replicaPool = mock(DataSource.class);
+
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        lagResult = mock(ResultSet.class);
+        when(replicaPool.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(lagResult);
+        when(lagResult.next()).thenReturn(true);
+        when(lagResult.getDouble(1)).thenReturn(0.0);
+
+        routing = new RoutingDataSource(primary, Map.of(Workload.BATCH, batch), Map.of("replica-1", replicaPool),
+            Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofMillis(200));
+        routing.afterPropertiesSet();
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+            "officer@example.com", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        endTransaction();
+        SecurityContextHolder.clearContext();
+        routing.close();
+    }
+
+    @Test
+    @DisplayName("Read-only transactions go to a replica, read-write ones to the primary")
+    void testRouting_ReadOnlyToReplica() {
+        beginTransaction(true);
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+        endTransaction();
+
+        beginTransaction(false);
+        assertEquals(RoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    @DisplayName("Without a transaction the workload's pool is used")
+    void testRouting_NoTransaction() {
+        assertEquals(RoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+        Workload previous = WorkloadContext.enter(Workload.BATCH);
+        try {
+            assertEquals("batch", routing.determineCurrentLookupKey());
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    @Test
+    @DisplayName("A user who just committed a write reads from the primary")
+    void testRouting_ReadYourWrites() {
+        beginTransaction(false);
+        routing.determineCurrentLookupKey();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        endTransaction();
+
+        beginTransaction(true);
+        assertEquals(RoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+        endTransaction();
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+            "other@example.com", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+        beginTransaction(true);
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    @DisplayName("A lagging replica is taken out of rotation")
+    void testRouting_LaggingReplica() throws SQLException {
+        when(lagResult.getDouble(1)).thenReturn(30.0);
+        routing.checkReplicaLag();
+
+        beginTransaction(true);
+        assertEquals(RoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    @DisplayName("A replica whose last lag check is stale counts as unhealthy")
+    void testRouting_StaleMeasurement() throws Exception {
+        // Stop the checker, then let the last good measurement age past three intervals
+        routing.close();
+        Thread.sleep(700);
+
+        beginTransaction(true);
+        assertEquals(RoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+        endTransaction();
+
+        routing.checkReplicaLag();
+        beginTransaction(true);
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static void endTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+}
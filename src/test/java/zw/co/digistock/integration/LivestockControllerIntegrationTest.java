@@ -4,35 +4,59 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.ResultActions;
 import zw.co.digistock.domain.Livestock;
 import zw.co.digistock.domain.Owner;
 import zw.co.digistock.domain.enums.Gender;
+import zw.co.digistock.domain.enums.UserRole;
+import zw.co.digistock.dto.request.RegisterLivestockRequest;
 import zw.co.digistock.repository.LivestockRepository;
 import zw.co.digistock.repository.OwnerRepository;
+import zw.co.digistock.service.LocationResolver;
+import zw.co.digistock.service.storage.MinioStorageService;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
  * Integration tests for LivestockController pagination
  */
 @DisplayName("Livestock Controller Integration Tests - Pagination")
+@WithMockUser(roles = "ADMIN")
 class LivestockControllerIntegrationTest extends BaseIntegrationTest {
 
+    @MockBean
+    private MinioStorageService minioStorageService;
+
     @Autowired
     private LivestockRepository livestockRepository;
 
     @Autowired
     private OwnerRepository ownerRepository;
 
+    @Autowired
+    private LocationResolver locationResolver;
+
     private Owner testOwner1;
     private Owner testOwner2;
     private List<Livestock> testLivestock;
@@ -46,14 +70,20 @@ class LivestockControllerIntegrationTest extends BaseIntegrationTest {
         ownerRepository.deleteAll();
 
         // Create test owners
+        LocationResolver.ResolvedLocation mutare = locationResolver.resolve("Manicaland", "Mutare");
+        LocationResolver.ResolvedLocation gweru = locationResolver.resolve("Midlands", "Gweru");
+
         testOwner1 = Owner.builder()
             .nationalId("63-345678C34")
             .firstName("Charlie")
             .lastName("Brown")
             .phoneNumber("+263775678901")
             .email("charlie.brown@example.com")
+            .role(UserRole.OWNER)
             .district("Mutare")
             .province("Manicaland")
+            .districtRef(mutare.getDistrict())
+            .provinceRef(mutare.getProvince())
             .address("789 Test Road")
             .build();
         testOwner1 = ownerRepository.save(testOwner1);
@@ -64,8 +94,11 @@ class LivestockControllerIntegrationTest extends BaseIntegrationTest {
             .lastName("Prince")
             .phoneNumber("+263776789012")
             .email("diana.prince@example.com")
+            .role(UserRole.OWNER)
             .district("Gweru")
             .province("Midlands")
+            .districtRef(gweru.getDistrict())
+            .provinceRef(gweru.getProvince())
             .address("321 Test Lane")
             .build();
         testOwner2 = ownerRepository.save(testOwner2);
@@ -302,4 +335,391 @@ class LivestockControllerIntegrationTest extends BaseIntegrationTest {
             .andExpect(jsonPath("$.content").isEmpty())
             .andExpect(jsonPath("$.totalElements").value(0));
     }
+
+    @Test
+    @WithMockUser(roles = "POLICE_OFFICER")
+    @DisplayName("GET /api/v1/livestock/search - Should combine criteria into a single query")
+    void testSearchLivestock_CombinedCriteria() throws Exception {
+        // When: Search stolen Brahman livestock in Mutare
+        ResultActions result = mockMvc.perform(get("/api/v1/livestock/search")
+            .param("breed", "Brahman")
+            .param("district", "Mutare")
+            .param("stolen", "true")
+            .param("page", "0")
+            .param("size", "10")
+            .contentType(MediaType.APPLICATION_JSON));
+
+        // Then: Only matching livestock are returned (i = 0, 10, 20 are stolen Brahman owned by owner1)
+        result.andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(3))
+            .andExpect(jsonPath("$.content[*].breed").value(everyItem(equalTo("Brahman"))))
+            .andExpect(jsonPath("$.content[*].stolen").value(everyItem(equalTo(true))))
+            .andExpect(jsonPath("$.content[*].owner.district").value(everyItem(equalTo("Mutare"))));
+    }
+
+    @Test
+    @WithMockUser(roles = "AGRITEX_OFFICER")
+    @DisplayName("GET /api/v1/livestock/search - Should match tag code prefix and parentage")
+    void testSearchLivestock_TagPrefixAndParentage() throws Exception {
+        // When: Search by tag prefix for animals with a recorded mother
+        ResultActions result = mockMvc.perform(get("/api/v1/livestock/search")
+            .param("tagCode", "zw-mu-00000")
+            .param("hasMother", "true")
+            .contentType(MediaType.APPLICATION_JSON));
+
+        // Then: ZW-MU-000001..000009 with i % 3 == 0 (i = 0, 3, 6)
+        result.andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(3))
+            .andExpect(jsonPath("$.content[*].mother.id").value(everyItem(equalTo(testMother.getId().toString()))));
+    }
+
+    @Test
+    @WithMockUser(roles = "POLICE_OFFICER")
+    @DisplayName("GET /api/v1/livestock/nearby - Should return livestock within radius, nearest first")
+    void testGetLivestockNearby_WithinRadius() throws Exception {
+        // Given: Animals registered at Mutare, ~3 km north of it, and ~30 km north of it
+        saveLocatedLivestock("ZW-MU-GEO001", -18.9707, 32.6709);
+        saveLocatedLivestock("ZW-MU-GEO002", -18.9437, 32.6709);
+        saveLocatedLivestock("ZW-MU-GEO003", -18.7007, 32.6709);
+
+        // When: Search 10 km around a point ~1 km north of Mutare
+        ResultActions result = mockMvc.perform(get("/api/v1/livestock/nearby")
+            .param("latitude", "-18.9617")
+            .param("longitude", "32.6709")
+            .param("radiusKm", "10")
+            .contentType(MediaType.APPLICATION_JSON));
+
+        // Then: The two close animals are returned nearest first
+        result.andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].tagCode").value("ZW-MU-GEO001"))
+            .andExpect(jsonPath("$[1].tagCode").value("ZW-MU-GEO002"))
+            .andExpect(jsonPath("$[0].distanceKm").value(lessThan(1.1)))
+            .andExpect(jsonPath("$[1].distanceKm").value(lessThan(2.1)));
+    }
+
+    @Test
+    @WithMockUser(roles = "POLICE_OFFICER")
+    @DisplayName("GET /api/v1/livestock/nearby - Should return only the nearest animals up to the limit")
+    void testGetLivestockNearby_Limit() throws Exception {
+        // Given: Three animals inside the radius
+        saveLocatedLivestock("ZW-MU-GEO001", -18.9707, 32.6709);
+        saveLocatedLivestock("ZW-MU-GEO002", -18.9437, 32.6709);
+        saveLocatedLivestock("ZW-MU-GEO003", -18.9637, 32.6709);
+
+        // When
+        ResultActions result = mockMvc.perform(get("/api/v1/livestock/nearby")
+            .param("latitude", "-18.9617")
+            .param("longitude", "32.6709")
+            .param("radiusKm", "10")
+            .param("limit", "2")
+            .contentType(MediaType.APPLICATION_JSON));
+
+        // Then: The two nearest, nearest first
+        result.andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].tagCode").value("ZW-MU-GEO003"))
+            .andExpect(jsonPath("$[1].tagCode").value("ZW-MU-GEO001"));
+    }
+
+    @Test
+    @WithMockUser(roles = "AGRITEX_OFFICER")
+    @DisplayName("GET /api/v1/livestock/within - Should find livestock in a box smaller than a stored geohash cell")
+    void testGetLivestockWithinBox_SmallerThanGeohashCell() throws Exception {
+        // Given
+        saveLocatedLivestock("ZW-MU-GEO001", -18.9707, 32.6709);
+
+        // When: A box about 2 m across around the animal
+        ResultActions result = mockMvc.perform(get("/api/v1/livestock/within")
+            .param("minLatitude", "-18.97071")
+            .param("minLongitude", "32.67089")
+            .param("maxLatitude", "-18.97069")
+            .param("maxLongitude", "32.67091")
+            .contentType(MediaType.APPLICATION_JSON));
+
+        // Then
+        result.andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(1))
+            .andExpect(jsonPath("$.content[0].tagCode").value("ZW-MU-GEO001"));
+    }
+
+    @Test
+    @WithMockUser(roles = "AGRITEX_OFFICER")
+    @DisplayName("GET /api/v1/livestock/within - Should return livestock inside bounding box")
+    void testGetLivestockWithinBox() throws Exception {
+        // Given
+        saveLocatedLivestock("ZW-MU-GEO001", -18.9707, 32.6709);
+        saveLocatedLivestock("ZW-MU-GEO002", -18.9437, 32.6709);
+        saveLocatedLivestock("ZW-MU-GEO003", -18.7007, 32.6709);
+
+        // When
+        ResultActions result = mockMvc.perform(get("/api/v1/livestock/within")
+            .param("minLatitude", "-19.0")
+            .param("minLongitude", "32.6")
+            .param("maxLatitude", "-18.9")
+            .param("maxLongitude", "32.7")
+            .contentType(MediaType.APPLICATION_JSON));
+
+        // Then
+        result.andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(2))
+            .andExpect(jsonPath("$.content[*].tagCode", containsInAnyOrder("ZW-MU-GEO001", "ZW-MU-GEO002")));
+    }
+
+    @Test
+    @WithMockUser(roles = "AGRITEX_OFFICER")
+    @DisplayName("GET /api/v1/livestock/{id}/ancestors - Should return ancestors nearest generation first")
+    void testGetAncestors_MultipleGenerations() throws Exception {
+        // Given: A calf of ZW-MU-000001, whose parents are testMother and testFather
+        Livestock calf = saveCalf("ZW-MU-CALF01", testLivestock.get(0));
+
+        // When
+        ResultActions result = mockMvc.perform(get("/api/v1/livestock/" + calf.getId() + "/ancestors")
+            .param("depth", "2")
+            .contentType(MediaType.APPLICATION_JSON));
+
+        // Then: Mother in generation 1, grandparents in generation 2
+        result.andExpect(status().isOk())
+            .andExpect(jsonPath("$.direction").value("ANCESTORS"))
+            .andExpect(jsonPath("$.animals", hasSize(3)))
+            .andExpect(jsonPath("$.animals[0].tagCode").value("ZW-MU-000001"))
+            .andExpect(jsonPath("$.animals[0].generation").value(1))
+            .andExpect(jsonPath("$.animals[1].generation").value(2))
+            .andExpect(jsonPath("$.animals[2].generation").value(2))
+            .andExpect(jsonPath("$.animals[*].tagCode", hasItems("ZW-MU-MOTHER01", "ZW-MU-FATHER01")));
+    }
+
+    @Test
+    @WithMockUser(roles = "AGRITEX_OFFICER")
+    @DisplayName("GET /api/v1/livestock/{id}/descendants - Should respect the depth limit")
+    void testGetDescendants_DepthLimit() throws Exception {
+        // Given: A grandchild of testMother
+        saveCalf("ZW-MU-CALF01", testLivestock.get(0));
+
+        // When / Then: 14 children (i % 3 == 0) at depth 1, plus the grandchild at depth 2
+        mockMvc.perform(get("/api/v1/livestock/" + testMother.getId() + "/descendants")
+                .param("depth", "1")
+                .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.animals", hasSize(14)));
+
+        mockMvc.perform(get("/api/v1/livestock/" + testMother.getId() + "/descendants")
+                .param("depth", "2")
+                .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.animals", hasSize(15)))
+            .andExpect(jsonPath("$.animals[14].tagCode").value("ZW-MU-CALF01"))
+            .andExpect(jsonPath("$.animals[14].generation").value(2));
+    }
+
+    @Test
+    @WithMockUser(roles = "AGRITEX_OFFICER")
+    @DisplayName("GET /api/v1/livestock/inbreeding - Should compute the coefficient of a proposed mating")
+    void testGetInbreeding_ProposedMating() throws Exception {
+        // Given: A bull out of ZW-MU-000001, and a full sister of ZW-MU-000001 (his aunt)
+        Livestock bull = saveCalf("ZW-MU-CALF01", testLivestock.get(0));
+        Livestock aunt = testLivestock.get(6);
+
+        // When
+        ResultActions result = mockMvc.perform(get("/api/v1/livestock/inbreeding")
+            .param("motherId", aunt.getId().toString())
+            .param("fatherId", bull.getId().toString())
+            .contentType(MediaType.APPLICATION_JSON));
+
+        // Then: Kinship of aunt and nephew is 1/8
+        result.andExpect(status().isOk())
+            .andExpect(jsonPath("$.coefficient").value(0.125))
+            .andExpect(jsonPath("$.pedigreeSize").value(5));
+
+        // Unrelated animals give zero
+        mockMvc.perform(get("/api/v1/livestock/inbreeding")
+                .param("motherId", testLivestock.get(1).getId().toString())
+                .param("fatherId", testLivestock.get(2).getId().toString())
+                .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.coefficient").value(0.0));
+    }
+
+    @Test
+    @WithMockUser(roles = "AGRITEX_OFFICER")
+    @DisplayName("POST /api/v1/livestock - Should return the inbreeding coefficient when requested")
+    void testRegisterLivestock_ComputeInbreeding() throws Exception {
+        // Given: A calf of two full siblings
+        RegisterLivestockRequest request = RegisterLivestockRequest.builder()
+            .tagCode("ZW-MU-CALF02")
+            .breed("Brahman")
+            .sex("F")
+            .ownerId(testOwner1.getId())
+            .motherId(testLivestock.get(0).getId())
+            .fatherId(testLivestock.get(3).getId())
+            .computeInbreeding(true)
+            .build();
+
+        // When
+        ResultActions result = mockMvc.perform(post("/api/v1/livestock")
+            .content(toJson(request))
+            .contentType(MediaType.APPLICATION_JSON));
+
+        // Then
+        result.andExpect(status().isCreated())
+            .andExpect(jsonPath("$.inbreedingCoefficient").value(0.25));
+    }
+
+    @Test
+    @WithMockUser(roles = "AGRITEX_OFFICER")
+    @DisplayName("POST /api/v1/livestock/import - Should import valid CSV rows and report the rest")
+    void testImportLivestock_Csv() throws Exception {
+        // Given
+        String owner = testOwner2.getId().toString();
+        String csv = String.join("\n",
+            "tagCode,name,breed,sex,birthDate,ownerId,motherId,distinguishingMarks",
+            "ZW-GW-IMP001,Rudo,Mashona,F,2022-01-15," + owner + ",,\"white patch, left flank\"",
+            "ZW-GW-IMP002,,Mashona,M,2022-02-01," + owner + "," + testMother.getId() + ",",
+            "ZW-GW-IMP001,,Mashona,F,," + owner + ",,",
+            "ZW-MU-000001,,Brahman,F,," + owner + ",,",
+            "ZW-GW-IMP003,,Mashona,F,," + UUID.randomUUID() + ",,",
+            "ZW-GW-IMP004,,Mashona,F,15/01/2022," + owner + ",,",
+            ",,Mashona,F,," + owner + ",,");
+        MockMultipartFile file = new MockMultipartFile("file", "ward12.csv", "text/csv", csv.getBytes());
+
+        // When
+        ResultActions result = mockMvc.perform(multipart("/api/v1/livestock/import").file(file));
+
+        // Then
+        result.andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalRows").value(7))
+            .andExpect(jsonPath("$.imported").value(2))
+            .andExpect(jsonPath("$.failed").value(5))
+            .andExpect(jsonPath("$.errors[*].line", contains(4, 5, 6, 7, 8)))
+            .andExpect(jsonPath("$.errors[0].message").value("Duplicate tag code in file"))
+            .andExpect(jsonPath("$.errors[1].message").value("Tag code already registered"))
+            .andExpect(jsonPath("$.errors[2].message", startsWith("Owner not found")))
+            .andExpect(jsonPath("$.errors[3].message").value("Invalid value for birthDate"))
+            .andExpect(jsonPath("$.errors[4].message").value("Tag code is required"));
+
+        Livestock imported = livestockRepository.findByTagCode("ZW-GW-IMP002").orElseThrow();
+        assertEquals(testMother.getId(), imported.getMother().getId());
+        assertEquals("white patch, left flank",
+            livestockRepository.findByTagCode("ZW-GW-IMP001").orElseThrow().getDistinguishingMarks());
+    }
+
+    @Test
+    @WithMockUser(roles = "AGRITEX_OFFICER")
+    @DisplayName("POST /api/v1/livestock/import - Should resolve parents by tag code within the file")
+    void testImportLivestock_ParentsByTagCode() throws Exception {
+        // Given: A calf listed before its mother, a multi-line quoted field, an unknown parent and a cycle
+        String owner = testOwner2.getId().toString();
+        String csv = String.join("\n",
+            "tagCode,breed,sex,ownerId,motherTagCode,fatherTagCode,distinguishingMarks",
+            "ZW-GW-IMP021,Mashona,F," + owner + ",ZW-GW-IMP020,ZW-MU-000001,\"white patch,",
+            "left flank\"",
+            "ZW-GW-IMP020,Mashona,F," + owner + ",,,",
+            "ZW-GW-IMP022,Mashona,M," + owner + ",ZW-GW-IMP099,,",
+            "ZW-GW-IMP023,Mashona,F," + owner + ",ZW-GW-IMP024,,",
+            "ZW-GW-IMP024,Mashona,F," + owner + ",ZW-GW-IMP023,,");
+        MockMultipartFile file = new MockMultipartFile("file", "ward12.csv", "text/csv", csv.getBytes());
+
+        // When
+        ResultActions result = mockMvc.perform(multipart("/api/v1/livestock/import").file(file));
+
+        // Then
+        result.andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalRows").value(5))
+            .andExpect(jsonPath("$.imported").value(2))
+            .andExpect(jsonPath("$.errors[*].line", contains(5, 6, 7)))
+            .andExpect(jsonPath("$.errors[0].message").value("Mother not found with tag code: ZW-GW-IMP099"))
+            .andExpect(jsonPath("$.errors[1].message").value("Parentage cycle in file"))
+            .andExpect(jsonPath("$.errors[2].message").value("Mother ZW-GW-IMP023 could not be imported"));
+
+        Livestock calf = livestockRepository.findByTagCode("ZW-GW-IMP021").orElseThrow();
+        assertEquals("ZW-GW-IMP020", calf.getMother().getTagCode());
+        assertEquals("ZW-MU-000001", calf.getFather().getTagCode());
+        assertEquals("white patch,\nleft flank", calf.getDistinguishingMarks());
+    }
+
+    @Test
+    @WithMockUser(roles = "AGRITEX_OFFICER")
+    @DisplayName("POST /api/v1/livestock/import - Should import NDJSON rows")
+    void testImportLivestock_Ndjson() throws Exception {
+        // Given
+        String ndjson = "{\"tagCode\":\"ZW-GW-IMP010\",\"breed\":\"Tuli\",\"ownerId\":\"" + testOwner2.getId() + "\"}\n"
+            + "\n"
+            + "{\"tagCode\":\"ZW-GW-IMP011\",\"breed\":\"Tuli\",\"ownerId\":\"" + testOwner2.getId() + "\","
+            + "\"registrationLatitude\":-19.45,\"registrationLongitude\":29.81}\n"
+            + "{not json}\n";
+        MockMultipartFile file = new MockMultipartFile("file", "ward12.ndjson", "application/x-ndjson", ndjson.getBytes());
+
+        // When / Then
+        mockMvc.perform(multipart("/api/v1/livestock/import").file(file))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(2))
+            .andExpect(jsonPath("$.failed").value(1))
+            .andExpect(jsonPath("$.errors[0].line").value(4))
+            .andExpect(jsonPath("$.errors[0].message", startsWith("Malformed row")));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("GET /api/v1/livestock/export - Should stream a gzipped CSV filtered by district")
+    void testExportLivestock_CsvByDistrict() throws Exception {
+        // When
+        byte[] body = mockMvc.perform(get("/api/v1/livestock/export")
+                .param("format", "CSV")
+                .param("district", "Gweru"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", "application/gzip"))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        // Then: Header plus the 15 animals of the Gweru owner
+        List<String> lines = gunzipLines(body);
+        assertEquals(16, lines.size());
+        assertTrue(lines.get(0).startsWith("tagCode,name,breed,"));
+        assertTrue(lines.stream().skip(1).allMatch(line -> line.contains(",Gweru,Midlands,")));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("GET /api/v1/livestock/export - Should stream gzipped NDJSON of stolen animals")
+    void testExportLivestock_NdjsonStolen() throws Exception {
+        // When
+        byte[] body = mockMvc.perform(get("/api/v1/livestock/export")
+                .param("format", "NDJSON")
+                .param("stolen", "true"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsByteArray();
+
+        // Then: Every 10th animal is stolen
+        List<String> lines = gunzipLines(body);
+        assertEquals(4, lines.size());
+        assertEquals("ZW-MU-000001", objectMapper.readTree(lines.get(0)).get("tagCode").asText());
+        assertEquals("ZW-MU-MOTHER01", objectMapper.readTree(lines.get(0)).get("motherTagCode").asText());
+    }
+
+    private static List<String> gunzipLines(byte[] body) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(body)), StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+
+    private Livestock saveCalf(String tagCode, Livestock mother) {
+        return livestockRepository.save(Livestock.builder()
+            .tagCode(tagCode)
+            .breed("Brahman")
+            .sex("M")
+            .owner(testOwner1)
+            .mother(mother)
+            .build());
+    }
+
+    private void saveLocatedLivestock(String tagCode, double latitude, double longitude) {
+        livestockRepository.save(Livestock.builder()
+            .tagCode(tagCode)
+            .breed("Mashona")
+            .sex("F")
+            .owner(testOwner1)
+            .registrationLatitude(latitude)
+            .registrationLongitude(longitude)
+            .build());
+    }
 }
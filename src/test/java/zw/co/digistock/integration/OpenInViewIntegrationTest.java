@@ -0,0 +1,31 @@
+package zw.co.digistock.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import zw.co.digistock.service.storage.MinioStorageService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Guards spring.jpa.open-in-view=false: with a request-scoped EntityManager the first connection of a
+ * request is reused by every later transaction, so replica and workload pool routing would be skipped
+ */
+@DisplayName("Open EntityManager in View Tests")
+class OpenInViewIntegrationTest extends BaseIntegrationTest {
+
+    @MockBean
+    private MinioStorageService minioStorageService;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    @DisplayName("No request-scoped EntityManager is registered")
+    void testOpenInViewDisabled() {
+        assertEquals(0, applicationContext.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class).length);
+    }
+}
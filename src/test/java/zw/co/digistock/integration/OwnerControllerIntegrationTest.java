@@ -4,10 +4,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.ResultActions;
 import zw.co.digistock.domain.Owner;
+import zw.co.digistock.domain.enums.UserRole;
 import zw.co.digistock.repository.OwnerRepository;
+import zw.co.digistock.service.LocationResolver;
+import zw.co.digistock.service.storage.MinioStorageService;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -20,11 +25,18 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Integration tests for OwnerController pagination
  */
 @DisplayName("Owner Controller Integration Tests - Pagination")
+@WithMockUser(roles = "ADMIN")
 class OwnerControllerIntegrationTest extends BaseIntegrationTest {
 
+    @MockBean
+    private MinioStorageService minioStorageService;
+
     @Autowired
     private OwnerRepository ownerRepository;
 
+    @Autowired
+    private LocationResolver locationResolver;
+
     private List<Owner> testOwners;
 
     @BeforeEach
@@ -38,14 +50,18 @@ class OwnerControllerIntegrationTest extends BaseIntegrationTest {
         String[] provinces = {"Harare", "Bulawayo", "Manicaland", "Midlands", "Harare"};
 
         for (int i = 0; i < 35; i++) {
+            LocationResolver.ResolvedLocation location = locationResolver.resolve(provinces[i % 5], districts[i % 5]);
             Owner owner = Owner.builder()
                 .nationalId(String.format("63-%06dA%02d", i + 100000, i % 100))
                 .firstName(String.format("FirstName%d", i))
                 .lastName(String.format("LastName%d", i))
                 .phoneNumber(String.format("+26377%07d", 1000000 + i))
                 .email(String.format("owner%d@example.com", i))
+                .role(UserRole.OWNER)
                 .district(districts[i % 5])
                 .province(provinces[i % 5])
+                .districtRef(location.getDistrict())
+                .provinceRef(location.getProvince())
                 .address(String.format("%d Test Street", i + 1))
                 .build();
             testOwners.add(ownerRepository.save(owner));
@@ -0,0 +1,143 @@
+package zw.co.digistock.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import zw.co.digistock.domain.Livestock;
+import zw.co.digistock.domain.Owner;
+import zw.co.digistock.domain.Province;
+import zw.co.digistock.domain.enums.UserRole;
+import zw.co.digistock.repository.LivestockRepository;
+import zw.co.digistock.repository.OwnerRepository;
+import zw.co.digistock.repository.ProvinceRepository;
+import zw.co.digistock.repository.RevocationEntryRepository;
+import zw.co.digistock.service.LivestockService;
+import zw.co.digistock.service.StolenAlertHub;
+import zw.co.digistock.service.storage.MinioStorageService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Open alert streams must not hold database connections: a filtered subscription looks its
+ * province up, and with a request-scoped EntityManager that connection would stay taken for as
+ * long as the stream is open. Runs without a test transaction so each request uses the pool, and
+ * without MockMvc printing, which would read the headers while the opening heartbeat writes them.
+ */
+@DisplayName("Stolen Alert Stream Integration Tests")
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StolenAlertStreamIntegrationTest extends BaseIntegrationTest {
+
+    /**
+     * More than spring.datasource.hikari.maximum-pool-size
+     */
+    private static final int STREAMS = 12;
+
+    @MockBean
+    private MinioStorageService minioStorageService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private StolenAlertHub stolenAlertHub;
+
+    @Autowired
+    private LivestockService livestockService;
+
+    @Autowired
+    private ProvinceRepository provinceRepository;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private LivestockRepository livestockRepository;
+
+    @Autowired
+    private RevocationEntryRepository entryRepository;
+
+    @Test
+    @WithMockUser(roles = "POLICE_OFFICER")
+    @DisplayName("More filtered streams than pooled connections stay open, and each gets its alerts")
+    void testFilteredStreams_DoNotHoldConnections() throws Exception {
+        Province province = provinceRepository.findByName("Manicaland").orElseThrow();
+        Owner owner = ownerRepository.save(Owner.builder()
+            .nationalId("63-556677A55")
+            .firstName("Alert")
+            .lastName("Owner")
+            .phoneNumber("+263775566778")
+            .email("alert.owner@example.com")
+            .role(UserRole.OWNER)
+            .province("Manicaland")
+            .provinceRef(province)
+            .district("Mutare")
+            .build());
+        Livestock livestock = livestockRepository.save(Livestock.builder()
+            .tagCode("ZW-AS-000001")
+            .breed("Mashona")
+            .sex("F")
+            .owner(owner)
+            .stolen(false)
+            .build());
+
+        List<MvcResult> streams = new ArrayList<>();
+        try {
+            for (int i = 0; i < STREAMS; i++) {
+                // Otherwise the province lookup is answered from the query cache without a connection
+                entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+                streams.add(mockMvc.perform(get("/api/v1/livestock/stolen/alerts")
+                        .param("province", "Manicaland")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(request().asyncStarted())
+                    .andReturn());
+            }
+            // Well inside Hikari's 30 s wait for a free connection
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> provinceRepository.count());
+
+            stolenAlertHub.pollScheduled();
+            livestockService.markAsStolen(livestock.getId());
+            stolenAlertHub.pollScheduled();
+
+            for (MvcResult stream : streams) {
+                assertTrue(waitForContent(stream, "ZW-AS-000001"), stream.getResponse().getContentAsString());
+                assertTrue(stream.getResponse().getContentAsString().contains("event:stolen"));
+            }
+        } finally {
+            streams.forEach(stream -> stream.getRequest().getAsyncContext().complete());
+            entryRepository.deleteAll();
+            livestockRepository.deleteById(livestock.getId());
+            ownerRepository.deleteById(owner.getId());
+        }
+        assertEquals(0, streams.stream().filter(stream -> stream.getRequest().isAsyncStarted()).count());
+    }
+
+    private static boolean waitForContent(MvcResult stream, String text) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            if (stream.getResponse().getContentAsString().contains(text)) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,179 @@
+package zw.co.digistock.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import zw.co.digistock.domain.ArtefactJob;
+import zw.co.digistock.domain.MovementPermit;
+import zw.co.digistock.domain.enums.ArtefactJobStatus;
+import zw.co.digistock.domain.enums.ArtefactType;
+import zw.co.digistock.exception.BusinessException;
+import zw.co.digistock.exception.ResourceNotFoundException;
+import zw.co.digistock.repository.ArtefactJobRepository;
+import zw.co.digistock.repository.MovementPermitRepository;
+import zw.co.digistock.repository.PoliceClearanceRepository;
+import zw.co.digistock.service.document.PdfDocumentService;
+import zw.co.digistock.service.qr.QrCodeService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ArtefactOutbox: claiming, retry backoff, giving up and requeueing
+ */
+@DisplayName("Artefact Outbox Tests")
+class ArtefactOutboxTest {
+
+    private ArtefactJobRepository jobRepository;
+    private MovementPermitRepository permitRepository;
+    private QrCodeService qrCodeService;
+    private TaskExecutor executor;
+    private ArtefactOutbox outbox;
+
+    private final UUID jobId = UUID.randomUUID();
+    private final UUID permitId = UUID.randomUUID();
+    private final MovementPermit permit = MovementPermit.builder().id(permitId).build();
+
+    @BeforeEach
+    void setUp() {
+        jobRepository = mock(ArtefactJobRepository.class);
+        permitRepository = mock(MovementPermitRepository.class);
+        qrCodeService = mock(QrCodeService.class);
+        executor = mock(TaskExecutor.class);
+        outbox = new ArtefactOutbox(jobRepository, permitRepository, mock(PoliceClearanceRepository.class),
+            qrCodeService, mock(PdfDocumentService.class), new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            executor, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(outbox, "maxAttempts", 8);
+        ReflectionTestUtils.setField(outbox, "retryDelaySeconds", 10L);
+        ReflectionTestUtils.setField(outbox, "claimSeconds", 300L);
+
+        when(jobRepository.claim(eq(jobId), any(), any())).thenReturn(1);
+        when(permitRepository.findWithLivestockById(permitId)).thenReturn(Optional.of(permit));
+    }
+
+    @Test
+    @DisplayName("A successful attempt stores the reference and marks the job done")
+    void testProcess_Success() {
+        claimedJob(1);
+        when(qrCodeService.generatePermitQrCode(permit)).thenReturn("minio://qr/permit.png");
+
+        outbox.process(jobId);
+
+        verify(permitRepository).updateQrRef(permitId, "minio://qr/permit.png");
+        verify(jobRepository).finish(eq(jobId), eq(ArtefactJobStatus.DONE), any(), isNull(), any(), any());
+    }
+
+    @Test
+    @DisplayName("A job another worker claimed is left alone")
+    void testProcess_ClaimLost() {
+        when(jobRepository.claim(eq(jobId), any(), any())).thenReturn(0);
+
+        outbox.process(jobId);
+
+        verify(jobRepository, never()).findById(any());
+        verifyNoInteractions(qrCodeService);
+    }
+
+    @Test
+    @DisplayName("Failed attempts are retried after retry-delay-seconds doubled per attempt")
+    void testProcess_Backoff() {
+        assertRetryAfter(1, Duration.ofSeconds(10));
+        assertRetryAfter(2, Duration.ofSeconds(20));
+        assertRetryAfter(4, Duration.ofSeconds(80));
+    }
+
+    @Test
+    @DisplayName("Backoff is capped at an hour")
+    void testProcess_BackoffCap() {
+        ReflectionTestUtils.setField(outbox, "maxAttempts", 100);
+        assertRetryAfter(30, Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("The job is marked failed on the last allowed attempt, not one later")
+    void testProcess_GivesUpAtMaxAttempts() {
+        claimedJob(7);
+        when(qrCodeService.generatePermitQrCode(permit)).thenThrow(new IllegalStateException("MinIO unavailable"));
+        outbox.process(jobId);
+        verify(jobRepository).finish(eq(jobId), eq(ArtefactJobStatus.PENDING), any(), eq("MinIO unavailable"), isNull(), any());
+
+        claimedJob(8);
+        outbox.process(jobId);
+        verify(jobRepository).finish(eq(jobId), eq(ArtefactJobStatus.FAILED), any(), eq("MinIO unavailable"), isNull(), any());
+    }
+
+    @Test
+    @DisplayName("Requeueing a failed job dispatches it again")
+    void testRequeue_Failed() {
+        when(jobRepository.requeue(eq(jobId), any())).thenReturn(1);
+
+        outbox.requeue(jobId);
+
+        verify(executor).execute(any(Runnable.class));
+    }
+
+    @Test
+    @DisplayName("Only failed jobs that exist can be requeued")
+    void testRequeue_NotFailed() {
+        when(jobRepository.requeue(eq(jobId), any())).thenReturn(0);
+        when(jobRepository.existsById(jobId)).thenReturn(true);
+        assertThrows(BusinessException.class, () -> outbox.requeue(jobId));
+
+        when(jobRepository.existsById(jobId)).thenReturn(false);
+        assertThrows(ResourceNotFoundException.class, () -> outbox.requeue(jobId));
+        verifyNoInteractions(executor);
+    }
+
+    /**
+     * Fail the given attempt and check when the job becomes available again
+     */
+    private void assertRetryAfter(int attempt, Duration delay) {
+        claimedJob(attempt);
+        doThrow(new IllegalStateException("boom")).when(qrCodeService).generatePermitQrCode(permit);
+
+        LocalDateTime before = LocalDateTime.now();
+        outbox.process(jobId);
+        LocalDateTime after = LocalDateTime.now();
+
+        ArgumentCaptor<LocalDateTime> retryAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(jobRepository).finish(eq(jobId), eq(ArtefactJobStatus.PENDING), retryAt.capture(), eq("boom"), isNull(), any());
+        assertFalse(retryAt.getValue().isBefore(before.plus(delay)), "attempt " + attempt);
+        assertFalse(retryAt.getValue().isAfter(after.plus(delay)), "attempt " + attempt);
+        clearInvocations(jobRepository);
+    }
+
+    /**
+     * The job as a worker reads it after claiming, so attempts already includes this one
+     */
+    private void claimedJob(int attempts) {
+        when(jobRepository.findById(jobId)).thenReturn(Optional.of(ArtefactJob.builder()
+            .id(jobId)
+            .type(ArtefactType.PERMIT_QR)
+            .documentId(permitId)
+            .status(ArtefactJobStatus.PENDING)
+            .attempts(attempts)
+            .availableAt(LocalDateTime.now().plusSeconds(300))
+            .build()));
+    }
+}
@@ -0,0 +1,107 @@
+package zw.co.digistock.service;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for JobLease against an in-memory database; other nodes are simulated by writing their rows directly
+ */
+@DisplayName("Job Lease Tests")
+class JobLeaseTest {
+
+    private static final String JOB = "test-job";
+
+    private JdbcTemplate jdbcTemplate;
+    private JobLease jobLease;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:job-lease;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE scheduler_leases (name VARCHAR(100) PRIMARY KEY, owner VARCHAR(255) NOT NULL, "
+            + "locked_at TIMESTAMP WITH TIME ZONE NOT NULL, locked_until TIMESTAMP WITH TIME ZONE NOT NULL)");
+        jobLease = new JobLease(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE scheduler_leases");
+    }
+
+    @Test
+    @DisplayName("A free lease is taken, with its expiry from the database clock")
+    void testTryAcquire_FreeLease() {
+        assertTrue(jobLease.tryAcquire(JOB, Duration.ofMinutes(10)));
+
+        Long seconds = jdbcTemplate.queryForObject(
+            "SELECT DATEDIFF(SECOND, locked_at, locked_until) FROM scheduler_leases WHERE name = ?", Long.class, JOB);
+        assertEquals(600L, seconds);
+    }
+
+    @Test
+    @DisplayName("The holder extends its own lease")
+    void testTryAcquire_ExtendOwnLease() {
+        assertTrue(jobLease.tryAcquire(JOB, Duration.ofMinutes(1)));
+        assertTrue(jobLease.tryAcquire(JOB, Duration.ofMinutes(30)));
+
+        Long seconds = jdbcTemplate.queryForObject(
+            "SELECT DATEDIFF(SECOND, locked_at, locked_until) FROM scheduler_leases WHERE name = ?", Long.class, JOB);
+        assertEquals(1800L, seconds);
+    }
+
+    @Test
+    @DisplayName("A lease held by another node is not taken until it runs out")
+    void testTryAcquire_HeldElsewhere() {
+        insertOtherNode(OffsetDateTime.now().plusMinutes(5));
+        assertFalse(jobLease.tryAcquire(JOB, Duration.ofMinutes(10)));
+        assertEquals("other-node", owner());
+
+        jdbcTemplate.update("UPDATE scheduler_leases SET locked_until = CURRENT_TIMESTAMP - INTERVAL '1' SECOND");
+        assertTrue(jobLease.tryAcquire(JOB, Duration.ofMinutes(10)));
+        assertNotEquals("other-node", owner());
+    }
+
+    @Test
+    @DisplayName("Releasing lets another node take the lease at once")
+    void testRelease() {
+        assertTrue(jobLease.tryAcquire(JOB, Duration.ofMinutes(10)));
+        jobLease.release(JOB);
+
+        Integer free = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM scheduler_leases WHERE name = ? AND locked_until <= CURRENT_TIMESTAMP", Integer.class, JOB);
+        assertEquals(1, free);
+    }
+
+    @Test
+    @DisplayName("Release only affects a lease this node holds")
+    void testRelease_HeldElsewhere() {
+        OffsetDateTime until = OffsetDateTime.now().plusMinutes(5);
+        insertOtherNode(until);
+
+        jobLease.release(JOB);
+
+        assertFalse(jobLease.tryAcquire(JOB, Duration.ofMinutes(10)));
+    }
+
+    private void insertOtherNode(OffsetDateTime lockedUntil) {
+        jdbcTemplate.update("INSERT INTO scheduler_leases (name, owner, locked_at, locked_until) VALUES (?, ?, CURRENT_TIMESTAMP, ?)",
+            JOB, "other-node", lockedUntil);
+    }
+
+    private String owner() {
+        return jdbcTemplate.queryForObject("SELECT owner FROM scheduler_leases WHERE name = ?", String.class, JOB);
+    }
+}
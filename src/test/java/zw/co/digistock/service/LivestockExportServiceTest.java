@@ -0,0 +1,165 @@
+package zw.co.digistock.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import zw.co.digistock.domain.District;
+import zw.co.digistock.domain.Livestock;
+import zw.co.digistock.domain.Owner;
+import zw.co.digistock.domain.Province;
+import zw.co.digistock.domain.enums.UserRole;
+import zw.co.digistock.integration.BaseIntegrationTest;
+import zw.co.digistock.repository.DistrictRepository;
+import zw.co.digistock.repository.LivestockRepository;
+import zw.co.digistock.repository.OwnerRepository;
+import zw.co.digistock.repository.ProvinceRepository;
+import zw.co.digistock.service.storage.MinioStorageService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for LivestockExportService: each combination of location and stolen filters, and CSV
+ * text that a spreadsheet would otherwise evaluate
+ */
+@DisplayName("Livestock Export Service Tests")
+class LivestockExportServiceTest extends BaseIntegrationTest {
+
+    @MockBean
+    private MinioStorageService minioStorageService;
+
+    @Autowired
+    private LivestockExportService exportService;
+
+    @Autowired
+    private ProvinceRepository provinceRepository;
+
+    @Autowired
+    private DistrictRepository districtRepository;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private LivestockRepository livestockRepository;
+
+    @BeforeEach
+    void setUp() {
+        Province manicaland = provinceRepository.save(Province.builder().name("Export Manicaland").code("XM").build());
+        Province masvingo = provinceRepository.save(Province.builder().name("Export Masvingo").code("XV").build());
+        District mutare = districtRepository.save(District.builder().name("Export Mutare").code("XMU").province(manicaland).build());
+        District chiredzi = districtRepository.save(District.builder().name("Export Chiredzi").code("XCH").province(masvingo).build());
+
+        Owner first = owner("63-111111X11", "export.one@example.com", manicaland, mutare);
+        Owner second = owner("63-222222X22", "export.two@example.com", masvingo, chiredzi);
+        animal("ZW-EX-000001", first, false);
+        animal("ZW-EX-000002", first, true);
+        animal("ZW-EX-000003", second, false);
+    }
+
+    @Test
+    @DisplayName("Without filters every animal is exported, by tag code")
+    void testExport_NoFilters() throws IOException {
+        assertEquals(List.of("ZW-EX-000001", "ZW-EX-000002", "ZW-EX-000003"), exportedTags(null, null, null));
+    }
+
+    @Test
+    @DisplayName("Province, district and stolen filters apply alone and together")
+    void testExport_Filters() throws IOException {
+        assertEquals(List.of("ZW-EX-000001", "ZW-EX-000002"), exportedTags("Export Manicaland", null, null));
+        assertEquals(List.of("ZW-EX-000003"), exportedTags(null, "export chiredzi", null));
+        assertEquals(List.of("ZW-EX-000002"), exportedTags(null, null, true));
+        assertEquals(List.of("ZW-EX-000001"), exportedTags("Export Manicaland", "Export Mutare", false));
+        assertEquals(List.of(), exportedTags("Export Masvingo", "Export Mutare", null));
+    }
+
+    @Test
+    @DisplayName("A location that does not resolve gives an empty export")
+    void testExport_UnknownLocation() throws IOException {
+        assertEquals(List.of(), exportedTags(null, "Nowhere", null));
+        assertEquals(List.of(), exportedTags("Nowhere", null, null));
+    }
+
+    @Test
+    @DisplayName("Free text that a spreadsheet would evaluate is written as text; numbers keep their sign")
+    void testExport_FormulaText() throws IOException {
+        Owner owner = owner("63-333333X33", "export.three@example.com",
+            provinceRepository.findByName("Export Manicaland").orElseThrow(),
+            districtRepository.findByName("Export Mutare").orElseThrow());
+        owner.setFirstName("@SUM(A1:A9)");
+        ownerRepository.saveAndFlush(owner);
+        livestockRepository.saveAndFlush(Livestock.builder()
+            .tagCode("ZW-EX-000004")
+            .name("=HYPERLINK(\"http://example.com\",\"x\")")
+            .breed("Mashona")
+            .sex("F")
+            .distinguishingMarks("-notch, left ear")
+            .owner(owner)
+            .registrationLatitude(-18.9707)
+            .registrationLongitude(32.6709)
+            .build());
+
+        String line = exportedCsv(null, null, null).lines()
+            .filter(row -> row.startsWith("ZW-EX-000004,"))
+            .findFirst().orElseThrow();
+
+        assertTrue(line.contains(",\"'=HYPERLINK(\"\"http://example.com\"\",\"\"x\"\")\","), line);
+        assertTrue(line.contains(",\"'-notch, left ear\","), line);
+        assertTrue(line.contains(",\"'@SUM(A1:A9)\","), line);
+        assertTrue(line.contains(",-18.9707,32.6709,"), line);
+    }
+
+    private List<String> exportedTags(String province, String district, Boolean stolen) throws IOException {
+        return exportedCsv(province, district, stolen).lines()
+            .skip(1)
+            .map(line -> line.substring(0, line.indexOf(',')))
+            .filter(tag -> tag.startsWith("ZW-EX-"))
+            .toList();
+    }
+
+    private String exportedCsv(String province, String district, Boolean stolen) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = exportService.exportLivestock(LivestockExportService.ExportFormat.CSV, province, district, stolen, out);
+
+        String csv;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertEquals(count, csv.lines().count() - 1);
+        return csv;
+    }
+
+    private Owner owner(String nationalId, String email, Province province, District district) {
+        return ownerRepository.save(Owner.builder()
+            .nationalId(nationalId)
+            .firstName("Export")
+            .lastName("Owner")
+            .phoneNumber("+2637" + nationalId.substring(3, 11))
+            .email(email)
+            .role(UserRole.OWNER)
+            .province(province.getName())
+            .provinceRef(province)
+            .district(district.getName())
+            .districtRef(district)
+            .build());
+    }
+
+    private void animal(String tagCode, Owner owner, boolean stolen) {
+        livestockRepository.saveAndFlush(Livestock.builder()
+            .tagCode(tagCode)
+            .breed("Mashona")
+            .sex("F")
+            .owner(owner)
+            .stolen(stolen)
+            .build());
+    }
+}
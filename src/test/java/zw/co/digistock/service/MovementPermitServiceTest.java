@@ -0,0 +1,298 @@
+package zw.co.digistock.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import zw.co.digistock.domain.Livestock;
+import zw.co.digistock.domain.MovementPermit;
+import zw.co.digistock.domain.Officer;
+import zw.co.digistock.domain.Owner;
+import zw.co.digistock.domain.PermitAnimal;
+import zw.co.digistock.domain.PoliceClearance;
+import zw.co.digistock.domain.enums.ClearanceStatus;
+import zw.co.digistock.domain.enums.PermitStatus;
+import zw.co.digistock.domain.enums.UserRole;
+import zw.co.digistock.dto.request.CompleteHerdAnimalsRequest;
+import zw.co.digistock.dto.request.CreateHerdPermitRequest;
+import zw.co.digistock.dto.response.PermitResponse;
+import zw.co.digistock.exception.BusinessException;
+import zw.co.digistock.integration.BaseIntegrationTest;
+import zw.co.digistock.repository.LivestockRepository;
+import zw.co.digistock.repository.MovementPermitRepository;
+import zw.co.digistock.repository.OfficerRepository;
+import zw.co.digistock.repository.OwnerRepository;
+import zw.co.digistock.repository.PermitAnimalRepository;
+import zw.co.digistock.repository.PoliceClearanceRepository;
+import zw.co.digistock.service.storage.MinioStorageService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for herd movement permits: bulk validation on issue and completing animals on arrival
+ */
+@DisplayName("Movement Permit Service Tests - Herd Permits")
+class MovementPermitServiceTest extends BaseIntegrationTest {
+
+    @MockBean
+    private MinioStorageService minioStorageService;
+
+    @Autowired
+    private MovementPermitService permitService;
+
+    @Autowired
+    private MovementPermitRepository permitRepository;
+
+    @Autowired
+    private PermitAnimalRepository permitAnimalRepository;
+
+    @Autowired
+    private PoliceClearanceRepository clearanceRepository;
+
+    @Autowired
+    private LivestockRepository livestockRepository;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private OfficerRepository officerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Owner owner;
+    private Officer officer;
+
+    @BeforeEach
+    void setUp() {
+        owner = ownerRepository.save(Owner.builder()
+            .nationalId("63-445566H44")
+            .firstName("Herd")
+            .lastName("Owner")
+            .phoneNumber("+263774455667")
+            .email("herd.owner@example.com")
+            .role(UserRole.OWNER)
+            .district("Mutare")
+            .province("Manicaland")
+            .build());
+        officer = officerRepository.save(Officer.builder()
+            .officerCode("AO-HERD-1")
+            .firstName("Herd")
+            .lastName("Officer")
+            .phoneNumber("+263774455668")
+            .email("herd.officer@agritex.gov.zw")
+            .role(UserRole.AGRITEX_OFFICER)
+            .district("Mutare")
+            .province("Manicaland")
+            .active(true)
+            .build());
+    }
+
+    @Test
+    @DisplayName("A herd permit lists every animal with its longest-running clearance")
+    void testCreateHerdPermit_Success() {
+        Livestock first = animal("ZW-HD-000002", false);
+        Livestock second = animal("ZW-HD-000001", false);
+        clearance(first, 5);
+        PoliceClearance longer = clearance(first, 20);
+        clearance(second, 10);
+
+        PermitResponse response = permitService.createHerdPermit(request(first.getId(), second.getId(), first.getId()),
+            officer.getId());
+
+        assertEquals(2, response.getHerdSize());
+        assertEquals(PermitStatus.APPROVED, response.getStatus());
+        assertEquals(List.of("ZW-HD-000001", "ZW-HD-000002"),
+            response.getAnimals().stream().map(PermitResponse.HerdAnimalSummary::getTagCode).sorted().toList());
+        assertEquals(longer.getClearanceNumber(), response.getAnimals().stream()
+            .filter(animal -> animal.getLivestockId().equals(first.getId()))
+            .findFirst().orElseThrow().getClearanceNumber());
+    }
+
+    @Test
+    @DisplayName("Unknown, stolen and uncleared animals are all reported by tag, and nothing is issued")
+    void testCreateHerdPermit_Validation() {
+        Livestock cleared = animal("ZW-HD-000011", false);
+        Livestock stolen = animal("ZW-HD-000012", true);
+        Livestock uncleared = animal("ZW-HD-000013", false);
+        Livestock expired = animal("ZW-HD-000014", false);
+        clearance(cleared, 10);
+        clearance(stolen, 10);
+        clearance(expired, -1);
+        long permits = permitRepository.count();
+
+        BusinessException unknown = assertThrows(BusinessException.class, () ->
+            permitService.createHerdPermit(request(cleared.getId(), UUID.randomUUID()), officer.getId()));
+        assertTrue(unknown.getMessage().startsWith("Livestock not found"), unknown.getMessage());
+
+        BusinessException theft = assertThrows(BusinessException.class, () ->
+            permitService.createHerdPermit(request(cleared.getId(), stolen.getId()), officer.getId()));
+        assertTrue(theft.getMessage().contains("ZW-HD-000012"), theft.getMessage());
+
+        BusinessException noClearance = assertThrows(BusinessException.class, () ->
+            permitService.createHerdPermit(request(cleared.getId(), uncleared.getId(), expired.getId()), officer.getId()));
+        assertTrue(noClearance.getMessage().contains("ZW-HD-000013, ZW-HD-000014"), noClearance.getMessage());
+
+        assertEquals(permits, permitRepository.count());
+    }
+
+    @Test
+    @DisplayName("Animals are checked off as they arrive and the last one completes the permit")
+    void testCompleteHerdAnimals_Partial() {
+        MovementPermit permit = herdPermit("ZW-HD-000021", "ZW-HD-000022", "ZW-HD-000023");
+
+        PermitResponse partial = permitService.completeHerdAnimals(permit.getId(), complete(" ZW-HD-000021", "ZW-HD-000022"));
+        assertEquals(PermitStatus.APPROVED, partial.getStatus());
+        assertEquals(1, permitAnimalRepository.countByPermitIdAndCompletedAtIsNull(permit.getId()));
+
+        // Repeating an animal already checked off is harmless
+        PermitResponse done = permitService.completeHerdAnimals(permit.getId(), complete("ZW-HD-000023", "ZW-HD-000021"));
+        assertEquals(PermitStatus.COMPLETED, done.getStatus());
+        assertNotNull(done.getCompletedAt());
+    }
+
+    @Test
+    @DisplayName("Tags not on the permit, single-animal permits and finished permits are refused")
+    void testCompleteHerdAnimals_Refused() {
+        MovementPermit permit = herdPermit("ZW-HD-000031", "ZW-HD-000032");
+
+        BusinessException notOnPermit = assertThrows(BusinessException.class, () ->
+            permitService.completeHerdAnimals(permit.getId(), complete("ZW-HD-000031", "ZW-HD-999999")));
+        assertTrue(notOnPermit.getMessage().endsWith("ZW-HD-999999"), notOnPermit.getMessage());
+        assertEquals(2, permitAnimalRepository.countByPermitIdAndCompletedAtIsNull(permit.getId()));
+
+        permitService.completePermit(permit.getId(), null, null);
+        assertEquals(0, permitAnimalRepository.countByPermitIdAndCompletedAtIsNull(permit.getId()));
+        assertThrows(BusinessException.class, () ->
+            permitService.completeHerdAnimals(permit.getId(), complete("ZW-HD-000031")));
+
+        Livestock single = animal("ZW-HD-000033", false);
+        MovementPermit singlePermit = permitRepository.save(basePermit().livestock(single).build());
+        assertThrows(BusinessException.class, () ->
+            permitService.completeHerdAnimals(singlePermit.getId(), complete("ZW-HD-000033")));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Two checkpoints completing the last animals at once still complete the permit")
+    void testCompleteHerdAnimals_Concurrent() throws Exception {
+        // Without a test transaction the owner and officer from setUp are committed too
+        MovementPermit permit = transactionTemplate.execute(status -> herdPermit("ZW-HD-000041", "ZW-HD-000042"));
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            Future<?> first = pool.submit(() -> {
+                start.await();
+                return permitService.completeHerdAnimals(permit.getId(), complete("ZW-HD-000041"));
+            });
+            Future<?> second = pool.submit(() -> {
+                start.await();
+                return permitService.completeHerdAnimals(permit.getId(), complete("ZW-HD-000042"));
+            });
+            start.countDown();
+            first.get(30, TimeUnit.SECONDS);
+            second.get(30, TimeUnit.SECONDS);
+
+            MovementPermit reloaded = permitRepository.findById(permit.getId()).orElseThrow();
+            assertEquals(PermitStatus.COMPLETED, reloaded.getStatus());
+        } finally {
+            pool.shutdownNow();
+            transactionTemplate.executeWithoutResult(status -> {
+                MovementPermit stored = permitRepository.findById(permit.getId()).orElseThrow();
+                List<UUID> livestockIds = stored.getAnimals().stream().map(a -> a.getLivestock().getId()).toList();
+                List<UUID> clearanceIds = stored.getAnimals().stream().map(a -> a.getClearance().getId()).toList();
+                permitRepository.delete(stored);
+                permitRepository.flush();
+                clearanceRepository.deleteAllById(clearanceIds);
+                livestockRepository.deleteAllById(livestockIds);
+                officerRepository.deleteById(officer.getId());
+                ownerRepository.deleteById(owner.getId());
+            });
+        }
+    }
+
+    /**
+     * Approved herd permit for new animals with these tags, each cleared for ten days
+     */
+    private MovementPermit herdPermit(String... tagCodes) {
+        MovementPermit permit = basePermit().herdSize(tagCodes.length).build();
+        for (String tagCode : tagCodes) {
+            Livestock livestock = animal(tagCode, false);
+            permit.getAnimals().add(PermitAnimal.builder()
+                .permit(permit)
+                .livestock(livestock)
+                .clearance(clearance(livestock, 10))
+                .build());
+        }
+        return permitRepository.saveAndFlush(permit);
+    }
+
+    private MovementPermit.MovementPermitBuilder<?, ?> basePermit() {
+        return MovementPermit.builder()
+            .permitNumber("MP-HD-" + UUID.randomUUID().toString().substring(0, 8))
+            .issuedBy(officer)
+            .status(PermitStatus.APPROVED)
+            .fromLocation("Mutare")
+            .toLocation("Harare")
+            .purpose("Sale")
+            .issuedAt(LocalDateTime.now())
+            .validFrom(LocalDate.now())
+            .validUntil(LocalDate.now().plusDays(7));
+    }
+
+    private Livestock animal(String tagCode, boolean stolen) {
+        return livestockRepository.save(Livestock.builder()
+            .tagCode(tagCode)
+            .breed("Mashona")
+            .sex("F")
+            .owner(owner)
+            .stolen(stolen)
+            .build());
+    }
+
+    private PoliceClearance clearance(Livestock livestock, int daysValid) {
+        return clearanceRepository.save(PoliceClearance.builder()
+            .clearanceNumber("PC-HD-" + UUID.randomUUID().toString().substring(0, 8))
+            .livestock(livestock)
+            .owner(owner)
+            .issuedBy(officer)
+            .status(ClearanceStatus.APPROVED)
+            .clearanceDate(LocalDateTime.now())
+            .expiryDate(LocalDate.now().plusDays(daysValid))
+            .build());
+    }
+
+    private static CreateHerdPermitRequest request(UUID... livestockIds) {
+        return CreateHerdPermitRequest.builder()
+            .livestockIds(List.of(livestockIds))
+            .fromLocation("Mutare")
+            .toLocation("Harare")
+            .purpose("Sale")
+            .validFrom(LocalDate.now())
+            .validUntil(LocalDate.now().plusDays(7))
+            .build();
+    }
+
+    private static CompleteHerdAnimalsRequest complete(String... tagCodes) {
+        return CompleteHerdAnimalsRequest.builder().tagCodes(List.of(tagCodes)).build();
+    }
+}
@@ -0,0 +1,429 @@
+package zw.co.digistock.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import zw.co.digistock.domain.Livestock;
+import zw.co.digistock.domain.MovementPermit;
+import zw.co.digistock.domain.Officer;
+import zw.co.digistock.domain.Owner;
+import zw.co.digistock.domain.PoliceClearance;
+import zw.co.digistock.domain.RevocationEntry;
+import zw.co.digistock.domain.enums.ClearanceStatus;
+import zw.co.digistock.domain.enums.UserRole;
+import zw.co.digistock.exception.BusinessException;
+import zw.co.digistock.integration.BaseIntegrationTest;
+import zw.co.digistock.repository.LivestockRepository;
+import zw.co.digistock.repository.OfficerRepository;
+import zw.co.digistock.repository.OwnerRepository;
+import zw.co.digistock.repository.PoliceClearanceRepository;
+import zw.co.digistock.repository.RevocationEntryRepository;
+import zw.co.digistock.service.event.LivestockStolenStatusEvent;
+import zw.co.digistock.service.storage.MinioStorageService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for RevocationFeedService: the binary encoding, delta paging and the settle window.
+ * Entries are only written as their transactions commit, so these tests run without the
+ * usual rolled-back test transaction and clean up after themselves.
+ */
+@DisplayName("Revocation Feed Service Tests")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RevocationFeedServiceTest extends BaseIntegrationTest {
+
+    @MockBean
+    private MinioStorageService minioStorageService;
+
+    @Autowired
+    private RevocationFeedService revocationFeed;
+
+    @Autowired
+    private RevocationEntryRepository entryRepository;
+
+    @Autowired
+    private PoliceClearanceService clearanceService;
+
+    @Autowired
+    private PoliceClearanceRepository clearanceRepository;
+
+    @Autowired
+    private LivestockRepository livestockRepository;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private OfficerRepository officerRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private long settleSeconds;
+    private int maxDeltaEntries;
+
+    @BeforeEach
+    void setUp() {
+        settleSeconds = (long) ReflectionTestUtils.getField(revocationFeed, "settleSeconds");
+        maxDeltaEntries = (int) ReflectionTestUtils.getField(revocationFeed, "maxDeltaEntries");
+        ReflectionTestUtils.setField(revocationFeed, "settleSeconds", 0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(revocationFeed, "settleSeconds", settleSeconds);
+        ReflectionTestUtils.setField(revocationFeed, "maxDeltaEntries", maxDeltaEntries);
+        ReflectionTestUtils.setField(revocationFeed, "snapshot", null);
+        entryRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("An empty delta is the header alone, with sequence numbers as LEB128 varints")
+    void testDelta_EncodesVarints() throws IOException {
+        assertArrayEquals(new byte[] {1, 0, (byte) 0xAC, 0x02, (byte) 0xAC, 0x02, 0, 0},
+            gunzip(revocationFeed.delta(300).getData()));
+
+        long large = 1L << 35;
+        byte[] seq = {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01};
+        byte[] data = gunzip(revocationFeed.delta(large).getData());
+        assertEquals(2 + 2 * seq.length + 2, data.length);
+        for (int i = 0; i < seq.length; i++) {
+            assertEquals(seq[i], data[2 + i]);
+            assertEquals(seq[i], data[2 + seq.length + i]);
+        }
+
+        assertThrows(BusinessException.class, () -> revocationFeed.delta(-1));
+    }
+
+    @Test
+    @DisplayName("A delta holds the latest entry per key, ordered by subject and key")
+    void testDelta_LatestPerKey() throws IOException {
+        cancel("PERMIT-B");
+        stolen("ZW-RV-000001", true);
+        cancel("PERMIT-A");
+        stolen("ZW-RV-000001", false);
+        settle();
+
+        Decoded delta = decode(revocationFeed.delta(0).getData());
+
+        assertEquals(0, delta.kind());
+        assertEquals(0, delta.fromSeq());
+        assertEquals(lastSeq(), delta.toSeq());
+        assertFalse(delta.more());
+        assertEquals(List.of("P:PERMIT-A:1", "P:PERMIT-B:1", "L:ZW-RV-000001:0"), delta.entries());
+    }
+
+    @Test
+    @DisplayName("A long delta is cut at max-delta-entries and continues from the sequence number it returns")
+    void testDelta_Paging() throws IOException {
+        ReflectionTestUtils.setField(revocationFeed, "maxDeltaEntries", 2);
+        for (String number : List.of("PERMIT-1", "PERMIT-2", "PERMIT-3", "PERMIT-4", "PERMIT-5")) {
+            cancel(number);
+        }
+        settle();
+        List<Long> seqs = entryRepository.findAll().stream().map(RevocationEntry::getSeq).sorted().toList();
+
+        List<String> seen = new ArrayList<>();
+        long since = 0;
+        List<Boolean> more = new ArrayList<>();
+        Decoded page;
+        do {
+            page = decode(revocationFeed.delta(since).getData());
+            assertEquals(since, page.fromSeq());
+            seen.addAll(page.entries());
+            more.add(page.more());
+            since = page.toSeq();
+        } while (page.more());
+
+        assertEquals(List.of(true, true, false), more);
+        assertEquals(seqs.get(4), since);
+        assertEquals(List.of("P:PERMIT-1:1", "P:PERMIT-2:1", "P:PERMIT-3:1", "P:PERMIT-4:1", "P:PERMIT-5:1"), seen);
+        assertEquals(0, decode(revocationFeed.delta(since).getData()).entries().size());
+    }
+
+    @Test
+    @DisplayName("Entries inside the settle window are held back from deltas and snapshots")
+    void testSettleWindow_HoldsBackRecentEntries() throws IOException {
+        ReflectionTestUtils.setField(revocationFeed, "settleSeconds", 60L);
+        cancel("PERMIT-NEW");
+
+        Decoded delta = decode(revocationFeed.delta(0).getData());
+        assertEquals(0, delta.toSeq());
+        assertTrue(delta.entries().isEmpty());
+        assertEquals(0, revocationFeed.rebuildSnapshot().getToSeq());
+
+        ReflectionTestUtils.setField(revocationFeed, "settleSeconds", 0L);
+        settle();
+        Decoded snapshot = decode(revocationFeed.rebuildSnapshot().getData());
+        assertEquals(1, snapshot.kind());
+        assertEquals(List.of("P:PERMIT-NEW:1"), snapshot.entries());
+    }
+
+    @Test
+    @DisplayName("An entry that commits after a later sequence number is still delivered")
+    void testSettleWindow_OutOfOrderCommit() throws Exception {
+        ReflectionTestUtils.setField(revocationFeed, "settleSeconds", 2L);
+        CountDownLatch seqTaken = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            // The first writer takes its sequence number, then stalls before committing
+            Future<?> first = pool.submit(() -> writer(2).executeWithoutResult(status -> {
+                revocationFeed.permitCancelled(permit("PERMIT-SLOW"));
+                stallBeforeCommit(seqTaken, release);
+            }));
+            assertTrue(seqTaken.await(5, TimeUnit.SECONDS));
+            cancel("PERMIT-FAST");
+
+            Decoded early = decode(revocationFeed.delta(0).getData());
+            assertEquals(0, early.toSeq(), "a later sequence number must not be handed out ahead of an open one");
+
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+
+        List<RevocationEntry> written = entryRepository.findAll().stream()
+            .sorted(Comparator.comparing(RevocationEntry::getSeq)).toList();
+        assertEquals(List.of("PERMIT-SLOW", "PERMIT-FAST"), written.stream().map(RevocationEntry::getSubjectKey).toList());
+
+        Thread.sleep(2200);
+        Decoded delta = decode(revocationFeed.delta(0).getData());
+        assertEquals(written.get(1).getSeq(), delta.toSeq());
+        assertEquals(List.of("P:PERMIT-FAST:1", "P:PERMIT-SLOW:1"), delta.entries());
+    }
+
+    @Test
+    @DisplayName("A writer held up past its timeout rolls back instead of committing behind the feed")
+    void testWriterTimeout_RollsBackLateCommit() {
+        CountDownLatch seqTaken = new CountDownLatch(1);
+        CountDownLatch never = new CountDownLatch(1);
+
+        assertThrows(RuntimeException.class, () -> writer(2).executeWithoutResult(status -> {
+            revocationFeed.permitCancelled(permit("PERMIT-LATE"));
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    seqTaken.countDown();
+                    await(never, 1500);
+                }
+            });
+        }));
+
+        assertEquals(0, seqTaken.getCount());
+        assertEquals(0, entryRepository.count());
+    }
+
+    @Test
+    @DisplayName("The writer timeout must be shorter than the settle window, and entries need a transaction")
+    void testSettleWindow_Guards() {
+        ReflectionTestUtils.setField(revocationFeed, "settleSeconds", 5L);
+        assertThrows(IllegalStateException.class, () -> revocationFeed.checkSettleWindow());
+        ReflectionTestUtils.setField(revocationFeed, "settleSeconds", 10L);
+        revocationFeed.checkSettleWindow();
+
+        assertThrows(IllegalStateException.class, () -> revocationFeed.permitCancelled(permit("PERMIT-NONE")));
+    }
+
+    @Test
+    @DisplayName("Withdrawing an approved clearance is fed to devices; rejecting a pending one is not")
+    void testClearanceRejection_OnlyApprovedAreFed() {
+        Owner owner = ownerRepository.save(Owner.builder()
+            .nationalId("63-778899R77")
+            .firstName("Feed")
+            .lastName("Owner")
+            .phoneNumber("+263777788990")
+            .email("feed.owner@example.com")
+            .role(UserRole.OWNER)
+            .district("Mutare")
+            .province("Manicaland")
+            .build());
+        Officer officer = officerRepository.save(Officer.builder()
+            .officerCode("PO-FEED-1")
+            .firstName("Feed")
+            .lastName("Officer")
+            .phoneNumber("+263777788991")
+            .email("feed.officer@police.gov.zw")
+            .role(UserRole.POLICE_OFFICER)
+            .district("Mutare")
+            .province("Manicaland")
+            .active(true)
+            .build());
+        Livestock livestock = livestockRepository.save(Livestock.builder()
+            .tagCode("ZW-RV-000100")
+            .breed("Mashona")
+            .sex("F")
+            .owner(owner)
+            .stolen(false)
+            .build());
+        PoliceClearance approved = clearance(livestock, owner, officer, ClearanceStatus.APPROVED);
+        PoliceClearance pending = clearance(livestock, owner, officer, ClearanceStatus.PENDING);
+        try {
+            clearanceService.rejectClearance(approved.getId(), "Animal reported in a dispute");
+            clearanceService.rejectClearance(pending.getId(), "Owner could not be identified");
+
+            assertEquals(List.of(approved.getClearanceNumber()),
+                entryRepository.findAll().stream().map(RevocationEntry::getSubjectKey).toList());
+        } finally {
+            clearanceRepository.deleteAllById(List.of(approved.getId(), pending.getId()));
+            livestockRepository.deleteById(livestock.getId());
+            officerRepository.deleteById(officer.getId());
+            ownerRepository.deleteById(owner.getId());
+        }
+    }
+
+    private void cancel(String permitNumber) {
+        transactionTemplate.executeWithoutResult(status -> revocationFeed.permitCancelled(permit(permitNumber)));
+    }
+
+    private void stolen(String tagCode, boolean stolen) {
+        transactionTemplate.executeWithoutResult(status -> revocationFeed.onStolenStatus(
+            new LivestockStolenStatusEvent(UUID.randomUUID(), tagCode, stolen)));
+    }
+
+    /**
+     * Hibernate counts the time left in whole seconds, so a 2-second timeout allows just over one
+     */
+    private TransactionTemplate writer(int timeoutSeconds) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setTimeout(timeoutSeconds);
+        return template;
+    }
+
+    private long lastSeq() {
+        return entryRepository.findAll().stream().mapToLong(RevocationEntry::getSeq).max().orElse(0);
+    }
+
+    private PoliceClearance clearance(Livestock livestock, Owner owner, Officer officer, ClearanceStatus status) {
+        return clearanceRepository.save(PoliceClearance.builder()
+            .clearanceNumber("PC-RV-" + UUID.randomUUID().toString().substring(0, 8))
+            .livestock(livestock)
+            .owner(owner)
+            .issuedBy(officer)
+            .status(status)
+            .clearanceDate(LocalDateTime.now())
+            .expiryDate(LocalDate.now().plusDays(14))
+            .build());
+    }
+
+    private static MovementPermit permit(String permitNumber) {
+        return MovementPermit.builder()
+            .permitNumber(permitNumber)
+            .validUntil(LocalDate.now().plusDays(7))
+            .build();
+    }
+
+    /**
+     * Block the current transaction after its feed entry has taken a sequence number
+     */
+    private static void stallBeforeCommit(CountDownLatch seqTaken, CountDownLatch release) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                seqTaken.countDown();
+                await(release, 5000);
+            }
+        });
+    }
+
+    private static void await(CountDownLatch latch, long millis) {
+        try {
+            latch.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Let the database clock move past the entries just written (the window is 0 seconds here)
+     */
+    private static void settle() {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            in.transferTo(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static Decoded decode(byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(gunzip(data)))) {
+            assertEquals(RevocationFeedService.FORMAT_VERSION, in.readByte());
+            int kind = in.readByte();
+            long fromSeq = readVarint(in);
+            long toSeq = readVarint(in);
+            boolean more = in.readBoolean();
+            long count = readVarint(in);
+            List<String> entries = new ArrayList<>();
+            for (long i = 0; i < count; i++) {
+                char subject = (char) in.readByte();
+                boolean revoked = in.readBoolean();
+                byte[] key = new byte[(int) readVarint(in)];
+                in.readFully(key);
+                entries.add(subject + ":" + new String(key, StandardCharsets.UTF_8) + ":" + (revoked ? 1 : 0));
+            }
+            assertEquals(-1, in.read(), "no bytes after the last entry");
+            return new Decoded(kind, fromSeq, toSeq, more, entries);
+        }
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private record Decoded(int kind, long fromSeq, long toSeq, boolean more, List<String> entries) {
+    }
+}
@@ -0,0 +1,216 @@
+package zw.co.digistock.service;
+
+import io.minio.messages.Item;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import zw.co.digistock.config.MinioConfig;
+import zw.co.digistock.domain.Livestock;
+import zw.co.digistock.domain.Owner;
+import zw.co.digistock.domain.enums.UserRole;
+import zw.co.digistock.exception.BusinessException;
+import zw.co.digistock.integration.BaseIntegrationTest;
+import zw.co.digistock.repository.LivestockRepository;
+import zw.co.digistock.repository.OwnerRepository;
+import zw.co.digistock.service.storage.MinioStorageService;
+import zw.co.digistock.util.DateTimeUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for SnapshotService: Parquet output, the job lease and retention
+ */
+@DisplayName("Snapshot Service Tests")
+class SnapshotServiceTest extends BaseIntegrationTest {
+
+    @MockBean
+    private MinioStorageService minioStorageService;
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @Autowired
+    private LivestockRepository livestockRepository;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MinioConfig minioConfig;
+
+    @TempDir
+    Path uploads;
+
+    private String bucket;
+
+    @BeforeEach
+    void setUp() {
+        bucket = minioConfig.getSnapshotsBucket();
+        Owner owner = ownerRepository.save(Owner.builder()
+            .nationalId("63-998877S99")
+            .firstName("Snapshot")
+            .lastName("Owner")
+            .phoneNumber("+263779988776")
+            .email("snapshot.owner@example.com")
+            .role(UserRole.OWNER)
+            .district("Mutare")
+            .province("Manicaland")
+            .build());
+        livestockRepository.saveAndFlush(Livestock.builder()
+            .tagCode("ZW-SN-000001")
+            .name("Snapshot Cow")
+            .breed("Mashona")
+            .sex("F")
+            .birthDate(LocalDate.of(2020, 3, 14))
+            .owner(owner)
+            .stolen(false)
+            .build());
+
+        // Keep what would have gone to MinIO; the service deletes its temp files afterwards
+        doAnswer(invocation -> {
+            Path file = invocation.getArgument(0);
+            String objectName = invocation.getArgument(2);
+            Path copy = uploads.resolve(objectName);
+            Files.createDirectories(copy.getParent());
+            Files.copy(file, copy);
+            return "minio://" + bucket + "/" + objectName;
+        }).when(minioStorageService).uploadLocalFile(any(Path.class), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Snapshot writes each table as Parquet with typed columns")
+    void testCreateSnapshot_WritesParquet() throws IOException {
+        String id = DateTimeUtils.nowDate().toString();
+        List<Item> stored = List.of(item(id + "/livestock.parquet"));
+        when(minioStorageService.listObjects(bucket, "")).thenReturn(stored);
+
+        snapshotService.createSnapshot();
+
+        for (String table : List.of("livestock", "movement_permits", "police_clearances", "vaccinations")) {
+            assertTrue(Files.exists(uploads.resolve(id + "/" + table + ".parquet")), table);
+        }
+        verify(minioStorageService).uploadBytes(any(byte[].class), eq(bucket), eq(id + "/manifest.json"), eq("application/json"));
+
+        Path file = uploads.resolve(id + "/livestock.parquet");
+        MessageType schema = readSchema(file);
+        List<Group> rows = readRows(file);
+        assertEquals(livestockRepository.count(), rows.size());
+        assertEquals(LogicalTypeAnnotation.dateType(), schema.getType("birth_date").getLogicalTypeAnnotation());
+
+        Group cow = rows.stream()
+            .filter(row -> row.getFieldRepetitionCount("tag_code") > 0 && "ZW-SN-000001".equals(row.getString("tag_code", 0)))
+            .findFirst()
+            .orElseThrow();
+        assertEquals("Mashona", cow.getString("breed", 0));
+        assertEquals(LocalDate.of(2020, 3, 14).toEpochDay(), cow.getInteger("birth_date", 0));
+        assertEquals(false, cow.getBoolean("is_stolen", 0));
+        assertEquals(0, cow.getFieldRepetitionCount("mother_id"), "null columns are left out");
+    }
+
+    @Test
+    @DisplayName("Snapshot is refused while another node holds the lease")
+    void testCreateSnapshot_LeaseHeldElsewhere() {
+        jdbcTemplate.update("INSERT INTO scheduler_leases (name, owner, locked_at, locked_until) VALUES (?, ?, ?, ?)",
+            "analytics-snapshot", "other-node", Timestamp.valueOf(LocalDateTime.now()),
+            Timestamp.valueOf(LocalDateTime.now().plusHours(1)));
+
+        assertThrows(BusinessException.class, () -> snapshotService.createSnapshot());
+
+        snapshotService.createScheduledSnapshot();
+        verify(minioStorageService, never()).uploadLocalFile(any(Path.class), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Snapshots past the retention period are deleted, newer ones kept")
+    void testDeleteExpiredSnapshots() {
+        String today = DateTimeUtils.nowDate().toString();
+        String old = DateTimeUtils.nowDate().minusDays(31).toString();
+        String kept = DateTimeUtils.nowDate().minusDays(29).toString();
+        List<Item> stored = List.of(
+            item(old + "/livestock.parquet"), item(old + "/manifest.json"),
+            item(kept + "/livestock.parquet"), item(today + "/livestock.parquet"));
+        when(minioStorageService.listObjects(bucket, "")).thenReturn(stored);
+
+        assertEquals(1, snapshotService.deleteExpiredSnapshots());
+
+        verify(minioStorageService).deleteFile("minio://" + bucket + "/" + old + "/livestock.parquet");
+        verify(minioStorageService).deleteFile("minio://" + bucket + "/" + old + "/manifest.json");
+        verify(minioStorageService, never()).deleteFile("minio://" + bucket + "/" + kept + "/livestock.parquet");
+        verify(minioStorageService, never()).deleteFile("minio://" + bucket + "/" + today + "/livestock.parquet");
+    }
+
+    private static Item item(String objectName) {
+        Item item = mock(Item.class);
+        when(item.objectName()).thenReturn(objectName);
+        when(item.isDir()).thenReturn(false);
+        when(item.lastModified()).thenReturn(ZonedDateTime.now());
+        return item;
+    }
+
+    private static ParquetFileReader open(Path file) throws IOException {
+        return ParquetFileReader.open(new LocalInputFile(file),
+            ParquetReadOptions.builder(new PlainParquetConfiguration())
+                .withCodecFactory(new ParquetTableWriter.ZstdCodecFactory())
+                .build());
+    }
+
+    private static MessageType readSchema(Path file) throws IOException {
+        try (ParquetFileReader reader = open(file)) {
+            return reader.getFooter().getFileMetaData().getSchema();
+        }
+    }
+
+    private static List<Group> readRows(Path file) throws IOException {
+        List<Group> rows = new ArrayList<>();
+        try (ParquetFileReader reader = open(file)) {
+            MessageType schema = reader.getFooter().getFileMetaData().getSchema();
+            PageReadStore pages;
+            while ((pages = reader.readNextRowGroup()) != null) {
+                RecordReader<Group> records = new ColumnIOFactory().getColumnIO(schema)
+                    .getRecordReader(pages, new GroupRecordConverter(schema));
+                for (long i = 0; i < pages.getRowCount(); i++) {
+                    rows.add(records.read());
+                }
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,230 @@
+package zw.co.digistock.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import zw.co.digistock.domain.RevocationEntry;
+import zw.co.digistock.domain.enums.RevocationSubject;
+import zw.co.digistock.dto.response.LivestockAlertRow;
+import zw.co.digistock.repository.LivestockRepository;
+import zw.co.digistock.repository.RevocationEntryRepository;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for StolenAlertHub: reading alerts from the revocation feed, filtering, and streams
+ * whose client stops reading
+ */
+@DisplayName("Stolen Alert Hub Tests")
+class StolenAlertHubTest {
+
+    private static final UUID MANICALAND = UUID.randomUUID();
+    private static final UUID HARARE = UUID.randomUUID();
+
+    private LocationResolver locationResolver;
+    private RevocationEntryRepository entryRepository;
+    private LivestockRepository livestockRepository;
+    private MeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor executor;
+    private BlockingQueue<TestEmitter> emitters;
+    private StolenAlertHub hub;
+
+    @BeforeEach
+    void setUp() {
+        locationResolver = mock(LocationResolver.class);
+        entryRepository = mock(RevocationEntryRepository.class);
+        livestockRepository = mock(LivestockRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.initialize();
+        emitters = new LinkedBlockingQueue<>();
+
+        when(locationResolver.findProvinceIds("Manicaland")).thenReturn(List.of(MANICALAND));
+        when(locationResolver.findProvinceIds("Harare")).thenReturn(List.of(HARARE));
+
+        hub = new StolenAlertHub(locationResolver, entryRepository, livestockRepository,
+                new ObjectMapper().registerModule(new JavaTimeModule()), executor, meterRegistry) {
+            @Override
+            SseEmitter createEmitter() {
+                return emitters.remove();
+            }
+        };
+        ReflectionTestUtils.setField(hub, "bufferSize", 16);
+        ReflectionTestUtils.setField(hub, "maxSubscribers", 100);
+        ReflectionTestUtils.setField(hub, "settleSeconds", 10L);
+        ReflectionTestUtils.setField(hub, "writeTimeoutMs", 10000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Reports from the feed reach matching subscribers, starting from the feed's end")
+    void testPoll_DeliversMatchingReports() throws InterruptedException {
+        when(entryRepository.findLastSeq()).thenReturn(10L);
+        hub.poll();
+        verify(entryRepository, never()).findAfter(anyLong());
+
+        TestEmitter manicaland = subscribe("Manicaland");
+        TestEmitter harare = subscribe("Harare");
+        TestEmitter everywhere = subscribe(null);
+
+        when(entryRepository.findLastSettledSeq(10L)).thenReturn(10L);
+        when(entryRepository.findAfter(10L)).thenReturn(List.of(
+            entry(12, RevocationSubject.LIVESTOCK, "ZW-AL-000001", true),
+            entry(13, RevocationSubject.PERMIT, "DS-PERMIT-1", true)));
+        when(livestockRepository.findAlertRowsByTagCodeIn(anyCollection())).thenReturn(List.of(
+            new LivestockAlertRow(UUID.randomUUID(), "ZW-AL-000001", MANICALAND, null, "Manicaland", "Mutare")));
+        hub.poll();
+
+        String alert = manicaland.next();
+        assertTrue(alert.contains("event:stolen") && alert.contains("ZW-AL-000001"), alert);
+        assertTrue(everywhere.next().contains("ZW-AL-000001"));
+        assertEquals(0, harare.alerts.size(), "other provinces are filtered out");
+    }
+
+    @Test
+    @DisplayName("An entry that commits behind a later one is delivered, and nothing is delivered twice")
+    void testPoll_OutOfOrderCommit() throws InterruptedException {
+        when(entryRepository.findLastSeq()).thenReturn(10L);
+        hub.poll();
+        TestEmitter subscriber = subscribe(null);
+        when(livestockRepository.findAlertRowsByTagCodeIn(anyCollection())).thenReturn(List.of());
+        when(entryRepository.findLastSettledSeq(10L)).thenReturn(10L);
+
+        // Seq 11 has been taken but not committed yet
+        when(entryRepository.findAfter(10L)).thenReturn(List.of(
+            entry(12, RevocationSubject.LIVESTOCK, "ZW-AL-000012", true)));
+        hub.poll();
+        assertTrue(subscriber.next().contains("ZW-AL-000012"));
+
+        when(entryRepository.findAfter(10L)).thenReturn(List.of(
+            entry(11, RevocationSubject.LIVESTOCK, "ZW-AL-000011", false),
+            entry(12, RevocationSubject.LIVESTOCK, "ZW-AL-000012", true)));
+        hub.poll();
+        String late = subscriber.next();
+        assertTrue(late.contains("event:recovered") && late.contains("ZW-AL-000011"), late);
+
+        // Once both have settled the window moves past them
+        when(entryRepository.findLastSettledSeq(10L)).thenReturn(12L);
+        hub.poll();
+        when(entryRepository.findLastSettledSeq(10L)).thenReturn(null);
+        when(entryRepository.findAfter(12L)).thenReturn(List.of());
+        hub.poll();
+        verify(entryRepository).findAfter(12L);
+        assertEquals(0, subscriber.alerts.size());
+    }
+
+    @Test
+    @DisplayName("A subscriber whose write stays blocked is dropped, and completed once the write returns")
+    void testCloseStuckStreams() throws InterruptedException {
+        ReflectionTestUtils.setField(hub, "writeTimeoutMs", 50L);
+        TestEmitter stuck = new TestEmitter();
+        stuck.blocked = new CountDownLatch(1);
+        emitters.add(stuck);
+        hub.subscribe(null, null);
+        assertTrue(stuck.writing.await(5, TimeUnit.SECONDS));
+
+        Thread.sleep(100);
+        hub.closeStuckStreams();
+
+        assertEquals(0.0, meterRegistry.get("digistock.alerts.subscribers").gauge().value());
+        assertEquals(1.0, meterRegistry.get("digistock.alerts.slow.disconnects").counter().count());
+
+        // The other sender still serves new subscribers (subscribe waits for the opening heartbeat)
+        subscribe(null);
+
+        stuck.blocked.countDown();
+        assertTrue(stuck.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    private TestEmitter subscribe(String province) throws InterruptedException {
+        TestEmitter emitter = new TestEmitter();
+        emitters.add(emitter);
+        hub.subscribe(province, null);
+        // The opening heartbeat
+        assertTrue(emitter.writes.poll(5, TimeUnit.SECONDS).contains("heartbeat"));
+        return emitter;
+    }
+
+    private static RevocationEntry entry(long seq, RevocationSubject subject, String key, boolean revoked) {
+        return RevocationEntry.builder()
+            .seq(seq)
+            .subjectType(subject)
+            .subjectKey(key)
+            .revoked(revoked)
+            .createdAt(LocalDateTime.now())
+            .build();
+    }
+
+    /**
+     * Records what is written to it; blocks each write while blocked is set, like a client that stopped reading
+     */
+    private static class TestEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> writes = new LinkedBlockingQueue<>();
+        private final BlockingQueue<String> alerts = new LinkedBlockingQueue<>();
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile CountDownLatch blocked;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            writing.countDown();
+            if (blocked != null) {
+                try {
+                    blocked.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            String text = builder.build().stream()
+                .map(part -> part.getData().toString())
+                .collect(Collectors.joining());
+            writes.add(text);
+            if (!text.contains("heartbeat")) {
+                alerts.add(text);
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+
+        String next() throws InterruptedException {
+            String alert = alerts.poll(5, TimeUnit.SECONDS);
+            assertTrue(alert != null, "expected an alert");
+            return alert;
+        }
+    }
+}
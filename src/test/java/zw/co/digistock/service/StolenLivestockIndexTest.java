@@ -0,0 +1,104 @@
+package zw.co.digistock.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import zw.co.digistock.dto.request.StolenScreenRequest;
+import zw.co.digistock.dto.response.StolenScreenResponse;
+import zw.co.digistock.repository.LivestockRepository;
+import zw.co.digistock.service.event.LivestockStolenStatusEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for StolenLivestockIndex: screening and changes committed during a reload
+ */
+@DisplayName("Stolen Livestock Index Tests")
+class StolenLivestockIndexTest {
+
+    private final UUID firstId = UUID.randomUUID();
+    private final UUID secondId = UUID.randomUUID();
+
+    private LivestockRepository livestockRepository;
+    private StolenLivestockIndex index;
+
+    @BeforeEach
+    void setUp() {
+        livestockRepository = mock(LivestockRepository.class);
+        index = new StolenLivestockIndex(livestockRepository, 0.01);
+    }
+
+    @Test
+    @DisplayName("Screening trims tag codes and reports each stolen one once")
+    void testScreen_TrimsTagCodes() {
+        when(livestockRepository.findStolenKeys()).thenReturn(keys(firstId, "ZW-ST-000001"));
+
+        StolenScreenResponse response = index.screen(StolenScreenRequest.builder()
+            .tagCodes(List.of(" ZW-ST-000001", "ZW-ST-000001\t", "ZW-ST-000002"))
+            .livestockIds(List.of(firstId, secondId))
+            .build());
+
+        assertEquals(List.of("ZW-ST-000001"), response.getStolenTagCodes());
+        assertEquals(List.of(firstId), response.getStolenLivestockIds());
+        assertEquals(4, response.getScreened());
+    }
+
+    @Test
+    @DisplayName("Reports committed while a reload reads the table are replayed onto the new index")
+    void testReload_ReplaysChangesDuringRead() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+        when(livestockRepository.findStolenKeys()).thenAnswer(invocation -> {
+            // The snapshot predates both reports below
+            reading.countDown();
+            assertTrue(committed.await(10, TimeUnit.SECONDS));
+            return keys(firstId, "ZW-ST-000001");
+        });
+
+        CompletableFuture<Void> reload = CompletableFuture.runAsync(index::reload);
+        assertTrue(reading.await(10, TimeUnit.SECONDS));
+        index.onStolenStatus(event(firstId, "ZW-ST-000001", false));
+        index.onStolenStatus(event(secondId, "ZW-ST-000002", true));
+        committed.countDown();
+        reload.get(10, TimeUnit.SECONDS);
+
+        assertFalse(index.isStolen("ZW-ST-000001"), "recovered during the reload");
+        assertFalse(index.isStolen(firstId));
+        assertTrue(index.isStolen("ZW-ST-000002"), "stolen during the reload");
+        assertTrue(index.isStolen(secondId));
+    }
+
+    @Test
+    @DisplayName("Each report changes the Bloom export version")
+    void testExportBloomFilter_Version() {
+        when(livestockRepository.findStolenKeys()).thenReturn(new ArrayList<>());
+        long loaded = index.exportBloomFilter().getVersion();
+
+        index.onStolenStatus(event(secondId, "ZW-ST-000002", true));
+
+        StolenLivestockIndex.BloomExport export = index.exportBloomFilter();
+        assertEquals(loaded + 1, export.getVersion());
+        assertTrue(index.isStolen("ZW-ST-000002"));
+    }
+
+    private static List<Object[]> keys(UUID id, String tagCode) {
+        List<Object[]> keys = new ArrayList<>();
+        keys.add(new Object[]{id, tagCode});
+        return keys;
+    }
+
+    private static LivestockStolenStatusEvent event(UUID id, String tagCode, boolean stolen) {
+        return new LivestockStolenStatusEvent(id, tagCode, stolen);
+    }
+}
@@ -0,0 +1,134 @@
+package zw.co.digistock.service;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import zw.co.digistock.domain.Livestock;
+import zw.co.digistock.domain.Officer;
+import zw.co.digistock.domain.Owner;
+import zw.co.digistock.domain.enums.UserRole;
+import zw.co.digistock.dto.request.VaccinationCampaignRequest;
+import zw.co.digistock.dto.response.VaccinationCampaignResponse;
+import zw.co.digistock.exception.ResourceNotFoundException;
+import zw.co.digistock.integration.BaseIntegrationTest;
+import zw.co.digistock.repository.LivestockRepository;
+import zw.co.digistock.repository.OfficerRepository;
+import zw.co.digistock.repository.OwnerRepository;
+import zw.co.digistock.service.storage.MinioStorageService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for VaccinationService campaign recording
+ */
+@DisplayName("Vaccination Service Tests - Campaigns")
+class VaccinationServiceTest extends BaseIntegrationTest {
+
+    @MockBean
+    private MinioStorageService minioStorageService;
+
+    @Autowired
+    private VaccinationService vaccinationService;
+
+    @Autowired
+    private LivestockRepository livestockRepository;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private OfficerRepository officerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Officer vet;
+    private List<UUID> livestockIds;
+
+    @BeforeEach
+    void setUp() {
+        vet = officerRepository.save(Officer.builder()
+            .officerCode("VO-101")
+            .firstName("Vera")
+            .lastName("Moyo")
+            .phoneNumber("+263771112233")
+            .email("vera.moyo@vet.gov.zw")
+            .role(UserRole.VETERINARY_OFFICER)
+            .district("Mutare")
+            .province("Manicaland")
+            .active(true)
+            .build());
+        Owner owner = ownerRepository.save(Owner.builder()
+            .nationalId("63-112233V11")
+            .firstName("Campaign")
+            .lastName("Owner")
+            .phoneNumber("+263771112244")
+            .email("campaign.owner@example.com")
+            .role(UserRole.OWNER)
+            .district("Mutare")
+            .province("Manicaland")
+            .build());
+
+        livestockIds = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            livestockIds.add(livestockRepository.save(Livestock.builder()
+                .tagCode("ZW-VC-00000" + i)
+                .breed("Mashona")
+                .sex("F")
+                .owner(owner)
+                .stolen(false)
+                .build()).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Campaign records one vaccination per animal without loading the animals")
+    void testRecordCampaign_ReferencesOnly() {
+        VaccinationCampaignResponse response = vaccinationService.recordCampaign(request(livestockIds));
+
+        boolean livestockLoaded = entityManager.unwrap(Session.class).getStatistics().getEntityKeys().stream()
+            .anyMatch(key -> ((EntityKey) key).getEntityName().equals(Livestock.class.getName()));
+        assertFalse(livestockLoaded, "campaign should not load livestock entities");
+        assertEquals(5, response.getVaccinated());
+        assertEquals(5, countVaccinations());
+    }
+
+    @Test
+    @DisplayName("Campaign with an unknown animal is rejected as a whole")
+    void testRecordCampaign_MissingAnimal() {
+        List<UUID> ids = new ArrayList<>(livestockIds);
+        ids.add(UUID.randomUUID());
+
+        assertThrows(ResourceNotFoundException.class, () -> vaccinationService.recordCampaign(request(ids)));
+        assertEquals(0, countVaccinations());
+    }
+
+    private long countVaccinations() {
+        return entityManager.createQuery("SELECT COUNT(v) FROM Vaccination v WHERE v.livestock.id IN :ids", Long.class)
+            .setParameter("ids", livestockIds)
+            .getSingleResult();
+    }
+
+    private VaccinationCampaignRequest request(List<UUID> ids) {
+        VaccinationCampaignRequest request = new VaccinationCampaignRequest();
+        request.setLivestockIds(ids);
+        request.setVaccineType("Anthrax");
+        request.setVaccinationDate(LocalDate.now());
+        request.setVeterinaryOfficerId(vet.getId());
+        return request;
+    }
+}
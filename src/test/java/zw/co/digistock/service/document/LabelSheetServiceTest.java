@@ -0,0 +1,122 @@
+package zw.co.digistock.service.document;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import zw.co.digistock.dto.request.LabelSheetRequest;
+import zw.co.digistock.dto.response.LivestockLabelRow;
+import zw.co.digistock.exception.BusinessException;
+import zw.co.digistock.repository.LivestockRepository;
+import zw.co.digistock.service.LocationResolver;
+import zw.co.digistock.service.qr.QrRenderer;
+import zw.co.digistock.util.Constants;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for LabelSheetService: labels fill 40 to a page in the order requested
+ */
+@DisplayName("Label Sheet Service Tests")
+class LabelSheetServiceTest {
+
+    private LivestockRepository livestockRepository;
+    private ThreadPoolTaskExecutor executor;
+    private LabelSheetService labelSheetService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        livestockRepository = mock(LivestockRepository.class);
+        when(livestockRepository.findLabelsByTagCodeIn(any())).thenAnswer(invocation -> {
+            Collection<String> tagCodes = invocation.getArgument(0);
+            return tagCodes.stream().map(tag -> new LivestockLabelRow(tag, UUID.randomUUID())).toList();
+        });
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.initialize();
+
+        labelSheetService = new LabelSheetService(livestockRepository, mock(LocationResolver.class),
+            new QrRenderer(), new DocumentTemplates(), executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("41 labels print on two pages, in the order given")
+    void testWriteLabelSheet_PageCount() throws IOException {
+        List<String> tags = IntStream.rangeClosed(1, 41).mapToObj(i -> String.format("ZW-LBL-%06d", i)).toList();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long printed = labelSheetService.writeLabelSheet(LabelSheetRequest.builder().tagCodes(tags).build(), () -> out);
+
+        assertEquals(41, printed);
+        List<String> pages = pages(out.toByteArray());
+        assertEquals(2, pages.size());
+        assertTrue(pages.get(0).contains("ZW-LBL-000001"), pages.get(0));
+        assertTrue(pages.get(0).contains("ZW-LBL-000040"), pages.get(0));
+        assertEquals("ZW-LBL-000041", pages.get(1).trim());
+    }
+
+    @Test
+    @DisplayName("a full page of labels prints on one page")
+    void testWriteLabelSheet_OnePage() throws IOException {
+        List<String> tags = IntStream.rangeClosed(1, 40).mapToObj(i -> String.format("ZW-LBL-%06d", i)).toList();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        labelSheetService.writeLabelSheet(LabelSheetRequest.builder().tagCodes(tags).build(), () -> out);
+
+        assertEquals(1, pages(out.toByteArray()).size());
+    }
+
+    @Test
+    @DisplayName("a ward with more animals than fit in a sheet is rejected before the stream is opened")
+    @SuppressWarnings("unchecked")
+    void testWriteLabelSheet_WardTooLarge() {
+        when(livestockRepository.countLabelsByWard(anyString())).thenReturn(Constants.MAX_LABELS_PER_SHEET + 1L);
+        Supplier<OutputStream> out = mock(Supplier.class);
+
+        assertThrows(BusinessException.class, () ->
+            labelSheetService.writeLabelSheet(LabelSheetRequest.builder().ward("Ward 7").build(), out));
+        verify(out, never()).get();
+    }
+
+    /**
+     * Text of each page of the PDF
+     */
+    private static List<String> pages(byte[] data) throws IOException {
+        List<String> pages = new ArrayList<>();
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(data)))) {
+            for (int i = 1; i <= pdf.getNumberOfPages(); i++) {
+                pages.add(PdfTextExtractor.getTextFromPage(pdf.getPage(i)));
+            }
+        }
+        return pages;
+    }
+}
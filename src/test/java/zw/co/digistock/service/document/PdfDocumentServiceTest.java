@@ -0,0 +1,171 @@
+package zw.co.digistock.service.document;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import zw.co.digistock.config.MinioConfig;
+import zw.co.digistock.domain.Livestock;
+import zw.co.digistock.domain.MovementPermit;
+import zw.co.digistock.domain.Officer;
+import zw.co.digistock.domain.Owner;
+import zw.co.digistock.domain.PermitAnimal;
+import zw.co.digistock.domain.PoliceClearance;
+import zw.co.digistock.service.qr.QrPayloadSigner;
+import zw.co.digistock.service.qr.QrRenderer;
+import zw.co.digistock.service.storage.MinioStorageService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for PdfDocumentService: permits and clearances render onto their templates, herd
+ * permits with schedule pages
+ */
+@DisplayName("PDF Document Service Tests")
+class PdfDocumentServiceTest {
+
+    private static final String PAYLOAD = "DS1.signed-payload";
+
+    private MinioStorageService minioStorageService;
+    private PdfDocumentService pdfDocumentService;
+    private Owner owner;
+    private Officer officer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        QrPayloadSigner signer = mock(QrPayloadSigner.class);
+        when(signer.signPermit(any())).thenReturn(PAYLOAD);
+        when(signer.signClearance(any())).thenReturn(PAYLOAD);
+        minioStorageService = mock(MinioStorageService.class);
+        MinioConfig minioConfig = new MinioConfig();
+        minioConfig.setBuckets(Map.of("permits", "digistock-permits", "clearances", "digistock-clearances"));
+
+        pdfDocumentService = new PdfDocumentService(new DocumentTemplates(), signer, new QrRenderer(),
+            minioStorageService, minioConfig);
+
+        owner = Owner.builder().nationalId("63-123456A78").firstName("Tendai").lastName("Moyo").build();
+        officer = Officer.builder().officerCode("AGR-001").firstName("Rudo").lastName("Ncube").build();
+    }
+
+    @Test
+    @DisplayName("a single-animal permit renders one page with its values")
+    void testRenderPermit_Single() throws IOException {
+        Livestock livestock = livestock("ZW-PDF-000001");
+        MovementPermit permit = permit("MP-2026-000001");
+        permit.setLivestock(livestock);
+        permit.setClearance(clearance("PC-2026-000001", livestock));
+
+        List<String> pages = pages(pdfDocumentService.renderPermit(permit));
+
+        assertEquals(1, pages.size());
+        assertTrue(pages.get(0).contains("MP-2026-000001"), pages.get(0));
+        assertTrue(pages.get(0).contains("ZW-PDF-000001"), pages.get(0));
+        assertTrue(pages.get(0).contains("PC-2026-000001"), pages.get(0));
+        assertTrue(pages.get(0).contains("Rudo Ncube (AGR-001)"), pages.get(0));
+    }
+
+    @Test
+    @DisplayName("a herd permit lists every animal in schedule pages after the summary")
+    void testRenderPermit_HerdSchedule() throws IOException {
+        MovementPermit permit = permit("MP-2026-000002");
+        List<PermitAnimal> animals = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            Livestock livestock = livestock(String.format("ZW-PDF-%06d", i));
+            animals.add(PermitAnimal.builder()
+                .permit(permit)
+                .livestock(livestock)
+                .clearance(clearance(String.format("PC-2026-%06d", i), livestock))
+                .build());
+        }
+        permit.setAnimals(animals);
+        permit.setHerdSize(animals.size());
+
+        List<String> pages = pages(pdfDocumentService.renderPermit(permit));
+
+        // 43 rows fit on a schedule page
+        assertEquals(3, pages.size());
+        assertTrue(pages.get(0).contains("50 animals, see schedule"), pages.get(0));
+        assertTrue(pages.get(1).contains("page 1 of 2"), pages.get(1));
+        assertTrue(pages.get(1).contains("ZW-PDF-000001"), pages.get(1));
+        assertTrue(pages.get(2).contains("page 2 of 2"), pages.get(2));
+        assertTrue(pages.get(2).contains("ZW-PDF-000050"), pages.get(2));
+        assertTrue(pages.get(2).contains("PC-2026-000050"), pages.get(2));
+    }
+
+    @Test
+    @DisplayName("a clearance renders one page and is uploaded under its number")
+    void testGenerateClearancePdf() throws IOException {
+        PoliceClearance clearance = clearance("PC-2026-000003", livestock("ZW-PDF-000003"));
+        clearance.setIssuedBy(officer);
+        when(minioStorageService.uploadBytes(any(), eq("digistock-clearances"), eq("PC-2026-000003.pdf"),
+            eq("application/pdf"))).thenReturn("minio://digistock-clearances/PC-2026-000003.pdf");
+
+        String reference = pdfDocumentService.generateClearancePdf(clearance);
+
+        assertEquals("minio://digistock-clearances/PC-2026-000003.pdf", reference);
+        List<String> pages = pages(pdfDocumentService.renderClearance(clearance));
+        assertEquals(1, pages.size());
+        assertTrue(pages.get(0).contains("PC-2026-000003"), pages.get(0));
+        assertTrue(pages.get(0).contains("Tendai Moyo"), pages.get(0));
+        verify(minioStorageService).uploadBytes(any(), eq("digistock-clearances"), eq("PC-2026-000003.pdf"),
+            eq("application/pdf"));
+    }
+
+    private MovementPermit permit(String permitNumber) {
+        return MovementPermit.builder()
+            .permitNumber(permitNumber)
+            .fromLocation("Mutare")
+            .toLocation("Harare")
+            .purpose("Sale")
+            .transportMode("Truck")
+            .vehicleNumber("ABC 1234")
+            .validFrom(LocalDate.of(2026, 3, 10))
+            .validUntil(LocalDate.of(2026, 3, 12))
+            .issuedBy(officer)
+            .issuedAt(LocalDateTime.of(2026, 3, 9, 14, 0))
+            .build();
+    }
+
+    private Livestock livestock(String tagCode) {
+        return Livestock.builder().tagCode(tagCode).breed("Mashona").sex("F").color("Red").owner(owner).build();
+    }
+
+    private PoliceClearance clearance(String clearanceNumber, Livestock livestock) {
+        return PoliceClearance.builder()
+            .clearanceNumber(clearanceNumber)
+            .livestock(livestock)
+            .owner(owner)
+            .clearanceDate(LocalDateTime.of(2026, 3, 1, 9, 30))
+            .expiryDate(LocalDate.of(2026, 3, 15))
+            .build();
+    }
+
+    /**
+     * Text of each page of the PDF
+     */
+    private static List<String> pages(byte[] data) throws IOException {
+        List<String> pages = new ArrayList<>();
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(data)))) {
+            for (int i = 1; i <= pdf.getNumberOfPages(); i++) {
+                pages.add(PdfTextExtractor.getTextFromPage(pdf.getPage(i)));
+            }
+        }
+        return pages;
+    }
+}
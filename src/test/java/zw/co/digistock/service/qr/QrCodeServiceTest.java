@@ -0,0 +1,115 @@
+package zw.co.digistock.service.qr;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import zw.co.digistock.config.MinioConfig;
+import zw.co.digistock.domain.enums.QrImageFormat;
+import zw.co.digistock.exception.BusinessException;
+import zw.co.digistock.repository.MovementPermitRepository;
+import zw.co.digistock.repository.PoliceClearanceRepository;
+import zw.co.digistock.service.qr.QrCodeService.QrImage;
+import zw.co.digistock.service.storage.MinioStorageService;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for QrCodeService: rendered images are cached, and stored images are not uploaded again
+ */
+@DisplayName("QR Code Service Tests")
+class QrCodeServiceTest {
+
+    private static final String CONTENT = "DS1.permit.MP-2026-000042.ZW-QR-000001.signature";
+    private static final String BUCKET = "digistock-qr-codes";
+
+    private MinioStorageService minioStorageService;
+    private QrRenderer qrRenderer;
+    private QrCodeService qrCodeService;
+
+    @BeforeEach
+    void setUp() {
+        minioStorageService = mock(MinioStorageService.class);
+        qrRenderer = spy(new QrRenderer());
+        MinioConfig minioConfig = new MinioConfig();
+        minioConfig.setBuckets(Map.of("qr-codes", BUCKET));
+
+        qrCodeService = new QrCodeService(minioStorageService, minioConfig, mock(QrPayloadSigner.class), qrRenderer,
+            mock(MovementPermitRepository.class), mock(PoliceClearanceRepository.class),
+            new SimpleMeterRegistry(), 16 * 1024 * 1024);
+        ReflectionTestUtils.setField(qrCodeService, "qrCodeSize", 300);
+    }
+
+    @Test
+    @DisplayName("the same content, format and size returns the cached bytes and hash")
+    void testRenderQrCode_Cached() {
+        QrImage first = qrCodeService.renderQrCode(CONTENT, QrImageFormat.PNG, 300);
+        QrImage second = qrCodeService.renderQrCode(CONTENT, QrImageFormat.PNG, 300);
+
+        assertSame(first.getData(), second.getData());
+        assertEquals(first.getHash(), second.getHash());
+        verify(qrRenderer, times(1)).render(CONTENT, QrImageFormat.PNG, 300);
+    }
+
+    @Test
+    @DisplayName("a different format or size is rendered separately under its own hash")
+    void testRenderQrCode_KeyedByFormatAndSize() {
+        QrImage png = qrCodeService.renderQrCode(CONTENT, QrImageFormat.PNG, 300);
+        QrImage svg = qrCodeService.renderQrCode(CONTENT, QrImageFormat.SVG, 300);
+        QrImage larger = qrCodeService.renderQrCode(CONTENT, QrImageFormat.PNG, 600);
+
+        assertNotEquals(png.getHash(), svg.getHash());
+        assertNotEquals(png.getHash(), larger.getHash());
+        verify(qrRenderer, times(3)).render(eq(CONTENT), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("sizes outside the allowed range are rejected")
+    void testRenderQrCode_SizeOutOfRange() {
+        assertThrows(BusinessException.class, () -> qrCodeService.renderQrCode(CONTENT, QrImageFormat.PNG, 10));
+        assertThrows(BusinessException.class, () -> qrCodeService.renderQrCode(CONTENT, QrImageFormat.PNG, 5000));
+    }
+
+    @Test
+    @DisplayName("a second upload of the same content is skipped")
+    void testGenerateAndUploadQrCode_UploadedOnce() {
+        when(minioStorageService.objectExists(eq(BUCKET), anyString())).thenReturn(false);
+        when(minioStorageService.uploadBytes(any(), eq(BUCKET), anyString(), eq("image/png")))
+            .thenAnswer(invocation -> "minio://" + BUCKET + "/" + invocation.getArgument(2));
+
+        String first = qrCodeService.generateAndUploadQrCode(CONTENT, "permit", "MP-2026-000042");
+        String second = qrCodeService.generateAndUploadQrCode(CONTENT, "permit", "MP-2026-000042");
+
+        assertEquals(first, second);
+        verify(minioStorageService, times(1)).objectExists(eq(BUCKET), anyString());
+        verify(minioStorageService, times(1)).uploadBytes(any(), eq(BUCKET), anyString(), eq("image/png"));
+    }
+
+    @Test
+    @DisplayName("an image already in the bucket is referenced, not uploaded")
+    void testGenerateAndUploadQrCode_AlreadyStored() {
+        when(minioStorageService.objectExists(eq(BUCKET), anyString())).thenReturn(true);
+        String hash = qrCodeService.renderQrCode(CONTENT, QrImageFormat.PNG, 300).getHash();
+
+        String reference = qrCodeService.generateAndUploadQrCode(CONTENT, "permit", "MP-2026-000042");
+
+        assertEquals("minio://" + BUCKET + "/permit/" + hash + ".png", reference);
+        verify(minioStorageService, never()).uploadBytes(any(), anyString(), anyString(), anyString());
+    }
+}
@@ -0,0 +1,205 @@
+package zw.co.digistock.service.qr;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import zw.co.digistock.config.QrSigningConfig;
+import zw.co.digistock.domain.Livestock;
+import zw.co.digistock.domain.Owner;
+import zw.co.digistock.domain.PermitAnimal;
+import zw.co.digistock.domain.PoliceClearance;
+import zw.co.digistock.domain.enums.QrVerificationStatus;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for SignedQrPayload's wire format and QrPayloadSigner
+ */
+@DisplayName("QR Payload Signer Tests")
+class QrPayloadSignerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    private QrSigningConfig config;
+    private QrPayloadSigner signer;
+    private PoliceClearance clearance;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        config = new QrSigningConfig();
+        config.setActiveKeyId("2026a");
+        config.getKeys().put("2026a", key(KeyPairGenerator.getInstance("Ed25519").generateKeyPair()));
+        signer = new QrPayloadSigner(config);
+        signer.loadKeys();
+
+        Owner owner = Owner.builder().id(UUID.randomUUID()).build();
+        Livestock livestock = Livestock.builder().id(UUID.randomUUID()).tagCode("ZW-QR-000001").owner(owner).build();
+        clearance = PoliceClearance.builder()
+            .clearanceNumber("PC-2026-000042")
+            .livestock(livestock)
+            .owner(owner)
+            .clearanceDate(LocalDateTime.of(2026, 3, 1, 9, 30))
+            .expiryDate(LocalDate.of(2026, 3, 15))
+            .build();
+    }
+
+    @Test
+    @DisplayName("encode and decode round-trip every field and the signature")
+    void testEncodeDecode_RoundTrip() {
+        byte[] digest = new byte[SignedQrPayload.DIGEST_LENGTH];
+        for (int i = 0; i < digest.length; i++) {
+            digest[i] = (byte) (i * 17);
+        }
+        byte[] signature = new byte[SignedQrPayload.SIGNATURE_LENGTH];
+        signature[0] = 1;
+        signature[63] = (byte) 0xff;
+        SignedQrPayload payload = new SignedQrPayload(SignedQrPayload.DocumentType.HERD_PERMIT, "2026a",
+            "MP-2026-ÄÖ", "12", LocalDate.of(2026, 1, 31), LocalDate.of(2026, 2, 6), digest);
+
+        String text = payload.encode(signature);
+        SignedQrPayload.Decoded decoded = SignedQrPayload.decode(text);
+
+        assertTrue(text.startsWith(SignedQrPayload.PREFIX));
+        SignedQrPayload read = decoded.getPayload();
+        assertEquals(SignedQrPayload.DocumentType.HERD_PERMIT, read.getType());
+        assertEquals("2026a", read.getKeyId());
+        assertEquals("MP-2026-ÄÖ", read.getDocumentNumber());
+        assertEquals("12", read.getLivestockTag());
+        assertEquals(LocalDate.of(2026, 1, 31), read.getValidFrom());
+        assertEquals(LocalDate.of(2026, 2, 6), read.getValidUntil());
+        assertArrayEquals(digest, read.getSubjectDigest());
+        assertArrayEquals(payload.signedBytes(), decoded.getSignedBytes());
+        assertArrayEquals(signature, decoded.getSignature());
+    }
+
+    @Test
+    @DisplayName("decode rejects text that is not a well-formed payload")
+    void testDecode_Malformed() {
+        assertThrows(IllegalArgumentException.class, () -> SignedQrPayload.decode("https://example.com"));
+        assertThrows(IllegalArgumentException.class, () -> SignedQrPayload.decode(SignedQrPayload.PREFIX + "AAAA"));
+
+        String text = signer.signClearance(clearance);
+        byte[] all = Base64.getUrlDecoder().decode(text.substring(SignedQrPayload.PREFIX.length()));
+        byte[] extended = new byte[all.length + 1];
+        System.arraycopy(all, 0, extended, 0, all.length - SignedQrPayload.SIGNATURE_LENGTH);
+        System.arraycopy(all, all.length - SignedQrPayload.SIGNATURE_LENGTH, extended,
+            extended.length - SignedQrPayload.SIGNATURE_LENGTH, SignedQrPayload.SIGNATURE_LENGTH);
+        assertEquals(QrVerificationStatus.MALFORMED, signer.verify(reencode(extended), TODAY).getStatus());
+    }
+
+    @Test
+    @DisplayName("A signed clearance verifies within its dates")
+    void testVerify_Valid() {
+        String text = signer.signClearance(clearance);
+
+        QrPayloadSigner.Verification verification = signer.verify(text, TODAY);
+
+        assertEquals(QrVerificationStatus.VALID, verification.getStatus());
+        assertEquals("PC-2026-000042", verification.getPayload().getDocumentNumber());
+        assertArrayEquals(QrPayloadSigner.subjectDigest(clearance.getLivestock().getId(), "ZW-QR-000001",
+            clearance.getOwner().getId()), verification.getPayload().getSubjectDigest());
+        assertEquals(QrVerificationStatus.NOT_YET_VALID, signer.verify(text, LocalDate.of(2026, 2, 28)).getStatus());
+        assertEquals(QrVerificationStatus.EXPIRED, signer.verify(text, LocalDate.of(2026, 3, 16)).getStatus());
+    }
+
+    @Test
+    @DisplayName("A changed signature or signed byte is rejected")
+    void testVerify_Tampered() {
+        byte[] all = Base64.getUrlDecoder().decode(signer.signClearance(clearance).substring(SignedQrPayload.PREFIX.length()));
+
+        byte[] badSignature = all.clone();
+        badSignature[all.length - 1] ^= 0x01;
+        assertEquals(QrVerificationStatus.INVALID_SIGNATURE, signer.verify(reencode(badSignature), TODAY).getStatus());
+
+        // Move the expiry date one day later
+        byte[] badBody = all.clone();
+        int validUntilLast = all.length - SignedQrPayload.SIGNATURE_LENGTH - SignedQrPayload.DIGEST_LENGTH - 1;
+        badBody[validUntilLast]++;
+        QrPayloadSigner.Verification verification = signer.verify(reencode(badBody), TODAY);
+        assertEquals(QrVerificationStatus.INVALID_SIGNATURE, verification.getStatus());
+        assertEquals(LocalDate.of(2026, 3, 16), verification.getPayload().getValidUntil());
+    }
+
+    @Test
+    @DisplayName("Codes signed with a retired key verify only while its public key is listed")
+    void testVerify_KeyRotation() throws Exception {
+        String oldText = signer.signClearance(clearance);
+
+        QrSigningConfig rotated = new QrSigningConfig();
+        rotated.setActiveKeyId("2026b");
+        rotated.getKeys().put("2026b", key(KeyPairGenerator.getInstance("Ed25519").generateKeyPair()));
+        QrPayloadSigner withoutOld = new QrPayloadSigner(rotated);
+        withoutOld.loadKeys();
+        assertEquals(QrVerificationStatus.UNKNOWN_KEY, withoutOld.verify(oldText, TODAY).getStatus());
+
+        QrSigningConfig.Key retired = new QrSigningConfig.Key();
+        retired.setPublicKey(config.getKeys().get("2026a").getPublicKey());
+        rotated.getKeys().put("2026a", retired);
+        QrPayloadSigner withOld = new QrPayloadSigner(rotated);
+        withOld.loadKeys();
+        assertEquals(QrVerificationStatus.VALID, withOld.verify(oldText, TODAY).getStatus());
+        assertEquals("2026b", withOld.getPublicKeys().get(0).getKeyId());
+    }
+
+    @Test
+    @DisplayName("Startup fails without a signing key unless a throwaway key is allowed")
+    void testLoadKeys_NoActiveKey() {
+        QrSigningConfig empty = new QrSigningConfig();
+        assertThrows(IllegalStateException.class, () -> new QrPayloadSigner(empty).loadKeys());
+
+        empty.setAllowEphemeralKey(true);
+        QrPayloadSigner ephemeral = new QrPayloadSigner(empty);
+        ephemeral.loadKeys();
+        assertEquals(QrVerificationStatus.VALID, ephemeral.verify(ephemeral.signClearance(clearance), TODAY).getStatus());
+    }
+
+    @Test
+    @DisplayName("Herd digest covers every animal and owner, whatever order they are listed in")
+    void testHerdDigest() {
+        Owner owner = Owner.builder().id(UUID.fromString("00000000-0000-0000-0000-000000000001")).build();
+        Livestock first = Livestock.builder()
+            .id(UUID.fromString("00000000-0000-0000-0000-00000000000a")).tagCode("ZW-HD-000001").owner(owner).build();
+        Livestock second = Livestock.builder()
+            .id(UUID.fromString("00000000-0000-0000-0000-00000000000b")).tagCode("ZW-HD-000002").owner(owner).build();
+
+        byte[] digest = QrPayloadSigner.herdDigest(List.of(onPermit(second), onPermit(first)));
+
+        assertEquals(SignedQrPayload.DIGEST_LENGTH, digest.length);
+        assertArrayEquals(digest, QrPayloadSigner.herdDigest(List.of(onPermit(first), onPermit(second))));
+        // One animal per line, sorted by tag, as documented on SignedQrPayload
+        assertArrayEquals(QrPayloadSigner.subjectDigest(first.getId(), "ZW-HD-000001", owner.getId()),
+            QrPayloadSigner.herdDigest(List.of(onPermit(first))));
+        assertFalse(Arrays.equals(digest, QrPayloadSigner.herdDigest(List.of(onPermit(first)))));
+
+        second.setOwner(Owner.builder().id(UUID.fromString("00000000-0000-0000-0000-000000000002")).build());
+        assertFalse(Arrays.equals(digest, QrPayloadSigner.herdDigest(List.of(onPermit(first), onPermit(second)))));
+    }
+
+    private static PermitAnimal onPermit(Livestock livestock) {
+        return PermitAnimal.builder().livestock(livestock).build();
+    }
+
+    private static QrSigningConfig.Key key(KeyPair pair) {
+        QrSigningConfig.Key key = new QrSigningConfig.Key();
+        key.setPrivateKey(Base64.getEncoder().encodeToString(pair.getPrivate().getEncoded()));
+        key.setPublicKey(Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()));
+        return key;
+    }
+
+    private static String reencode(byte[] all) {
+        return SignedQrPayload.PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(all);
+    }
+}
@@ -0,0 +1,94 @@
+package zw.co.digistock.service.qr;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import zw.co.digistock.domain.enums.QrImageFormat;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for QrRenderer: both formats decode back to the content they were given
+ */
+@DisplayName("QR Renderer Tests")
+class QrRendererTest {
+
+    private static final String CONTENT = "DS1.permit.MP-2026-000042.ZW-QR-000001.signature";
+
+    private static final Pattern VIEW_BOX = Pattern.compile("viewBox=\"0 0 (\\d+) (\\d+)\"");
+    private static final Pattern RUN = Pattern.compile("M(\\d+) (\\d+)h(\\d+)v1h-\\d+z");
+
+    /**
+     * Pixels per module when rasterising an SVG
+     */
+    private static final int SCALE = 4;
+
+    private final QrRenderer renderer = new QrRenderer();
+
+    @Test
+    @DisplayName("PNG is the requested size and decodes to the content")
+    void testRender_Png() throws Exception {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(renderer.render(CONTENT, QrImageFormat.PNG, 300)));
+
+        assertEquals(300, image.getWidth());
+        assertEquals(300, image.getHeight());
+        assertEquals(CONTENT, decode(image));
+    }
+
+    @Test
+    @DisplayName("SVG path decodes to the content")
+    void testRender_Svg() throws Exception {
+        String svg = new String(renderer.render(CONTENT, QrImageFormat.SVG, 300), StandardCharsets.UTF_8);
+
+        assertTrue(svg.contains("width=\"300\" height=\"300\""), svg);
+        assertEquals(CONTENT, decode(rasterise(svg)));
+    }
+
+    /**
+     * Draw the SVG's runs of dark modules onto a white image
+     */
+    private static BufferedImage rasterise(String svg) {
+        Matcher viewBox = VIEW_BOX.matcher(svg);
+        assertTrue(viewBox.find(), svg);
+        int width = Integer.parseInt(viewBox.group(1));
+        int height = Integer.parseInt(viewBox.group(2));
+
+        BufferedImage image = new BufferedImage(width * SCALE, height * SCALE, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            graphics.setColor(Color.BLACK);
+            Matcher run = RUN.matcher(svg);
+            while (run.find()) {
+                graphics.fillRect(Integer.parseInt(run.group(1)) * SCALE, Integer.parseInt(run.group(2)) * SCALE,
+                    Integer.parseInt(run.group(3)) * SCALE, SCALE);
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    private static String decode(BufferedImage image) throws Exception {
+        LuminanceSource source = new BufferedImageLuminanceSource(image);
+        return new QRCodeReader().decode(new BinaryBitmap(new HybridBinarizer(source)),
+            Map.of(DecodeHintType.TRY_HARDER, Boolean.TRUE)).getText();
+    }
+}
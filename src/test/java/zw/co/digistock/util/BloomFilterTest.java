@@ -0,0 +1,108 @@
+package zw.co.digistock.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for BloomFilter
+ */
+@DisplayName("BloomFilter")
+class BloomFilterTest {
+
+    private static final String TAG = "ZW-HA-000001";
+    private static final String ID = "0190f3a2-7c4e-7d2a-9b1e-3f5a6c7d8e9f";
+
+    @Test
+    @DisplayName("sizing should follow the standard formulas, rounded up to whole words")
+    void testSizing() {
+        BloomFilter filter = new BloomFilter(10, 0.01);
+
+        // m = -n ln p / (ln 2)^2 = 95.9 bits -> 2 words; k = m / n ln 2 = 8.9
+        assertEquals(128, filter.getBits());
+        assertEquals(9, filter.getHashes());
+    }
+
+    @Test
+    @DisplayName("bit positions and serialized bytes should match vectors computed off the server")
+    void testToByteArray_GoldenVector() {
+        // Computed independently from SHA-256 as documented on BloomFilter
+        List<Integer> tagPositions = List.of(99, 13, 55, 97, 11, 53, 95, 9, 51);
+        List<Integer> idPositions = List.of(70, 11, 80, 21, 90, 31, 100, 41, 110);
+
+        BloomFilter filter = new BloomFilter(10, 0.01);
+        filter.put(TAG);
+        assertEquals(tagPositions.stream().distinct().count(), setBits(filter.toByteArray()).size());
+        assertTrue(setBits(filter.toByteArray()).containsAll(tagPositions));
+
+        filter.put(ID);
+        List<Integer> bits = setBits(filter.toByteArray());
+        assertTrue(bits.containsAll(idPositions));
+        assertEquals(17, bits.size(), "position 11 is shared by both keys");
+        assertArrayEquals(HexFormat.of().parseHex("01090000008000a8020080202a000000401a84010040"), filter.toByteArray());
+    }
+
+    @Test
+    @DisplayName("added keys should always be found")
+    void testMightContain_NoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put(String.format("ZW-HA-%06d", i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain(String.format("ZW-HA-%06d", i)));
+        }
+        assertFalse(new BloomFilter(1000, 0.01).mightContain(TAG));
+    }
+
+    @Test
+    @DisplayName("false positive rate should stay near the configured rate at capacity")
+    void testMightContain_FalsePositiveRate() {
+        int keys = 10_000;
+        BloomFilter filter = new BloomFilter(keys, 0.01);
+        for (int i = 0; i < keys; i++) {
+            filter.put(UUID.nameUUIDFromBytes(("stolen-" + i).getBytes()).toString());
+        }
+
+        int probes = 100_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(String.format("ZW-MA-%07d", i))) {
+                falsePositives++;
+            }
+        }
+
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate > 0.005 && rate < 0.015, "false positive rate " + rate);
+    }
+
+    /**
+     * Positions of the set bits in a serialized filter, in the documented word layout
+     */
+    private static List<Integer> setBits(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        assertEquals(BloomFilter.FORMAT_VERSION, buffer.get());
+        buffer.get();
+        int bits = buffer.getInt();
+        List<Integer> set = new ArrayList<>();
+        for (int word = 0; word < bits / Long.SIZE; word++) {
+            long value = buffer.getLong();
+            for (int bit = 0; bit < Long.SIZE; bit++) {
+                if (((value >>> bit) & 1) != 0) {
+                    set.add(word * Long.SIZE + bit);
+                }
+            }
+        }
+        return set;
+    }
+}
@@ -0,0 +1,70 @@
+package zw.co.digistock.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for GeoHash
+ */
+@DisplayName("GeoHash")
+class GeoHashTest {
+
+    @Test
+    @DisplayName("encode should match published geohash values")
+    void testEncode_KnownValues() {
+        assertEquals("u4pruydqqvj", GeoHash.encode(57.64911, 10.40744, 11));
+        assertEquals("ezs42", GeoHash.encode(42.605, -5.603, 5));
+        assertEquals(GeoHash.DEFAULT_PRECISION, GeoHash.encode(-18.9707, 32.6709).length());
+    }
+
+    @Test
+    @DisplayName("coveringCells should not go finer than the stored precision")
+    void testCoveringCells_TinyBox() {
+        // A box about 2 m across is inside one 9-character cell
+        GeoHash.BoundingBox box = new GeoHash.BoundingBox(-18.97071, 32.67089, -18.97069, 32.67091);
+
+        List<String> cells = GeoHash.coveringCells(box, 16);
+
+        assertTrue(cells.stream().allMatch(cell -> cell.length() <= GeoHash.DEFAULT_PRECISION));
+        String stored = GeoHash.encode(-18.9707, 32.6709);
+        assertTrue(cells.stream().anyMatch(stored::startsWith));
+    }
+
+    @Test
+    @DisplayName("coveringCells should cover every corner of the box within the cell limit")
+    void testCoveringCells_CoversCorners() {
+        GeoHash.BoundingBox box = GeoHash.boundingBox(-18.9617, 32.6709, 10);
+
+        List<String> cells = GeoHash.coveringCells(box, 16);
+
+        assertTrue(!cells.isEmpty() && cells.size() <= 16);
+        for (double[] corner : new double[][]{
+                {box.getMinLatitude(), box.getMinLongitude()}, {box.getMinLatitude(), box.getMaxLongitude()},
+                {box.getMaxLatitude(), box.getMinLongitude()}, {box.getMaxLatitude(), box.getMaxLongitude()}}) {
+            String hash = GeoHash.encode(corner[0], corner[1]);
+            assertTrue(cells.stream().anyMatch(hash::startsWith), "corner " + hash + " not covered by " + cells);
+        }
+    }
+
+    @Test
+    @DisplayName("coveringCells should give up on boxes too large to cover")
+    void testCoveringCells_WholeWorld() {
+        assertTrue(GeoHash.coveringCells(new GeoHash.BoundingBox(-90, -180, 90, 180), 16).isEmpty());
+    }
+
+    @Test
+    @DisplayName("distanceKm and boundingBox should agree")
+    void testDistanceAndBoundingBox() {
+        // One degree of latitude is about 111.2 km
+        assertEquals(111.2, GeoHash.distanceKm(-18, 32, -19, 32), 0.1);
+
+        GeoHash.BoundingBox box = GeoHash.boundingBox(-18.9617, 32.6709, 10);
+        assertEquals(10, GeoHash.distanceKm(-18.9617, 32.6709, box.getMaxLatitude(), 32.6709), 0.01);
+        assertEquals(10, GeoHash.distanceKm(-18.9617, 32.6709, -18.9617, box.getMaxLongitude()), 0.05);
+    }
+}
@@ -0,0 +1,10 @@
+-- Tables created by Liquibase changesets that have no JPA entity (ddl-auto only creates entity tables)
+CREATE TABLE IF NOT EXISTS scheduler_leases (
+    name VARCHAR(100) PRIMARY KEY,
+    owner VARCHAR(255) NOT NULL,
+    locked_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    locked_until TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- PostgreSQL's clock_timestamp() (time of the call, not of the transaction start), used as a column default
+CREATE ALIAS IF NOT EXISTS CLOCK_TIMESTAMP AS 'java.time.OffsetDateTime clockTimestamp() { return java.time.OffsetDateTime.now(); }';